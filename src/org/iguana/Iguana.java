@@ -6,6 +6,8 @@ import org.iguana.generator.ide.GeneratePsiElements;
 import org.iguana.generator.parser.ParseTreeVisitorGenerator;
 import org.iguana.generator.parser.ParserGenerator;
 import org.iguana.grammar.Grammar;
+import org.iguana.grammar.GrammarGraphSnapshot;
+import org.iguana.grammar.transformation.GrammarTransformer;
 import org.iguana.iggy.IggyParserUtils;
 import org.iguana.util.serialization.JsonSerializer;
 import picocli.CommandLine;
@@ -14,6 +16,7 @@ import picocli.CommandLine.Command;
 import picocli.CommandLine.Option;
 
 import java.io.File;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.concurrent.Callable;
@@ -29,6 +32,7 @@ public class Iguana implements Callable<Integer> {
         @Option(names = "--generate-grammar") boolean generateGrammar;
         @Option(names = "--generate-types") boolean generateTypes;
         @Option(names = "--generate-ide") boolean generateIDE;
+        @Option(names = "--generate-snapshot") boolean generateSnapshot;
     }
 
     @Option(names = {"--name", "-n"}, description = "The grammar name", defaultValue = "grammar")
@@ -79,6 +83,14 @@ public class Iguana implements Callable<Integer> {
             generator.generate();
         }
 
+        if (command.generateSnapshot) {
+            Path snapshotPath = grammarOutputDirectory.resolve(grammarName + ".snapshot").toAbsolutePath();
+            try (OutputStream out = Files.newOutputStream(snapshotPath)) {
+                GrammarGraphSnapshot.write(GrammarTransformer.transform(grammar.toRuntimeGrammar()), out);
+            }
+            System.out.println("Grammar graph snapshot has been generated in " + snapshotPath);
+        }
+
         if (command.generateIDE) {
             GenerateLangFiles generateLangFiles = new GenerateLangFiles(grammarName,
                 outputDirectory.toAbsolutePath().toString());
@@ -153,6 +153,10 @@ public abstract class Expression extends AbstractAST {
             this.value = value;
         }
 
+        public float getValue() {
+            return value;
+        }
+
         @Override
         public Object interpret(IEvaluatorContext ctx, Input input) {
             return value;
@@ -199,6 +203,10 @@ public abstract class Expression extends AbstractAST {
             return true;
         }
 
+        public java.lang.String getValue() {
+            return value;
+        }
+
         @Override
         public Object interpret(IEvaluatorContext ctx, Input input) {
             return value;
@@ -399,6 +407,10 @@ public abstract class Expression extends AbstractAST {
             return name;
         }
 
+        public int getI() {
+            return i;
+        }
+
         @Override
         public Object interpret(IEvaluatorContext ctx, Input input) {
             Object value = i != -1 ? ctx.lookupVariable(i) : ctx.lookupVariable(name);
@@ -504,6 +516,10 @@ public abstract class Expression extends AbstractAST {
             return id;
         }
 
+        public int getI() {
+            return i;
+        }
+
         public Expression getExpression() {
             return exp;
         }
@@ -723,6 +739,10 @@ public abstract class Expression extends AbstractAST {
             return lExt;
         }
 
+        public boolean isReturnIndex() {
+            return returnIndex;
+        }
+
         @Override
         public Object interpret(IEvaluatorContext ctx, Input input) {
             int first = (java.lang.Integer) this.first.interpret(ctx, input);
@@ -1268,6 +1288,10 @@ public abstract class Expression extends AbstractAST {
             return label;
         }
 
+        public int getI() {
+            return i;
+        }
+
         @Override
         public Object interpret(IEvaluatorContext ctx, Input input) {
             Object value = i == -1 ? ctx.lookupVariable(label) : ctx.lookupVariable(i);
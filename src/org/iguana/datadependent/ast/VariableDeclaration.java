@@ -63,6 +63,10 @@ public class VariableDeclaration extends AbstractAST {
         return name;
     }
 
+    public int getI() {
+        return i;
+    }
+
     public Expression getExpression() {
         return expression;
     }
@@ -5,24 +5,29 @@ import java.util.Deque;
 
 public class EnvironmentPool {
 
-    @SuppressWarnings({"rawtypes", "unchecked"})
-    static Deque<Environment>[] environmentPools = new ArrayDeque[3];
+    // The pools are kept per thread, as parsers sharing a grammar graph can run concurrently.
+    private static final ThreadLocal<Deque<Environment>[]> environmentPools =
+        ThreadLocal.withInitial(EnvironmentPool::createPools);
 
-    static {
-        for (int i = 0; i < environmentPools.length; i++) {
-            environmentPools[i] = new ArrayDeque<>(1000);
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static Deque<Environment>[] createPools() {
+        Deque<Environment>[] pools = new ArrayDeque[3];
+        for (int i = 0; i < pools.length; i++) {
+            pools[i] = new ArrayDeque<>(1000);
         }
+        return pools;
     }
 
     public static void clean() {
-        for (int i = 0; i < environmentPools.length; i++) {
-            environmentPools[i].clear();
+        Deque<Environment>[] pools = environmentPools.get();
+        for (int i = 0; i < pools.length; i++) {
+            pools[i].clear();
         }
     }
 
     public static Environment get(int size) {
         if (size >= 1 && size <= 3) {
-            Deque<Environment> environmentPool = environmentPools[size - 1];
+            Deque<Environment> environmentPool = environmentPools.get()[size - 1];
             if (!environmentPool.isEmpty()) {
                 return environmentPool.pop();
             }
@@ -33,7 +38,7 @@ public class EnvironmentPool {
     public static void returnToPool(Environment env) {
         int size = env.size();
         if (size >= 1 && size <= 3) {
-            environmentPools[size - 1].push(env);
+            environmentPools.get()[size - 1].push(env);
         }
     }
 }
@@ -0,0 +1,241 @@
+package org.iguana.grammar;
+
+import org.iguana.grammar.runtime.RuntimeGrammar;
+import org.iguana.grammar.transformation.GrammarTransformer;
+import org.iguana.util.Configuration;
+import org.iguana.util.serialization.JsonSerializer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A cache of transformed runtime grammars and grammar graphs, so that parsers created repeatedly for the same
+ * grammar, e.g., per request in a service, do not run the grammar transformations and build the grammar graph each
+ * time. The entries are keyed by the SHA-256 hash of the JSON of the grammar, so equal grammars that are different
+ * objects share the entries, and the grammar graphs additionally by the configuration.
+ *
+ * The cache keeps at most maximumSize grammars and maximumSize grammar graphs in memory and evicts the least
+ * recently used ones. If a directory is given, the transformed grammars are also stored there as
+ * {@link GrammarGraphSnapshot}s, and are shared between processes. Grammar graphs are immutable during parsing, so
+ * the cached ones can be used by several parsers at the same time.
+ */
+public class GrammarCache {
+
+    private final Path directory;
+
+    private final Map<String, GrammarGraphSnapshot> grammars;
+
+    private final Map<GraphKey, GrammarGraph> graphs;
+
+    private volatile GrammarKey lastKey;
+
+    private int hits;
+
+    private int misses;
+
+    public GrammarCache(int maximumSize) {
+        this(maximumSize, null);
+    }
+
+    public GrammarCache(int maximumSize, Path directory) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("The maximum size of the cache should be positive: " + maximumSize);
+        }
+        this.directory = directory;
+        this.grammars = new LruMap<>(maximumSize);
+        this.graphs = new LruMap<>(maximumSize);
+    }
+
+    /**
+     * Returns the grammar after the transformations of {@link GrammarTransformer}.
+     */
+    public RuntimeGrammar getRuntimeGrammar(Grammar grammar) {
+        return getSnapshot(getKey(grammar), grammar).getGrammar();
+    }
+
+    public GrammarGraph getGrammarGraph(Grammar grammar, Configuration config) {
+        GraphKey key = new GraphKey(getKey(grammar), config);
+        synchronized (this) {
+            GrammarGraph grammarGraph = graphs.get(key);
+            if (grammarGraph != null) {
+                hits++;
+                return grammarGraph;
+            }
+            misses++;
+        }
+        // Built outside the lock, two threads may build the same graph, and the first one is kept
+        GrammarGraph grammarGraph = getSnapshot(key.hash, grammar).toGrammarGraph(config);
+        synchronized (this) {
+            GrammarGraph existing = graphs.putIfAbsent(key, grammarGraph);
+            return existing != null ? existing : grammarGraph;
+        }
+    }
+
+    /**
+     * The number of grammar graphs that were found in the cache.
+     */
+    public synchronized int getHits() {
+        return hits;
+    }
+
+    /**
+     * The number of grammar graphs that were not found in the cache and were built.
+     */
+    public synchronized int getMisses() {
+        return misses;
+    }
+
+    public synchronized void clear() {
+        grammars.clear();
+        graphs.clear();
+    }
+
+    private GrammarGraphSnapshot getSnapshot(String hash, Grammar grammar) {
+        synchronized (this) {
+            GrammarGraphSnapshot snapshot = grammars.get(hash);
+            if (snapshot != null) {
+                return snapshot;
+            }
+        }
+        GrammarGraphSnapshot snapshot = directory == null ? null : readSnapshot(hash);
+        if (snapshot == null) {
+            RuntimeGrammar runtimeGrammar = GrammarTransformer.transform(grammar.toRuntimeGrammar());
+            if (directory != null) {
+                writeSnapshot(hash, runtimeGrammar);
+            }
+            snapshot = new GrammarGraphSnapshot(runtimeGrammar, Collections.emptyMap());
+        }
+        synchronized (this) {
+            GrammarGraphSnapshot existing = grammars.putIfAbsent(hash, snapshot);
+            return existing != null ? existing : snapshot;
+        }
+    }
+
+    /**
+     * Returns null if there is no snapshot of the grammar in the directory, or it cannot be read, e.g., because it
+     * was written by another version.
+     */
+    private GrammarGraphSnapshot readSnapshot(String hash) {
+        Path path = directory.resolve(hash + ".snapshot");
+        if (!Files.exists(path)) {
+            return null;
+        }
+        try (InputStream in = Files.newInputStream(path)) {
+            return GrammarGraphSnapshot.read(in);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Stores the snapshot of the grammar in the directory. As with reading, a snapshot that cannot be written, e.g.,
+     * because the directory is read-only or full, is not an error: the grammar stays cached in memory only.
+     */
+    private void writeSnapshot(String hash, RuntimeGrammar grammar) {
+        Path tempFile = null;
+        try {
+            Files.createDirectories(directory);
+            // Written to a temporary file first, so other processes never read a partially written snapshot
+            tempFile = Files.createTempFile(directory, hash, ".tmp");
+            try (OutputStream out = Files.newOutputStream(tempFile)) {
+                GrammarGraphSnapshot.write(grammar, out);
+            }
+            Files.move(tempFile, directory.resolve(hash + ".snapshot"), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            deleteTempFile(tempFile);
+        }
+    }
+
+    private static void deleteTempFile(Path tempFile) {
+        if (tempFile == null) return;
+        try {
+            Files.deleteIfExists(tempFile);
+        } catch (IOException e) {
+            // The temporary file is left behind, and is never read as a snapshot
+        }
+    }
+
+    private String getKey(Grammar grammar) {
+        // Hashing the JSON of a large grammar takes a few milliseconds, and a recognizer asks for the runtime grammar
+        // and the grammar graph of the same grammar object one after another
+        GrammarKey key = lastKey;
+        if (key != null && key.grammar == grammar) {
+            return key.hash;
+        }
+        String hash = hash(grammar);
+        lastKey = new GrammarKey(grammar, hash);
+        return hash;
+    }
+
+    private static String hash(Grammar grammar) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] bytes = digest.digest(JsonSerializer.serialize(grammar).getBytes(StandardCharsets.UTF_8));
+            return String.format("%064x", new BigInteger(1, bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static class GrammarKey {
+        private final Grammar grammar;
+        private final String hash;
+
+        GrammarKey(Grammar grammar, String hash) {
+            this.grammar = grammar;
+            this.hash = hash;
+        }
+    }
+
+    private static class GraphKey {
+        private final String hash;
+        private final Configuration config;
+
+        GraphKey(String hash, Configuration config) {
+            this.hash = hash;
+            this.config = config;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (!(obj instanceof GraphKey)) return false;
+            GraphKey other = (GraphKey) obj;
+            return hash.equals(other.hash) && config.equals(other.config);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(hash, config);
+        }
+    }
+
+    private static class LruMap<K, V> extends LinkedHashMap<K, V> {
+        private static final long serialVersionUID = 1L;
+
+        private final int maximumSize;
+
+        LruMap(int maximumSize) {
+            super(16, 0.75f, true);
+            this.maximumSize = maximumSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            return size() > maximumSize;
+        }
+    }
+}
@@ -8,6 +8,7 @@ import org.iguana.grammar.slot.TerminalGrammarSlot;
 import org.iguana.grammar.symbol.Nonterminal;
 import org.iguana.grammar.symbol.Terminal;
 import org.iguana.regex.matcher.DFAMatcherFactory;
+import org.iguana.regex.matcher.TokenScanner;
 
 import java.util.List;
 import java.util.Map;
@@ -16,19 +17,53 @@ import static java.util.stream.Collectors.toList;
 
 public class GrammarGraph {
 
+    // The epsilon slot is shared by all grammar graphs, and therefore always has the first terminal slot id.
     public static final TerminalGrammarSlot epsilonSlot =
-        new TerminalGrammarSlot(Terminal.epsilon(), new DFAMatcherFactory());
+        new TerminalGrammarSlot(0, Terminal.epsilon(), new DFAMatcherFactory());
     private final List<GrammarSlot> slots;
     private final Map<String, Expression> globals;
     private final Map<Nonterminal, NonterminalGrammarSlot> nonterminalsMap;
+    private final int nonterminalSlotsCount;
+    private final int terminalSlotsCount;
+    private final int bodySlotsCount;
+    private final TokenScanner scanner;
+    private GrammarGraphTimings timings;
 
     public GrammarGraph(
             List<GrammarSlot> slots,
             Map<Nonterminal, NonterminalGrammarSlot> nonterminalsMap,
             Map<String, Expression> globals) {
+        this(slots, nonterminalsMap, globals, null);
+    }
+
+    /**
+     * Creates a grammar graph whose terminals are matched by the given scanner, or by their own matchers if the
+     * scanner is null.
+     */
+    public GrammarGraph(
+            List<GrammarSlot> slots,
+            Map<Nonterminal, NonterminalGrammarSlot> nonterminalsMap,
+            Map<String, Expression> globals,
+            TokenScanner scanner) {
         this.slots = slots;
         this.nonterminalsMap = nonterminalsMap;
         this.globals = globals;
+        this.scanner = scanner;
+
+        int nonterminalSlotsCount = 0;
+        int terminalSlotsCount = 0;
+        int bodySlotsCount = 0;
+        for (GrammarSlot slot : slots) {
+            if (slot instanceof NonterminalGrammarSlot)
+                nonterminalSlotsCount = Math.max(nonterminalSlotsCount, slot.getId() + 1);
+            else if (slot instanceof TerminalGrammarSlot)
+                terminalSlotsCount = Math.max(terminalSlotsCount, slot.getId() + 1);
+            else if (slot instanceof BodyGrammarSlot)
+                bodySlotsCount = Math.max(bodySlotsCount, slot.getId() + 1);
+        }
+        this.nonterminalSlotsCount = nonterminalSlotsCount;
+        this.terminalSlotsCount = Math.max(terminalSlotsCount, epsilonSlot.getId() + 1);
+        this.bodySlotsCount = bodySlotsCount;
     }
 
     public List<NonterminalGrammarSlot> getNonterminalGrammarSlots() {
@@ -50,13 +85,39 @@ public class GrammarGraph {
         return nonterminalsMap.get(nonterminal);
     }
 
-    public void clear() {
-        for (GrammarSlot slot : slots) {
-            slot.reset();
-        }
+    public int getNonterminalSlotsCount() {
+        return nonterminalSlotsCount;
+    }
+
+    public int getTerminalSlotsCount() {
+        return terminalSlotsCount;
+    }
+
+    public int getBodySlotsCount() {
+        return bodySlotsCount;
     }
 
     public Map<String, Expression> getGlobals() {
         return globals;
     }
+
+    /**
+     * Returns the scanner that matches all the terminals of this grammar graph at once, or null if the terminals are
+     * matched separately.
+     */
+    public TokenScanner getScanner() {
+        return scanner;
+    }
+
+    /**
+     * Returns the time spent in the phases of building this grammar graph, or null if the grammar graph was not
+     * created by a {@link GrammarGraphBuilder}.
+     */
+    public GrammarGraphTimings getTimings() {
+        return timings;
+    }
+
+    void setTimings(GrammarGraphTimings timings) {
+        this.timings = timings;
+    }
 }
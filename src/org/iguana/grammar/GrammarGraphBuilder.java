@@ -33,7 +33,6 @@ import org.iguana.grammar.condition.Condition;
 import org.iguana.grammar.condition.Conditions;
 import org.iguana.grammar.condition.ConditionsFactory;
 import org.iguana.grammar.exception.IncorrectNumberOfArgumentsException;
-import org.iguana.grammar.operations.FirstFollowSets;
 import org.iguana.grammar.runtime.Position;
 import org.iguana.grammar.runtime.RuntimeGrammar;
 import org.iguana.grammar.runtime.RuntimeRule;
@@ -53,7 +52,6 @@ import org.iguana.grammar.slot.TerminalGrammarSlot;
 import org.iguana.grammar.slot.TerminalTransition;
 import org.iguana.grammar.slot.Transition;
 import org.iguana.grammar.slot.lookahead.FollowTest;
-import org.iguana.grammar.slot.lookahead.RangeTreeFollowTest;
 import org.iguana.grammar.symbol.Code;
 import org.iguana.grammar.symbol.Conditional;
 import org.iguana.grammar.symbol.Error;
@@ -62,46 +60,63 @@ import org.iguana.grammar.symbol.Return;
 import org.iguana.grammar.symbol.Symbol;
 import org.iguana.grammar.symbol.Terminal;
 import org.iguana.grammar.transformation.VarToInt;
-import org.iguana.regex.CharRange;
+import org.iguana.regex.RegularExpression;
+import org.iguana.regex.automaton.Automaton;
+import org.iguana.regex.matcher.BytecodeMatcherFactory;
 import org.iguana.regex.matcher.DFAMatcherFactory;
-import org.iguana.regex.matcher.MatcherFactory;
+import org.iguana.regex.matcher.DenseDFAMatcherFactory;
+import org.iguana.regex.matcher.TokenScanner;
 import org.iguana.util.Configuration;
 import org.iguana.util.Configuration.EnvironmentImpl;
+import org.iguana.util.Configuration.GraphConstructionImpl;
+import org.iguana.util.Configuration.MatcherType;
+import org.iguana.util.Configuration.ScannerImpl;
 import org.iguana.utils.collections.rangemap.RangeMap;
-import org.iguana.utils.collections.rangemap.RangeMapBuilder;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.stream.IntStream;
 
 import static org.iguana.grammar.GrammarGraph.epsilonSlot;
 
 public class GrammarGraphBuilder {
 
-    private static final MatcherFactory matcherFactory = new DFAMatcherFactory();
-
     private final Map<Nonterminal, NonterminalGrammarSlot> nonterminalsMap;
 
     private final Map<Terminal, TerminalGrammarSlot> terminalsMap;
 
     private final List<BodyGrammarSlot> bodyGrammarSlots;
 
-    private FirstFollowSets firstFollow;
+    private GrammarLookAheads lookAheads;
 
     private final RuntimeGrammar grammar;
 
     private final Configuration config;
 
+    private final DFAMatcherFactory matcherFactory;
+
     private final Map<Integer, Map<String, Integer>> mapping;
 
     private Map<String, Integer> current;
 
+    private int currentRule;
+
+    private long firstFollowSetsTime;
+
+    private long matchersTime;
+
+    private long slotsTime;
+
+    private long lookAheadTestsTime;
+
     private GrammarGraphBuilder(RuntimeGrammar grammar, Configuration config) {
         if (config.getEnvImpl() == EnvironmentImpl.ARRAY || config.getEnvImpl() == EnvironmentImpl.INT_ARRAY) {
             // TODO: move this transformation to IguanaRecognizer
@@ -114,41 +129,144 @@ public class GrammarGraphBuilder {
         }
 
         this.config = config;
+        this.matcherFactory = createMatcherFactory(config.getMatcherType());
         this.nonterminalsMap = new LinkedHashMap<>();
         this.terminalsMap = new LinkedHashMap<>();
         this.bodyGrammarSlots = new ArrayList<>();
     }
 
     public static GrammarGraph from(RuntimeGrammar grammar, Configuration config) {
+        return from(grammar, config, Collections.emptyMap());
+    }
+
+    /**
+     * Builds the grammar graph using the given deterministic automata of the terminals, e.g., read from a
+     * {@link GrammarGraphSnapshot}, instead of building the automata again.
+     */
+    public static GrammarGraph from(
+            RuntimeGrammar grammar,
+            Configuration config,
+            Map<RegularExpression, Automaton> automata) {
+        return from(grammar, config, automata, null);
+    }
+
+    /**
+     * Builds the grammar graph using the given automata and lookahead data, e.g., read from a
+     * {@link GrammarGraphSnapshot}. If the lookahead data is null, it is computed from the first and follow sets.
+     */
+    static GrammarGraph from(
+            RuntimeGrammar grammar,
+            Configuration config,
+            Map<RegularExpression, Automaton> automata,
+            GrammarLookAheads lookAheads) {
         GrammarGraphBuilder builder = new GrammarGraphBuilder(grammar, config);
+        automata.forEach(builder.matcherFactory::addAutomaton);
+        builder.lookAheads = lookAheads;
         builder.convert();
         List<GrammarSlot> grammarSlots = new ArrayList<>();
         grammarSlots.addAll(builder.nonterminalsMap.values());
         grammarSlots.addAll(builder.terminalsMap.values());
         grammarSlots.addAll(builder.bodyGrammarSlots);
-        return new GrammarGraph(grammarSlots, builder.nonterminalsMap, grammar.getGlobals());
+
+        long start = System.nanoTime();
+        TokenScanner scanner = builder.createScanner();
+        long scannerTime = System.nanoTime() - start;
+
+        GrammarGraph grammarGraph = new GrammarGraph(grammarSlots, builder.nonterminalsMap, grammar.getGlobals(),
+            scanner);
+        grammarGraph.setTimings(new GrammarGraphTimings(builder.firstFollowSetsTime, builder.matchersTime,
+            builder.slotsTime, builder.lookAheadTestsTime, scannerTime));
+        return grammarGraph;
     }
 
     public static GrammarGraph from(RuntimeGrammar grammar) {
         return from(grammar, Configuration.load());
     }
 
+    private static DFAMatcherFactory createMatcherFactory(MatcherType matcherType) {
+        switch (matcherType) {
+            case DENSE_DFA:
+                return new DenseDFAMatcherFactory();
+            case BYTECODE:
+                return new BytecodeMatcherFactory();
+            default:
+                return new DFAMatcherFactory();
+        }
+    }
+
+    private TokenScanner createScanner() {
+        if (config.getScannerImpl() != ScannerImpl.SHARED_DFA) return null;
+
+        Map<Integer, RegularExpression> regularExpressions = new LinkedHashMap<>();
+        for (TerminalGrammarSlot slot : terminalsMap.values()) {
+            if (slot == epsilonSlot) continue;
+            regularExpressions.put(slot.getId(), slot.getTerminal().getRegularExpression());
+        }
+        return new TokenScanner(regularExpressions);
+    }
+
     private void convert() {
-        this.firstFollow = new FirstFollowSets(this.grammar);
+        boolean parallel = config.getGraphConstructionImpl() == GraphConstructionImpl.PARALLEL;
+
+        long start = System.nanoTime();
+        if (lookAheads == null) {
+            lookAheads = GrammarLookAheads.compute(this.grammar, parallel);
+        }
+        if (config.getLookAheadCount() != 0) {
+            lookAheads.createFollowTests();
+        }
+        firstFollowSetsTime = System.nanoTime() - start;
 
+        // The matchers are cached by the matcher factory, and are looked up when the terminal slots are created
+        start = System.nanoTime();
+        Set<RegularExpression> regularExpressions = getTerminalRegularExpressions(grammar);
+        if (parallel) {
+            regularExpressions.parallelStream().forEach(matcherFactory::getMatcher);
+        } else {
+            regularExpressions.forEach(matcherFactory::getMatcher);
+        }
+        matchersTime = System.nanoTime() - start;
+
+        start = System.nanoTime();
         terminalsMap.put(Terminal.epsilon(), epsilonSlot);
 
-        Set<Nonterminal> nonterminals = this.grammar.getNonterminals();
+        List<Nonterminal> nonterminals = new ArrayList<>(this.grammar.getNonterminals());
         nonterminals.forEach(this::getNonterminalSlot);
 
         int i = 0;
         for (RuntimeRule r : this.grammar.getRules()) {
             current = mapping.get(i);
+            currentRule = i;
             convert(r);
             i++;
         }
+        slotsTime = System.nanoTime() - start;
+
+        // The lookahead tests of a nonterminal only read the first and follow sets, and are set on its own slot
+        start = System.nanoTime();
+        IntStream indices = IntStream.range(0, nonterminals.size());
+        (parallel ? indices.parallel() : indices).forEach(j -> setFirstFollowTests(nonterminals.get(j), j));
+        lookAheadTestsTime = System.nanoTime() - start;
+    }
 
-        nonterminals.forEach(this::setFirstFollowTests);
+    /**
+     * Returns the regular expressions of the terminals used in the rules of the grammar, in the order of the rules.
+     */
+    public static Set<RegularExpression> getTerminalRegularExpressions(RuntimeGrammar grammar) {
+        Set<RegularExpression> regularExpressions = new LinkedHashSet<>();
+        for (RuntimeRule rule : grammar.getRules()) {
+            if (rule.getBody() == null) continue;
+            for (Symbol bodySymbol : rule.getBody()) {
+                Symbol symbol = bodySymbol;
+                while (symbol instanceof Code || symbol instanceof Conditional) {
+                    symbol = symbol instanceof Code ? ((Code) symbol).getSymbol() : ((Conditional) symbol).getSymbol();
+                }
+                if (symbol instanceof Terminal) {
+                    regularExpressions.add(((Terminal) symbol).getRegularExpression());
+                }
+            }
+        }
+        return regularExpressions;
     }
 
     public NonterminalGrammarSlot getHead(Nonterminal start) {
@@ -169,44 +287,37 @@ public class GrammarGraphBuilder {
         addRule(nonterminalSlot, rule);
     }
 
-    private void setFirstFollowTests(Nonterminal nonterminal) {
+    /**
+     * Sets the lookahead and follow tests of the nonterminal with the given index in the nonterminals of the grammar.
+     */
+    private void setFirstFollowTests(Nonterminal nonterminal, int index) {
         NonterminalGrammarSlot nonterminalSlot = getNonterminalSlot(nonterminal);
-        nonterminalSlot.setLookAheadTest(getLookAheadTest(nonterminal, nonterminalSlot));
-        nonterminalSlot.setFollowTest(getFollowTest(nonterminal));
+        nonterminalSlot.setLookAheadTest(getLookAheadTest(index, nonterminalSlot));
+        nonterminalSlot.setFollowTest(getFollowTest(index));
     }
 
-    private RangeMap<BodyGrammarSlot> getLookAheadTest(
-            Nonterminal nonterminal,
-            NonterminalGrammarSlot nonterminalSlot) {
+    private RangeMap<BodyGrammarSlot> getLookAheadTest(int nonterminal, NonterminalGrammarSlot nonterminalSlot) {
         if (config.getLookAheadCount() == 0)
             return i -> nonterminalSlot.getFirstSlots();
 
-        List<RuntimeRule> alternatives = grammar.getAlternatives(nonterminal);
-
-        RangeMapBuilder<BodyGrammarSlot> builder = new RangeMapBuilder<>();
-
-        for (int i = 0; i < alternatives.size(); i++) {
-            RuntimeRule rule = alternatives.get(i);
-            BodyGrammarSlot firstSlot = nonterminalSlot.getFirstSlots().get(i);
-            Set<CharRange> set = firstFollow.getPredictionSet(rule, 0);
-            set.forEach(cr -> builder.put(cr, firstSlot));
-        }
-
-        return builder.buildRangeMap();
+        return lookAheads.getLookAheadTest(nonterminal, nonterminalSlot.getFirstSlots());
     }
 
-    private FollowTest getFollowTest(Nonterminal nonterminal) {
+    private FollowTest getFollowTest(int nonterminal) {
         if (config.getLookAheadCount() == 0)
             return FollowTest.DEFAULT;
 
-        return new RangeTreeFollowTest(firstFollow.getFollowSet(nonterminal));
+        return lookAheads.getFollowTest(nonterminal);
     }
 
+    /**
+     * Returns the follow test at the given position of the rule that is being converted.
+     */
     private FollowTest getFollowTest(RuntimeRule rule, int i) {
         if (config.getLookAheadCount() == 0)
             return FollowTest.DEFAULT;
 
-        return new RangeTreeFollowTest(firstFollow.getPredictionSet(rule, i));
+        return lookAheads.getFollowTest(currentRule, i);
     }
 
     private void addRule(NonterminalGrammarSlot head, RuntimeRule rule) {
@@ -321,11 +432,13 @@ public class GrammarGraphBuilder {
             if (i != rule.size() - 1)
                 throw new RuntimeException("Return symbol can only be used at the end of a grammar rule!");
             else {
-                if (rule.size() == 1)
-                    done = new EpsilonGrammarSlot(rule.getPosition(i + 1), head, epsilonSlot,
-                        ConditionsFactory.DEFAULT);
-                else
+                if (rule.size() == 1) {
+                    done = new EpsilonGrammarSlot(bodyGrammarSlots.size(), rule.getPosition(i + 1), head,
+                        epsilonSlot, ConditionsFactory.DEFAULT);
+                    bodyGrammarSlots.add(done);
+                } else {
                     done = getEndSlot(rule, i + 1, rule.getPosition(i + 1), head, null, null, null);
+                }
             }
 
             ReturnTransition transition = new ReturnTransition(symbol.getExpression(), currentSlot, done);
@@ -433,12 +546,12 @@ public class GrammarGraphBuilder {
     }
 
     private TerminalGrammarSlot getTerminalGrammarSlot(Terminal t) {
-        return terminalsMap.computeIfAbsent(t, k -> new TerminalGrammarSlot(t, matcherFactory));
+        return terminalsMap.computeIfAbsent(t, k -> new TerminalGrammarSlot(terminalsMap.size(), t, matcherFactory));
     }
 
     private NonterminalGrammarSlot getNonterminalSlot(Nonterminal nonterminal) {
         NonterminalGrammarSlot ntSlot = nonterminalsMap.computeIfAbsent(nonterminal,
-                k -> new NonterminalGrammarSlot(nonterminal));
+                k -> new NonterminalGrammarSlot(nonterminalsMap.size(), nonterminal));
         return ntSlot;
     }
 
@@ -446,14 +559,15 @@ public class GrammarGraphBuilder {
         BodyGrammarSlot slot;
 
         if (rule.size() == 0) {
-            slot = new EpsilonGrammarSlot(rule.getPosition(0, 0), nonterminal, epsilonSlot, ConditionsFactory.DEFAULT);
+            slot = new EpsilonGrammarSlot(bodyGrammarSlots.size(), rule.getPosition(0, 0), nonterminal, epsilonSlot,
+                ConditionsFactory.DEFAULT);
         } else {
             // TODO: This is not a final solution; in particular,
             //       not any precondition of the first symbol (due to labels) can currently be moved to the first slot.
             List<Condition> preConditions = new ArrayList<>(rule.symbolAt(0).getPreConditions());
 
-            slot = new BodyGrammarSlot(rule.getPosition(0, 0), rule.symbolAt(0).getLabel(), null, null,
-                getConditions(preConditions), FollowTest.DEFAULT);
+            slot = new BodyGrammarSlot(bodyGrammarSlots.size(), rule.getPosition(0, 0), rule.symbolAt(0).getLabel(),
+                null, null, getConditions(preConditions), FollowTest.DEFAULT);
         }
         bodyGrammarSlots.add(slot);
         return slot;
@@ -470,11 +584,12 @@ public class GrammarGraphBuilder {
 
         BodyGrammarSlot slot;
         if (current != null)
-            slot = new BodyGrammarSlot(position, label, (label != null && !label.isEmpty()) ? current.get(label) : -1,
+            slot = new BodyGrammarSlot(bodyGrammarSlots.size(), position, label,
+                (label != null && !label.isEmpty()) ? current.get(label) : -1,
                 variable, (variable != null && !variable.isEmpty()) ? current.get(variable) : -1, state,
                 getConditions(rule.symbolAt(i - 1).getPostConditions()), getFollowTest(rule, i));
         else
-            slot = new BodyGrammarSlot(position, label, variable, state,
+            slot = new BodyGrammarSlot(bodyGrammarSlots.size(), position, label, variable, state,
                 getConditions(rule.symbolAt(i - 1).getPostConditions()), getFollowTest(rule, i));
 
         bodyGrammarSlots.add(slot);
@@ -493,12 +608,12 @@ public class GrammarGraphBuilder {
 
         BodyGrammarSlot slot;
         if (current != null)
-            slot = new EndGrammarSlot(position, nonterminal, label,
+            slot = new EndGrammarSlot(bodyGrammarSlots.size(), position, nonterminal, label,
                 (label != null && !label.isEmpty()) ? current.get(label) : -1,
                 variable, (variable != null && !variable.isEmpty()) ? current.get(variable) : -1, state,
                 getConditions(rule.symbolAt(i - 1).getPostConditions()), getFollowTest(rule, i));
         else
-            slot = new EndGrammarSlot(position, nonterminal, label, variable, state,
+            slot = new EndGrammarSlot(bodyGrammarSlots.size(), position, nonterminal, label, variable, state,
                 getConditions(rule.symbolAt(i - 1).getPostConditions()), getFollowTest(rule, i));
 
         bodyGrammarSlots.add(slot);
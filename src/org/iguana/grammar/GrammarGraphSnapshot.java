@@ -0,0 +1,223 @@
+package org.iguana.grammar;
+
+import org.iguana.grammar.condition.Condition;
+import org.iguana.grammar.condition.RegularExpressionCondition;
+import org.iguana.grammar.runtime.RuntimeGrammar;
+import org.iguana.grammar.runtime.RuntimeRule;
+import org.iguana.grammar.symbol.Code;
+import org.iguana.grammar.symbol.Conditional;
+import org.iguana.grammar.symbol.Symbol;
+import org.iguana.grammar.symbol.Terminal;
+import org.iguana.regex.Char;
+import org.iguana.regex.CharRange;
+import org.iguana.regex.Epsilon;
+import org.iguana.regex.RegularExpression;
+import org.iguana.regex.automaton.Automaton;
+import org.iguana.regex.automaton.AutomatonOperations;
+import org.iguana.regex.automaton.State;
+import org.iguana.regex.automaton.StateType;
+import org.iguana.regex.automaton.Transition;
+import org.iguana.regex.matcher.LiteralMatcher;
+import org.iguana.util.Configuration;
+import org.iguana.util.serialization.GrammarDataInput;
+import org.iguana.util.serialization.GrammarDataOutput;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A binary snapshot of the parts of a grammar graph that are expensive to compute: the grammar after all the
+ * transformations of {@link org.iguana.grammar.transformation.GrammarTransformer}, its lookahead data (the prediction
+ * and follow sets, and the range maps from characters to alternatives, see {@link GrammarLookAheads}), and the
+ * minimized DFAs of the regular expressions that are matched by DFAs. Loading a snapshot skips the grammar
+ * transformations, the computation of the first and follow sets, and the determinization and minimization of the
+ * automata; only the grammar slots, which refer to the conditions and code of the grammar, are created from the
+ * stored data by {@link GrammarGraphBuilder}.
+ *
+ * The snapshot is a gzipped stream of: the magic number and version, the grammar in the binary format of
+ * {@link GrammarDataOutput}, the lookahead data, and the number of automata followed by each regular expression and
+ * its DFA. A DFA is written as its number of states, the id of its start state, and for each state whether it is
+ * final and its transitions as (start, end, destination) triples.
+ */
+public class GrammarGraphSnapshot {
+
+    private static final int MAGIC = 0x49475353;
+
+    private static final int VERSION = 2;
+
+    private final RuntimeGrammar grammar;
+
+    private final Map<RegularExpression, Automaton> automata;
+
+    private final GrammarLookAheads lookAheads;
+
+    GrammarGraphSnapshot(RuntimeGrammar grammar, Map<RegularExpression, Automaton> automata) {
+        this(grammar, automata, null);
+    }
+
+    private GrammarGraphSnapshot(
+            RuntimeGrammar grammar,
+            Map<RegularExpression, Automaton> automata,
+            GrammarLookAheads lookAheads) {
+        this.grammar = grammar;
+        this.automata = automata;
+        this.lookAheads = lookAheads;
+    }
+
+    /**
+     * Writes the snapshot of the given grammar, which should already be transformed.
+     */
+    public static void write(RuntimeGrammar grammar, OutputStream out) throws IOException {
+        GZIPOutputStream gzip = new GZIPOutputStream(out);
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(gzip));
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+
+        GrammarDataOutput grammarData = new GrammarDataOutput(data);
+        grammarData.writeGrammar(grammar);
+        GrammarLookAheads.compute(grammar, false).write(data);
+
+        Set<RegularExpression> regularExpressions = getDFARegularExpressions(grammar);
+        data.writeInt(regularExpressions.size());
+        for (RegularExpression regex : regularExpressions) {
+            grammarData.writeRegularExpression(regex);
+            Automaton automaton = AutomatonOperations.makeDeterministic(regex.getAutomaton());
+            writeAutomaton(AutomatonOperations.minimize(automaton), data);
+        }
+        data.flush();
+        gzip.finish();
+    }
+
+    public static GrammarGraphSnapshot read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(new GZIPInputStream(in)));
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Not a grammar graph snapshot");
+        }
+        int version = data.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported grammar graph snapshot version " + version);
+        }
+
+        GrammarDataInput grammarData = new GrammarDataInput(data);
+        RuntimeGrammar grammar = grammarData.readGrammar();
+        GrammarLookAheads lookAheads = GrammarLookAheads.read(data);
+        if (!lookAheads.matches(grammar)) {
+            throw new IOException("The lookahead data does not match the rules of the grammar");
+        }
+
+        int automataCount = data.readInt();
+        Map<RegularExpression, Automaton> automata = new LinkedHashMap<>();
+        for (int i = 0; i < automataCount; i++) {
+            automata.put(grammarData.readRegularExpression(), readAutomaton(data));
+        }
+        return new GrammarGraphSnapshot(grammar, automata, lookAheads);
+    }
+
+    /**
+     * Returns the regular expressions of the grammar that are matched by the DFAs of the matcher factories: the
+     * regular expressions of the terminals and of the conditions that are matched forwards, except for the ones that
+     * are matched without an automaton, i.e., epsilon, characters, character ranges and literals.
+     */
+    static Set<RegularExpression> getDFARegularExpressions(RuntimeGrammar grammar) {
+        Set<RegularExpression> regularExpressions = new LinkedHashSet<>();
+        for (RuntimeRule rule : grammar.getRules()) {
+            if (rule.getBody() == null) continue;
+            for (Symbol bodySymbol : rule.getBody()) {
+                Symbol symbol = bodySymbol;
+                while (true) {
+                    addConditionRegularExpressions(symbol.getPreConditions(), regularExpressions);
+                    addConditionRegularExpressions(symbol.getPostConditions(), regularExpressions);
+                    if (!(symbol instanceof Code || symbol instanceof Conditional)) break;
+                    symbol = symbol instanceof Code ? ((Code) symbol).getSymbol() : ((Conditional) symbol).getSymbol();
+                }
+                if (symbol instanceof Terminal) {
+                    addRegularExpression(((Terminal) symbol).getRegularExpression(), regularExpressions);
+                }
+            }
+        }
+        return regularExpressions;
+    }
+
+    private static void addConditionRegularExpressions(
+            Iterable<Condition> conditions,
+            Set<RegularExpression> regularExpressions) {
+        for (Condition condition : conditions) {
+            if (!(condition instanceof RegularExpressionCondition)) continue;
+            switch (condition.getType()) {
+                case PRECEDE:
+                case NOT_PRECEDE:
+                    // Matched backwards, by an automaton that is built from the reversed regular expression
+                    break;
+                default:
+                    addRegularExpression(((RegularExpressionCondition) condition).getRegularExpression(),
+                        regularExpressions);
+            }
+        }
+    }
+
+    private static void addRegularExpression(RegularExpression regex, Set<RegularExpression> regularExpressions) {
+        if (regex == Epsilon.getInstance() || regex instanceof Char || regex instanceof CharRange
+            || LiteralMatcher.isLiteral(regex)) {
+            return;
+        }
+        regularExpressions.add(regex);
+    }
+
+    public RuntimeGrammar getGrammar() {
+        return grammar;
+    }
+
+    public Map<RegularExpression, Automaton> getAutomata() {
+        return automata;
+    }
+
+    public GrammarGraph toGrammarGraph(Configuration config) {
+        return GrammarGraphBuilder.from(grammar, config, automata, lookAheads);
+    }
+
+    private static void writeAutomaton(Automaton automaton, DataOutputStream data) throws IOException {
+        State[] states = automaton.getStates();
+        data.writeInt(states.length);
+        data.writeInt(automaton.getStartState().getId());
+        for (State state : states) {
+            data.writeBoolean(state.isFinalState());
+            data.writeInt(state.getTransitions().size());
+            for (Transition transition : state.getTransitions()) {
+                data.writeInt(transition.getStart());
+                data.writeInt(transition.getEnd());
+                data.writeInt(transition.getDestination().getId());
+            }
+        }
+    }
+
+    private static Automaton readAutomaton(DataInputStream data) throws IOException {
+        State[] states = new State[data.readInt()];
+        for (int i = 0; i < states.length; i++) {
+            states[i] = new State();
+        }
+        int start = data.readInt();
+        for (State state : states) {
+            if (data.readBoolean()) {
+                state.setStateType(StateType.FINAL);
+            }
+            int transitions = data.readInt();
+            for (int i = 0; i < transitions; i++) {
+                int rangeStart = data.readInt();
+                int rangeEnd = data.readInt();
+                state.addTransition(new Transition(rangeStart, rangeEnd, states[data.readInt()]));
+            }
+        }
+        return Automaton.builder(states[start]).setDeterministic(true).setMinimized(true).build();
+    }
+}
@@ -0,0 +1,75 @@
+package org.iguana.grammar;
+
+/**
+ * The time, in nanoseconds, spent in each phase of building a {@link GrammarGraph}. With a parallel construction,
+ * the times are wall clock times of the phases, not the sum of the times of the threads.
+ */
+public class GrammarGraphTimings {
+
+    private final long firstFollowSetsTime;
+    private final long matchersTime;
+    private final long slotsTime;
+    private final long lookAheadTestsTime;
+    private final long scannerTime;
+
+    public GrammarGraphTimings(
+            long firstFollowSetsTime,
+            long matchersTime,
+            long slotsTime,
+            long lookAheadTestsTime,
+            long scannerTime) {
+        this.firstFollowSetsTime = firstFollowSetsTime;
+        this.matchersTime = matchersTime;
+        this.slotsTime = slotsTime;
+        this.lookAheadTestsTime = lookAheadTestsTime;
+        this.scannerTime = scannerTime;
+    }
+
+    /**
+     * The nullable nonterminals, first, follow and prediction sets of the grammar.
+     */
+    public long getFirstFollowSetsTime() {
+        return firstFollowSetsTime;
+    }
+
+    /**
+     * The matchers of the terminals, mostly spent in the construction of the DFAs.
+     */
+    public long getMatchersTime() {
+        return matchersTime;
+    }
+
+    /**
+     * The grammar slots and transitions of the rules, including the follow tests of the body slots and the
+     * matchers of the conditions.
+     */
+    public long getSlotsTime() {
+        return slotsTime;
+    }
+
+    /**
+     * The lookahead and follow tests of the nonterminals.
+     */
+    public long getLookAheadTestsTime() {
+        return lookAheadTestsTime;
+    }
+
+    /**
+     * The shared scanner of the terminals, zero if the terminals are matched separately.
+     */
+    public long getScannerTime() {
+        return scannerTime;
+    }
+
+    public long getTotalTime() {
+        return firstFollowSetsTime + matchersTime + slotsTime + lookAheadTestsTime + scannerTime;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "(First/follow sets: %dms, Matchers: %dms, Slots: %dms, Lookahead tests: %dms, Scanner: %dms, Total: %dms)",
+            firstFollowSetsTime / 1000_000, matchersTime / 1000_000, slotsTime / 1000_000,
+            lookAheadTestsTime / 1000_000, scannerTime / 1000_000, getTotalTime() / 1000_000);
+    }
+}
@@ -0,0 +1,276 @@
+package org.iguana.grammar;
+
+import org.iguana.grammar.operations.FirstFollowSets;
+import org.iguana.grammar.runtime.RuntimeGrammar;
+import org.iguana.grammar.runtime.RuntimeRule;
+import org.iguana.grammar.slot.BodyGrammarSlot;
+import org.iguana.grammar.slot.lookahead.FollowTest;
+import org.iguana.grammar.slot.lookahead.RangeTreeFollowTest;
+import org.iguana.grammar.symbol.Nonterminal;
+import org.iguana.regex.CharRange;
+import org.iguana.utils.collections.rangemap.AbstractRangeMap;
+import org.iguana.utils.collections.rangemap.RangeMap;
+import org.iguana.utils.collections.rangemap.RangeMapBuilder;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static java.util.Collections.emptyList;
+
+/**
+ * The lookahead data of a grammar that is computed from its first and follow sets: the prediction set at each
+ * position of each rule, the follow set of each nonterminal, and the range map from the characters to the
+ * alternatives of each nonterminal. Rules are referred to by their index in {@link RuntimeGrammar#getRules()}, and
+ * nonterminals by their index in {@link RuntimeGrammar#getNonterminals()}.
+ *
+ * Equal sets are stored once, and the follow tests are created once per distinct set. The lookahead data is stored
+ * in a {@link GrammarGraphSnapshot}, so the first and follow sets are not computed when a snapshot is loaded.
+ */
+class GrammarLookAheads {
+
+    // The distinct prediction and follow sets
+    private final List<Set<CharRange>> sets;
+
+    // For each rule, the index of the prediction set at each position, from 0 to the size of the rule
+    private final int[][] predictionSets;
+
+    // For each nonterminal, the index of its follow set
+    private final int[] followSets;
+
+    // For each nonterminal, the range map from characters to the indices of its alternatives, or null if none of
+    // its alternatives has a nonempty prediction set
+    private final List<AbstractRangeMap<Integer>> alternatives;
+
+    private FollowTest[] followTests;
+
+    private GrammarLookAheads(
+            List<Set<CharRange>> sets,
+            int[][] predictionSets,
+            int[] followSets,
+            List<AbstractRangeMap<Integer>> alternatives) {
+        this.sets = sets;
+        this.predictionSets = predictionSets;
+        this.followSets = followSets;
+        this.alternatives = alternatives;
+    }
+
+    static GrammarLookAheads compute(RuntimeGrammar grammar, boolean parallel) {
+        FirstFollowSets firstFollow = new FirstFollowSets(grammar, parallel);
+
+        List<Set<CharRange>> sets = new ArrayList<>();
+        Map<Set<CharRange>, Integer> setIndices = new HashMap<>();
+
+        List<RuntimeRule> rules = grammar.getRules();
+        int[][] predictionSets = new int[rules.size()][];
+        for (int i = 0; i < rules.size(); i++) {
+            RuntimeRule rule = rules.get(i);
+            predictionSets[i] = new int[rule.size() + 1];
+            for (int j = 0; j <= rule.size(); j++) {
+                predictionSets[i][j] = getIndex(firstFollow.getPredictionSet(rule, j), sets, setIndices);
+            }
+        }
+
+        Set<Nonterminal> nonterminals = grammar.getNonterminals();
+        int[] followSets = new int[nonterminals.size()];
+        List<AbstractRangeMap<Integer>> alternatives = new ArrayList<>(nonterminals.size());
+        int i = 0;
+        for (Nonterminal nonterminal : nonterminals) {
+            followSets[i++] = getIndex(firstFollow.getFollowSet(nonterminal), sets, setIndices);
+
+            List<RuntimeRule> rulesOfNonterminal = grammar.getAlternatives(nonterminal);
+            RangeMapBuilder<Integer> builder = new RangeMapBuilder<>();
+            boolean empty = true;
+            for (int j = 0; j < rulesOfNonterminal.size(); j++) {
+                int alternative = j;
+                Set<CharRange> set = firstFollow.getPredictionSet(rulesOfNonterminal.get(j), 0);
+                set.forEach(cr -> builder.put(cr, alternative));
+                empty &= set.isEmpty();
+            }
+            alternatives.add(empty ? null : builder.buildPointsRangeMap());
+        }
+
+        return new GrammarLookAheads(sets, predictionSets, followSets, alternatives);
+    }
+
+    private static int getIndex(Set<CharRange> set, List<Set<CharRange>> sets, Map<Set<CharRange>, Integer> indices) {
+        if (set == null) return -1;
+        return indices.computeIfAbsent(set, s -> {
+            sets.add(s);
+            return sets.size() - 1;
+        });
+    }
+
+    /**
+     * Creates the follow tests of the distinct sets. Should be called before the follow tests are requested.
+     */
+    void createFollowTests() {
+        followTests = new FollowTest[sets.size()];
+        for (int i = 0; i < sets.size(); i++) {
+            followTests[i] = new RangeTreeFollowTest(sets.get(i));
+        }
+    }
+
+    FollowTest getFollowTest(int rule, int position) {
+        int set = predictionSets[rule][position];
+        return set == -1 ? FollowTest.DEFAULT : followTests[set];
+    }
+
+    FollowTest getFollowTest(int nonterminal) {
+        int set = followSets[nonterminal];
+        return set == -1 ? FollowTest.DEFAULT : followTests[set];
+    }
+
+    /**
+     * Returns the range map from characters to the first slots of the alternatives of the given nonterminal.
+     */
+    RangeMap<BodyGrammarSlot> getLookAheadTest(int nonterminal, List<BodyGrammarSlot> firstSlots) {
+        AbstractRangeMap<Integer> rangeMap = alternatives.get(nonterminal);
+        if (rangeMap == null) {
+            return RangeMapBuilder.emptyRangeMap();
+        }
+
+        List<Integer>[] values = rangeMap.getValues();
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        List<BodyGrammarSlot>[] slots = new List[values.length];
+        for (int i = 0; i < values.length; i++) {
+            if (values[i].isEmpty()) {
+                slots[i] = emptyList();
+            } else {
+                List<BodyGrammarSlot> list = new ArrayList<>(values[i].size());
+                values[i].forEach(alternative -> list.add(firstSlots.get(alternative)));
+                slots[i] = list;
+            }
+        }
+        return RangeMapBuilder.fromPoints(rangeMap.getPoints(), rangeMap.getStarts(), slots);
+    }
+
+    /**
+     * Returns true if the lookahead data has the given number of rules and nonterminals, and the given size of each
+     * rule, i.e., it can be the lookahead data of a grammar with these rules and nonterminals.
+     */
+    boolean matches(RuntimeGrammar grammar) {
+        List<RuntimeRule> rules = grammar.getRules();
+        if (rules.size() != predictionSets.length || grammar.getNonterminals().size() != followSets.length) {
+            return false;
+        }
+        for (int i = 0; i < rules.size(); i++) {
+            if (rules.get(i).size() + 1 != predictionSets[i].length) return false;
+        }
+        return true;
+    }
+
+    void write(DataOutputStream out) throws IOException {
+        out.writeInt(sets.size());
+        for (Set<CharRange> set : sets) {
+            out.writeInt(set.size());
+            for (CharRange range : set) {
+                out.writeInt(range.getStart());
+                out.writeInt(range.getEnd());
+            }
+        }
+
+        out.writeInt(predictionSets.length);
+        for (int[] ruleSets : predictionSets) {
+            writeInts(ruleSets, out);
+        }
+
+        writeInts(followSets, out);
+        for (AbstractRangeMap<Integer> rangeMap : alternatives) {
+            out.writeBoolean(rangeMap != null);
+            if (rangeMap == null) continue;
+
+            writeInts(rangeMap.getPoints(), out);
+            for (boolean start : rangeMap.getStarts()) {
+                out.writeBoolean(start);
+            }
+            for (List<Integer> value : rangeMap.getValues()) {
+                out.writeInt(value.size());
+                for (int alternative : value) {
+                    out.writeInt(alternative);
+                }
+            }
+        }
+    }
+
+    static GrammarLookAheads read(DataInputStream in) throws IOException {
+        int setsCount = in.readInt();
+        List<Set<CharRange>> sets = new ArrayList<>(setsCount);
+        for (int i = 0; i < setsCount; i++) {
+            int size = in.readInt();
+            Set<CharRange> set = new LinkedHashSet<>();
+            for (int j = 0; j < size; j++) {
+                set.add(CharRange.in(in.readInt(), in.readInt()));
+            }
+            sets.add(set);
+        }
+
+        int[][] predictionSets = new int[in.readInt()][];
+        for (int i = 0; i < predictionSets.length; i++) {
+            predictionSets[i] = readSetIndices(in, setsCount);
+        }
+
+        int[] followSets = readSetIndices(in, setsCount);
+        List<AbstractRangeMap<Integer>> alternatives = new ArrayList<>(followSets.length);
+        for (int i = 0; i < followSets.length; i++) {
+            if (!in.readBoolean()) {
+                alternatives.add(null);
+                continue;
+            }
+
+            int[] points = readInts(in);
+            boolean[] starts = new boolean[points.length];
+            for (int j = 0; j < points.length; j++) {
+                starts[j] = in.readBoolean();
+            }
+            @SuppressWarnings({"unchecked", "rawtypes"})
+            List<Integer>[] values = new List[points.length];
+            for (int j = 0; j < points.length; j++) {
+                int size = in.readInt();
+                if (size == 0) {
+                    values[j] = emptyList();
+                    continue;
+                }
+                List<Integer> value = new ArrayList<>(size);
+                for (int k = 0; k < size; k++) {
+                    value.add(in.readInt());
+                }
+                values[j] = value;
+            }
+            alternatives.add(RangeMapBuilder.fromPoints(points, starts, values));
+        }
+
+        return new GrammarLookAheads(sets, predictionSets, followSets, alternatives);
+    }
+
+    private static int[] readSetIndices(DataInputStream in, int setsCount) throws IOException {
+        int[] indices = readInts(in);
+        for (int index : indices) {
+            if (index < -1 || index >= setsCount) {
+                throw new IOException("Unknown set " + index);
+            }
+        }
+        return indices;
+    }
+
+    private static void writeInts(int[] values, DataOutputStream out) throws IOException {
+        out.writeInt(values.length);
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    private static int[] readInts(DataInputStream in) throws IOException {
+        int[] values = new int[in.readInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = in.readInt();
+        }
+        return values;
+    }
+}
@@ -49,6 +49,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * 
@@ -74,6 +75,15 @@ public class FirstFollowSets {
     private final ISymbolVisitor<Nonterminal> nonterminalVisitor;
 
     public FirstFollowSets(RuntimeGrammar grammar) {
+        this(grammar, false);
+    }
+
+    /**
+     * Calculates the first, follow and prediction sets of the grammar. The nullable nonterminals, first and follow
+     * sets are calculated by a fixpoint iteration over the whole grammar, but if parallel is true, the prediction
+     * sets of the nonterminals, which only read the first and follow sets, are calculated in parallel.
+     */
+    public FirstFollowSets(RuntimeGrammar grammar, boolean parallel) {
         this.definitions = grammar.getDefinitions();
         this.firstSets = new HashMap<>();
         this.nullableNonterminals = new HashSet<>();
@@ -89,7 +99,7 @@ public class FirstFollowSets {
         calculateNullables();
         calculateFirstSets();
         calculateFollowSets();
-        calcualtePredictionSets();
+        calculatePredictionSets(parallel);
     }
 
     public Map<Nonterminal, Set<CharRange>> getFirstSets() {
@@ -249,20 +259,37 @@ public class FirstFollowSets {
         }
     }
 
-    private void calcualtePredictionSets() {
-
-        for (Nonterminal nonterminal : definitions.keySet()) {
-            List<RuntimeRule> rules = definitions.get(nonterminal);
+    private void calculatePredictionSets(boolean parallel) {
+        if (parallel) {
+            definitions.keySet().parallelStream()
+                .map(nonterminal -> {
+                    Map<Tuple<RuntimeRule, Integer>, Set<CharRange>> sets = new HashMap<>();
+                    calculatePredictionSets(nonterminal, sets);
+                    return sets;
+                })
+                .collect(Collectors.toList())
+                .forEach(predictionSets::putAll);
+        } else {
+            for (Nonterminal nonterminal : definitions.keySet()) {
+                calculatePredictionSets(nonterminal, predictionSets);
+            }
+        }
+    }
 
-            for (RuntimeRule rule : rules) {
-                for (int i = 0; i <= rule.size(); i++) {
-                    calculatePredictionSet(rule, i);
-                }
+    private void calculatePredictionSets(
+            Nonterminal nonterminal,
+            Map<Tuple<RuntimeRule, Integer>, Set<CharRange>> predictionSets) {
+        for (RuntimeRule rule : definitions.get(nonterminal)) {
+            for (int i = 0; i <= rule.size(); i++) {
+                calculatePredictionSet(rule, i, predictionSets);
             }
         }
     }
 
-    private void calculatePredictionSet(RuntimeRule rule, int index) {
+    private void calculatePredictionSet(
+            RuntimeRule rule,
+            int index,
+            Map<Tuple<RuntimeRule, Integer>, Set<CharRange>> predictionSets) {
 
         Tuple<RuntimeRule, Integer> position = Tuple.of(rule, index);
         List<Symbol> alternate = rule.getBody();
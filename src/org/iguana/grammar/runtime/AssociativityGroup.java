@@ -72,6 +72,10 @@ public class AssociativityGroup {
         return associativity;
     }
 
+    public PrecedenceLevel getPrecedenceLevel() {
+        return precedenceLevel;
+    }
+
     public int getLhs() {
         return lhs;
     }
@@ -113,6 +113,10 @@ public class RuntimeGrammar {
         return rules;
     }
 
+    public String getName() {
+        return name;
+    }
+
     public Map<String, Set<String>> getEBNFLefts() {
         return this.ebnfLefts;
     }
@@ -36,8 +36,8 @@ import org.iguana.gss.GSSNode;
 import org.iguana.parser.IguanaRuntime;
 import org.iguana.result.Result;
 import org.iguana.utils.collections.Keys;
-import org.iguana.utils.collections.OpenAddressingHashMap;
 import org.iguana.utils.collections.key.Key;
+import org.iguana.utils.collections.primitive.OpenAddressingLongHashMap;
 import org.iguana.utils.input.Input;
 
 import java.util.Map;
@@ -47,7 +47,7 @@ public class BodyGrammarSlot implements GrammarSlot {
 
     protected final Position position;
 
-    private Map<Key, Object> intermediateNodes;
+    private final int id;
 
     private final Conditions conditions;
 
@@ -68,16 +68,18 @@ public class BodyGrammarSlot implements GrammarSlot {
     private Transition inTransition;
 
     public BodyGrammarSlot(
+            int id,
             Position position,
             String label,
             String variable,
             Set<String> state,
             Conditions conditions,
             FollowTest followTest) {
-        this(position, label, -1, variable, -1, state, conditions, followTest);
+        this(id, position, label, -1, variable, -1, state, conditions, followTest);
     }
 
     public BodyGrammarSlot(
+            int id,
             Position position,
             String label,
             int i1,
@@ -86,6 +88,7 @@ public class BodyGrammarSlot implements GrammarSlot {
             Set<String> state,
             Conditions conditions,
             FollowTest followTest) {
+        this.id = id;
         this.position = position;
         this.conditions = conditions;
         this.label = label;
@@ -105,7 +108,6 @@ public class BodyGrammarSlot implements GrammarSlot {
         return followTest.test(v);
     }
 
-    @SuppressWarnings("unchecked")
     public <T extends Result> T getIntermediateNode(
             T leftResult,
             int destinationIndex,
@@ -114,20 +116,33 @@ public class BodyGrammarSlot implements GrammarSlot {
             IguanaRuntime<T> runtime) {
         if (isFirst()) return rightResult;
 
-        Key key = Keys.from(destinationIndex, rightResult.getRightExtent(), env);
+        if (env.isEmpty()) {
+            long key = OpenAddressingLongHashMap.pack(destinationIndex, rightResult.getRightExtent());
+            OpenAddressingLongHashMap<T> intermediateNodes = runtime.getLongIntermediateNodes(this);
+
+            T value = intermediateNodes.get(key);
+            if (value == null) {
+                T newNode = runtime.getResultOps().merge(null, leftResult, rightResult, this);
+                intermediateNodes.put(key, newNode);
+                return newNode;
+            }
 
-        if (intermediateNodes == null) {
-            intermediateNodes = new OpenAddressingHashMap<>();
+            runtime.getResultOps().merge(value, leftResult, rightResult, this);
+            return null;
         }
 
-        Object value = intermediateNodes.get(key);
+        Key key = Keys.from(destinationIndex, rightResult.getRightExtent(), env);
+
+        Map<Key, T> intermediateNodes = runtime.getIntermediateNodes(this);
+
+        T value = intermediateNodes.get(key);
         if (value == null) {
             T newNode = runtime.getResultOps().merge(null, leftResult, rightResult, this);
             intermediateNodes.put(key, newNode);
             return newNode;
         }
 
-        runtime.getResultOps().merge((T) value, leftResult, rightResult, this);
+        runtime.getResultOps().merge(value, leftResult, rightResult, this);
         return null;
     }
 
@@ -136,8 +151,8 @@ public class BodyGrammarSlot implements GrammarSlot {
     }
 
     @Override
-    public void reset() {
-        intermediateNodes = null;
+    public int getId() {
+        return id;
     }
 
     public String getLabel() {
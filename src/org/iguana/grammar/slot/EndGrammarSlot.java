@@ -43,6 +43,7 @@ public class EndGrammarSlot extends BodyGrammarSlot {
     protected final NonterminalGrammarSlot nonterminal;
 
     public EndGrammarSlot(
+            int id,
             Position position,
             NonterminalGrammarSlot nonterminal,
             String label,
@@ -50,10 +51,11 @@ public class EndGrammarSlot extends BodyGrammarSlot {
             Set<String> state,
             Conditions conditions,
             FollowTest followTest) {
-        this(position, nonterminal, label, -1, variable, -1, state, conditions, followTest);
+        this(id, position, nonterminal, label, -1, variable, -1, state, conditions, followTest);
     }
 
     public EndGrammarSlot(
+            int id,
             Position position,
             NonterminalGrammarSlot nonterminal,
             String label,
@@ -63,7 +65,7 @@ public class EndGrammarSlot extends BodyGrammarSlot {
             Set<String> state,
             Conditions conditions,
             FollowTest followTest) {
-        super(position, label, i1, variable, i2, state, conditions, followTest);
+        super(id, position, label, i1, variable, i2, state, conditions, followTest);
         this.nonterminal = nonterminal;
     }
 
@@ -41,11 +41,12 @@ public class EpsilonGrammarSlot extends EndGrammarSlot {
     private final TerminalGrammarSlot epsilonSlot;
 
     public EpsilonGrammarSlot(
+            int id,
             Position position,
             NonterminalGrammarSlot nonterminal,
             TerminalGrammarSlot epsilonSlot,
             Conditions conditions) {
-        super(position, nonterminal, null, null, null, conditions, FollowTest.DEFAULT);
+        super(id, position, nonterminal, null, null, null, conditions, FollowTest.DEFAULT);
 
         this.epsilonSlot = epsilonSlot;
     }
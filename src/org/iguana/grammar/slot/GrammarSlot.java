@@ -40,6 +40,11 @@ package org.iguana.grammar.slot;
  */
 public interface GrammarSlot {
 
-    void reset();
+    /**
+     * Returns the index of this slot among the slots of the same kind in the grammar graph.
+     * The grammar graph is immutable during parsing; the per-parse tables of a slot (GSS nodes,
+     * terminal nodes and intermediate nodes) are kept by IguanaRuntime and are indexed by this id.
+     */
+    int getId();
 
 }
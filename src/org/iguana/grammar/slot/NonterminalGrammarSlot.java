@@ -31,43 +31,32 @@ import org.iguana.datadependent.ast.Expression;
 import org.iguana.datadependent.env.Environment;
 import org.iguana.grammar.slot.lookahead.FollowTest;
 import org.iguana.grammar.symbol.Nonterminal;
-import org.iguana.gss.DefaultGSSNode;
-import org.iguana.gss.GSSEdge;
 import org.iguana.gss.GSSNode;
 import org.iguana.parser.IguanaRuntime;
 import org.iguana.result.Result;
 import org.iguana.util.Configuration.EnvironmentImpl;
-import org.iguana.util.ParserLogger;
 import org.iguana.utils.collections.Keys;
-import org.iguana.utils.collections.OpenAddressingHashMap;
 import org.iguana.utils.collections.key.Key;
-import org.iguana.utils.collections.primitive.IntHashMap;
-import org.iguana.utils.collections.primitive.OpenAddressingIntHashMap;
 import org.iguana.utils.collections.rangemap.RangeMap;
 import org.iguana.utils.input.Input;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-
-import static java.util.Collections.emptyList;
-
 
 public class NonterminalGrammarSlot implements GrammarSlot {
 
+    private final int id;
+
     private final Nonterminal nonterminal;
 
     private final List<BodyGrammarSlot> firstSlots;
 
-    private Map<Key, GSSNode<?>> gssNodes;
-
-    private IntHashMap<GSSNode<?>> intGSSNodes;
-
     private RangeMap<BodyGrammarSlot> lookAheadTest;
 
     private FollowTest followTest;
 
-    public NonterminalGrammarSlot(Nonterminal nonterminal) {
+    public NonterminalGrammarSlot(int id, Nonterminal nonterminal) {
+        this.id = id;
         this.nonterminal = nonterminal;
         this.firstSlots = new ArrayList<>();
     }
@@ -88,6 +77,10 @@ public class NonterminalGrammarSlot implements GrammarSlot {
         this.lookAheadTest = lookAheadTest;
     }
 
+    public RangeMap<BodyGrammarSlot> getLookAheadTest() {
+        return lookAheadTest;
+    }
+
     public void setFollowTest(FollowTest followTest) {
         this.followTest = followTest;
     }
@@ -112,11 +105,9 @@ public class NonterminalGrammarSlot implements GrammarSlot {
         return nonterminal.getArguments();
     }
 
-    public int countGSSNodes() {
-        if (gssNodes == null) {
-            return 0;
-        }
-        return gssNodes.size();
+    @Override
+    public int getId() {
+        return id;
     }
 
     @Override
@@ -124,20 +115,6 @@ public class NonterminalGrammarSlot implements GrammarSlot {
         return nonterminal.toString();
     }
 
-    public Iterable<GSSNode<?>> getGSSNodes() {
-        if (gssNodes == null) {
-            return emptyList();
-        }
-        return gssNodes.values();
-    }
-
-    @Override
-    public void reset() {
-        gssNodes = null;
-        intGSSNodes = null;
-    }
-
-    @SuppressWarnings("unchecked")
     public <T extends Result> void create(
             Input input,
             BodyGrammarSlot returnSlot,
@@ -156,20 +133,12 @@ public class NonterminalGrammarSlot implements GrammarSlot {
             key = Keys.from(i, data);
         }
 
-        GSSNode<T> gssNode = null;
+        GSSNode<T> gssNode;
 
         if (arguments == null) {
-            if (intGSSNodes == null) {
-                intGSSNodes = new OpenAddressingIntHashMap<>();
-            } else {
-                gssNode = (GSSNode<T>) intGSSNodes.get(i);
-            }
+            gssNode = runtime.getIntGSSNodes(this).get(i);
         } else {
-            if (gssNodes == null) {
-                gssNodes = new OpenAddressingHashMap<>();
-            } else {
-                gssNode = (GSSNode<T>) gssNodes.get(key);
-            }
+            gssNode = runtime.getGSSNodes(this).get(key);
         }
 
         if (gssNode == null) {
@@ -179,11 +148,10 @@ public class NonterminalGrammarSlot implements GrammarSlot {
                 return;
             }
 
-            GSSEdge<T> gssEdge = runtime.createGSSEdge(returnSlot, result, u, env);
-            gssNode = new DefaultGSSNode<>(gssEdge, i);
+            gssNode = runtime.createGSSNode(returnSlot, result, u, env, i);
 
-            ParserLogger.getInstance().gssNodeAdded(gssNode, data);
-            ParserLogger.getInstance().gssEdgeAdded(gssEdge);
+            runtime.getLogger().gssNodeAdded(gssNode, data);
+            runtime.getLogger().gssEdgeAdded(gssNode, returnSlot, u);
 
             Environment newEnv = runtime.getEnvironment();
 
@@ -213,9 +181,9 @@ public class NonterminalGrammarSlot implements GrammarSlot {
             }
 
             if (arguments == null) {
-                intGSSNodes.put(i, gssNode);
+                runtime.getIntGSSNodes(this).put(i, gssNode);
             } else {
-                gssNodes.put(key, gssNode);
+                runtime.getGSSNodes(this).put(key, gssNode);
             }
         } else {
             gssNode.addGSSEdge(input, returnSlot, i, u, result, env, runtime);
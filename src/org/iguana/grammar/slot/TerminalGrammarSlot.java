@@ -29,11 +29,13 @@ package org.iguana.grammar.slot;
 
 import org.iguana.grammar.symbol.Terminal;
 import org.iguana.parser.IguanaRuntime;
+import org.iguana.parser.TerminalMemoTable;
+import org.iguana.parser.TokenCache;
 import org.iguana.regex.matcher.Matcher;
 import org.iguana.regex.matcher.MatcherFactory;
 import org.iguana.result.Result;
+import org.iguana.result.ResultOps;
 import org.iguana.utils.collections.primitive.IntHashMap;
-import org.iguana.utils.collections.primitive.OpenAddressingIntHashMap;
 import org.iguana.utils.input.Input;
 
 public class TerminalGrammarSlot implements GrammarSlot {
@@ -41,26 +43,27 @@ public class TerminalGrammarSlot implements GrammarSlot {
     // Record failures, it's cheaper for some complex regular expressions to do a lookup than to match again
     private static final Object failure = "failure";
 
+    private final int id;
     private final Terminal terminal;
     private final Matcher matcher;
-    private IntHashMap<Object> terminalNodes;
 
-    public TerminalGrammarSlot(Terminal terminal, MatcherFactory factory) {
+    public TerminalGrammarSlot(int id, Terminal terminal, MatcherFactory factory) {
+        this.id = id;
         this.terminal = terminal;
         this.matcher = factory.getMatcher(terminal.getRegularExpression());
     }
 
     public <T extends Result> T getResult(Input input, int i, IguanaRuntime<T> runtime) {
-        if (terminalNodes == null) {
-            terminalNodes = new OpenAddressingIntHashMap<>();
-        }
+        if (runtime.usesDenseTerminalMemo()) return getDenseResult(input, i, runtime);
+
+        IntHashMap<Object> terminalNodes = runtime.getTerminalNodes(this);
         Object node = terminalNodes.get(i);
         if (node == failure) return null;
 
         @SuppressWarnings("unchecked")
         T terminalNode = (T) node;
         if (terminalNode == null) {
-            int length = matcher.match(input, i);
+            int length = match(input, i, runtime);
             if (length < 0) {
                 terminalNodes.put(i, failure);
             } else {
@@ -71,16 +74,47 @@ public class TerminalGrammarSlot implements GrammarSlot {
         return terminalNode;
     }
 
+    private <T extends Result> T getDenseResult(Input input, int i, IguanaRuntime<T> runtime) {
+        TerminalMemoTable memoTable = runtime.getTerminalMemoTable(this);
+        int length = memoTable.get(i);
+        if (length == TerminalMemoTable.FAILURE) return null;
 
-    public void recordFailure(int index) {
-        if (terminalNodes == null) {
-            terminalNodes = new OpenAddressingIntHashMap<>();
+        if (length == TerminalMemoTable.NOT_TRIED) {
+            length = match(input, i, runtime);
+            memoTable.put(i, length);
+            if (length < 0) return null;
         }
-        terminalNodes.put(index, failure);
+
+        ResultOps<T> resultOps = runtime.getResultOps();
+        if (!resultOps.sharesTerminalResults()) return resultOps.base(this, i, i + length);
+
+        IntHashMap<Object> terminalNodes = runtime.getTerminalNodes(this);
+        @SuppressWarnings("unchecked")
+        T terminalNode = (T) terminalNodes.get(i);
+        if (terminalNode == null) {
+            terminalNode = resultOps.base(this, i, i + length);
+            terminalNodes.put(i, terminalNode);
+        }
+        return terminalNode;
     }
 
-    public int countTerminalNodes() {
-        return terminalNodes.size();
+    private int match(Input input, int i, IguanaRuntime<?> runtime) {
+        TokenCache tokenCache = runtime.getTokenCache();
+        if (tokenCache != null && tokenCache.covers(id)) return tokenCache.get(id, i);
+        return matcher.match(input, i);
+    }
+
+    public void recordFailure(int index, IguanaRuntime<?> runtime) {
+        if (runtime.usesDenseTerminalMemo()) {
+            runtime.getTerminalMemoTable(this).recordFailure(index);
+        } else {
+            runtime.getTerminalNodes(this).put(index, failure);
+        }
+    }
+
+    @Override
+    public int getId() {
+        return id;
     }
 
     public Terminal getTerminal() {
@@ -92,9 +126,4 @@ public class TerminalGrammarSlot implements GrammarSlot {
         return terminal.toString();
     }
 
-    @Override
-    public void reset() {
-        terminalNodes = null;
-    }
-
 }
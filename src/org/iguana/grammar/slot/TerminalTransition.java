@@ -80,7 +80,7 @@ public class TerminalTransition extends AbstractTransition {
                 String.format(Expression.LeftExtent.format, dest.getLabel()), i);
 
         if (preConditions.execute(input, origin, u, i, runtime.getEvaluatorContext(), runtime)) {
-            terminalSlot.recordFailure(i);
+            terminalSlot.recordFailure(i, runtime);
             return;
         }
 
@@ -97,7 +97,7 @@ public class TerminalTransition extends AbstractTransition {
 
         if (postConditions.execute(input, origin, u, cr.getLeftExtent(), cr.getRightExtent(),
             runtime.getEvaluatorContext(), runtime)) {
-            terminalSlot.recordFailure(cr.getRightExtent());
+            terminalSlot.recordFailure(cr.getRightExtent(), runtime);
             return;
         }
 
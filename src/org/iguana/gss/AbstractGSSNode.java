@@ -0,0 +1,262 @@
+package org.iguana.gss;
+
+import org.iguana.datadependent.env.Environment;
+import org.iguana.datadependent.env.EnvironmentPool;
+import org.iguana.grammar.slot.BodyGrammarSlot;
+import org.iguana.grammar.slot.EndGrammarSlot;
+import org.iguana.parser.IguanaRuntime;
+import org.iguana.result.Result;
+import org.iguana.result.ResultOps;
+import org.iguana.utils.collections.Keys;
+import org.iguana.utils.collections.OpenAddressingHashMap;
+import org.iguana.utils.collections.key.Key;
+import org.iguana.utils.collections.primitive.IntHashMap;
+import org.iguana.utils.collections.primitive.OpenAddressingIntHashMap;
+import org.iguana.utils.input.Input;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The popped elements of a GSS node and the processing of an edge with the popped elements, shared by the GSS node
+ * implementations that differ in how they store their edges. An edge is passed by its components: the return slot,
+ * the destination, the result of the edge (null for a dummy edge), and the environment (null for the empty
+ * environment).
+ */
+public abstract class AbstractGSSNode<T extends Result> implements GSSNode<T> {
+
+    private final int inputIndex;
+
+    private T firstPoppedElement;
+
+    // The popped elements other than the first one, indexed by their right extent
+    private IntHashMap<T> restPoppedElements;
+
+    // The popped elements with a value returned by the nonterminal, indexed by their right extent and the value
+    private Map<Key, T> restPoppedElementsWithValue;
+
+    protected AbstractGSSNode(int inputIndex) {
+        this.inputIndex = inputIndex;
+    }
+
+    /**
+     * Processes the given popped element, which is new, with all the edges of this node.
+     */
+    protected abstract void iterateOverEdges(Input input, T result, IguanaRuntime<T> runtime);
+
+    protected void iterateOverPoppedElements(
+            BodyGrammarSlot returnSlot,
+            GSSNode<T> destination,
+            T edgeResult,
+            Environment edgeEnv,
+            Input input,
+            IguanaRuntime<T> runtime) {
+        if (firstPoppedElement != null) processPoppedElement(firstPoppedElement, returnSlot, destination, edgeResult,
+                edgeEnv, input, runtime);
+
+        if (restPoppedElements != null) {
+            for (T poppedElement : restPoppedElements.values()) {
+                processPoppedElement(poppedElement, returnSlot, destination, edgeResult, edgeEnv, input, runtime);
+            }
+        }
+
+        if (restPoppedElementsWithValue != null) {
+            for (T poppedElement : restPoppedElementsWithValue.values()) {
+                processPoppedElement(poppedElement, returnSlot, destination, edgeResult, edgeEnv, input, runtime);
+            }
+        }
+    }
+
+    public boolean pop(Input input, EndGrammarSlot slot, T child, IguanaRuntime<T> runtime) {
+        return pop(input, slot, child, null, runtime);
+    }
+
+    public boolean pop(Input input, EndGrammarSlot slot, T result, Object value, IguanaRuntime<T> runtime) {
+        runtime.getLogger().pop(this, result.getRightExtent(), result, value);
+        T node = addPoppedElements(slot, result, value, runtime.getResultOps());
+        if (node != null) iterateOverEdges(input, node, runtime);
+        return node != null;
+    }
+
+    /**
+     * Returns the newly created popped element, or null if the node already exists
+     */
+    private T addPoppedElements(EndGrammarSlot slot, T child, Object value, ResultOps<T> ops) {
+        // No node added yet
+        if (firstPoppedElement == null) {
+            firstPoppedElement = ops.convert(null, child, slot, value);
+            return firstPoppedElement;
+        } else {
+            int rightIndex = child.getRightExtent();
+
+            // Only one node is added and there is an ambiguity
+            if (rightIndex == firstPoppedElement.getRightExtent() && Objects.equals(value,
+                    firstPoppedElement.getValue())) {
+                ops.convert(firstPoppedElement, child, slot, value);
+            } else if (value == null) {
+                if (restPoppedElements == null) {
+                    restPoppedElements = new OpenAddressingIntHashMap<>();
+                }
+
+                T poppedElement = restPoppedElements.get(rightIndex);
+                if (poppedElement == null) {
+                    poppedElement = ops.convert(null, child, slot, null);
+                    restPoppedElements.put(rightIndex, poppedElement);
+                    return poppedElement;
+                }
+
+                ops.convert(poppedElement, child, slot, null);
+            } else {
+                Key key = Keys.from(rightIndex, value);
+
+                if (restPoppedElementsWithValue == null) {
+                    restPoppedElementsWithValue = new OpenAddressingHashMap<>();
+                }
+
+                T poppedElement = restPoppedElementsWithValue.get(key);
+                if (poppedElement == null) {
+                    poppedElement = ops.convert(null, child, slot, value);
+                    restPoppedElementsWithValue.put(key, poppedElement);
+                    return poppedElement;
+                }
+
+                ops.convert(poppedElement, child, slot, value);
+            }
+            return null;
+        }
+    }
+
+    private void processPoppedElement(
+            T poppedElement,
+            BodyGrammarSlot returnSlot,
+            GSSNode<T> destination,
+            T edgeResult,
+            Environment edgeEnv,
+            Input input,
+            IguanaRuntime<T> runtime) {
+        int rightExtent = poppedElement.getRightExtent();
+        int nextChar = input.charAt(rightExtent);
+        if (returnSlot.testFollow(nextChar)) {
+            T result = addDescriptor(input, poppedElement, returnSlot, destination, edgeResult, edgeEnv, runtime);
+            if (result != null) {
+                // TODO: verify if this fix is correct with more data-dependent examples.
+                // It seems like that some variables escape the scope and this is a problem for array-based environment
+                // implementations that rely on indexes.
+                runtime.scheduleDescriptor(returnSlot, destination, result, runtime.getEnvironment());
+            }
+        } else {
+            String expectedCharacters = returnSlot.getFollowTest().toString();
+            runtime.getLogger().logFollowTestFailed(returnSlot, rightExtent, nextChar, expectedCharacters);
+        }
+    }
+
+    protected void processEdge(
+            Input input,
+            T node,
+            BodyGrammarSlot returnSlot,
+            GSSNode<T> destination,
+            T edgeResult,
+            Environment edgeEnv,
+            IguanaRuntime<T> runtime) {
+        int rightExtent = node.getRightExtent();
+        int nextChar = input.charAt(rightExtent);
+        if (!returnSlot.testFollow(nextChar)) {
+            runtime.getLogger().logFollowTestFailed(returnSlot, rightExtent, nextChar,
+                    returnSlot.getFollowTest().toString());
+            return;
+        }
+
+        T result = addDescriptor(input, node, returnSlot, destination, edgeResult, edgeEnv, runtime);
+        if (result != null) {
+            Environment env = runtime.getEnvironment();
+            runtime.scheduleDescriptor(returnSlot, destination, result, env);
+        }
+    }
+
+    /*
+     *
+     * Does the following:
+     * (1) checks conditions associated with the return slot
+     * (2) checks whether the descriptor to be created has been already created (and scheduled) before
+     * (2.1) if yes, returns null
+     * (2.2) if no, creates one and returns it
+     *
+     */
+    private T addDescriptor(
+            Input input,
+            T result,
+            BodyGrammarSlot returnSlot,
+            GSSNode<T> destination,
+            T edgeResult,
+            Environment edgeEnv,
+            IguanaRuntime<T> runtime) {
+        int inputIndex = result.isDummy() ? getInputIndex() : result.getRightExtent();
+        Environment env = edgeEnv == null ? runtime.getEmptyEnvironment() : edgeEnv;
+
+        if (returnSlot.requiresBinding()) env = returnSlot.doBinding(result, env);
+
+        runtime.setEnvironment(env);
+
+        if (returnSlot.getConditions().execute(input, returnSlot, this, inputIndex, runtime.getEvaluatorContext(),
+                runtime)) {
+            EnvironmentPool.returnToPool(env);
+            return null;
+        }
+
+        env = runtime.getEnvironment();
+
+        return returnSlot.getIntermediateNode(edgeResult, destination.getInputIndex(), result, env, runtime);
+    }
+
+    public int getInputIndex() {
+        return inputIndex;
+    }
+
+    // TODO: find a way to evaluate the environment and the passed arguments
+    public Object[] getData() {
+        return null;
+    }
+
+    public int countPoppedElements() {
+        int count = 0;
+        if (firstPoppedElement != null) count++;
+        if (restPoppedElements != null) count += restPoppedElements.size();
+        if (restPoppedElementsWithValue != null) count += restPoppedElementsWithValue.size();
+        return count;
+    }
+
+    public Iterable<T> getPoppedElements() {
+        List<T> poppedElements = new ArrayList<>(countPoppedElements());
+        if (firstPoppedElement != null) poppedElements.add(firstPoppedElement);
+        if (restPoppedElements != null) restPoppedElements.values().forEach(poppedElements::add);
+        if (restPoppedElementsWithValue != null) poppedElements.addAll(restPoppedElementsWithValue.values());
+
+        return poppedElements;
+    }
+
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+
+        if (!(obj instanceof GSSNode)) return false;
+
+        GSSNode<?> other = (GSSNode<?>) obj;
+
+        return getGrammarSlot() == other.getGrammarSlot() && getInputIndex() == other.getInputIndex() && Arrays.equals(
+                getData(), other.getData());
+    }
+
+    public int hashCode() {
+        return Objects.hash(getGrammarSlot().hashCode(), getInputIndex(), Arrays.hashCode(getData()));
+    }
+
+    public String toString() {
+        String s = String.format("(%s, %d)", getGrammarSlot(), getInputIndex());
+        if (getData() != null) {
+            s += String.format("(%s)", getData());
+        }
+        return s;
+    }
+}
@@ -0,0 +1,176 @@
+package org.iguana.gss;
+
+import org.iguana.datadependent.env.Environment;
+import org.iguana.grammar.slot.BodyGrammarSlot;
+import org.iguana.grammar.slot.NonterminalGrammarSlot;
+import org.iguana.grammar.slot.NonterminalTransition;
+import org.iguana.parser.IguanaRuntime;
+import org.iguana.result.Result;
+import org.iguana.utils.input.Input;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A GSS node that stores its edges without edge objects. Most GSS nodes have a single edge, so the return slot,
+ * the destination, the result (null for dummy edges) and the environment of the first edge are stored in fields.
+ * The components of the other edges share one array: the components of the i-th edge, i > 0, start at index
+ * 4(i - 1).
+ *
+ * A cyclic dummy edge, i.e., an edge to this node with a dummy result, has a null destination. As in
+ * {@link DefaultGSSNode}, the cyclic dummy edges are processed before the other edges, and the edge objects
+ * returned by {@link #getGSSEdges()} are only created on request, e.g., for error recovery.
+ *
+ * The environments are stored as given, even if they are empty: checking whether a persistent environment is empty
+ * allocates, and an empty environment is processed in the same way as a missing one.
+ */
+public class CompactGSSNode<T extends Result> extends AbstractGSSNode<T> {
+
+    private static final int EDGE_SIZE = 4;
+
+    private final BodyGrammarSlot firstReturnSlot;
+
+    private final GSSNode<T> firstDestination;
+
+    private final T firstResult;
+
+    private final Environment firstEnv;
+
+    private Object[] restEdges;
+
+    private int size;
+
+    private boolean hasCyclicEdges;
+
+    public CompactGSSNode(BodyGrammarSlot returnSlot, GSSNode<T> destination, T result, Environment env,
+                          int inputIndex) {
+        super(inputIndex);
+        this.firstReturnSlot = returnSlot;
+        this.firstDestination = destination;
+        this.firstResult = result.isDummy() ? null : result;
+        this.firstEnv = env;
+        this.size = 1;
+    }
+
+    @Override
+    public void addGSSEdge(
+            Input input,
+            BodyGrammarSlot returnSlot,
+            int i,
+            GSSNode<T> destination,
+            T w,
+            Environment env,
+            IguanaRuntime<T> runtime) {
+        runtime.getLogger().gssEdgeAdded(this, returnSlot, destination);
+        T edgeResult = w.isDummy() ? null : w;
+        if (this == destination && edgeResult == null) {
+            add(returnSlot, null, null, env);
+            hasCyclicEdges = true;
+            iterateOverPoppedElements(returnSlot, this, null, env, input, runtime);
+        } else {
+            add(returnSlot, destination, edgeResult, env);
+            iterateOverPoppedElements(returnSlot, destination, edgeResult, env, input, runtime);
+        }
+    }
+
+    private void add(BodyGrammarSlot returnSlot, GSSNode<T> destination, T result, Environment env) {
+        int index = (size - 1) * EDGE_SIZE;
+        if (restEdges == null) {
+            restEdges = new Object[EDGE_SIZE];
+        } else if (index == restEdges.length) {
+            restEdges = Arrays.copyOf(restEdges, index << 1);
+        }
+        restEdges[index] = returnSlot;
+        restEdges[index + 1] = destination;
+        restEdges[index + 2] = result;
+        restEdges[index + 3] = env;
+        size++;
+    }
+
+    @Override
+    protected void iterateOverEdges(Input input, T result, IguanaRuntime<T> runtime) {
+        if (hasCyclicEdges) {
+            for (int i = 0; i < size; i++) {
+                if (getDestination(i) == null) processEdge(input, result, i, runtime);
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            if (getDestination(i) != null) processEdge(input, result, i, runtime);
+        }
+    }
+
+    private void processEdge(Input input, T node, int edge, IguanaRuntime<T> runtime) {
+        GSSNode<T> destination = getDestination(edge) != null ? getDestination(edge) : this;
+        processEdge(input, node, getReturnSlot(edge), destination, getResult(edge), getEnv(edge), runtime);
+    }
+
+    private BodyGrammarSlot getReturnSlot(int edge) {
+        return edge == 0 ? firstReturnSlot : (BodyGrammarSlot) restEdges[(edge - 1) * EDGE_SIZE];
+    }
+
+    @SuppressWarnings("unchecked")
+    private GSSNode<T> getDestination(int edge) {
+        return edge == 0 ? firstDestination : (GSSNode<T>) restEdges[(edge - 1) * EDGE_SIZE + 1];
+    }
+
+    @SuppressWarnings("unchecked")
+    private T getResult(int edge) {
+        return edge == 0 ? firstResult : (T) restEdges[(edge - 1) * EDGE_SIZE + 2];
+    }
+
+    private Environment getEnv(int edge) {
+        return edge == 0 ? firstEnv : (Environment) restEdges[(edge - 1) * EDGE_SIZE + 3];
+    }
+
+    public NonterminalGrammarSlot getGrammarSlot() {
+        // The first edge is added when the node is created, so it is never a cyclic edge
+        return ((NonterminalTransition) firstReturnSlot.getInTransition()).getSlot();
+    }
+
+    /**
+     * Counts the cyclic dummy edges as one edge, as in {@link DefaultGSSNode}.
+     */
+    public int countGSSEdges() {
+        if (!hasCyclicEdges) return size;
+        int count = 1;
+        for (int i = 0; i < size; i++) {
+            if (getDestination(i) != null) count++;
+        }
+        return count;
+    }
+
+    public Iterable<GSSEdge<T>> getGSSEdges() {
+        List<GSSEdge<T>> gssEdges = new ArrayList<>(countGSSEdges());
+        if (hasCyclicEdges) {
+            CyclicDummyGSSEdges<T> cyclicEdges = null;
+            for (int i = 0; i < size; i++) {
+                if (getDestination(i) != null) continue;
+                if (cyclicEdges == null) {
+                    Environment env = nonEmpty(getEnv(i));
+                    cyclicEdges = env == null ? new CyclicDummyGSSEdges<>() : new CyclicDummyGSSEdgesWithEnv<>(env);
+                }
+                cyclicEdges.addReturnSlot(getReturnSlot(i));
+            }
+            gssEdges.add(cyclicEdges);
+        }
+        for (int i = 0; i < size; i++) {
+            GSSNode<T> destination = getDestination(i);
+            if (destination == null) continue;
+            T result = getResult(i);
+            Environment env = nonEmpty(getEnv(i));
+            if (result == null) {
+                gssEdges.add(env == null ? new DummyGSSEdge<>(getReturnSlot(i), destination)
+                    : new DummyGSSEdgeWithEnv<>(getReturnSlot(i), destination, env));
+            } else {
+                gssEdges.add(env == null ? new DefaultGSSEdge<>(getReturnSlot(i), result, destination)
+                    : new DefaultGSSEdgeWithEnv<>(getReturnSlot(i), result, destination, env));
+            }
+        }
+        return gssEdges;
+    }
+
+    private static Environment nonEmpty(Environment env) {
+        return env == null || env.isEmpty() ? null : env;
+    }
+}
@@ -28,46 +28,30 @@
 package org.iguana.gss;
 
 import org.iguana.datadependent.env.Environment;
-import org.iguana.datadependent.env.EnvironmentPool;
 import org.iguana.grammar.slot.BodyGrammarSlot;
-import org.iguana.grammar.slot.EndGrammarSlot;
 import org.iguana.grammar.slot.NonterminalGrammarSlot;
 import org.iguana.grammar.slot.NonterminalTransition;
 import org.iguana.parser.IguanaRuntime;
 import org.iguana.result.Result;
-import org.iguana.result.ResultOps;
-import org.iguana.util.ParserLogger;
-import org.iguana.utils.collections.Keys;
-import org.iguana.utils.collections.OpenAddressingHashMap;
-import org.iguana.utils.collections.key.Key;
 import org.iguana.utils.input.Input;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.Map;
-import java.util.Objects;
 
 /**
  * If there is a cyclic GSSEdge, it's always the first one. If there is a cyclic GSS edge, there is always
  * a second GSS edge which is stored in restGSSEdges.
  */
-public class DefaultGSSNode<T extends Result> implements GSSNode<T> {
-
-    private final int inputIndex;
+public class DefaultGSSNode<T extends Result> extends AbstractGSSNode<T> {
 
     private GSSEdge<T> firstGSSEdge;
 
     private List<GSSEdge<T>> restGSSEdges;
 
-    private T firstPoppedElement;
-
-    private Map<Key, T> restPoppedElements;
-
     public DefaultGSSNode(GSSEdge<T> firstGSSEdge, int inputIndex) {
+        super(inputIndex);
         this.firstGSSEdge = firstGSSEdge;
-        this.inputIndex = inputIndex;
     }
 
     @Override
@@ -84,14 +68,14 @@ public class DefaultGSSNode<T extends Result> implements GSSNode<T> {
                 addGSSEdge(firstGSSEdge);
                 firstGSSEdge = runtime.createGSSEdge(returnSlot, w, null, env);
             }
-            ParserLogger.getInstance().gssEdgeAdded(firstGSSEdge);
+            runtime.getLogger().gssEdgeAdded(firstGSSEdge);
             ((CyclicDummyGSSEdges<T>) firstGSSEdge).addReturnSlot(returnSlot);
-            iterateOverPoppedElements(firstGSSEdge, returnSlot, destination, input, runtime);
+            iterateOverPoppedElements(returnSlot, this, null, firstGSSEdge.getEnv(), input, runtime);
         } else {
             GSSEdge<T> edge = runtime.createGSSEdge(returnSlot, w, destination, env);
-            ParserLogger.getInstance().gssEdgeAdded(edge);
+            runtime.getLogger().gssEdgeAdded(edge);
             addGSSEdge(edge);
-            iterateOverPoppedElements(edge, returnSlot, destination, input, runtime);
+            iterateOverPoppedElements(returnSlot, destination, edge.getResult(), edge.getEnv(), input, runtime);
         }
     }
 
@@ -102,95 +86,8 @@ public class DefaultGSSNode<T extends Result> implements GSSNode<T> {
         restGSSEdges.add(edge);
     }
 
-    private void iterateOverPoppedElements(
-            GSSEdge<T> edge,
-            BodyGrammarSlot returnSlot,
-            GSSNode<T> destination,
-            Input input,
-            IguanaRuntime<T> runtime) {
-        if (firstPoppedElement != null) processPoppedElement(firstPoppedElement, edge, returnSlot, destination, input,
-                runtime);
-
-        if (restPoppedElements != null) {
-            for (T poppedElement : restPoppedElements.values()) {
-                processPoppedElement(poppedElement, edge, returnSlot, destination, input, runtime);
-            }
-        }
-    }
-
-    public boolean pop(Input input, EndGrammarSlot slot, T child, IguanaRuntime<T> runtime) {
-        return pop(input, slot, child, null, runtime);
-    }
-
-    public boolean pop(Input input, EndGrammarSlot slot, T result, Object value, IguanaRuntime<T> runtime) {
-        ParserLogger.getInstance().pop(this, result.getRightExtent(), result, value);
-        T node = addPoppedElements(slot, result, value, runtime.getResultOps());
-        if (node != null) iterateOverEdges(input, node, runtime);
-        return node != null;
-    }
-
-    /**
-     * Returns the newly created popped element, or null if the node already exists
-     */
-    private T addPoppedElements(EndGrammarSlot slot, T child, Object value, ResultOps<T> ops) {
-        // No node added yet
-        if (firstPoppedElement == null) {
-            firstPoppedElement = ops.convert(null, child, slot, value);
-            return firstPoppedElement;
-        } else {
-            int rightIndex = child.getRightExtent();
-
-            // Only one node is added and there is an ambiguity
-            if (rightIndex == firstPoppedElement.getRightExtent() && Objects.equals(value,
-                    firstPoppedElement.getValue())) {
-                ops.convert(firstPoppedElement, child, slot, value);
-            } else {
-                Key key = value == null ? Keys.from(rightIndex) : Keys.from(rightIndex, value);
-
-                if (restPoppedElements == null) {
-                    restPoppedElements = new OpenAddressingHashMap<>();
-                    T poppedElement = ops.convert(null, child, slot, value);
-                    restPoppedElements.put(key, poppedElement);
-                    return poppedElement;
-                }
-
-                T poppedElement = restPoppedElements.get(key);
-                if (poppedElement == null) {
-                    poppedElement = ops.convert(null, child, slot, value);
-                    restPoppedElements.put(key, poppedElement);
-                    return poppedElement;
-                }
-
-                ops.convert(poppedElement, child, slot, value);
-            }
-            return null;
-        }
-    }
-
-    private void processPoppedElement(
-            T poppedElement,
-            GSSEdge<T> edge,
-            BodyGrammarSlot returnSlot,
-            GSSNode<T> destination,
-            Input input,
-            IguanaRuntime<T> runtime) {
-        int rightExtent = poppedElement.getRightExtent();
-        int nextChar = input.charAt(rightExtent);
-        if (returnSlot.testFollow(nextChar)) {
-            T result = addDescriptor(input, this, poppedElement, edge, returnSlot, runtime);
-            if (result != null) {
-                // TODO: verify if this fix is correct with more data-dependent examples.
-                // It seems like that some variables escape the scope and this is a problem for array-based environment
-                // implementations that rely on indexes.
-                runtime.scheduleDescriptor(returnSlot, destination, result, runtime.getEnvironment());
-            }
-        } else {
-            String expectedCharacters = returnSlot.getFollowTest().toString();
-            ParserLogger.getInstance().logFollowTestFailed(returnSlot, rightExtent, nextChar, expectedCharacters);
-        }
-    }
-
-    private void iterateOverEdges(Input input, T result, IguanaRuntime<T> runtime) {
+    @Override
+    protected void iterateOverEdges(Input input, T result, IguanaRuntime<T> runtime) {
         if (firstGSSEdge instanceof CyclicDummyGSSEdges<?>) {
             List<BodyGrammarSlot> returnSlots = ((CyclicDummyGSSEdges<?>) firstGSSEdge).getReturnSlots();
             for (int i = 0; i < returnSlots.size(); i++) {
@@ -208,55 +105,8 @@ public class DefaultGSSNode<T extends Result> implements GSSNode<T> {
 
     private void processEdge(
             Input input, T node, GSSEdge<T> edge, BodyGrammarSlot returnSlot, IguanaRuntime<T> runtime) {
-        int rightExtent = node.getRightExtent();
-        int nextChar = input.charAt(rightExtent);
-        if (!returnSlot.testFollow(nextChar)) {
-            ParserLogger.getInstance().logFollowTestFailed(returnSlot, rightExtent, nextChar,
-                    returnSlot.getFollowTest().toString());
-            return;
-        }
-
-        T result = addDescriptor(input, this, node, edge, returnSlot, runtime);
-        if (result != null) {
-            Environment env = runtime.getEnvironment();
-            runtime.scheduleDescriptor(returnSlot, edge.getDestination() != null ? edge.getDestination() : this, result,
-                    env);
-        }
-    }
-
-    /*
-     *
-     * Does the following:
-     * (1) checks conditions associated with the return slot
-     * (2) checks whether the descriptor to be created has been already created (and scheduled) before
-     * (2.1) if yes, returns null
-     * (2.2) if no, creates one and returns it
-     *
-     */
-    private T addDescriptor(
-            Input input,
-            GSSNode<T> source,
-            T result,
-            GSSEdge<T> edge,
-            BodyGrammarSlot returnSlot,
-            IguanaRuntime<T> runtime) {
-        int inputIndex = result.isDummy() ? source.getInputIndex() : result.getRightExtent();
-        Environment env = edge.getEnv() == null ? runtime.getEmptyEnvironment() : edge.getEnv();
-        GSSNode<T> destination = edge.getDestination() != null ? edge.getDestination() : source;
-
-        if (returnSlot.requiresBinding()) env = returnSlot.doBinding(result, env);
-
-        runtime.setEnvironment(env);
-
-        if (returnSlot.getConditions().execute(input, returnSlot, source, inputIndex, runtime.getEvaluatorContext(),
-                runtime)) {
-            EnvironmentPool.returnToPool(env);
-            return null;
-        }
-
-        env = runtime.getEnvironment();
-
-        return returnSlot.getIntermediateNode(edge.getResult(), destination.getInputIndex(), result, env, runtime);
+        GSSNode<T> destination = edge.getDestination() != null ? edge.getDestination() : this;
+        processEdge(input, node, returnSlot, destination, edge.getResult(), edge.getEnv(), runtime);
     }
 
     public NonterminalGrammarSlot getGrammarSlot() {
@@ -269,15 +119,6 @@ public class DefaultGSSNode<T extends Result> implements GSSNode<T> {
         return transition.getSlot();
     }
 
-    public int getInputIndex() {
-        return inputIndex;
-    }
-
-    // TODO: find a way to evaluate the environment and the passed arguments
-    public Object[] getData() {
-        return null;
-    }
-
     public int countGSSEdges() {
         int count = 0;
         count += firstGSSEdge == null ? 0 : 1;
@@ -285,13 +126,6 @@ public class DefaultGSSNode<T extends Result> implements GSSNode<T> {
         return count;
     }
 
-    public int countPoppedElements() {
-        int count = 0;
-        if (firstPoppedElement != null) count++;
-        if (restPoppedElements != null) count += restPoppedElements.size();
-        return count;
-    }
-
     public Iterable<GSSEdge<T>> getGSSEdges() {
         int size = countGSSEdges();
         if (size == 0) return Collections.emptyList();
@@ -304,35 +138,4 @@ public class DefaultGSSNode<T extends Result> implements GSSNode<T> {
         }
         return gssEdges;
     }
-
-    public boolean equals(Object obj) {
-        if (this == obj) return true;
-
-        if (!(obj instanceof GSSNode)) return false;
-
-        GSSNode<?> other = (GSSNode<?>) obj;
-
-        return getGrammarSlot() == other.getGrammarSlot() && getInputIndex() == other.getInputIndex() && Arrays.equals(
-                getData(), other.getData());
-    }
-
-    public int hashCode() {
-        return Objects.hash(getGrammarSlot().hashCode(), getInputIndex(), Arrays.hashCode(getData()));
-    }
-
-    public Iterable<T> getPoppedElements() {
-        List<T> poppedElements = new ArrayList<>(countPoppedElements());
-        if (firstPoppedElement != null) poppedElements.add(firstPoppedElement);
-        if (restPoppedElements != null) poppedElements.addAll(restPoppedElements.values());
-
-        return poppedElements;
-    }
-
-    public String toString() {
-        String s = String.format("(%s, %d)", getGrammarSlot(), getInputIndex());
-        if (getData() != null) {
-            s += String.format("(%s)", getData());
-        }
-        return s;
-    }
 }
@@ -6,7 +6,6 @@ import org.iguana.grammar.slot.EndGrammarSlot;
 import org.iguana.grammar.slot.NonterminalGrammarSlot;
 import org.iguana.parser.IguanaRuntime;
 import org.iguana.result.Result;
-import org.iguana.util.ParserLogger;
 import org.iguana.utils.collections.primitive.IntHashMap;
 import org.iguana.utils.collections.primitive.OpenAddressingIntHashMap;
 import org.iguana.utils.input.Input;
@@ -66,7 +65,7 @@ public class StartGSSNode<T extends Result> implements GSSNode<T> {
 
     @Override
     public boolean pop(Input input, EndGrammarSlot slot, T result, Object value, IguanaRuntime<T> runtime) {
-        ParserLogger.getInstance().pop(this, result.getLeftExtent(), result, value);
+        runtime.getLogger().pop(this, result.getLeftExtent(), result, value);
 
         int index = result.getRightExtent();
         T poppedElement = poppedElements.get(index);
@@ -28,6 +28,8 @@
 package org.iguana.parser;
 
 import org.iguana.grammar.Grammar;
+import org.iguana.grammar.GrammarCache;
+import org.iguana.grammar.GrammarGraphSnapshot;
 import org.iguana.grammar.runtime.RuntimeGrammar;
 import org.iguana.grammar.slot.ErrorTransition;
 import org.iguana.grammar.symbol.Nonterminal;
@@ -43,9 +45,9 @@ import org.iguana.parsetree.ParseTreeNode;
 import org.iguana.result.ParserResultOps;
 import org.iguana.sppf.NonPackedNode;
 import org.iguana.sppf.NonterminalNode;
-import org.iguana.traversal.AmbiguousSPPFToParseTreeVisitor;
-import org.iguana.traversal.DefaultSPPFToParseTreeVisitor;
+import org.iguana.sppf.SPPFArena;
 import org.iguana.util.Configuration;
+import org.iguana.util.ParserLogger;
 import org.iguana.util.Tuple;
 import org.iguana.utils.input.Input;
 
@@ -58,11 +60,7 @@ import static org.iguana.parser.options.ParseOptions.defaultOptions;
 
 public class IguanaParser extends IguanaRecognizer {
 
-    private static final ParserResultOps parserResultOps = new ParserResultOps();
-
-    private ParseTreeNode parseTree;
-    private NonterminalNode sppf;
-    private Input input;
+    private ParseResult result;
 
     public IguanaParser(Grammar grammar) {
         this(grammar, Configuration.load());
@@ -72,6 +70,10 @@ public class IguanaParser extends IguanaRecognizer {
         super(grammar, config);
     }
 
+    public IguanaParser(Grammar grammar, Configuration config, GrammarCache cache) {
+        super(grammar, config, cache);
+    }
+
     public IguanaParser(RuntimeGrammar grammar) {
         this(grammar, Configuration.load());
     }
@@ -80,6 +82,10 @@ public class IguanaParser extends IguanaRecognizer {
         super(grammar, config);
     }
 
+    public IguanaParser(GrammarGraphSnapshot snapshot, Configuration config) {
+        super(snapshot, config);
+    }
+
     public void parse(Input input, Symbol symbol, ParseOptions parseOptions) {
         if (symbol instanceof Nonterminal) parse(input, (Nonterminal) symbol, parseOptions);
         else if (symbol instanceof Start) parse(input, (Start) symbol, parseOptions);
@@ -104,50 +110,77 @@ public class IguanaParser extends IguanaRecognizer {
 
     public void parse(Input input, Nonterminal start, ParseOptions parseOptions) {
         clear();
-        this.input = input;
-        IguanaRuntime<NonPackedNode> runtime = new IguanaRuntime<>(config, parserResultOps);
         long startTime = System.nanoTime();
-        this.sppf = (NonterminalNode) runtime.run(input, start, grammarGraph, parseOptions.getMap(),
-            parseOptions.isGlobal());
+        ParseResult result = tryParse(input, start, parseOptions);
         long endTime = System.nanoTime();
-        this.statistics = runtime.getStatistics();
-        if (sppf == null) {
-            if (parseOptions.isErrorRecoveryEnabled()) {
-                PriorityQueue<ParseError<NonPackedNode>> parseErrors = runtime.getParseErrors();
-                outer:
-                while (!parseErrors.isEmpty()) {
-                    List<Tuple<GSSEdge<NonPackedNode>, ErrorTransition>> errorSlots = new ArrayList<>();
-                    GSSNode<NonPackedNode> gssNode = parseErrors.poll().getGssNode();
-                    runtime.collectErrorSlots(gssNode, errorSlots, new HashSet<>());
-                    for (Tuple<GSSEdge<NonPackedNode>, ErrorTransition> t : errorSlots) {
-                        runtime.recoverFromError(t.getFirst(), t.getSecond(), input);
-                        NonPackedNode recoveryResult = runtime.runParserLoop(runtime.getStartGSSNode(), input);
-                        if (recoveryResult != null) {
-                            sppf = (NonterminalNode) recoveryResult;
-                            break outer;
-                        }
+        this.result = result;
+        this.statistics = result.getStatistics();
+        if (!result.isSuccess()) {
+            this.parseError = result.getParseError();
+            throw new ParseErrorException(parseError);
+        }
+        System.out.println("Parsing finished in " + (endTime - startTime) / 1000_000 + "ms.");
+    }
+
+    public ParseResult tryParse(Input input, Symbol symbol, ParseOptions parseOptions) {
+        if (symbol instanceof Nonterminal) return tryParse(input, (Nonterminal) symbol, parseOptions);
+        if (symbol instanceof Start) return tryParse(input, Nonterminal.withName(symbol.getName()), parseOptions);
+        throw new RuntimeException("Symbol should be a nonterminal or start, but was: " + symbol.getClass());
+    }
+
+    /**
+     * Parses the input and returns the result, without throwing an exception if the input cannot be parsed.
+     * Unlike {@link #parse(Input, Nonterminal, ParseOptions)}, this method does not store the result in the parser,
+     * and can therefore be called from multiple threads concurrently.
+     */
+    public ParseResult tryParse(Input input, Nonterminal start, ParseOptions parseOptions) {
+        ParserLogger logger = createLogger(parseOptions);
+        ParserResultOps parserResultOps = new ParserResultOps(logger);
+        IguanaRuntime<NonPackedNode> runtime = new IguanaRuntime<>(config, parserResultOps, logger,
+            parseOptions.getSchedulingPolicy().create());
+        NonterminalNode sppf = (NonterminalNode) runtime.run(input, start, grammarGraph, parseOptions.getMap(),
+            parseOptions.isGlobal());
+        if (sppf == null && parseOptions.isErrorRecoveryEnabled()) {
+            PriorityQueue<ParseError<NonPackedNode>> parseErrors = runtime.getParseErrors();
+            outer:
+            while (!parseErrors.isEmpty()) {
+                List<Tuple<GSSEdge<NonPackedNode>, ErrorTransition>> errorSlots = new ArrayList<>();
+                GSSNode<NonPackedNode> gssNode = parseErrors.poll().getGssNode();
+                runtime.collectErrorSlots(gssNode, errorSlots, new HashSet<>());
+                for (Tuple<GSSEdge<NonPackedNode>, ErrorTransition> t : errorSlots) {
+                    runtime.recoverFromError(t.getFirst(), t.getSecond(), input);
+                    NonPackedNode recoveryResult = runtime.runParserLoop(runtime.getStartGSSNode(), input);
+                    if (recoveryResult != null) {
+                        sppf = (NonterminalNode) recoveryResult;
+                        break outer;
                     }
                 }
             }
-            if (sppf == null) {
-                this.parseError = runtime.getParseErrors().peek();
-                throw new ParseErrorException(parseError);
-            }
-        } else {
-            System.out.println("Parsing finished in " + (endTime - startTime) / 1000_000 + "ms.");
         }
+        ParseError<?> parseError = sppf == null ? runtime.getParseErrors().peek() : null;
+        if (sppf != null && parseOptions.isCompactSPPF()) {
+            return new ParseResult(input, SPPFArena.of(sppf), getParseTreeBuilder(input),
+                (ParseStatistics) runtime.getStatistics());
+        }
+        return new ParseResult(input, sppf, getParseTreeBuilder(input),
+            (ParseStatistics) runtime.getStatistics(), parseError);
     }
 
     @Override
     protected void clear() {
         super.clear();
-        this.sppf = null;
-        this.parseTree = null;
-        this.input = null;
+        this.result = null;
+    }
+
+    /**
+     * Returns the result of the last call to parse, or null if parse has not been called.
+     */
+    public ParseResult getParseResult() {
+        return result;
     }
 
     public NonterminalNode getSPPF() {
-        return sppf;
+        return result == null ? null : result.getSPPF();
     }
 
     public ParseTreeNode getParseTree() {
@@ -155,27 +188,10 @@ public class IguanaParser extends IguanaRecognizer {
     }
 
     public ParseTreeNode getParseTree(ParseTreeOptions options) {
-        if (parseTree != null) return parseTree;
-
-        if (sppf == null) return null;
-
-        boolean allowAmbiguities = options.allowAmbiguities();
-        boolean ignoreLayout = options.ignoreLayout();
-
-        if (allowAmbiguities) {
-            AmbiguousSPPFToParseTreeVisitor<ParseTreeNode> visitor =
-                new AmbiguousSPPFToParseTreeVisitor<>(getParseTreeBuilder(input), ignoreLayout, parserResultOps);
-            long start = System.nanoTime();
-            ParseTreeNode node = (ParseTreeNode) sppf.accept(visitor).getValues().get(0);
-            long end = System.nanoTime();
-            System.out.println("Parse tree creation finished in " + (end - start) / 1000_000 + "ms.");
-            return node;
-        }
+        if (result == null || !result.isSuccess()) return null;
 
-        DefaultSPPFToParseTreeVisitor<ParseTreeNode> visitor =
-            new DefaultSPPFToParseTreeVisitor<>(getParseTreeBuilder(input), input, ignoreLayout, parserResultOps);
         long start = System.nanoTime();
-        this.parseTree = sppf.accept(visitor);
+        ParseTreeNode parseTree = result.getParseTree(options);
         long end = System.nanoTime();
         System.out.println("Parse tree creation finished in " + (end - start) / 1000_000 + "ms.");
 
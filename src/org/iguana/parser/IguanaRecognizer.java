@@ -1,8 +1,11 @@
 package org.iguana.parser;
 
 import org.iguana.grammar.Grammar;
+import org.iguana.grammar.GrammarCache;
 import org.iguana.grammar.GrammarGraph;
 import org.iguana.grammar.GrammarGraphBuilder;
+import org.iguana.grammar.GrammarGraphSnapshot;
+import org.iguana.grammar.GrammarGraphTimings;
 import org.iguana.grammar.runtime.RuntimeGrammar;
 import org.iguana.grammar.symbol.Nonterminal;
 import org.iguana.grammar.symbol.Start;
@@ -12,6 +15,8 @@ import org.iguana.parser.options.RecognizerOptions;
 import org.iguana.result.RecognizerResult;
 import org.iguana.result.RecognizerResultOps;
 import org.iguana.util.Configuration;
+import org.iguana.util.DefaultParserLogger;
+import org.iguana.util.ParserLogger;
 import org.iguana.utils.input.Input;
 
 public class IguanaRecognizer {
@@ -34,6 +39,16 @@ public class IguanaRecognizer {
         this(GrammarTransformer.transform(grammar.toRuntimeGrammar()), config);
     }
 
+    /**
+     * Creates a recognizer with the transformed grammar and the grammar graph from the cache, see
+     * {@link GrammarCache}.
+     */
+    public IguanaRecognizer(Grammar grammar, Configuration config, GrammarCache cache) {
+        this.grammarGraph = cache.getGrammarGraph(grammar, config);
+        this.config = config;
+        this.finalGrammar = cache.getRuntimeGrammar(grammar);
+    }
+
     public IguanaRecognizer(RuntimeGrammar grammar) {
         this(grammar, Configuration.load());
     }
@@ -44,6 +59,15 @@ public class IguanaRecognizer {
         this.finalGrammar = grammar;
     }
 
+    /**
+     * Creates a recognizer from a snapshot of a grammar graph, see {@link GrammarGraphSnapshot}.
+     */
+    public IguanaRecognizer(GrammarGraphSnapshot snapshot, Configuration config) {
+        this.grammarGraph = snapshot.toGrammarGraph(config);
+        this.config = config;
+        this.finalGrammar = snapshot.getGrammar();
+    }
+
     public boolean recognize(Input input, Symbol symbol) {
         if (symbol instanceof Nonterminal) return recognize(input, (Nonterminal) symbol);
         else if (symbol instanceof Start) return recognize(input, (Start) symbol);
@@ -61,7 +85,11 @@ public class IguanaRecognizer {
 
     public boolean recognize(Input input, Nonterminal start, RecognizerOptions options) {
         clear();
-        IguanaRuntime<RecognizerResult> runtime = new IguanaRuntime<>(config, recognizerResultOps);
+        IguanaRuntime<RecognizerResult> runtime = new IguanaRuntime<>(config, recognizerResultOps,
+            createLogger(options), options.getSchedulingPolicy().create());
+        if (options.isMemoryBounded()) {
+            runtime.enableSweeping();
+        }
         RecognizerResult result = runtime.run(input, start, grammarGraph, options.getMap(), options.isGlobal());
         this.statistics = runtime.getStatistics();
         if (result == null) {
@@ -79,16 +107,26 @@ public class IguanaRecognizer {
         return parseError;
     }
 
+    /**
+     * Returns the time spent in the phases of building the grammar graph of this recognizer.
+     */
+    public GrammarGraphTimings getGrammarGraphTimings() {
+        return grammarGraph.getTimings();
+    }
+
     public RuntimeGrammar getFinalGrammar() {
         return finalGrammar;
     }
 
     protected void clear() {
-        grammarGraph.clear();
         parseError = null;
         statistics = null;
     }
 
+    protected ParserLogger createLogger(RecognizerOptions options) {
+        return options.isStatisticsEnabled() ? new DefaultParserLogger(config) : ParserLogger.NONE;
+    }
+
     protected static Start assertStartSymbolNotNull(Start start) {
         if (start == null) {
             throw new RuntimeException("Start symbol is not set");
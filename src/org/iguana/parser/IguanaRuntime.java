@@ -12,22 +12,35 @@ import org.iguana.grammar.slot.GrammarSlot;
 import org.iguana.grammar.slot.NonterminalGrammarSlot;
 import org.iguana.grammar.slot.TerminalGrammarSlot;
 import org.iguana.grammar.symbol.Nonterminal;
+import org.iguana.gss.CompactGSSNode;
 import org.iguana.gss.CyclicDummyGSSEdges;
 import org.iguana.gss.CyclicDummyGSSEdgesWithEnv;
 import org.iguana.gss.DefaultGSSEdge;
 import org.iguana.gss.DefaultGSSEdgeWithEnv;
+import org.iguana.gss.DefaultGSSNode;
 import org.iguana.gss.DummyGSSEdge;
 import org.iguana.gss.DummyGSSEdgeWithEnv;
 import org.iguana.gss.GSSEdge;
 import org.iguana.gss.GSSNode;
 import org.iguana.gss.StartGSSNode;
 import org.iguana.parser.descriptor.Descriptor;
+import org.iguana.parser.descriptor.DescriptorScheduler;
+import org.iguana.parser.descriptor.InputOrderedDescriptorScheduler;
+import org.iguana.parser.descriptor.LIFODescriptorScheduler;
 import org.iguana.result.ParserResultOps;
 import org.iguana.result.Result;
 import org.iguana.result.ResultOps;
 import org.iguana.util.Configuration;
+import org.iguana.util.DefaultParserLogger;
 import org.iguana.util.ParserLogger;
 import org.iguana.util.Tuple;
+import org.iguana.utils.collections.OpenAddressingHashMap;
+import org.iguana.utils.collections.key.Key;
+import org.iguana.utils.collections.primitive.IntHashMap;
+import org.iguana.utils.collections.primitive.IntKeyEntry;
+import org.iguana.utils.collections.primitive.LongKeyEntry;
+import org.iguana.utils.collections.primitive.OpenAddressingIntHashMap;
+import org.iguana.utils.collections.primitive.OpenAddressingLongHashMap;
 import org.iguana.utils.input.Input;
 
 import java.util.ArrayDeque;
@@ -39,18 +52,24 @@ import java.util.Map;
 import java.util.PriorityQueue;
 import java.util.Set;
 import java.util.function.Function;
+import java.util.function.ToIntFunction;
 
 public class IguanaRuntime<T extends Result> {
 
+    /**
+     * The number of input positions the parser advances between two sweeps of the per-position tables.
+     */
+    private static final int SWEEP_INTERVAL = 1024;
+
     private final Deque<Descriptor<T>> descriptorPool;
 
-    private final Deque<Descriptor<T>> descriptorsStack;
+    private final DescriptorScheduler<T> scheduler;
 
     private final IEvaluatorContext ctx;
 
     private final Configuration config;
 
-    private final ParserLogger logger = ParserLogger.getInstance();
+    private final ParserLogger logger;
 
     private final ResultOps<T> resultOps;
 
@@ -60,10 +79,54 @@ public class IguanaRuntime<T extends Result> {
 
     private StartGSSNode<T> startGSSNode;
 
+    // The per-parse tables of the grammar slots, indexed by the slot ids. The grammar graph is not modified during
+    // parsing, so it can be shared between runtimes that parse concurrently.
+    private IntHashMap<GSSNode<T>>[] intGSSNodes;
+
+    private Map<Key, GSSNode<T>>[] gssNodes;
+
+    private IntHashMap<Object>[] terminalNodes;
+
+    private TerminalMemoTable[] terminalMemoTables;
+
+    private int inputLength;
+
+    private TokenCache tokenCache;
+
+    private Map<Key, T>[] intermediateNodes;
+
+    private OpenAddressingLongHashMap<T>[] longIntermediateNodes;
+
+    private boolean sweepingEnabled;
+
+    // The input index before which the per-position tables have been swept
+    private int sweptInputIndex;
+
     public IguanaRuntime(Configuration config, ResultOps<T> resultOps) {
+        this(config, resultOps, new DefaultParserLogger(config));
+    }
+
+    /**
+     * Creates a runtime that reports the parsing events to the given logger. Use {@link ParserLogger#NONE}
+     * to parse without collecting statistics. The same logger should be given to the result ops creating the
+     * SPPF nodes.
+     */
+    public IguanaRuntime(Configuration config, ResultOps<T> resultOps, ParserLogger logger) {
+        this(config, resultOps, logger, new LIFODescriptorScheduler<>());
+    }
+
+    /**
+     * Creates a runtime that processes the descriptors in the order of the given scheduler.
+     */
+    public IguanaRuntime(
+            Configuration config,
+            ResultOps<T> resultOps,
+            ParserLogger logger,
+            DescriptorScheduler<T> scheduler) {
         this.config = config;
         this.resultOps = resultOps;
-        this.descriptorsStack = new ArrayDeque<>(512);
+        this.logger = logger;
+        this.scheduler = scheduler;
         this.descriptorPool = new ArrayDeque<>(512);
         this.ctx = GLLEvaluator.getEvaluatorContext(config);
         this.parseErrors = new PriorityQueue<>((error1, error2) -> error2.getInputIndex() - error1.getInputIndex());
@@ -71,6 +134,8 @@ public class IguanaRuntime<T extends Result> {
 
     public T run(Input input, Nonterminal start, GrammarGraph grammarGraph, Map<String, Object> map, boolean global) {
         clearState(grammarGraph);
+        inputLength = input.length();
+        tokenCache = grammarGraph.getScanner() == null ? null : new TokenCache(grammarGraph.getScanner(), input);
 
         IEvaluatorContext ctx = getEvaluatorContext();
 
@@ -113,9 +178,6 @@ public class IguanaRuntime<T extends Result> {
             startGSSNode = new StartGSSNode<>(startSlot, 0);
         }
 
-        ParserLogger logger = ParserLogger.getInstance();
-        logger.reset();
-
         for (BodyGrammarSlot slot : startSlot.getFirstSlots()) {
             scheduleDescriptor(slot, startGSSNode, getResultOps().dummy(), env);
         }
@@ -126,6 +188,9 @@ public class IguanaRuntime<T extends Result> {
     public T runParserLoop(StartGSSNode<T> startGSSNode, Input input) {
         while (hasDescriptor()) {
             Descriptor<T> descriptor = nextDescriptor();
+            if (sweepingEnabled && descriptor.getInputIndex() - sweptInputIndex >= SWEEP_INTERVAL) {
+                sweep(descriptor.getInputIndex());
+            }
             logger.processDescriptor(descriptor);
             descriptor.getGrammarSlot().execute(input, descriptor.getGSSNode(), descriptor.getResult(),
                     descriptor.getEnv(), this);
@@ -140,11 +205,101 @@ public class IguanaRuntime<T extends Result> {
         return null;
     }
 
+    @SuppressWarnings({"unchecked", "rawtypes"})
     private void clearState(GrammarGraph grammarGraph) {
-        grammarGraph.clear();
+        intGSSNodes = new IntHashMap[grammarGraph.getNonterminalSlotsCount()];
+        gssNodes = new Map[grammarGraph.getNonterminalSlotsCount()];
+        terminalNodes = new IntHashMap[grammarGraph.getTerminalSlotsCount()];
+        terminalMemoTables = new TerminalMemoTable[grammarGraph.getTerminalSlotsCount()];
+        intermediateNodes = new Map[grammarGraph.getBodySlotsCount()];
+        longIntermediateNodes = new OpenAddressingLongHashMap[grammarGraph.getBodySlotsCount()];
+        logger.reset();
         descriptorPool.clear();
-        descriptorsStack.clear();
+        scheduler.clear();
         parseErrors.clear();
+        sweptInputIndex = 0;
+    }
+
+    /**
+     * Enables sweeping of the GSS nodes, terminal nodes, intermediate nodes and scanned tokens at the input positions
+     * that the parser has passed. As descriptors are processed in the order of their input index, these nodes are not
+     * looked up anymore, and the memory used by the tables depends on the number of positions the parser is
+     * processing at the same time, rather than the length of the input. The swept GSS nodes remain reachable
+     * through the GSS edges of the active nodes.
+     *
+     * Sweeping is only used for recognition: swept intermediate nodes are not shared anymore, which would lead
+     * to an incomplete SPPF.
+     *
+     * @throws IllegalStateException if the runtime does not use an {@link InputOrderedDescriptorScheduler}
+     */
+    public void enableSweeping() {
+        if (!(scheduler instanceof InputOrderedDescriptorScheduler)) {
+            throw new IllegalStateException("Sweeping requires an input-ordered descriptor scheduler");
+        }
+        this.sweepingEnabled = true;
+    }
+
+    private void sweep(int inputIndex) {
+        for (int i = 0; i < intGSSNodes.length; i++) {
+            intGSSNodes[i] = sweep(intGSSNodes[i], inputIndex);
+        }
+        for (int i = 0; i < gssNodes.length; i++) {
+            gssNodes[i] = sweep(gssNodes[i], inputIndex, GSSNode::getInputIndex);
+        }
+        for (int i = 0; i < terminalNodes.length; i++) {
+            terminalNodes[i] = sweep(terminalNodes[i], inputIndex);
+            if (terminalMemoTables[i] != null) terminalMemoTables[i].sweep(inputIndex);
+        }
+        for (int i = 0; i < intermediateNodes.length; i++) {
+            intermediateNodes[i] = sweep(intermediateNodes[i], inputIndex, Result::getRightExtent);
+        }
+        for (int i = 0; i < longIntermediateNodes.length; i++) {
+            longIntermediateNodes[i] = sweep(longIntermediateNodes[i], inputIndex);
+        }
+        if (tokenCache != null) tokenCache.sweep(inputIndex);
+        sweptInputIndex = inputIndex;
+    }
+
+    /**
+     * Returns a copy of the table without the entries at input indices smaller than the given one, or null if
+     * no entries remain. The open addressing tables do not support removing entries.
+     */
+    private static <V> IntHashMap<V> sweep(IntHashMap<V> table, int inputIndex) {
+        if (table == null) return null;
+        IntHashMap<V> result = null;
+        for (IntKeyEntry<V> entry : table) {
+            if (entry.getKey() >= inputIndex) {
+                if (result == null) result = new OpenAddressingIntHashMap<>();
+                result.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return result;
+    }
+
+    private static <V extends Result> OpenAddressingLongHashMap<V> sweep(
+            OpenAddressingLongHashMap<V> table,
+            int inputIndex) {
+        if (table == null) return null;
+        OpenAddressingLongHashMap<V> result = null;
+        for (LongKeyEntry<V> entry : table) {
+            if (entry.getValue().getRightExtent() >= inputIndex) {
+                if (result == null) result = new OpenAddressingLongHashMap<>();
+                result.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return result;
+    }
+
+    private static <V> Map<Key, V> sweep(Map<Key, V> table, int inputIndex, ToIntFunction<V> inputIndexOf) {
+        if (table == null) return null;
+        Map<Key, V> result = null;
+        for (Map.Entry<Key, V> entry : table.entrySet()) {
+            if (inputIndexOf.applyAsInt(entry.getValue()) >= inputIndex) {
+                if (result == null) result = new OpenAddressingHashMap<>();
+                result.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return result;
     }
 
     public void recordParseError(
@@ -155,8 +310,15 @@ public class IguanaRuntime<T extends Result> {
             String description) {
         ParseError<T> error = new ParseError<>(slot, gssNode, inputIndex, input.getLineNumber(inputIndex),
                 input.getColumnNumber(inputIndex), description);
-        parseErrors.add(error);
         logger.error(error);
+        // When sweeping, only the errors at the last input position are kept, otherwise the GSS nodes of all
+        // errors remain reachable.
+        if (sweepingEnabled && !parseErrors.isEmpty()) {
+            int lastInputIndex = parseErrors.peek().getInputIndex();
+            if (inputIndex < lastInputIndex) return;
+            if (inputIndex > lastInputIndex) parseErrors.clear();
+        }
+        parseErrors.add(error);
     }
 
     /*
@@ -203,11 +365,11 @@ public class IguanaRuntime<T extends Result> {
     }
 
     public boolean hasDescriptor() {
-        return !descriptorsStack.isEmpty();
+        return !scheduler.isEmpty();
     }
 
     public Descriptor<T> nextDescriptor() {
-        Descriptor<T> descriptor = descriptorsStack.pop();
+        Descriptor<T> descriptor = scheduler.remove();
         descriptorPool.push(descriptor);
         return descriptor;
     }
@@ -220,10 +382,124 @@ public class IguanaRuntime<T extends Result> {
         } else {
             descriptor = new Descriptor<>(grammarSlot, gssNode, result, env);
         }
-        descriptorsStack.push(descriptor);
+        scheduler.add(descriptor);
         logger.descriptorAdded(descriptor);
     }
 
+    /**
+     * Returns the GSS nodes of the given nonterminal slot, created for nonterminals without arguments,
+     * indexed by their input index.
+     */
+    public IntHashMap<GSSNode<T>> getIntGSSNodes(NonterminalGrammarSlot slot) {
+        IntHashMap<GSSNode<T>> nodes = intGSSNodes[slot.getId()];
+        if (nodes == null) {
+            nodes = new OpenAddressingIntHashMap<>();
+            intGSSNodes[slot.getId()] = nodes;
+        }
+        return nodes;
+    }
+
+    /**
+     * Returns the GSS nodes of the given nonterminal slot, created for nonterminals with arguments,
+     * indexed by the input index and the values of the arguments.
+     */
+    public Map<Key, GSSNode<T>> getGSSNodes(NonterminalGrammarSlot slot) {
+        Map<Key, GSSNode<T>> nodes = gssNodes[slot.getId()];
+        if (nodes == null) {
+            nodes = new OpenAddressingHashMap<>();
+            gssNodes[slot.getId()] = nodes;
+        }
+        return nodes;
+    }
+
+    /**
+     * Returns the terminal nodes, or the recorded failures, of the given terminal slot indexed by the input index.
+     * With the dense terminal memo, the failures are recorded in the memo table, and the terminal nodes are only
+     * stored if the result ops share them.
+     */
+    public IntHashMap<Object> getTerminalNodes(TerminalGrammarSlot slot) {
+        IntHashMap<Object> nodes = terminalNodes[slot.getId()];
+        if (nodes == null) {
+            nodes = new OpenAddressingIntHashMap<>();
+            terminalNodes[slot.getId()] = nodes;
+        }
+        return nodes;
+    }
+
+    /**
+     * Returns whether the matches of the terminals are memoized in {@link TerminalMemoTable}s.
+     */
+    public boolean usesDenseTerminalMemo() {
+        return config.getTerminalMemoImpl() == Configuration.TerminalMemoImpl.DENSE;
+    }
+
+    /**
+     * Returns the cache of the matches of all the terminals at the input positions, or null if the terminals are
+     * matched by their own matchers.
+     */
+    public TokenCache getTokenCache() {
+        return tokenCache;
+    }
+
+    public TerminalMemoTable getTerminalMemoTable(TerminalGrammarSlot slot) {
+        TerminalMemoTable table = terminalMemoTables[slot.getId()];
+        if (table == null) {
+            table = new TerminalMemoTable(inputLength);
+            terminalMemoTables[slot.getId()] = table;
+        }
+        return table;
+    }
+
+    /**
+     * Returns the intermediate nodes of the given slot that are created in a non-empty environment, indexed by
+     * their left and right extents and the environment.
+     */
+    public Map<Key, T> getIntermediateNodes(BodyGrammarSlot slot) {
+        Map<Key, T> nodes = intermediateNodes[slot.getId()];
+        if (nodes == null) {
+            nodes = new OpenAddressingHashMap<>();
+            intermediateNodes[slot.getId()] = nodes;
+        }
+        return nodes;
+    }
+
+    /**
+     * Returns the intermediate nodes of the given slot that are created in an empty environment, indexed by their
+     * left and right extents packed with {@link OpenAddressingLongHashMap#pack(int, int)}.
+     */
+    public OpenAddressingLongHashMap<T> getLongIntermediateNodes(BodyGrammarSlot slot) {
+        OpenAddressingLongHashMap<T> nodes = longIntermediateNodes[slot.getId()];
+        if (nodes == null) {
+            nodes = new OpenAddressingLongHashMap<>();
+            longIntermediateNodes[slot.getId()] = nodes;
+        }
+        return nodes;
+    }
+
+    public int countGSSNodes(NonterminalGrammarSlot slot) {
+        int count = 0;
+        if (intGSSNodes[slot.getId()] != null) count += intGSSNodes[slot.getId()].size();
+        if (gssNodes[slot.getId()] != null) count += gssNodes[slot.getId()].size();
+        return count;
+    }
+
+    /**
+     * Returns the number of input positions at which the matching of the given terminal slot is memoized.
+     */
+    public int countTerminalNodes(TerminalGrammarSlot slot) {
+        if (usesDenseTerminalMemo()) {
+            return terminalMemoTables[slot.getId()] == null ? 0 : terminalMemoTables[slot.getId()].size();
+        }
+        return terminalNodes[slot.getId()] == null ? 0 : terminalNodes[slot.getId()].size();
+    }
+
+    public List<GSSNode<T>> getAllGSSNodes(NonterminalGrammarSlot slot) {
+        List<GSSNode<T>> nodes = new ArrayList<>(countGSSNodes(slot));
+        if (intGSSNodes[slot.getId()] != null) intGSSNodes[slot.getId()].values().forEach(nodes::add);
+        if (gssNodes[slot.getId()] != null) nodes.addAll(gssNodes[slot.getId()].values());
+        return nodes;
+    }
+
     public IEvaluatorContext getEvaluatorContext() {
         return ctx;
     }
@@ -240,6 +516,21 @@ public class IguanaRuntime<T extends Result> {
         return ctx.getEmptyEnvironment();
     }
 
+    /**
+     * Creates a GSS node with its first edge, using the GSS node implementation of the configuration.
+     */
+    public GSSNode<T> createGSSNode(
+            BodyGrammarSlot returnSlot,
+            T result,
+            GSSNode<T> destination,
+            Environment env,
+            int inputIndex) {
+        if (config.getGSSImpl() == Configuration.GSSImpl.COMPACT) {
+            return new CompactGSSNode<>(returnSlot, destination, result, env, inputIndex);
+        }
+        return new DefaultGSSNode<>(createGSSEdge(returnSlot, result, destination, env), inputIndex);
+    }
+
     public GSSEdge<T> createGSSEdge(BodyGrammarSlot returnSlot, T result, GSSNode<T> gssNode, Environment env) {
         if (result.isDummy()) {
             if (env.isEmpty()) {
@@ -294,7 +585,13 @@ public class IguanaRuntime<T extends Result> {
         return new PriorityQueue<>(parseErrors);
     }
 
+    /**
+     * Returns the statistics of the parse, or null if the runtime does not collect statistics.
+     */
     public RecognizerStatistics getStatistics() {
+        if (logger == ParserLogger.NONE) {
+            return null;
+        }
         if (resultOps instanceof ParserResultOps) {
             return ParseStatistics.builder()
                     .setDescriptorsCount(logger.getDescriptorsCount())
@@ -305,12 +602,14 @@ public class IguanaRuntime<T extends Result> {
                     .setIntermediateNodesCount(logger.getCountIntermediateNodes())
                     .setPackedNodesCount(logger.getCountPackedNodes())
                     .setAmbiguousNodesCount(logger.getCountAmbiguousNodes())
+                    .setPeakWorklistSize(scheduler.getPeakSize())
                     .build();
         } else {
             return RecognizerStatistics.builder()
                     .setDescriptorsCount(logger.getDescriptorsCount())
                     .setGSSNodesCount(logger.getCountGSSNodes() + 1) // + start gss node
                     .setGSSEdgesCount(logger.getCountGSSEdges())
+                    .setPeakWorklistSize(scheduler.getPeakSize())
                     .build();
         }
 
@@ -320,10 +619,18 @@ public class IguanaRuntime<T extends Result> {
         return config;
     }
 
+    public ParserLogger getLogger() {
+        return logger;
+    }
+
     public int getDescriptorPoolSize() {
         return descriptorPool.size();
     }
 
+    public DescriptorScheduler<T> getScheduler() {
+        return scheduler;
+    }
+
     public ResultOps<T> getResultOps() {
         return resultOps;
     }
@@ -332,16 +639,16 @@ public class IguanaRuntime<T extends Result> {
         return startGSSNode;
     }
 
-    private static void printStats(GrammarGraph grammarGraph) {
+    private void printStats(GrammarGraph grammarGraph) {
         for (TerminalGrammarSlot slot : grammarGraph.getTerminalGrammarSlots()) {
-            System.out.println(slot.getTerminal().getName() + " : " + slot.countTerminalNodes());
+            System.out.println(slot.getTerminal().getName() + " : " + countTerminalNodes(slot));
         }
 
         for (NonterminalGrammarSlot slot : grammarGraph.getNonterminalGrammarSlots()) {
             System.out.print(slot.getNonterminal().getName());
-            System.out.println(" GSS nodes: " + slot.countGSSNodes());
-            double[] poppedElementStats = stats(slot.getGSSNodes(), GSSNode::countPoppedElements);
-            double[] gssEdgesStats = stats(slot.getGSSNodes(), GSSNode::countGSSEdges);
+            System.out.println(" GSS nodes: " + countGSSNodes(slot));
+            double[] poppedElementStats = stats(getAllGSSNodes(slot), GSSNode::countPoppedElements);
+            double[] gssEdgesStats = stats(getAllGSSNodes(slot), GSSNode::countGSSEdges);
             if (poppedElementStats == null)
                 System.out.println("Popped Elements: empty");
             else
@@ -357,13 +664,11 @@ public class IguanaRuntime<T extends Result> {
         }
     }
 
-    private static void printGSSInfo(GrammarGraph grammarGraph) {
+    private void printGSSInfo(GrammarGraph grammarGraph) {
         Comparator<GSSNode<?>> edgeComparator = (node1, node2) -> node2.countGSSEdges() - node1.countGSSEdges();
         List<GSSNode<?>> gssNodes = new ArrayList<>();
         for (NonterminalGrammarSlot slot : grammarGraph.getNonterminalGrammarSlots()) {
-            for (GSSNode<?> gssNode : slot.getGSSNodes()) {
-                gssNodes.add(gssNode);
-            }
+            gssNodes.addAll(getAllGSSNodes(slot));
         }
 
         gssNodes.sort(edgeComparator);
@@ -375,7 +680,7 @@ public class IguanaRuntime<T extends Result> {
         }
     }
 
-    private static double[] stats(Iterable<GSSNode<?>> gssNodes, Function<GSSNode<?>, Integer> f) {
+    private static double[] stats(Iterable<? extends GSSNode<?>> gssNodes, Function<GSSNode<?>, Integer> f) {
         if (!gssNodes.iterator().hasNext()) return null;
 
         int min = Integer.MAX_VALUE;
@@ -0,0 +1,170 @@
+package org.iguana.parser;
+
+import org.iguana.parser.options.ParseTreeOptions;
+import org.iguana.parsetree.ParseTreeBuilder;
+import org.iguana.parsetree.ParseTreeEventHandler;
+import org.iguana.parsetree.ParseTreeNode;
+import org.iguana.sppf.NonterminalNode;
+import org.iguana.sppf.SPPFArena;
+import org.iguana.traversal.IterativeAmbiguousSPPFToParseTreeVisitor;
+import org.iguana.traversal.IterativeSPPFToParseTreeVisitor;
+import org.iguana.traversal.LazySPPFToParseTreeConverter;
+import org.iguana.traversal.ParseTreeEventWalker;
+import org.iguana.traversal.SPPFArenaToParseTreeConverter;
+import org.iguana.utils.input.Input;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The outcome of parsing a single input: the SPPF if the parse was successful, or the parse error otherwise,
+ * together with the statistics of the parse. A parse result does not refer to any state of the parser that
+ * created it, so results of concurrent parses can be used independently.
+ */
+public class ParseResult {
+
+    private final Input input;
+    private final NonterminalNode sppf;
+    private final SPPFArena arena;
+    private final ParseTreeBuilder<ParseTreeNode> parseTreeBuilder;
+    private final ParseStatistics statistics;
+    private final ParseError<?> parseError;
+
+    // The eagerly converted parse trees, without and with layout. The sequential, parallel and arena conversions
+    // create equal trees, so they share these fields.
+    private ParseTreeNode parseTree;
+    private ParseTreeNode parseTreeWithLayout;
+
+    ParseResult(
+            Input input,
+            NonterminalNode sppf,
+            ParseTreeBuilder<ParseTreeNode> parseTreeBuilder,
+            ParseStatistics statistics,
+            ParseError<?> parseError) {
+        this.input = input;
+        this.sppf = sppf;
+        this.arena = null;
+        this.parseTreeBuilder = parseTreeBuilder;
+        this.statistics = statistics;
+        this.parseError = parseError;
+    }
+
+    /**
+     * Creates the successful result of a parse whose SPPF is stored in the given arena.
+     */
+    ParseResult(
+            Input input,
+            SPPFArena arena,
+            ParseTreeBuilder<ParseTreeNode> parseTreeBuilder,
+            ParseStatistics statistics) {
+        this.input = input;
+        this.sppf = null;
+        this.arena = arena;
+        this.parseTreeBuilder = parseTreeBuilder;
+        this.statistics = statistics;
+        this.parseError = null;
+    }
+
+    public boolean isSuccess() {
+        return sppf != null || arena != null;
+    }
+
+    public Input getInput() {
+        return input;
+    }
+
+    /**
+     * Returns the root of the SPPF, or null if the parse was not successful. If the SPPF is stored in an arena, the
+     * object SPPF is created from the arena on the first call, and kept by the arena afterwards.
+     */
+    public NonterminalNode getSPPF() {
+        if (arena != null) {
+            return (NonterminalNode) arena.materialize(arena.getRoot());
+        }
+        return sppf;
+    }
+
+    /**
+     * Returns the arena of the SPPF if the parse was successful and the compactSPPF parse option was set, or null
+     * otherwise.
+     */
+    public SPPFArena getSPPFArena() {
+        return arena;
+    }
+
+    /**
+     * Returns the statistics of the parse, or null if statistics were not enabled in the parse options.
+     */
+    public ParseStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Returns the parse error at the last input position reached, or null if the parse was successful.
+     */
+    public ParseError<?> getParseError() {
+        return parseError;
+    }
+
+    public ParseTreeNode getParseTree() {
+        return getParseTree(ParseTreeOptions.defaultOptions());
+    }
+
+    /**
+     * Returns the parse tree of the SPPF, or null if the parse was not successful. The parse tree is cached per value
+     * of the ignoreLayout option. Lazy parse trees and parse trees with ambiguities are created on each call; the
+     * children of a lazy parse tree are cached by the tree itself.
+     */
+    public ParseTreeNode getParseTree(ParseTreeOptions options) {
+        if (!isSuccess()) return null;
+
+        boolean allowAmbiguities = options.allowAmbiguities();
+        boolean ignoreLayout = options.ignoreLayout();
+
+        if (allowAmbiguities) {
+            IterativeAmbiguousSPPFToParseTreeVisitor<ParseTreeNode> visitor =
+                new IterativeAmbiguousSPPFToParseTreeVisitor<>(parseTreeBuilder, ignoreLayout);
+            return (ParseTreeNode) getSPPF().accept(visitor).getValues().get(0);
+        }
+
+        if (options.lazy()) {
+            return new LazySPPFToParseTreeConverter<>(parseTreeBuilder, input, ignoreLayout).convert(getSPPF());
+        }
+
+        ParseTreeNode result = ignoreLayout ? parseTree : parseTreeWithLayout;
+        if (result != null) return result;
+
+        if (arena != null) {
+            result = new SPPFArenaToParseTreeConverter<>(arena, parseTreeBuilder, input, ignoreLayout)
+                .convert(arena.getRoot());
+        } else {
+            IterativeSPPFToParseTreeVisitor<ParseTreeNode> visitor;
+            if (options.parallel()) {
+                visitor = new IterativeSPPFToParseTreeVisitor<>(parseTreeBuilder, input, ignoreLayout,
+                    ForkJoinPool.commonPool(), IterativeSPPFToParseTreeVisitor.DEFAULT_PARALLEL_THRESHOLD);
+            } else {
+                visitor = new IterativeSPPFToParseTreeVisitor<>(parseTreeBuilder, input, ignoreLayout);
+            }
+            result = sppf.accept(visitor);
+        }
+
+        if (ignoreLayout) {
+            this.parseTree = result;
+        } else {
+            this.parseTreeWithLayout = result;
+        }
+        return result;
+    }
+
+    /**
+     * Reports the nodes of the parse tree to the handler in document order, without building the parse tree. The
+     * allowAmbiguities option is not supported, an ambiguous SPPF results in an AmbiguityException.
+     */
+    public void walkParseTree(ParseTreeEventHandler handler) {
+        walkParseTree(handler, ParseTreeOptions.defaultOptions());
+    }
+
+    public void walkParseTree(ParseTreeEventHandler handler, ParseTreeOptions options) {
+        if (!isSuccess()) return;
+        new ParseTreeEventWalker(handler, input, options.ignoreLayout()).walk(getSPPF());
+    }
+}
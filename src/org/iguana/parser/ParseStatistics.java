@@ -124,6 +124,11 @@ public class ParseStatistics extends RecognizerStatistics {
             return this;
         }
 
+        public Builder setPeakWorklistSize(int peakWorklistSize) {
+            this.peakWorklistSize = peakWorklistSize;
+            return this;
+        }
+
         public Builder setNonterminalNodesCount(int nonterminalNodesCount) {
             this.nonterminalNodesCount = nonterminalNodesCount;
             return this;
@@ -0,0 +1,90 @@
+package org.iguana.parser;
+
+import org.iguana.grammar.symbol.Symbol;
+import org.iguana.parser.options.ParseOptions;
+import org.iguana.utils.input.Input;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+/**
+ * Parses many inputs in parallel with a single parser. The grammar graph of the parser is built once and shared
+ * by all parses; each parse runs in its own runtime on a thread of the given executor service.
+ *
+ * <p>Any executor service can be used, e.g., a fixed thread pool of platform threads, or on Java 21+,
+ * {@code Executors.newVirtualThreadPerTaskExecutor()}.
+ *
+ * <p>Inputs that cannot be parsed complete normally with an unsuccessful {@link ParseResult}; the returned future
+ * only completes exceptionally if an unexpected exception is thrown during parsing.
+ */
+public class ParserService implements AutoCloseable {
+
+    private final IguanaParser parser;
+    private final ExecutorService executor;
+
+    public ParserService(IguanaParser parser, ExecutorService executor) {
+        this.parser = parser;
+        this.executor = executor;
+    }
+
+    /**
+     * Creates a parser service backed by a fixed pool with one thread per available processor.
+     */
+    public static ParserService create(IguanaParser parser) {
+        return create(parser, Runtime.getRuntime().availableProcessors());
+    }
+
+    public static ParserService create(IguanaParser parser, int threads) {
+        return new ParserService(parser, Executors.newFixedThreadPool(threads));
+    }
+
+    public CompletableFuture<ParseResult> parse(Input input, Symbol start) {
+        return parse(input, start, ParseOptions.defaultOptions());
+    }
+
+    public CompletableFuture<ParseResult> parse(Input input, Symbol start, ParseOptions parseOptions) {
+        return CompletableFuture.supplyAsync(() -> parser.tryParse(input, start, parseOptions), executor);
+    }
+
+    /**
+     * Submits all the inputs for parsing, and returns the futures in the order of the inputs.
+     */
+    public List<CompletableFuture<ParseResult>> parseAll(
+            Collection<Input> inputs,
+            Symbol start,
+            ParseOptions parseOptions) {
+        List<CompletableFuture<ParseResult>> results = new ArrayList<>(inputs.size());
+        for (Input input : inputs) {
+            results.add(parse(input, start, parseOptions));
+        }
+        return results;
+    }
+
+    /**
+     * Returns a lazy stream of futures; an input is submitted for parsing when its future is consumed from the
+     * stream. This allows large streams of inputs to be parsed without keeping all of them in memory.
+     */
+    public Stream<CompletableFuture<ParseResult>> parseAll(
+            Stream<Input> inputs,
+            Symbol start,
+            ParseOptions parseOptions) {
+        return inputs.map(input -> parse(input, start, parseOptions));
+    }
+
+    public IguanaParser getParser() {
+        return parser;
+    }
+
+    /**
+     * Shuts down the executor service. Parses already submitted are completed.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+}
@@ -8,10 +8,14 @@ public class RecognizerStatistics {
     private final int gssNodesCount;
     private final int gssEdgesCount;
 
+    // Depends on the scheduling policy, not only on the grammar and the input, therefore not part of equals
+    private final int peakWorklistSize;
+
     public RecognizerStatistics(Builder<? extends RecognizerStatistics> builder) {
         this.descriptorsCount = builder.descriptorsCount;
         this.gssNodesCount = builder.gssNodesCount;
         this.gssEdgesCount = builder.gssEdgesCount;
+        this.peakWorklistSize = builder.peakWorklistSize;
     }
 
     public int getDescriptorsCount() {
@@ -26,6 +30,13 @@ public class RecognizerStatistics {
         return gssEdgesCount;
     }
 
+    /**
+     * Returns the maximum number of descriptors that were waiting to be processed at the same time.
+     */
+    public int getPeakWorklistSize() {
+        return peakWorklistSize;
+    }
+
     @Override
     public int hashCode() {
         return Objects.hash(descriptorsCount, gssEdgesCount, gssEdgesCount);
@@ -46,7 +57,8 @@ public class RecognizerStatistics {
     public String toString() {
         return "Descriptors: " + descriptorsCount + "\n"
                + "GSS Nodes: " + gssNodesCount + "\n"
-               + "GSS Edges: " + gssEdgesCount + "\n";
+               + "GSS Edges: " + gssEdgesCount + "\n"
+               + "Peak worklist size: " + peakWorklistSize + "\n";
     }
 
     public static Builder<? extends RecognizerStatistics> builder() {
@@ -57,6 +69,7 @@ public class RecognizerStatistics {
         int descriptorsCount;
         int gssNodesCount;
         int gssEdgesCount;
+        int peakWorklistSize;
 
         public Builder<T> setDescriptorsCount(int descriptorsCount) {
             this.descriptorsCount = descriptorsCount;
@@ -73,6 +86,11 @@ public class RecognizerStatistics {
             return this;
         }
 
+        public Builder<T> setPeakWorklistSize(int peakWorklistSize) {
+            this.peakWorklistSize = peakWorklistSize;
+            return this;
+        }
+
         public RecognizerStatistics build() {
             return new RecognizerStatistics(this);
         }
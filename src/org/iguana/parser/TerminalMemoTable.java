@@ -0,0 +1,135 @@
+package org.iguana.parser;
+
+import org.iguana.utils.collections.primitive.IntHashMap;
+import org.iguana.utils.collections.primitive.IntKeyEntry;
+import org.iguana.utils.collections.primitive.OpenAddressingIntHashMap;
+
+import java.util.Arrays;
+
+/**
+ * The outcome of matching a terminal at the input positions, stored densely per block of 64 input positions. The
+ * tried and the failed positions of a block are recorded in one bit of a long each, and the lengths of the matches
+ * are stored in a byte array per block that is only allocated when the terminal matches at one of the positions of
+ * the block. The few matches that are too long for a byte are stored in a hash map.
+ */
+public class TerminalMemoTable {
+
+    public static final int NOT_TRIED = -2;
+
+    public static final int FAILURE = -1;
+
+    private static final int BLOCK_BITS = 6;
+    private static final int BLOCK_SIZE = 1 << BLOCK_BITS;
+    private static final int BLOCK_MASK = BLOCK_SIZE - 1;
+
+    private static final int LONG_MATCH = 0xFF;
+
+    private long[] tried;
+
+    private long[] failed;
+
+    private byte[][] lengths;
+
+    private IntHashMap<Integer> longMatchLengths;
+
+    /**
+     * Creates a memo table for an input of the given length. The table grows if it is used with a longer input.
+     */
+    public TerminalMemoTable(int inputLength) {
+        int blocks = (inputLength >>> BLOCK_BITS) + 1;
+        tried = new long[blocks];
+        failed = new long[blocks];
+        lengths = new byte[blocks][];
+    }
+
+    /**
+     * Returns the length of the match at the given input index, {@link #FAILURE} if the terminal does not match, or
+     * {@link #NOT_TRIED} if the terminal has not been tried at the input index.
+     */
+    public int get(int inputIndex) {
+        int block = inputIndex >>> BLOCK_BITS;
+        if (block >= tried.length) return NOT_TRIED;
+
+        long mask = 1L << inputIndex;
+        if ((tried[block] & mask) == 0) return NOT_TRIED;
+        if ((failed[block] & mask) != 0) return FAILURE;
+        int length = lengths[block][inputIndex & BLOCK_MASK] & 0xFF;
+        return length == LONG_MATCH ? longMatchLengths.get(inputIndex) : length;
+    }
+
+    /**
+     * Records the length of the match at the given input index, or a failure if the length is negative. A failure
+     * replaces a match recorded before, e.g., when the conditions of the terminal fail.
+     */
+    public void put(int inputIndex, int length) {
+        int block = inputIndex >>> BLOCK_BITS;
+        if (block >= tried.length) {
+            int capacity = Math.max(block + 1, tried.length << 1);
+            tried = Arrays.copyOf(tried, capacity);
+            failed = Arrays.copyOf(failed, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+        }
+
+        long mask = 1L << inputIndex;
+        tried[block] |= mask;
+        if (length < 0) {
+            failed[block] |= mask;
+        } else {
+            if (lengths[block] == null) lengths[block] = new byte[BLOCK_SIZE];
+            if (length >= LONG_MATCH) {
+                if (longMatchLengths == null) longMatchLengths = new OpenAddressingIntHashMap<>();
+                longMatchLengths.put(inputIndex, length);
+                lengths[block][inputIndex & BLOCK_MASK] = (byte) LONG_MATCH;
+            } else {
+                lengths[block][inputIndex & BLOCK_MASK] = (byte) length;
+            }
+            failed[block] &= ~mask;
+        }
+    }
+
+    public void recordFailure(int inputIndex) {
+        put(inputIndex, FAILURE);
+    }
+
+    /**
+     * Removes the blocks whose positions are all smaller than the given input index, and the long matches at these
+     * positions.
+     */
+    public void sweep(int inputIndex) {
+        int blocks = Math.min(inputIndex >>> BLOCK_BITS, tried.length);
+        for (int block = 0; block < blocks; block++) {
+            tried[block] = 0;
+            failed[block] = 0;
+            lengths[block] = null;
+        }
+
+        if (longMatchLengths != null && !longMatchLengths.isEmpty()) {
+            // The remaining long matches are copied to a new map, as removing keys from an open addressing map
+            // breaks the probe sequences of the other keys
+            int sweptIndex = blocks << BLOCK_BITS;
+            IntHashMap<Integer> remaining = new OpenAddressingIntHashMap<>();
+            for (IntKeyEntry<Integer> entry : longMatchLengths) {
+                if (entry.getKey() >= sweptIndex) remaining.put(entry.getKey(), entry.getValue());
+            }
+            longMatchLengths = remaining;
+        }
+    }
+
+    /**
+     * Returns the number of long matches, i.e., the matches whose lengths do not fit in a byte.
+     */
+    int longMatchesCount() {
+        return longMatchLengths == null ? 0 : longMatchLengths.size();
+    }
+
+    /**
+     * Returns the number of input positions at which the terminal has been tried.
+     */
+    public int size() {
+        int size = 0;
+        for (long bits : tried) {
+            size += Long.bitCount(bits);
+        }
+        return size;
+    }
+}
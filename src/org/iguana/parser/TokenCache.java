@@ -0,0 +1,130 @@
+package org.iguana.parser;
+
+import org.iguana.regex.matcher.TokenScanner;
+import org.iguana.utils.collections.primitive.IntList;
+import org.iguana.utils.input.Input;
+
+import java.util.Arrays;
+
+/**
+ * The matches of all the terminals at the input positions of one parse. The first time a terminal is looked up at an
+ * input position, the {@link TokenScanner} of the grammar matches all the terminals at that position, and the
+ * lengths of the terminals that match are stored, so that the input at each position is read at most once.
+ *
+ * The matches are stored per block of input positions, and the blocks are allocated when a position of the block is
+ * first scanned. The matches of a position are stored as a segment of the matches list of its block: the number of
+ * matching terminals followed by a pair of terminal id and match length for each of them. The blocks the parser has
+ * passed can be removed with {@link #sweep(int)}.
+ */
+public class TokenCache {
+
+    public static final int FAILURE = -1;
+
+    private static final int NOT_SCANNED = -1;
+
+    private static final int BLOCK_BITS = 10;
+    private static final int BLOCK_SIZE = 1 << BLOCK_BITS;
+    private static final int BLOCK_MASK = BLOCK_SIZE - 1;
+
+    private final TokenScanner scanner;
+
+    private final Input input;
+
+    // The start of the segment of each position in a block, in the matches list of the block
+    private final int[][] segments;
+
+    private final IntList[] matches;
+
+    // Scratch space for the scanner, all the lengths are negative between scans
+    private final int[] lengths;
+
+    private final IntList matchedIds;
+
+    public TokenCache(TokenScanner scanner, Input input) {
+        this.scanner = scanner;
+        this.input = input;
+        int blocks = (input.length() >>> BLOCK_BITS) + 1;
+        this.segments = new int[blocks][];
+        this.matches = new IntList[blocks];
+        this.lengths = new int[scanner.getIdsCount()];
+        Arrays.fill(lengths, FAILURE);
+        this.matchedIds = new IntList();
+    }
+
+    /**
+     * Returns whether the matches of the terminal with the given id are stored in this cache.
+     */
+    public boolean covers(int terminalId) {
+        return scanner.covers(terminalId);
+    }
+
+    /**
+     * Returns the length of the match of the terminal with the given id at the input index, or {@link #FAILURE} if
+     * the terminal does not match.
+     */
+    public int get(int terminalId, int inputIndex) {
+        int block = inputIndex >>> BLOCK_BITS;
+        int[] blockSegments = segments[block];
+        int segment = blockSegments == null ? NOT_SCANNED : blockSegments[inputIndex & BLOCK_MASK];
+        if (segment == NOT_SCANNED) {
+            segment = scan(inputIndex);
+        }
+
+        IntList blockMatches = matches[block];
+        int end = segment + 1 + 2 * blockMatches.get(segment);
+        for (int i = segment + 1; i < end; i += 2) {
+            if (blockMatches.get(i) == terminalId) return blockMatches.get(i + 1);
+        }
+        return FAILURE;
+    }
+
+    /**
+     * Removes the blocks whose positions are all smaller than the given input index. The positions of the removed
+     * blocks are scanned again if they are looked up afterwards.
+     */
+    public void sweep(int inputIndex) {
+        int blocks = Math.min(inputIndex >>> BLOCK_BITS, segments.length);
+        for (int block = 0; block < blocks; block++) {
+            segments[block] = null;
+            matches[block] = null;
+        }
+    }
+
+    /**
+     * Returns the number of input positions that have been scanned, and not swept.
+     */
+    public int getScannedPositionsCount() {
+        int count = 0;
+        for (int[] blockSegments : segments) {
+            if (blockSegments == null) continue;
+            for (int segment : blockSegments) {
+                if (segment != NOT_SCANNED) count++;
+            }
+        }
+        return count;
+    }
+
+    private int scan(int inputIndex) {
+        scanner.scan(input, inputIndex, lengths, matchedIds);
+
+        int block = inputIndex >>> BLOCK_BITS;
+        if (segments[block] == null) {
+            segments[block] = new int[BLOCK_SIZE];
+            Arrays.fill(segments[block], NOT_SCANNED);
+            matches[block] = new IntList();
+        }
+
+        IntList blockMatches = matches[block];
+        int segment = blockMatches.size();
+        blockMatches.add(matchedIds.size());
+        while (!matchedIds.isEmpty()) {
+            int id = matchedIds.pop();
+            blockMatches.add(id);
+            blockMatches.add(lengths[id]);
+            lengths[id] = FAILURE;
+        }
+
+        segments[block][inputIndex & BLOCK_MASK] = segment;
+        return segment;
+    }
+}
@@ -0,0 +1,49 @@
+package org.iguana.parser.descriptor;
+
+import org.iguana.result.Result;
+
+public abstract class AbstractDescriptorScheduler<T extends Result> implements DescriptorScheduler<T> {
+
+    private int size;
+
+    private int peakSize;
+
+    @Override
+    public void add(Descriptor<T> descriptor) {
+        push(descriptor);
+        if (++size > peakSize) {
+            peakSize = size;
+        }
+    }
+
+    @Override
+    public Descriptor<T> remove() {
+        size--;
+        return pop();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int getPeakSize() {
+        return peakSize;
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+        peakSize = 0;
+    }
+
+    protected abstract void push(Descriptor<T> descriptor);
+
+    protected abstract Descriptor<T> pop();
+}
@@ -34,6 +34,9 @@ import org.iguana.result.Result;
 
 public class Descriptor<T extends Result> {
 
+    // The next descriptor in the same bucket of an InputOrderedDescriptorScheduler
+    Descriptor<T> next;
+
     // L
     private BodyGrammarSlot slot;
 
@@ -72,6 +75,13 @@ public class Descriptor<T extends Result> {
         return env;
     }
 
+    /**
+     * Returns the input index at which the parsing of this descriptor continues.
+     */
+    public int getInputIndex() {
+        return result.isDummy() ? gssNode.getInputIndex() : result.getRightExtent();
+    }
+
     @Override
     public String toString() {
         return String.format("(%s, %s, %s, %s)", slot, gssNode, result, env);
@@ -0,0 +1,29 @@
+package org.iguana.parser.descriptor;
+
+import org.iguana.result.Result;
+
+/**
+ * The worklist of the descriptors that are still to be processed. The order in which the descriptors are removed
+ * does not change the result of parsing, but it changes the locality of the accesses to the GSS and SPPF tables,
+ * and the number of descriptors that are pending at the same time.
+ */
+public interface DescriptorScheduler<T extends Result> {
+
+    void add(Descriptor<T> descriptor);
+
+    /**
+     * Removes and returns the next descriptor to process. Should only be called if the scheduler is not empty.
+     */
+    Descriptor<T> remove();
+
+    boolean isEmpty();
+
+    int size();
+
+    /**
+     * Returns the maximum number of descriptors that were pending at the same time since the last clear.
+     */
+    int getPeakSize();
+
+    void clear();
+}
@@ -0,0 +1,27 @@
+package org.iguana.parser.descriptor;
+
+import org.iguana.result.Result;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+public class FIFODescriptorScheduler<T extends Result> extends AbstractDescriptorScheduler<T> {
+
+    private final Deque<Descriptor<T>> queue = new ArrayDeque<>(512);
+
+    @Override
+    protected void push(Descriptor<T> descriptor) {
+        queue.addLast(descriptor);
+    }
+
+    @Override
+    protected Descriptor<T> pop() {
+        return queue.removeFirst();
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        queue.clear();
+    }
+}
@@ -0,0 +1,93 @@
+package org.iguana.parser.descriptor;
+
+import org.iguana.result.Result;
+
+import java.util.Arrays;
+
+/**
+ * A bucket queue of descriptors indexed by their input index. The descriptors of a bucket are linked through
+ * {@link Descriptor#next}, so no objects are allocated per input position.
+ *
+ * Processing a descriptor only schedules descriptors at the same or a larger input index, so the buckets are
+ * processed from left to right. Descriptors scheduled at a smaller input index, e.g., during error recovery,
+ * move the current bucket back.
+ *
+ * The buckets form a ring, indexed by the input index modulo the number of buckets, which only has to cover the
+ * input indices between the current bucket and the largest scheduled input index. The memory used by the queue
+ * therefore does not depend on the length of the input.
+ */
+public class InputOrderedDescriptorScheduler<T extends Result> extends AbstractDescriptorScheduler<T> {
+
+    private static final int INITIAL_CAPACITY = 512;
+
+    private Descriptor<T>[] buckets;
+
+    private int mask;
+
+    private int current;
+
+    // The largest input index at which a descriptor has been scheduled
+    private int last;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public InputOrderedDescriptorScheduler() {
+        this.buckets = new Descriptor[INITIAL_CAPACITY];
+        this.mask = INITIAL_CAPACITY - 1;
+    }
+
+    @Override
+    protected void push(Descriptor<T> descriptor) {
+        int inputIndex = descriptor.getInputIndex();
+        int first = Math.min(inputIndex, current);
+        int end = Math.max(inputIndex, last);
+        if (end - first >= buckets.length) {
+            grow(end - first + 1);
+        }
+        current = first;
+        last = end;
+
+        int bucket = inputIndex & mask;
+        descriptor.next = buckets[bucket];
+        buckets[bucket] = descriptor;
+    }
+
+    @Override
+    protected Descriptor<T> pop() {
+        while (buckets[current & mask] == null) {
+            current++;
+        }
+        int bucket = current & mask;
+        Descriptor<T> descriptor = buckets[bucket];
+        buckets[bucket] = descriptor.next;
+        descriptor.next = null;
+        return descriptor;
+    }
+
+    /**
+     * Returns the input index of the descriptors that are currently processed. All descriptors at smaller input
+     * indices have been processed.
+     */
+    public int getCurrentInputIndex() {
+        return current;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        Arrays.fill(buckets, null);
+        current = 0;
+        last = 0;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void grow(int span) {
+        int capacity = Integer.highestOneBit(span) << 1;
+        Descriptor<T>[] newBuckets = new Descriptor[capacity];
+        int newMask = capacity - 1;
+        for (int i = current; i <= last; i++) {
+            newBuckets[i & newMask] = buckets[i & mask];
+        }
+        buckets = newBuckets;
+        mask = newMask;
+    }
+}
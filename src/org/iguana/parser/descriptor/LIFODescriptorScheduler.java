@@ -0,0 +1,27 @@
+package org.iguana.parser.descriptor;
+
+import org.iguana.result.Result;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+public class LIFODescriptorScheduler<T extends Result> extends AbstractDescriptorScheduler<T> {
+
+    private final Deque<Descriptor<T>> stack = new ArrayDeque<>(512);
+
+    @Override
+    protected void push(Descriptor<T> descriptor) {
+        stack.push(descriptor);
+    }
+
+    @Override
+    protected Descriptor<T> pop() {
+        return stack.pop();
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        stack.clear();
+    }
+}
@@ -0,0 +1,39 @@
+package org.iguana.parser.descriptor;
+
+import org.iguana.result.Result;
+
+public enum SchedulingPolicy {
+
+    /**
+     * The last scheduled descriptor is processed first (depth-first).
+     */
+    LIFO {
+        @Override
+        public <T extends Result> DescriptorScheduler<T> create() {
+            return new LIFODescriptorScheduler<>();
+        }
+    },
+
+    /**
+     * The first scheduled descriptor is processed first (breadth-first).
+     */
+    FIFO {
+        @Override
+        public <T extends Result> DescriptorScheduler<T> create() {
+            return new FIFODescriptorScheduler<>();
+        }
+    },
+
+    /**
+     * The descriptor with the smallest input index is processed first, so that the parser moves from left to right
+     * through the input. Descriptors with the same input index are processed last-in first-out.
+     */
+    INPUT_ORDERED {
+        @Override
+        public <T extends Result> DescriptorScheduler<T> create() {
+            return new InputOrderedDescriptorScheduler<>();
+        }
+    };
+
+    public abstract <T extends Result> DescriptorScheduler<T> create();
+}
@@ -1,30 +1,90 @@
 package org.iguana.parser.options;
 
+import org.iguana.parser.descriptor.SchedulingPolicy;
+
+import java.util.Map;
+
 public class ParseOptions extends RecognizerOptions {
 
     private final boolean errorRecoveryEnabled;
 
+    /**
+     * If the SPPF of a successful parse should be stored in an {@link org.iguana.sppf.SPPFArena}, and the object
+     * SPPF released, so that keeping the parse result keeps a few large arrays instead of the SPPF nodes. The
+     * object SPPF is recreated when it is requested from the parse result.
+     */
+    private final boolean compactSPPF;
+
     private ParseOptions(Builder builder) {
         super(builder);
         this.errorRecoveryEnabled = builder.errorRecoveryEnabled;
+        this.compactSPPF = builder.compactSPPF;
     }
 
     public boolean isErrorRecoveryEnabled() {
         return errorRecoveryEnabled;
     }
 
+    public boolean isCompactSPPF() {
+        return compactSPPF;
+    }
+
     public static ParseOptions defaultOptions() {
         return new Builder().build();
     }
 
     public static class Builder extends RecognizerOptions.Builder {
         private boolean errorRecoveryEnabled = false;
+        private boolean compactSPPF = false;
 
         public Builder setErrorRecoveryEnabled(boolean errorRecoveryEnabled) {
             this.errorRecoveryEnabled = errorRecoveryEnabled;
             return this;
         }
 
+        public Builder setCompactSPPF(boolean compactSPPF) {
+            this.compactSPPF = compactSPPF;
+            return this;
+        }
+
+        @Override
+        public Builder setMap(Map<String, Object> map) {
+            super.setMap(map);
+            return this;
+        }
+
+        @Override
+        public Builder setGlobal(boolean global) {
+            super.setGlobal(global);
+            return this;
+        }
+
+        @Override
+        public Builder setStatisticsEnabled(boolean statisticsEnabled) {
+            super.setStatisticsEnabled(statisticsEnabled);
+            return this;
+        }
+
+        @Override
+        public Builder setSchedulingPolicy(SchedulingPolicy schedulingPolicy) {
+            super.setSchedulingPolicy(schedulingPolicy);
+            return this;
+        }
+
+        /**
+         * Memory-bounded recognition releases the nodes that the SPPF refers to, so it cannot be enabled for
+         * parsing.
+         */
+        @Override
+        public Builder setMemoryBounded(boolean memoryBounded) {
+            if (memoryBounded) {
+                throw new IllegalArgumentException("Memory-bounded mode is only supported for recognition, "
+                                                   + "use RecognizerOptions with IguanaRecognizer.recognize");
+            }
+            super.setMemoryBounded(memoryBounded);
+            return this;
+        }
+
         public ParseOptions build() {
             return new ParseOptions(this);
         }
@@ -12,9 +12,24 @@ public class ParseTreeOptions {
      */
     private final boolean allowAmbiguities;
 
+    /**
+     * If set to true, the children of the parse tree nodes are converted from the SPPF when they are first
+     * accessed. Ignored when ambiguities are allowed.
+     */
+    private final boolean lazy;
+
+    /**
+     * If set to true, large lists, e.g., the top-level declarations of a large file, are converted in parallel in
+     * the common fork/join pool. Ignored when ambiguities are allowed, the conversion is lazy or the SPPF is stored
+     * in an arena.
+     */
+    private final boolean parallel;
+
     private ParseTreeOptions(Builder builder) {
         this.ignoreLayout = builder.ignoreLayout;
         this.allowAmbiguities = builder.allowAmbiguities;
+        this.lazy = builder.lazy;
+        this.parallel = builder.parallel;
     }
 
     public static ParseTreeOptions defaultOptions() {
@@ -29,9 +44,19 @@ public class ParseTreeOptions {
         return allowAmbiguities;
     }
 
+    public boolean lazy() {
+        return lazy;
+    }
+
+    public boolean parallel() {
+        return parallel;
+    }
+
     public static class Builder {
         private boolean allowAmbiguities = false;
         private boolean ignoreLayout = true;
+        private boolean lazy = false;
+        private boolean parallel = false;
 
         public Builder setAllowAmbiguities(boolean allowAmbiguities) {
             this.allowAmbiguities = allowAmbiguities;
@@ -43,6 +68,16 @@ public class ParseTreeOptions {
             return this;
         }
 
+        public Builder setLazy(boolean lazy) {
+            this.lazy = lazy;
+            return this;
+        }
+
+        public Builder setParallel(boolean parallel) {
+            this.parallel = parallel;
+            return this;
+        }
+
         public ParseTreeOptions build() {
             return new ParseTreeOptions(this);
         }
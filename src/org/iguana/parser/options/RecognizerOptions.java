@@ -1,5 +1,7 @@
 package org.iguana.parser.options;
 
+import org.iguana.parser.descriptor.SchedulingPolicy;
+
 import java.util.Map;
 
 import static java.util.Collections.emptyMap;
@@ -15,9 +17,31 @@ public class RecognizerOptions {
      */
     private final boolean global;
 
+    /**
+     * If the parse statistics (number of descriptors, GSS and SPPF nodes) should be collected.
+     * If disabled, no counting is done during parsing and the statistics of the parse are null.
+     */
+    private final boolean statisticsEnabled;
+
+    /**
+     * The order in which the descriptors are processed.
+     */
+    private final SchedulingPolicy schedulingPolicy;
+
+    /**
+     * If the recognizer should release the GSS and terminal nodes at the input positions it has passed, so that
+     * large inputs can be recognized in memory that does not grow with the length of the input. Implies the
+     * {@link SchedulingPolicy#INPUT_ORDERED} scheduling policy. Only used for recognition, as the SPPF refers to
+     * all the nodes created during parsing.
+     */
+    private final boolean memoryBounded;
+
     protected RecognizerOptions(Builder builder) {
         this.map = builder.map;
         this.global = builder.global;
+        this.statisticsEnabled = builder.statisticsEnabled;
+        this.memoryBounded = builder.memoryBounded;
+        this.schedulingPolicy = builder.memoryBounded ? SchedulingPolicy.INPUT_ORDERED : builder.schedulingPolicy;
     }
 
     public static RecognizerOptions defaultOptions() {
@@ -32,9 +56,24 @@ public class RecognizerOptions {
         return global;
     }
 
+    public boolean isStatisticsEnabled() {
+        return statisticsEnabled;
+    }
+
+    public SchedulingPolicy getSchedulingPolicy() {
+        return schedulingPolicy;
+    }
+
+    public boolean isMemoryBounded() {
+        return memoryBounded;
+    }
+
     public static class Builder {
         private Map<String, Object> map = emptyMap();
         private boolean global = false;
+        private boolean statisticsEnabled = true;
+        private SchedulingPolicy schedulingPolicy = SchedulingPolicy.LIFO;
+        private boolean memoryBounded = false;
 
         public Builder setMap(Map<String, Object> map) {
             this.map = map;
@@ -46,6 +85,21 @@ public class RecognizerOptions {
             return this;
         }
 
+        public Builder setStatisticsEnabled(boolean statisticsEnabled) {
+            this.statisticsEnabled = statisticsEnabled;
+            return this;
+        }
+
+        public Builder setSchedulingPolicy(SchedulingPolicy schedulingPolicy) {
+            this.schedulingPolicy = schedulingPolicy;
+            return this;
+        }
+
+        public Builder setMemoryBounded(boolean memoryBounded) {
+            this.memoryBounded = memoryBounded;
+            return this;
+        }
+
         public RecognizerOptions build() {
             return new RecognizerOptions(this);
         }
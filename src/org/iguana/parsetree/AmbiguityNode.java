@@ -58,6 +58,19 @@ public class AmbiguityNode implements ParseTreeNode {
         return children().get(0).getText();
     }
 
+    @Override
+    public CharSequence getTextSlice() {
+        if (alternatives.isEmpty()) return "";
+        return alternatives.iterator().next().getTextSlice();
+    }
+
+    @Override
+    public void appendText(StringBuilder sb) {
+        if (!alternatives.isEmpty()) {
+            alternatives.iterator().next().appendText(sb);
+        }
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (this == obj) return true;
@@ -17,6 +17,11 @@ public class DefaultTerminalNode extends TerminalNode {
         return input.subString(getStart(), getEnd());
     }
 
+    @Override
+    public CharSequence getTextSlice() {
+        return input.slice(getStart(), getEnd());
+    }
+
     @Override
     public boolean hasChildren() {
         return false;
@@ -43,6 +43,11 @@ public class ErrorNode implements ParseTreeNode {
         return input.subString(start, end);
     }
 
+    @Override
+    public CharSequence getTextSlice() {
+        return input.slice(start, end);
+    }
+
     @Override
     public <T> Object accept(ParseTreeVisitor<T> visitor) {
         return visitor.visitErrorNode(this);
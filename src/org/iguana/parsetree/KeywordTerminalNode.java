@@ -16,6 +16,12 @@ public class KeywordTerminalNode extends TerminalNode {
         return name.substring(1, name.length() - 1);
     }
 
+    @Override
+    public void appendText(StringBuilder sb) {
+        String name = getTerminal().getName();
+        sb.append(name, 1, name.length() - 1);
+    }
+
     @Override
     public boolean hasChildren() {
         return false;
@@ -50,11 +50,16 @@ public abstract class MetaSymbolNode implements ParseTreeNode {
 
     @Override
     public String getText() {
-        StringBuilder sb = new StringBuilder();
+        StringBuilder sb = new StringBuilder(end - start);
+        appendText(sb);
+        return sb.toString();
+    }
+
+    @Override
+    public void appendText(StringBuilder sb) {
         for (ParseTreeNode child : children()) {
-            sb.append(child.getText());
+            child.appendText(sb);
         }
-        return sb.toString();
     }
 
     @Override
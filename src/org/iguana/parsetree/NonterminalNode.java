@@ -62,11 +62,22 @@ public class NonterminalNode implements ParseTreeNode {
     public String getText() {
         if (children.size() == 1) return children.get(0).getText();
 
-        StringBuilder sb = new StringBuilder();
+        StringBuilder sb = new StringBuilder(end - start);
+        appendText(sb);
+        return sb.toString();
+    }
+
+    @Override
+    public CharSequence getTextSlice() {
+        if (children.size() == 1) return children.get(0).getTextSlice();
+        return getText();
+    }
+
+    @Override
+    public void appendText(StringBuilder sb) {
         for (ParseTreeNode child : children) {
-            sb.append(child.getText());
+            child.appendText(sb);
         }
-        return sb.toString();
     }
 
     @Override
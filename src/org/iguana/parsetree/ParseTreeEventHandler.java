@@ -0,0 +1,29 @@
+package org.iguana.parsetree;
+
+import org.iguana.grammar.runtime.RuntimeRule;
+import org.iguana.grammar.symbol.Symbol;
+import org.iguana.grammar.symbol.Terminal;
+
+/**
+ * Receives the nodes of a parse tree as events in document order, without the parse tree being built. The events
+ * of a node are the same as the ones of the node created by {@link ParseTreeBuilder} in a parse tree: an enter
+ * event, the events of the children, and an exit event for nonterminal and meta symbol nodes, and a single event
+ * for terminal and error nodes. All methods do nothing by default.
+ */
+public interface ParseTreeEventHandler {
+
+    default void enterNonterminal(RuntimeRule rule, int leftExtent, int rightExtent) { }
+
+    default void exitNonterminal(RuntimeRule rule, int leftExtent, int rightExtent) { }
+
+    /**
+     * Called for star, plus, group, alternative, option and start nodes.
+     */
+    default void enterMetaSymbol(Symbol symbol, int leftExtent, int rightExtent) { }
+
+    default void exitMetaSymbol(Symbol symbol, int leftExtent, int rightExtent) { }
+
+    default void terminal(Terminal terminal, int leftExtent, int rightExtent) { }
+
+    default void error(int leftExtent, int rightExtent) { }
+}
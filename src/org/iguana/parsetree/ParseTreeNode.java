@@ -14,6 +14,21 @@ public interface ParseTreeNode {
 
     String getText();
 
+    /**
+     * Returns the text of this node, as {@link #getText()}, but for terminal and error nodes as a view of the input,
+     * see {@link org.iguana.utils.input.Input#slice(int, int)}, instead of a copy.
+     */
+    default CharSequence getTextSlice() {
+        return getText();
+    }
+
+    /**
+     * Appends the text of this node to the given builder, without creating the texts of its children.
+     */
+    default void appendText(StringBuilder sb) {
+        sb.append(getTextSlice());
+    }
+
     <T> Object accept(ParseTreeVisitor<T> visitor);
 
     List<ParseTreeNode> children();
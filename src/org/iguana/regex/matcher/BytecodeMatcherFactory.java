@@ -0,0 +1,59 @@
+package org.iguana.regex.matcher;
+
+import org.iguana.regex.RegularExpression;
+import org.iguana.regex.automaton.Automaton;
+import org.iguana.regex.automaton.AutomatonOperations;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates matchers by generating a class per regular expression, in which the states of the minimized DFA of the
+ * regular expression are compiled to code; see {@link BytecodeMatcherGenerator}. The classes are defined in a class
+ * loader owned by the factory, so they can be unloaded together with the factory.
+ *
+ * If the generated code is too large to be compiled by the JIT compiler, a {@link DenseDFAMatcher} is used instead.
+ */
+public class BytecodeMatcherFactory extends DFAMatcherFactory {
+
+    /**
+     * HotSpot does not compile methods larger than 8000 bytes of bytecode.
+     */
+    private static final int MAX_CODE_SIZE = 8000;
+
+    private static final String CLASS_NAME_PREFIX = "org/iguana/regex/matcher/GeneratedMatcher$";
+
+    private final MatcherClassLoader classLoader = new MatcherClassLoader();
+
+    private final AtomicInteger classCount = new AtomicInteger();
+
+    @Override
+    protected Matcher createMatcher(RegularExpression regex) {
+        Automaton automaton = AutomatonOperations.makeDeterministic(getAutomaton(regex));
+        automaton = AutomatonOperations.minimize(automaton);
+
+        BytecodeMatcherGenerator generator = new BytecodeMatcherGenerator(automaton);
+        String className = CLASS_NAME_PREFIX + classCount.getAndIncrement();
+        byte[] bytes = generator.generate(className, MAX_CODE_SIZE);
+        if (bytes == null) {
+            return new DenseDFAMatcher(automaton);
+        }
+
+        try {
+            Class<?> matcherClass = classLoader.define(className.replace('/', '.'), bytes);
+            return (Matcher) matcherClass.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static class MatcherClassLoader extends ClassLoader {
+
+        MatcherClassLoader() {
+            super(Matcher.class.getClassLoader());
+        }
+
+        Class<?> define(String name, byte[] bytes) {
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package org.iguana.regex.matcher;
+
+import org.iguana.regex.automaton.Automaton;
+import org.iguana.regex.automaton.State;
+import org.iguana.regex.automaton.Transition;
+import org.iguana.utils.input.Input;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
+import static org.objectweb.asm.Opcodes.ACC_SUPER;
+import static org.objectweb.asm.Opcodes.ALOAD;
+import static org.objectweb.asm.Opcodes.BIPUSH;
+import static org.objectweb.asm.Opcodes.GOTO;
+import static org.objectweb.asm.Opcodes.ICONST_0;
+import static org.objectweb.asm.Opcodes.IF_ICMPEQ;
+import static org.objectweb.asm.Opcodes.IF_ICMPGE;
+import static org.objectweb.asm.Opcodes.IF_ICMPLE;
+import static org.objectweb.asm.Opcodes.IF_ICMPLT;
+import static org.objectweb.asm.Opcodes.ILOAD;
+import static org.objectweb.asm.Opcodes.INVOKEINTERFACE;
+import static org.objectweb.asm.Opcodes.INVOKESPECIAL;
+import static org.objectweb.asm.Opcodes.IRETURN;
+import static org.objectweb.asm.Opcodes.ISTORE;
+import static org.objectweb.asm.Opcodes.ISUB;
+import static org.objectweb.asm.Opcodes.RETURN;
+import static org.objectweb.asm.Opcodes.SIPUSH;
+import static org.objectweb.asm.Opcodes.V11;
+
+/**
+ * Generates the class file of a {@link Matcher} for a deterministic automaton. Each state of the automaton becomes
+ * a block of code in the match method, and the transitions of a state become a binary search over the ranges of
+ * the transitions, ending in compare chains that jump to the block of the destination state. The generated method
+ * is equivalent to {@link DFAMatcher#match(Input, int)}.
+ */
+class BytecodeMatcherGenerator {
+
+    private static final String INPUT = Type.getInternalName(Input.class);
+    private static final String MATCHER = Type.getInternalName(Matcher.class);
+    private static final String MATCH_DESCRIPTOR = Type.getMethodDescriptor(Type.INT_TYPE, Type.getType(Input.class),
+                                                                            Type.INT_TYPE);
+
+    private static final int INPUT_VAR = 1;
+    private static final int INDEX_VAR = 2;
+    private static final int LENGTH_VAR = 3;
+    private static final int MAX_MATCHED_VAR = 4;
+    private static final int CHAR_VAR = 5;
+    private static final int START_INDEX_VAR = 6;
+
+    /**
+     * The number of ranges below which the transitions are tested one after another, instead of with a binary search.
+     */
+    private static final int LINEAR_SEARCH_THRESHOLD = 4;
+
+    private final Automaton automaton;
+
+    private final Label[] stateLabels;
+
+    private final Label returnLabel = new Label();
+
+    BytecodeMatcherGenerator(Automaton automaton) {
+        this.automaton = automaton;
+        this.stateLabels = new Label[automaton.getCountStates()];
+        for (int i = 0; i < stateLabels.length; i++) {
+            stateLabels[i] = new Label();
+        }
+    }
+
+    /**
+     * Returns the class file of a public class with the given internal name, implementing Matcher, or null if the
+     * code of the match method would be larger than maxCodeSize bytes.
+     */
+    byte[] generate(String className, int maxCodeSize) {
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS);
+        cw.visit(V11, ACC_PUBLIC | ACC_SUPER, className, null, "java/lang/Object", new String[] {MATCHER});
+
+        MethodVisitor constructor = cw.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
+        constructor.visitCode();
+        constructor.visitVarInsn(ALOAD, 0);
+        constructor.visitMethodInsn(INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+        constructor.visitInsn(RETURN);
+        constructor.visitMaxs(0, 0);
+        constructor.visitEnd();
+
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "match", MATCH_DESCRIPTOR, null, null);
+        mv.visitCode();
+        generateMatch(mv);
+        Label end = new Label();
+        mv.visitLabel(end);
+        if (end.getOffset() > maxCodeSize) {
+            return null;
+        }
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    private void generateMatch(MethodVisitor mv) {
+        // int length = input.length(); int startIndex = inputIndex; int maximumMatched = -1;
+        mv.visitVarInsn(ALOAD, INPUT_VAR);
+        mv.visitMethodInsn(INVOKEINTERFACE, INPUT, "length", "()I", true);
+        mv.visitVarInsn(ISTORE, LENGTH_VAR);
+        mv.visitVarInsn(ILOAD, INDEX_VAR);
+        mv.visitVarInsn(ISTORE, START_INDEX_VAR);
+        pushInt(mv, -1);
+        mv.visitVarInsn(ISTORE, MAX_MATCHED_VAR);
+        mv.visitJumpInsn(GOTO, stateLabels[automaton.getStartState().getId()]);
+
+        for (State state : automaton.getStates()) {
+            mv.visitLabel(stateLabels[state.getId()]);
+
+            if (state.isFinalState()) {
+                mv.visitVarInsn(ILOAD, INDEX_VAR);
+                mv.visitVarInsn(ILOAD, START_INDEX_VAR);
+                mv.visitInsn(ISUB);
+                mv.visitVarInsn(ISTORE, MAX_MATCHED_VAR);
+            }
+
+            List<Transition> transitions = new ArrayList<>(state.getTransitions());
+            if (transitions.isEmpty()) {
+                mv.visitJumpInsn(GOTO, returnLabel);
+                continue;
+            }
+            transitions.sort(Comparator.comparingInt(Transition::getStart));
+
+            // if (inputIndex >= length) return maximumMatched; int c = input.charAt(inputIndex++);
+            mv.visitVarInsn(ILOAD, INDEX_VAR);
+            mv.visitVarInsn(ILOAD, LENGTH_VAR);
+            mv.visitJumpInsn(IF_ICMPGE, returnLabel);
+            mv.visitVarInsn(ALOAD, INPUT_VAR);
+            mv.visitVarInsn(ILOAD, INDEX_VAR);
+            mv.visitMethodInsn(INVOKEINTERFACE, INPUT, "charAt", "(I)I", true);
+            mv.visitVarInsn(ISTORE, CHAR_VAR);
+            mv.visitIincInsn(INDEX_VAR, 1);
+
+            generateTransitions(mv, transitions, 0, transitions.size() - 1);
+        }
+
+        mv.visitLabel(returnLabel);
+        mv.visitVarInsn(ILOAD, MAX_MATCHED_VAR);
+        mv.visitInsn(IRETURN);
+    }
+
+    /**
+     * Generates the tests for the transitions from index lo to hi (inclusive), which are sorted and do not overlap.
+     * If no transition matches, jumps to the return label.
+     */
+    private void generateTransitions(MethodVisitor mv, List<Transition> transitions, int lo, int hi) {
+        if (hi - lo < LINEAR_SEARCH_THRESHOLD) {
+            for (int i = lo; i <= hi; i++) {
+                Transition transition = transitions.get(i);
+                Label destination = stateLabels[transition.getDestination().getId()];
+                if (transition.getStart() == transition.getEnd()) {
+                    mv.visitVarInsn(ILOAD, CHAR_VAR);
+                    pushInt(mv, transition.getStart());
+                    mv.visitJumpInsn(IF_ICMPEQ, destination);
+                } else {
+                    Label next = new Label();
+                    mv.visitVarInsn(ILOAD, CHAR_VAR);
+                    pushInt(mv, transition.getStart());
+                    mv.visitJumpInsn(IF_ICMPLT, next);
+                    mv.visitVarInsn(ILOAD, CHAR_VAR);
+                    pushInt(mv, transition.getEnd());
+                    mv.visitJumpInsn(IF_ICMPLE, destination);
+                    mv.visitLabel(next);
+                }
+            }
+            mv.visitJumpInsn(GOTO, returnLabel);
+            return;
+        }
+
+        int mid = (lo + hi + 1) / 2;
+        Label left = new Label();
+        mv.visitVarInsn(ILOAD, CHAR_VAR);
+        pushInt(mv, transitions.get(mid).getStart());
+        mv.visitJumpInsn(IF_ICMPLT, left);
+        generateTransitions(mv, transitions, mid, hi);
+        mv.visitLabel(left);
+        generateTransitions(mv, transitions, lo, mid - 1);
+    }
+
+    private static void pushInt(MethodVisitor mv, int value) {
+        if (value >= -1 && value <= 5) {
+            mv.visitInsn(ICONST_0 + value);
+        } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+            mv.visitIntInsn(BIPUSH, value);
+        } else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+            mv.visitIntInsn(SIPUSH, value);
+        } else {
+            mv.visitLdcInsn(value);
+        }
+    }
+}
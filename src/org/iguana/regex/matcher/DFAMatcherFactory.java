@@ -31,20 +31,33 @@ import org.iguana.regex.Char;
 import org.iguana.regex.CharRange;
 import org.iguana.regex.Epsilon;
 import org.iguana.regex.RegularExpression;
+import org.iguana.regex.automaton.Automaton;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class DFAMatcherFactory implements MatcherFactory {
 
-    private final Map<RegularExpression, Matcher> matcherCache = new HashMap<>();
-    private final Map<RegularExpression, Matcher> backwardsMatcherCache = new HashMap<>();
+    // Concurrent maps, so that the matchers of a grammar can be created in parallel
+    private final Map<RegularExpression, Matcher> matcherCache = new ConcurrentHashMap<>();
+    private final Map<RegularExpression, Matcher> backwardsMatcherCache = new ConcurrentHashMap<>();
+    private final Map<RegularExpression, Automaton> automata = new ConcurrentHashMap<>();
+
+    /**
+     * Registers a deterministic automaton of a regular expression, e.g., read from a grammar graph snapshot, so that
+     * the automaton of the regular expression does not have to be built again when its matcher is created.
+     */
+    public void addAutomaton(RegularExpression regex, Automaton automaton) {
+        automata.put(regex, automaton);
+    }
 
     public Matcher getMatcher(RegularExpression regex) {
         if (regex == Epsilon.getInstance()) return epsilonMatcher();
         if (regex instanceof Char)          return characterMatcher((Char) regex);
         if (regex instanceof CharRange)     return characterRangeMatcher((CharRange) regex);
-        return matcherCache.computeIfAbsent(regex, DFAMatcher::new);
+        if (LiteralMatcher.isLiteral(regex))
+            return matcherCache.computeIfAbsent(regex, DFAMatcherFactory::literalMatcher);
+        return matcherCache.computeIfAbsent(regex, this::createMatcher);
     }
 
     public Matcher getBackwardsMatcher(RegularExpression regex) {
@@ -55,9 +68,31 @@ public class DFAMatcherFactory implements MatcherFactory {
         if (regex instanceof CharRange)
             return characterRangeBackwardsMatcher((CharRange) regex);
 
+        if (LiteralMatcher.isLiteral(regex))
+            return backwardsMatcherCache.computeIfAbsent(regex, r -> literalMatcher(r).backwards());
+
         return backwardsMatcherCache.computeIfAbsent(regex, DFABackwardsMatcher::new);
     }
 
+    /**
+     * Creates the matcher of a regular expression that is not a single character, character range or literal.
+     */
+    protected Matcher createMatcher(RegularExpression regex) {
+        return new DFAMatcher(getAutomaton(regex));
+    }
+
+    /**
+     * Returns the registered automaton of the regular expression, or the automaton built by the regular expression.
+     */
+    protected Automaton getAutomaton(RegularExpression regex) {
+        Automaton automaton = automata.get(regex);
+        return automaton != null ? automaton : regex.getAutomaton();
+    }
+
+    public static LiteralMatcher literalMatcher(RegularExpression literal) {
+        return new LiteralMatcher(LiteralMatcher.getChars(literal));
+    }
+
     public static Matcher characterMatcher(Char c) {
         return (input, i) -> input.charAt(i) == c.getValue() ? 1 : -1;
     }
@@ -0,0 +1,167 @@
+package org.iguana.regex.matcher;
+
+import org.iguana.regex.RegularExpression;
+import org.iguana.regex.automaton.Automaton;
+import org.iguana.regex.automaton.AutomatonOperations;
+import org.iguana.regex.automaton.State;
+import org.iguana.regex.automaton.Transition;
+import org.iguana.utils.input.Input;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import static org.iguana.regex.matcher.DFAMatcher.ERROR_STATE;
+
+/**
+ * A DFA matcher that stores the transitions of all states in a single dense table. The characters are partitioned
+ * into equivalence classes, such that characters in the same class have the same transitions in all states.
+ * The table has a row per state and a column per class. The class of a character smaller than 256 is looked up
+ * in an array; for the other characters, including EOF, the class is found with a binary search over the ranges.
+ *
+ * Class 0 is the class of characters that have no transition in any state.
+ */
+public class DenseDFAMatcher implements Matcher {
+
+    private static final int LATIN1_SIZE = 256;
+
+    private final int[] transitions;
+
+    private final int classCount;
+
+    private final int[] latin1Classes;
+
+    /**
+     * The start of each character range, in ascending order, and the class of the range.
+     */
+    private final int[] rangeStarts;
+    private final int[] rangeClasses;
+
+    private final boolean[] finalStates;
+
+    private final int start;
+
+    public DenseDFAMatcher(RegularExpression regex) {
+        this(regex.getAutomaton());
+    }
+
+    public DenseDFAMatcher(Automaton automaton) {
+        automaton = AutomatonOperations.makeDeterministic(automaton);
+        State[] states = automaton.getStates();
+        int stateCount = automaton.getCountStates();
+
+        TreeSet<Integer> bounds = new TreeSet<>();
+        for (int i = 0; i < stateCount; i++) {
+            for (Transition transition : states[i].getTransitions()) {
+                bounds.add(transition.getStart());
+                bounds.add(transition.getEnd() + 1);
+            }
+        }
+
+        this.rangeStarts = bounds.stream().mapToInt(Integer::intValue).toArray();
+        this.rangeClasses = new int[rangeStarts.length];
+
+        // The columns of the table, one per distinct list of destinations
+        Map<List<Integer>, Integer> classes = new HashMap<>();
+        List<int[]> columns = new ArrayList<>();
+        int[] errorColumn = new int[stateCount];
+        Arrays.fill(errorColumn, ERROR_STATE);
+        classes.put(toList(errorColumn), 0);
+        columns.add(errorColumn);
+
+        for (int k = 0; k < rangeStarts.length - 1; k++) {
+            int c = rangeStarts[k];
+            int[] column = new int[stateCount];
+            for (int i = 0; i < stateCount; i++) {
+                column[i] = ERROR_STATE;
+                for (Transition transition : states[i].getTransitions()) {
+                    if (transition.canMove(c)) {
+                        column[i] = transition.getDestination().getId();
+                        break;
+                    }
+                }
+            }
+            Integer classId = classes.get(toList(column));
+            if (classId == null) {
+                classId = columns.size();
+                classes.put(toList(column), classId);
+                columns.add(column);
+            }
+            rangeClasses[k] = classId;
+        }
+
+        this.classCount = columns.size();
+        this.transitions = new int[stateCount * classCount];
+        for (int j = 0; j < classCount; j++) {
+            int[] column = columns.get(j);
+            for (int i = 0; i < stateCount; i++) {
+                transitions[states[i].getId() * classCount + j] = column[i];
+            }
+        }
+
+        this.latin1Classes = new int[LATIN1_SIZE];
+        for (int c = 0; c < LATIN1_SIZE; c++) {
+            latin1Classes[c] = classOf(c);
+        }
+
+        this.finalStates = new boolean[stateCount];
+        for (int i = 0; i < stateCount; i++) {
+            finalStates[states[i].getId()] = states[i].isFinalState();
+        }
+
+        this.start = automaton.getStartState().getId();
+    }
+
+    @Override
+    public int match(Input input, int inputIndex) {
+        int length = 0;
+        int maximumMatched = -1;
+        int state = start;
+
+        if (finalStates[state]) {
+            maximumMatched = 0;
+        }
+
+        for (int i = inputIndex; i < input.length(); i++) {
+            int c = input.charAt(i);
+            int charClass = c >= 0 && c < LATIN1_SIZE ? latin1Classes[c] : classOf(c);
+            state = transitions[state * classCount + charClass];
+
+            if (state == ERROR_STATE)
+                break;
+
+            length++;
+
+            if (finalStates[state]) {
+                maximumMatched = length;
+            }
+        }
+
+        return maximumMatched;
+    }
+
+    /**
+     * Returns the number of character classes, including the class of characters without transitions.
+     */
+    public int getClassCount() {
+        return classCount;
+    }
+
+    private int classOf(int c) {
+        int k = Arrays.binarySearch(rangeStarts, c);
+        if (k < 0) k = -k - 2;
+        if (k < 0) return 0;
+        return rangeClasses[k];
+    }
+
+    private static List<Integer> toList(int[] column) {
+        List<Integer> list = new ArrayList<>(column.length);
+        for (int dest : column) {
+            list.add(dest);
+        }
+        return list;
+    }
+}
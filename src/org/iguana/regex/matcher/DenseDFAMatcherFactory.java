@@ -0,0 +1,15 @@
+package org.iguana.regex.matcher;
+
+import org.iguana.regex.RegularExpression;
+
+/**
+ * Creates {@link DenseDFAMatcher}s for regular expressions. Backwards matchers, which are only used in
+ * conditions, are the same as in {@link DFAMatcherFactory}.
+ */
+public class DenseDFAMatcherFactory extends DFAMatcherFactory {
+
+    @Override
+    protected Matcher createMatcher(RegularExpression regex) {
+        return new DenseDFAMatcher(getAutomaton(regex));
+    }
+}
@@ -0,0 +1,73 @@
+package org.iguana.regex.matcher;
+
+import org.iguana.regex.Char;
+import org.iguana.regex.RegularExpression;
+import org.iguana.regex.Seq;
+import org.iguana.utils.input.Input;
+
+/**
+ * Matches a fixed sequence of characters, such as a keyword, by comparing the characters directly with the input.
+ * The first character is compared before entering the loop, as most attempts to match a keyword fail on the first
+ * character.
+ */
+public class LiteralMatcher implements Matcher {
+
+    private final int[] chars;
+
+    private final int first;
+
+    public LiteralMatcher(int[] chars) {
+        if (chars.length == 0) throw new IllegalArgumentException("A literal should have at least one character.");
+        this.chars = chars;
+        this.first = chars[0];
+    }
+
+    /**
+     * Returns true if the regular expression is a non-empty sequence of characters.
+     */
+    public static boolean isLiteral(RegularExpression regex) {
+        if (!(regex instanceof Seq)) return false;
+        Seq<?> seq = (Seq<?>) regex;
+        if (seq.size() == 0) return false;
+        for (RegularExpression symbol : seq.getSymbols()) {
+            if (!(symbol instanceof Char)) return false;
+        }
+        return true;
+    }
+
+    public static int[] getChars(RegularExpression literal) {
+        Seq<?> seq = (Seq<?>) literal;
+        int[] chars = new int[seq.size()];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = ((Char) seq.get(i)).getValue();
+        }
+        return chars;
+    }
+
+    /**
+     * The characters of the input are compared until the first mismatch. As EOF does not match any character,
+     * the input is never read beyond EOF.
+     */
+    @Override
+    public int match(Input input, int inputIndex) {
+        if (input.charAt(inputIndex) != first) return -1;
+
+        for (int i = 1; i < chars.length; i++) {
+            if (input.charAt(inputIndex + i) != chars[i]) return -1;
+        }
+
+        return chars.length;
+    }
+
+    public Matcher backwards() {
+        return (input, inputIndex) -> {
+            if (inputIndex < chars.length) return -1;
+
+            for (int i = 0; i < chars.length; i++) {
+                if (input.charAt(inputIndex - chars.length + i) != chars[i]) return -1;
+            }
+
+            return chars.length;
+        };
+    }
+}
@@ -30,7 +30,9 @@ package org.iguana.regex.matcher;
 import org.iguana.regex.RegularExpression;
 
 /**
- * 
+ * Creates the matchers of regular expressions. Matcher factories are thread-safe, as the grammar graph builder may
+ * create the matchers of a grammar in parallel.
+ *
  * @author Al Afroozeh
  *
  */
@@ -0,0 +1,127 @@
+package org.iguana.regex.matcher;
+
+import org.iguana.regex.RegularExpression;
+import org.iguana.regex.automaton.Automaton;
+import org.iguana.regex.automaton.AutomatonBuilder;
+import org.iguana.regex.automaton.AutomatonOperations;
+import org.iguana.regex.automaton.State;
+import org.iguana.regex.automaton.Transition;
+import org.iguana.util.Tuple;
+import org.iguana.utils.collections.primitive.IntList;
+import org.iguana.utils.collections.rangemap.IntRangeMap;
+import org.iguana.utils.collections.rangemap.RangeMapBuilder;
+import org.iguana.utils.input.Input;
+
+import java.util.Map;
+
+/**
+ * Matches a set of regular expressions at an input position in one pass over the input. Like
+ * {@link org.iguana.regex.IguanaTokenizer}, the automata of the regular expressions are combined into one DFA, but
+ * instead of returning the longest match of all the regular expressions, the scanner reports the longest match of
+ * each regular expression. The final states of the DFA are labeled with the ids of the regular expressions that
+ * match when the state is reached.
+ *
+ * The scanner is immutable and can be shared by concurrent parsers.
+ */
+public class TokenScanner {
+
+    private static final int[] NO_IDS = new int[0];
+
+    private final IntRangeMap[] table;
+
+    private final int[][] finalIds;
+
+    private final int start;
+
+    private final boolean[] covered;
+
+    /**
+     * Creates a scanner for the given regular expressions, indexed by their ids. The ids should be small, non-negative
+     * integers, as the scanner uses them as array indices.
+     */
+    public TokenScanner(Map<Integer, RegularExpression> regularExpressions) {
+        int maxId = -1;
+        State startState = new State();
+        for (Map.Entry<Integer, RegularExpression> entry : regularExpressions.entrySet()) {
+            // The automata of regular expressions are cached and shared, e.g., with the tokenizer, so a copy is
+            // labeled instead.
+            Automaton automaton = entry.getValue().getAutomaton().copy();
+            for (State state : automaton.getStates()) {
+                state.clearRegularExpressions();
+            }
+            for (State state : automaton.getFinalStates()) {
+                state.addRegularExpression(entry.getValue(), entry.getKey());
+            }
+            startState.addEpsilonTransition(automaton.getStartState());
+            maxId = Math.max(maxId, entry.getKey());
+        }
+
+        Automaton automaton = AutomatonOperations.makeDeterministic(new AutomatonBuilder(startState).build());
+
+        int size = automaton.getCountStates();
+        table = new IntRangeMap[size];
+        finalIds = new int[size][];
+        for (int i = 0; i < size; i++) {
+            State state = automaton.getStates()[i];
+            RangeMapBuilder<Integer> builder = new RangeMapBuilder<>();
+            for (Transition transition : state.getTransitions()) {
+                builder.put(transition.getRange(), transition.getDestination().getId());
+            }
+            table[state.getId()] = builder.buildIntRangeMap();
+
+            if (state.isFinalState()) {
+                finalIds[state.getId()] = state.getRegularExpressions().stream().mapToInt(Tuple::getSecond).toArray();
+            } else {
+                finalIds[state.getId()] = NO_IDS;
+            }
+        }
+        start = automaton.getStartState().getId();
+
+        covered = new boolean[maxId + 1];
+        for (int id : regularExpressions.keySet()) {
+            covered[id] = true;
+        }
+    }
+
+    /**
+     * Returns whether the regular expression with the given id is matched by this scanner.
+     */
+    public boolean covers(int id) {
+        return id < covered.length && covered[id];
+    }
+
+    /**
+     * Returns the size of the arrays passed as the lengths to {@link #scan(Input, int, int[], IntList)}.
+     */
+    public int getIdsCount() {
+        return covered.length;
+    }
+
+    /**
+     * Matches all the regular expressions at the given input index. The length of the longest match of each regular
+     * expression that matches is stored at its id in the lengths array, and its id is added to the matched ids. The
+     * lengths of the regular expressions that do not match are not changed, and should be negative before the call.
+     */
+    public void scan(Input input, int inputIndex, int[] lengths, IntList matchedIds) {
+        int state = start;
+        record(state, 0, lengths, matchedIds);
+
+        int length = 0;
+        for (int i = inputIndex; i < input.length(); i++) {
+            state = table[state].get(input.charAt(i));
+
+            if (state == DFAMatcher.ERROR_STATE)
+                break;
+
+            length++;
+            record(state, length, lengths, matchedIds);
+        }
+    }
+
+    private void record(int state, int length, int[] lengths, IntList matchedIds) {
+        for (int id : finalIds[state]) {
+            if (lengths[id] < 0) matchedIds.add(id);
+            lengths[id] = length;
+        }
+    }
+}
@@ -20,10 +20,7 @@ import org.iguana.sppf.TerminalNode;
 import org.iguana.traversal.SPPFVisitor;
 import org.iguana.util.ParserLogger;
 
-import java.util.ArrayList;
-import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.Map;
 
 public class ParserResultOps implements ResultOps<NonPackedNode> {
 
@@ -64,7 +61,13 @@ public class ParserResultOps implements ResultOps<NonPackedNode> {
         }
 
         @Override
-        public void setAmbiguous(boolean ambiguous) {
+        public void addPackedNode(PackedNode packedNode) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<PackedNode> getPackedNodes() {
+            return null;
         }
 
         @Override
@@ -83,9 +86,15 @@ public class ParserResultOps implements ResultOps<NonPackedNode> {
         }
     };
 
-    private ParserLogger logger = ParserLogger.getInstance();
+    private final ParserLogger logger;
 
-    private Map<NonPackedNode, List<PackedNode>> packedNodesMap = new IdentityHashMap<>();
+    public ParserResultOps() {
+        this(ParserLogger.NONE);
+    }
+
+    public ParserResultOps(ParserLogger logger) {
+        this.logger = logger;
+    }
 
     @Override
     public NonPackedNode dummy() {
@@ -126,19 +135,15 @@ public class ParserResultOps implements ResultOps<NonPackedNode> {
             current = new IntermediateNode(slot, result1, result2);
             logger.intermediateNodeAdded((IntermediateNode) current);
         } else {
-            List<PackedNode> packedNodes = packedNodesMap.computeIfAbsent(current, key -> new ArrayList<>());
-
             if (!current.isAmbiguous()) {
                 PackedNode firstPackedNode = current.getFirstPackedNode();
                 logger.packedNodeAdded(firstPackedNode);
-                packedNodes.add(firstPackedNode);
-
-                current.setAmbiguous(true);
+                current.addPackedNode(firstPackedNode);
                 logger.ambiguousNodeAdded(current);
             }
 
             PackedNode packedNode = new PackedNode(slot, result1, result2);
-            packedNodes.add(packedNode);
+            current.addPackedNode(packedNode);
             logger.packedNodeAdded(packedNode);
         }
 
@@ -156,27 +161,19 @@ public class ParserResultOps implements ResultOps<NonPackedNode> {
 
             logger.nonterminalNodeAdded((NonterminalNode) current);
         } else {
-            List<PackedNode> packedNodes = packedNodesMap.computeIfAbsent(current, key -> new ArrayList<>());
-
             if (!current.isAmbiguous()) {
                 PackedNode firstPackedNode = current.getFirstPackedNode();
                 logger.packedNodeAdded(firstPackedNode);
-                packedNodes.add(firstPackedNode);
-
-                current.setAmbiguous(true);
+                current.addPackedNode(firstPackedNode);
                 logger.ambiguousNodeAdded(current);
             }
 
             PackedNode packedNode = new PackedNode(slot, result);
-            packedNodes.add(packedNode);
+            current.addPackedNode(packedNode);
             logger.packedNodeAdded(packedNode);
         }
 
         return current;
     }
 
-    public List<PackedNode> getPackedNodes(NonPackedNode node) {
-        return packedNodesMap.get(node);
-    }
-
 }
@@ -38,6 +38,14 @@ public class RecognizerResultOps implements ResultOps<RecognizerResult> {
         return dummy;
     }
 
+    /**
+     * A recognizer result only holds the extents, so it is not shared.
+     */
+    @Override
+    public boolean sharesTerminalResults() {
+        return false;
+    }
+
     @Override
     public RecognizerResult base(TerminalGrammarSlot slot, int start, int end) {
         return RecognizerResult.of(start, end);
@@ -8,6 +8,15 @@ public interface ResultOps<T extends Result> {
 
     T dummy();
 
+    /**
+     * Returns whether the result of a terminal at an input position should be created once and shared by all the
+     * results that contain it, e.g., because it is a node of the SPPF. Otherwise, a result may be created each time
+     * the terminal is matched at the input position.
+     */
+    default boolean sharesTerminalResults() {
+        return true;
+    }
+
     T base(TerminalGrammarSlot slot, int start, int end);
 
     T error(BodyGrammarSlot slot, int start, int end);
@@ -4,6 +4,8 @@ import org.iguana.grammar.slot.BodyGrammarSlot;
 import org.iguana.grammar.slot.GrammarSlot;
 import org.iguana.traversal.SPPFVisitor;
 
+import java.util.List;
+
 public class ErrorNode extends NonPackedNode {
 
     private final BodyGrammarSlot slot;
@@ -47,10 +49,15 @@ public class ErrorNode extends NonPackedNode {
     }
 
     @Override
-    public void setAmbiguous(boolean ambiguous) {
+    public void addPackedNode(PackedNode packedNode) {
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public List<PackedNode> getPackedNodes() {
+        return null;
+    }
+
     @Override
     public boolean isAmbiguous() {
         throw new UnsupportedOperationException();
@@ -30,6 +30,9 @@ package org.iguana.sppf;
 import org.iguana.grammar.slot.BodyGrammarSlot;
 import org.iguana.traversal.SPPFVisitor;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class IntermediateNode extends NonPackedNode {
 
     private final NonPackedNode leftChild;
@@ -38,7 +41,7 @@ public class IntermediateNode extends NonPackedNode {
 
     private final BodyGrammarSlot slot;
 
-    private boolean ambiguous;
+    private List<PackedNode> packedNodes;
 
     public IntermediateNode(BodyGrammarSlot slot, NonPackedNode leftChild, NonPackedNode rightChild) {
         this.slot = slot;
@@ -83,13 +86,19 @@ public class IntermediateNode extends NonPackedNode {
     }
 
     @Override
-    public void setAmbiguous(boolean ambiguous) {
-        this.ambiguous = ambiguous;
+    public void addPackedNode(PackedNode packedNode) {
+        if (packedNodes == null) packedNodes = new ArrayList<>();
+        packedNodes.add(packedNode);
+    }
+
+    @Override
+    public List<PackedNode> getPackedNodes() {
+        return packedNodes;
     }
 
     @Override
     public boolean isAmbiguous() {
-        return ambiguous;
+        return packedNodes != null;
     }
 
     @Override
@@ -27,9 +27,20 @@
 
 package org.iguana.sppf;
 
+import java.util.List;
+
 public abstract class NonPackedNode implements SPPFNode {
 
-    public abstract void setAmbiguous(boolean ambiguous);
+    /**
+     * Adds a packed node to the packed nodes of this node. When a node becomes ambiguous, its first packed node,
+     * which is stored in the node itself, is added before the new packed node.
+     */
+    public abstract void addPackedNode(PackedNode packedNode);
+
+    /**
+     * Returns all the packed nodes of this node if it is ambiguous, otherwise null.
+     */
+    public abstract List<PackedNode> getPackedNodes();
 
     public abstract boolean isAmbiguous();
 
@@ -32,6 +32,9 @@ import org.iguana.grammar.slot.EndGrammarSlot;
 import org.iguana.grammar.slot.NonterminalGrammarSlot;
 import org.iguana.traversal.SPPFVisitor;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class NonterminalNode extends NonPackedNode {
 
     private final EndGrammarSlot slot;
@@ -42,7 +45,7 @@ public class NonterminalNode extends NonPackedNode {
 
     private final int rightExtent;
 
-    private boolean ambiguous;
+    private List<PackedNode> packedNodes;
 
     public NonterminalNode(EndGrammarSlot slot, NonPackedNode child, int leftExtent, int rightExtent) {
         this.slot = slot;
@@ -88,13 +91,19 @@ public class NonterminalNode extends NonPackedNode {
     }
 
     @Override
-    public void setAmbiguous(boolean ambiguous) {
-        this.ambiguous = ambiguous;
+    public void addPackedNode(PackedNode packedNode) {
+        if (packedNodes == null) packedNodes = new ArrayList<>();
+        packedNodes.add(packedNode);
+    }
+
+    @Override
+    public List<PackedNode> getPackedNodes() {
+        return packedNodes;
     }
 
     @Override
     public boolean isAmbiguous() {
-        return ambiguous;
+        return packedNodes != null;
     }
 
     @Override
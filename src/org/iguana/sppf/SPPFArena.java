@@ -0,0 +1,603 @@
+package org.iguana.sppf;
+
+import org.iguana.grammar.GrammarGraph;
+import org.iguana.grammar.slot.BodyGrammarSlot;
+import org.iguana.grammar.slot.EndGrammarSlot;
+import org.iguana.grammar.slot.GrammarSlot;
+import org.iguana.grammar.slot.TerminalGrammarSlot;
+import org.iguana.result.ParserResultOps;
+import org.iguana.utils.collections.primitive.IntHashMap;
+import org.iguana.utils.collections.primitive.IntList;
+import org.iguana.utils.collections.primitive.IntStack;
+import org.iguana.utils.collections.primitive.OpenAddressingIntHashMap;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Stores a finished SPPF in chunks of int arrays, see {@link #of(NonPackedNode)}. The non-packed nodes are identified
+ * by an int handle, which is the index of the node record in the chunks of the non-packed nodes. As in the object
+ * SPPF, the children of the first packed node are stored with the node, and only the other packed nodes of ambiguous
+ * nodes are stored as packed node records. The chunks have a fixed size, so adding a node never copies the records
+ * added before.
+ *
+ * An arena holds the nodes of an SPPF in a few large arrays instead of several objects per node, so keeping the
+ * SPPF of a large input, e.g., in a cache of parse results, does not leave millions of small objects for the garbage
+ * collector to trace, and the SPPF can be written and read in bulk, see {@link #write(OutputStream)} and
+ * {@link #read(InputStream, GrammarGraph)}. Unambiguous arenas are converted to parse trees directly, see
+ * {@link org.iguana.traversal.SPPFArenaToParseTreeConverter}.
+ *
+ * The packed nodes of an ambiguous node, other than the first one, form a circular linked list in the order in which
+ * they were added, and the node refers to the last one, so that adding a packed node and finding the first one take
+ * constant time.
+ *
+ * Grammar slots are stored by their id, which is unique per kind of slot. The slots are registered in the arena
+ * when a node referring to them is added.
+ *
+ * An object SPPF, which can be traversed by the existing SPPF visitors, is created with {@link #materialize(int)}.
+ */
+public class SPPFArena {
+
+    public static final byte TERMINAL = 0;
+    public static final byte NONTERMINAL = 1;
+    public static final byte INTERMEDIATE = 2;
+    public static final byte ERROR = 3;
+
+    public static final int NONE = -1;
+
+    private static final int MAGIC = 0x49475346;
+
+    private static final int VERSION = 1;
+
+    private static final int CHUNK_BITS = 9;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    // The fields of a non-packed node record. The kind is stored in the two lowest bits of the slot id.
+    private static final int KIND_AND_SLOT = 0;
+    private static final int LEFT_EXTENT = 1;
+    private static final int RIGHT_EXTENT = 2;
+    private static final int LEFT_CHILD = 3;
+    private static final int RIGHT_CHILD = 4;
+    private static final int LAST_PACKED_NODE = 5;
+    private static final int NODE_SIZE = 6;
+
+    // The fields of a packed node record
+    private static final int PACKED_SLOT = 0;
+    private static final int PACKED_LEFT_CHILD = 1;
+    private static final int PACKED_RIGHT_CHILD = 2;
+    private static final int NEXT_PACKED_NODE = 3;
+    private static final int PACKED_NODE_SIZE = 4;
+
+    private int[][] nodes;
+    private int nodesCount;
+
+    // The values of nonterminal nodes that have one, indexed by handle
+    private IntHashMap<Object> values;
+
+    private int[][] packedNodes;
+    private int packedNodesCount;
+
+    private int ambiguousNodesCount;
+
+    private int root = NONE;
+
+    private TerminalGrammarSlot[] terminalSlots;
+    private BodyGrammarSlot[] bodySlots;
+
+    private NonPackedNode[] materializedNodes;
+    private ParserResultOps materializedResultOps;
+
+    public SPPFArena() {
+        nodes = new int[8][];
+        packedNodes = new int[8][];
+        terminalSlots = new TerminalGrammarSlot[16];
+        bodySlots = new BodyGrammarSlot[16];
+    }
+
+    /**
+     * Creates the arena of the SPPF of the given node. The nodes that are reachable from the given node are added in
+     * the order in which the parser created them: the children of the first packed node of a node are added before
+     * the node, and the other packed nodes of ambiguous nodes, which may refer to nodes added later, are added last.
+     */
+    public static SPPFArena of(NonPackedNode root) {
+        SPPFArena arena = new SPPFArena();
+        NodeHandles handles = new NodeHandles(root.getRightExtent());
+        List<NonPackedNode> ambiguousNodes = new ArrayList<>();
+        arena.root = arena.addNodes(root, handles, ambiguousNodes);
+
+        // The list grows while the children of the packed nodes are added
+        for (int i = 0; i < ambiguousNodes.size(); i++) {
+            NonPackedNode node = ambiguousNodes.get(i);
+            int handle = handles.get(node);
+            List<PackedNode> packedNodes = node.getPackedNodes();
+            // The first packed node is stored with the node
+            for (int j = 1; j < packedNodes.size(); j++) {
+                PackedNode packedNode = packedNodes.get(j);
+                int leftChild = arena.addNodes(packedNode.getLeftChild(), handles, ambiguousNodes);
+                int rightChild = packedNode.getRightChild() == null
+                                 ? NONE
+                                 : arena.addNodes(packedNode.getRightChild(), handles, ambiguousNodes);
+                arena.addPackedNode(handle, packedNode.getGrammarSlot(), leftChild, rightChild);
+            }
+        }
+        return arena;
+    }
+
+    /**
+     * Reads an arena written by {@link #write(OutputStream)}. The grammar graph should be built from the same grammar
+     * as the grammar graph of the written arena, so that the grammar slots have the same ids.
+     */
+    public static SPPFArena read(InputStream in, GrammarGraph grammarGraph) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Not an SPPF arena");
+        }
+        int version = data.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported SPPF arena version " + version);
+        }
+
+        SPPFArena arena = new SPPFArena();
+        for (TerminalGrammarSlot slot : grammarGraph.getTerminalGrammarSlots()) {
+            arena.registerTerminalSlot(slot);
+        }
+        arena.registerTerminalSlot(GrammarGraph.epsilonSlot);
+        for (BodyGrammarSlot slot : grammarGraph.getBodyGrammarSlots()) {
+            arena.registerBodySlot(slot);
+        }
+
+        arena.root = data.readInt();
+        arena.ambiguousNodesCount = data.readInt();
+        arena.nodesCount = data.readInt();
+        arena.nodes = readChunks(data, arena.nodesCount, NODE_SIZE);
+        arena.packedNodesCount = data.readInt();
+        arena.packedNodes = readChunks(data, arena.packedNodesCount, PACKED_NODE_SIZE);
+
+        for (int node = 0; node < arena.nodesCount; node++) {
+            int kindAndSlot = arena.getField(node, KIND_AND_SLOT);
+            GrammarSlot[] slots = (kindAndSlot & 3) == TERMINAL ? arena.terminalSlots : arena.bodySlots;
+            checkSlot(slots, kindAndSlot >>> 2);
+        }
+        for (int packedNode = 0; packedNode < arena.packedNodesCount; packedNode++) {
+            checkSlot(arena.bodySlots, arena.getPackedField(packedNode, PACKED_SLOT));
+        }
+        return arena;
+    }
+
+    public int addTerminalNode(TerminalGrammarSlot slot, int leftExtent, int rightExtent) {
+        registerTerminalSlot(slot);
+        return addNode(TERMINAL, slot.getId(), leftExtent, rightExtent, NONE, NONE);
+    }
+
+    public int addErrorNode(BodyGrammarSlot slot, int leftExtent, int rightExtent) {
+        registerBodySlot(slot);
+        return addNode(ERROR, slot.getId(), leftExtent, rightExtent, NONE, NONE);
+    }
+
+    public int addNonterminalNode(EndGrammarSlot slot, int child, Object value) {
+        registerBodySlot(slot);
+        int node = addNode(NONTERMINAL, slot.getId(), getLeftExtent(child), getRightExtent(child), child, NONE);
+        if (value != null) {
+            if (values == null) values = new OpenAddressingIntHashMap<>();
+            values.put(node, value);
+        }
+        return node;
+    }
+
+    public int addIntermediateNode(BodyGrammarSlot slot, int leftChild, int rightChild) {
+        registerBodySlot(slot);
+        return addNode(INTERMEDIATE, slot.getId(), getLeftExtent(leftChild), getRightExtent(rightChild), leftChild,
+            rightChild);
+    }
+
+    /**
+     * Adds a packed node with the given children to the given nonterminal or intermediate node, which makes the node
+     * ambiguous. The right child is -1 for the packed nodes of nonterminal nodes.
+     */
+    public void addPackedNode(int node, BodyGrammarSlot slot, int leftChild, int rightChild) {
+        registerBodySlot(slot);
+        int packedNode = packedNodesCount++;
+        int chunk = packedNode >>> CHUNK_BITS;
+        if (chunk == packedNodes.length) packedNodes = Arrays.copyOf(packedNodes, chunk << 1);
+        if (packedNodes[chunk] == null) packedNodes[chunk] = new int[CHUNK_SIZE * PACKED_NODE_SIZE];
+        int[] packedRecords = packedNodes[chunk];
+        int offset = (packedNode & CHUNK_MASK) * PACKED_NODE_SIZE;
+        packedRecords[offset + PACKED_SLOT] = slot.getId();
+        packedRecords[offset + PACKED_LEFT_CHILD] = leftChild;
+        packedRecords[offset + PACKED_RIGHT_CHILD] = rightChild;
+
+        int[] records = nodes[node >>> CHUNK_BITS];
+        int nodeOffset = (node & CHUNK_MASK) * NODE_SIZE;
+        int lastPackedNode = records[nodeOffset + LAST_PACKED_NODE];
+        if (lastPackedNode == NONE) {
+            packedRecords[offset + NEXT_PACKED_NODE] = packedNode;
+            ambiguousNodesCount++;
+        } else {
+            packedRecords[offset + NEXT_PACKED_NODE] = getPackedField(lastPackedNode, NEXT_PACKED_NODE);
+            packedNodes[lastPackedNode >>> CHUNK_BITS][(lastPackedNode & CHUNK_MASK) * PACKED_NODE_SIZE
+                + NEXT_PACKED_NODE] = packedNode;
+        }
+        records[nodeOffset + LAST_PACKED_NODE] = packedNode;
+    }
+
+    /**
+     * Adds the given node, if it is not added yet, and the children of the first packed nodes below it in post-order,
+     * and returns the handle of the node. The nodes on the path to the current node, and the handles of their
+     * children that are added, are kept on explicit stacks, so that each child is looked up only once.
+     */
+    private int addNodes(NonPackedNode root, NodeHandles handles, List<NonPackedNode> ambiguousNodes) {
+        int handle = handles.get(root);
+        if (handle != NONE) return handle;
+
+        NonPackedNode[] stack = new NonPackedNode[64];
+        int[] nextChild = new int[64];
+        int[] childHandles = new int[128];
+        int depth = 0;
+        stack[0] = root;
+        while (true) {
+            NonPackedNode node = stack[depth];
+            int child = nextChild[depth];
+            if (child < node.childrenCount()) {
+                NonPackedNode childNode = (NonPackedNode) node.getChildAt(child);
+                int childHandle = handles.get(childNode);
+                if (childHandle == NONE) {
+                    if (++depth == stack.length) {
+                        stack = Arrays.copyOf(stack, depth << 1);
+                        nextChild = Arrays.copyOf(nextChild, depth << 1);
+                        childHandles = Arrays.copyOf(childHandles, depth << 2);
+                    }
+                    stack[depth] = childNode;
+                    nextChild[depth] = 0;
+                } else {
+                    childHandles[(depth << 1) + child] = childHandle;
+                    nextChild[depth]++;
+                }
+                continue;
+            }
+
+            handle = addNode(node, childHandles[depth << 1], childHandles[(depth << 1) + 1]);
+            handles.put(node, handle);
+            if (node.isAmbiguous()) ambiguousNodes.add(node);
+            if (depth == 0) return handle;
+            stack[depth--] = null;
+            childHandles[(depth << 1) + nextChild[depth]++] = handle;
+        }
+    }
+
+    private int addNode(NonPackedNode node, int leftChild, int rightChild) {
+        if (node instanceof TerminalNode) {
+            return addTerminalNode((TerminalGrammarSlot) node.getGrammarSlot(), node.getLeftExtent(),
+                node.getRightExtent());
+        }
+        if (node instanceof ErrorNode) {
+            return addErrorNode((BodyGrammarSlot) node.getGrammarSlot(), node.getLeftExtent(), node.getRightExtent());
+        }
+        if (node instanceof NonterminalNode) {
+            return addNonterminalNode(((NonterminalNode) node).getEndGrammarSlot(), leftChild, node.getValue());
+        }
+        if (node instanceof IntermediateNode) {
+            return addIntermediateNode((BodyGrammarSlot) node.getGrammarSlot(), leftChild, rightChild);
+        }
+        throw new RuntimeException("Unknown SPPF node " + node);
+    }
+
+    private int addNode(byte kind, int slot, int leftExtent, int rightExtent, int leftChild, int rightChild) {
+        int node = nodesCount++;
+        int chunk = node >>> CHUNK_BITS;
+        if (chunk == nodes.length) nodes = Arrays.copyOf(nodes, chunk << 1);
+        if (nodes[chunk] == null) nodes[chunk] = new int[CHUNK_SIZE * NODE_SIZE];
+        int[] records = nodes[chunk];
+        int offset = (node & CHUNK_MASK) * NODE_SIZE;
+        records[offset + KIND_AND_SLOT] = slot << 2 | kind;
+        records[offset + LEFT_EXTENT] = leftExtent;
+        records[offset + RIGHT_EXTENT] = rightExtent;
+        records[offset + LEFT_CHILD] = leftChild;
+        records[offset + RIGHT_CHILD] = rightChild;
+        records[offset + LAST_PACKED_NODE] = NONE;
+        return node;
+    }
+
+    private void registerTerminalSlot(TerminalGrammarSlot slot) {
+        int id = slot.getId();
+        if (id >= terminalSlots.length) terminalSlots = Arrays.copyOf(terminalSlots, Math.max(id + 1,
+            terminalSlots.length << 1));
+        terminalSlots[id] = slot;
+    }
+
+    private void registerBodySlot(BodyGrammarSlot slot) {
+        int id = slot.getId();
+        if (id >= bodySlots.length) bodySlots = Arrays.copyOf(bodySlots, Math.max(id + 1, bodySlots.length << 1));
+        bodySlots[id] = slot;
+    }
+
+    private int getField(int node, int field) {
+        return nodes[node >>> CHUNK_BITS][(node & CHUNK_MASK) * NODE_SIZE + field];
+    }
+
+    private int getPackedField(int packedNode, int field) {
+        return packedNodes[packedNode >>> CHUNK_BITS][(packedNode & CHUNK_MASK) * PACKED_NODE_SIZE + field];
+    }
+
+    public byte getKind(int node) {
+        return (byte) (getField(node, KIND_AND_SLOT) & 3);
+    }
+
+    /**
+     * Returns the terminal slot of terminal nodes, the end slot of the first alternative of nonterminal nodes, and
+     * the body slot of intermediate and error nodes.
+     */
+    public GrammarSlot getSlot(int node) {
+        int kindAndSlot = getField(node, KIND_AND_SLOT);
+        int id = kindAndSlot >>> 2;
+        return (kindAndSlot & 3) == TERMINAL ? terminalSlots[id] : bodySlots[id];
+    }
+
+    public int getLeftExtent(int node) {
+        return getField(node, LEFT_EXTENT);
+    }
+
+    public int getRightExtent(int node) {
+        return getField(node, RIGHT_EXTENT);
+    }
+
+    public Object getValue(int node) {
+        return values == null ? null : values.get(node);
+    }
+
+    public boolean isAmbiguous(int node) {
+        return getField(node, LAST_PACKED_NODE) != NONE;
+    }
+
+    /**
+     * Returns the left child of the first packed node of the given node, or -1 for terminal and error nodes.
+     */
+    public int getLeftChild(int node) {
+        return getField(node, LEFT_CHILD);
+    }
+
+    /**
+     * Returns the right child of the first packed node of the given node, or -1 if it has no right child.
+     */
+    public int getRightChild(int node) {
+        return getField(node, RIGHT_CHILD);
+    }
+
+    /**
+     * Returns the second packed node of the given node, or -1 if the node is not ambiguous.
+     */
+    public int getSecondPackedNode(int node) {
+        int lastPackedNode = getField(node, LAST_PACKED_NODE);
+        return lastPackedNode == NONE ? NONE : getPackedField(lastPackedNode, NEXT_PACKED_NODE);
+    }
+
+    /**
+     * Returns the packed node of the given node that follows the given packed node, or -1 if the given packed node
+     * is the last one.
+     */
+    public int getNextPackedNode(int node, int packedNode) {
+        return packedNode == getField(node, LAST_PACKED_NODE) ? NONE : getPackedField(packedNode, NEXT_PACKED_NODE);
+    }
+
+    public BodyGrammarSlot getPackedNodeSlot(int packedNode) {
+        return bodySlots[getPackedField(packedNode, PACKED_SLOT)];
+    }
+
+    public int getPackedNodeLeftChild(int packedNode) {
+        return getPackedField(packedNode, PACKED_LEFT_CHILD);
+    }
+
+    /**
+     * Returns the right child of the given packed node, or -1 for the packed nodes of nonterminal nodes.
+     */
+    public int getPackedNodeRightChild(int packedNode) {
+        return getPackedField(packedNode, PACKED_RIGHT_CHILD);
+    }
+
+    /**
+     * Returns the handle of the root node of an arena created by {@link #of(NonPackedNode)} or read from a stream,
+     * or -1 for an arena whose nodes were added separately.
+     */
+    public int getRoot() {
+        return root;
+    }
+
+    public int getNodesCount() {
+        return nodesCount;
+    }
+
+    /**
+     * Returns the number of packed nodes of ambiguous nodes, other than their first packed node.
+     */
+    public int getPackedNodesCount() {
+        return packedNodesCount;
+    }
+
+    public int getAmbiguousNodesCount() {
+        return ambiguousNodesCount;
+    }
+
+    public int countNodes(byte kind) {
+        int count = 0;
+        for (int i = 0; i < nodesCount; i++) {
+            if (getKind(i) == kind) count++;
+        }
+        return count;
+    }
+
+    /**
+     * Writes the nodes of this arena, with their grammar slots as ids. The values of nonterminal nodes, which are
+     * computed by the data-dependent parts of a grammar, cannot be written.
+     */
+    public void write(OutputStream out) throws IOException {
+        if (values != null) {
+            throw new IOException("Cannot write an SPPF arena with the values of nonterminal nodes");
+        }
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeInt(root);
+        data.writeInt(ambiguousNodesCount);
+        data.writeInt(nodesCount);
+        writeChunks(data, nodes, nodesCount, NODE_SIZE);
+        data.writeInt(packedNodesCount);
+        writeChunks(data, packedNodes, packedNodesCount, PACKED_NODE_SIZE);
+        data.flush();
+    }
+
+    private static void writeChunks(DataOutputStream data, int[][] chunks, int count, int recordSize)
+            throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(CHUNK_SIZE * recordSize * Integer.BYTES);
+        for (int chunk = 0; chunk << CHUNK_BITS < count; chunk++) {
+            int length = Math.min(count - (chunk << CHUNK_BITS), CHUNK_SIZE) * recordSize;
+            buffer.asIntBuffer().put(chunks[chunk], 0, length);
+            data.write(buffer.array(), 0, length * Integer.BYTES);
+        }
+    }
+
+    private static int[][] readChunks(DataInputStream data, int count, int recordSize) throws IOException {
+        int[][] chunks = new int[Math.max(8, (count + CHUNK_SIZE - 1) >>> CHUNK_BITS)][];
+        ByteBuffer buffer = ByteBuffer.allocate(CHUNK_SIZE * recordSize * Integer.BYTES);
+        for (int chunk = 0; chunk << CHUNK_BITS < count; chunk++) {
+            int length = Math.min(count - (chunk << CHUNK_BITS), CHUNK_SIZE) * recordSize;
+            data.readFully(buffer.array(), 0, length * Integer.BYTES);
+            chunks[chunk] = new int[CHUNK_SIZE * recordSize];
+            buffer.asIntBuffer().get(chunks[chunk], 0, length);
+        }
+        return chunks;
+    }
+
+    private static void checkSlot(GrammarSlot[] slots, int id) throws IOException {
+        if (id >= slots.length || slots[id] == null) {
+            throw new IOException("The SPPF arena refers to grammar slot " + id + " that is not in the grammar graph");
+        }
+    }
+
+    /**
+     * Creates the object SPPF of the given node, which can be traversed by the existing visitors. Shared nodes are
+     * created once.
+     *
+     * The children of the first packed node of a node are added to the arena before the node, so the reachable
+     * nodes are created in the order of their handles with their first packed node, after which the other packed
+     * nodes of ambiguous nodes, which may refer to nodes added later and form cycles, are added.
+     */
+    public NonPackedNode materialize(int node) {
+        if (materializedNodes == null) {
+            materializedNodes = new NonPackedNode[nodesCount];
+            materializedResultOps = new ParserResultOps();
+        } else if (materializedNodes.length < nodesCount) {
+            materializedNodes = Arrays.copyOf(materializedNodes, nodesCount);
+        }
+        if (materializedNodes[node] != null) return materializedNodes[node];
+
+        BitSet reachable = new BitSet(nodesCount);
+        IntStack stack = new IntList();
+        reach(node, reachable, stack);
+        while (stack.size() > 0) {
+            int current = stack.pop();
+            reach(getLeftChild(current), reachable, stack);
+            reach(getRightChild(current), reachable, stack);
+            for (int p = getSecondPackedNode(current); p != NONE; p = getNextPackedNode(current, p)) {
+                reach(getPackedNodeLeftChild(p), reachable, stack);
+                reach(getPackedNodeRightChild(p), reachable, stack);
+            }
+        }
+
+        for (int i = reachable.nextSetBit(0); i >= 0; i = reachable.nextSetBit(i + 1)) {
+            materializedNodes[i] = createNode(i);
+        }
+        for (int i = reachable.nextSetBit(0); i >= 0; i = reachable.nextSetBit(i + 1)) {
+            for (int p = getSecondPackedNode(i); p != NONE; p = getNextPackedNode(i, p)) {
+                addPackedNode(materializedNodes[i], getKind(i), getPackedNodeSlot(p), getPackedNodeLeftChild(p),
+                    getPackedNodeRightChild(p), getValue(i));
+            }
+        }
+        return materializedNodes[node];
+    }
+
+    private void reach(int node, BitSet reachable, IntStack stack) {
+        if (node == NONE || reachable.get(node) || materializedNodes[node] != null) return;
+        reachable.set(node);
+        stack.push(node);
+    }
+
+    private NonPackedNode createNode(int node) {
+        GrammarSlot slot = getSlot(node);
+        switch (getKind(node)) {
+            case TERMINAL:
+                return materializedResultOps.base((TerminalGrammarSlot) slot, getLeftExtent(node),
+                    getRightExtent(node));
+
+            case ERROR:
+                return materializedResultOps.error((BodyGrammarSlot) slot, getLeftExtent(node), getRightExtent(node));
+
+            default:
+                return addPackedNode(null, getKind(node), (BodyGrammarSlot) slot, getLeftChild(node),
+                    getRightChild(node), getValue(node));
+        }
+    }
+
+    private NonPackedNode addPackedNode(
+            NonPackedNode current,
+            byte kind,
+            BodyGrammarSlot slot,
+            int leftChild,
+            int rightChild,
+            Object value) {
+        if (kind == NONTERMINAL) {
+            return materializedResultOps.convert(current, materializedNodes[leftChild], (EndGrammarSlot) slot, value);
+        }
+        return materializedResultOps.merge(current, materializedNodes[leftChild], materializedNodes[rightChild], slot);
+    }
+
+    /**
+     * Maps the nodes of an object SPPF to their handles. The handles of the nodes whose extents have the same sum
+     * form a linked list, from the last added node, and a node is found by comparing the nodes in its list by
+     * identity. Only nested nodes with the same middle and nodes with the same extents have the same sum, so the
+     * lists are short, and as the nodes are added in post-order, which follows the input, the lists that are searched
+     * are usually close to the ones that were searched last.
+     */
+    private static class NodeHandles {
+
+        // For each sum of extents, the last handle added, or -1
+        private final int[] lastHandles;
+
+        // For each handle, its node and the previous handle with the same sum of extents
+        private NonPackedNode[] nodes = new NonPackedNode[1024];
+        private int[] previousHandles = new int[1024];
+
+        NodeHandles(int inputLength) {
+            lastHandles = new int[2 * inputLength + 1];
+            Arrays.fill(lastHandles, NONE);
+        }
+
+        int get(NonPackedNode node) {
+            int handle = lastHandles[node.getLeftExtent() + node.getRightExtent()];
+            while (handle != NONE && nodes[handle] != node) {
+                handle = previousHandles[handle];
+            }
+            return handle;
+        }
+
+        void put(NonPackedNode node, int handle) {
+            if (handle >= nodes.length) {
+                nodes = Arrays.copyOf(nodes, Math.max(handle + 1, nodes.length << 1));
+                previousHandles = Arrays.copyOf(previousHandles, nodes.length);
+            }
+            int sum = node.getLeftExtent() + node.getRightExtent();
+            nodes[handle] = node;
+            previousHandles[handle] = lastHandles[sum];
+            lastHandles[sum] = handle;
+        }
+    }
+}
@@ -30,6 +30,8 @@ package org.iguana.sppf;
 import org.iguana.grammar.slot.TerminalGrammarSlot;
 import org.iguana.traversal.SPPFVisitor;
 
+import java.util.List;
+
 public abstract class TerminalNode extends NonPackedNode {
 
     private final int leftExtent;
@@ -62,10 +64,15 @@ public abstract class TerminalNode extends NonPackedNode {
     }
 
     @Override
-    public void setAmbiguous(boolean ambiguous) {
+    public void addPackedNode(PackedNode packedNode) {
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public List<PackedNode> getPackedNodes() {
+        return null;
+    }
+
     @Override
     public boolean isAmbiguous() {
         return false;
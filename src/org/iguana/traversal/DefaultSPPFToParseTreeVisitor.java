@@ -10,7 +10,6 @@ import org.iguana.grammar.symbol.Star;
 import org.iguana.grammar.symbol.Start;
 import org.iguana.grammar.symbol.Symbol;
 import org.iguana.parsetree.ParseTreeBuilder;
-import org.iguana.result.ParserResultOps;
 import org.iguana.sppf.EmptyTerminalNode;
 import org.iguana.sppf.ErrorNode;
 import org.iguana.sppf.IntermediateNode;
@@ -39,17 +38,14 @@ public class DefaultSPPFToParseTreeVisitor<T> implements SPPFVisitor<T> {
     private final ParseTreeBuilder<T> parseTreeBuilder;
     private final Input input;
     private final boolean ignoreLayout;
-    private final ParserResultOps resultOps;
 
     public DefaultSPPFToParseTreeVisitor(
             ParseTreeBuilder<T> parseTreeBuilder,
             Input input,
-            boolean ignoreLayout,
-            ParserResultOps resultOps) {
+            boolean ignoreLayout) {
         this.parseTreeBuilder = parseTreeBuilder;
         this.input = input;
         this.ignoreLayout = ignoreLayout;
-        this.resultOps = resultOps;
     }
 
     @Override
@@ -260,7 +256,7 @@ public class DefaultSPPFToParseTreeVisitor<T> implements SPPFVisitor<T> {
     }
 
     private void handleAmbiguousNode(NonPackedNode node) {
-        List<PackedNode> packedNodes = resultOps.getPackedNodes(node);
+        List<PackedNode> packedNodes = node.getPackedNodes();
         for (int i = 0; i < packedNodes.size(); i++) {
             try {
                 DotGraph dotGraph = SPPFToDot.getDotGraph(packedNodes.get(i), input);
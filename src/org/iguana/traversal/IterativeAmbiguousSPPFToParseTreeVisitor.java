@@ -0,0 +1,267 @@
+package org.iguana.traversal;
+
+import org.iguana.grammar.slot.NonterminalNodeType;
+import org.iguana.grammar.slot.TerminalNodeType;
+import org.iguana.grammar.symbol.Nonterminal;
+import org.iguana.grammar.symbol.Symbol;
+import org.iguana.parsetree.MetaSymbolNode;
+import org.iguana.parsetree.ParseTreeBuilder;
+import org.iguana.parsetree.VisitResult;
+import org.iguana.sppf.ErrorNode;
+import org.iguana.sppf.IntermediateNode;
+import org.iguana.sppf.NonPackedNode;
+import org.iguana.sppf.NonterminalNode;
+import org.iguana.sppf.PackedNode;
+import org.iguana.sppf.SPPFNode;
+import org.iguana.sppf.TerminalNode;
+import org.iguana.traversal.exception.CyclicGrammarException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static java.util.Collections.singletonList;
+import static org.iguana.parsetree.VisitResult.EBNF;
+import static org.iguana.parsetree.VisitResult.ebnf;
+import static org.iguana.parsetree.VisitResult.empty;
+import static org.iguana.parsetree.VisitResult.list;
+import static org.iguana.parsetree.VisitResult.single;
+
+/**
+ * Converts a possibly ambiguous SPPF to a parse tree with ambiguity nodes, as
+ * {@link AmbiguousSPPFToParseTreeVisitor}, but with an explicit stack, see {@link IterativeSPPFTraversal}. The
+ * children of a nonterminal or intermediate node are its packed nodes, and the children of a packed node its left
+ * and right children. The results of shared nodes are memoized, and a nonterminal node that is reached again while
+ * its children are being traversed is reported as a cycle.
+ */
+public class IterativeAmbiguousSPPFToParseTreeVisitor<T> extends IterativeSPPFTraversal<VisitResult>
+    implements SPPFVisitor<VisitResult> {
+
+    private final ParseTreeBuilder<T> parseTreeBuilder;
+    private final Set<NonterminalNode> visitedNodes;
+    private final Map<NonPackedNode, VisitResult> convertedNodes;
+    private final boolean ignoreLayout;
+
+    private final VisitResult.CreateParseTreeVisitor<T> createNodeVisitor;
+
+    public IterativeAmbiguousSPPFToParseTreeVisitor(ParseTreeBuilder<T> parseTreeBuilder, boolean ignoreLayout) {
+        this.parseTreeBuilder = parseTreeBuilder;
+        this.ignoreLayout = ignoreLayout;
+        this.convertedNodes = new HashMap<>();
+        this.visitedNodes = new LinkedHashSet<>();
+        this.createNodeVisitor = new VisitResult.CreateParseTreeVisitor<>(parseTreeBuilder);
+    }
+
+    @Override
+    public VisitResult visit(TerminalNode node) {
+        return traverse(node);
+    }
+
+    @Override
+    public VisitResult visit(NonterminalNode node) {
+        return traverse(node);
+    }
+
+    @Override
+    public VisitResult visit(IntermediateNode node) {
+        return traverse(node);
+    }
+
+    @Override
+    public VisitResult visit(PackedNode node) {
+        return traverse(node);
+    }
+
+    @Override
+    public VisitResult visit(ErrorNode node) {
+        return traverse(node);
+    }
+
+    @Override
+    protected boolean expand(SPPFNode node, List<SPPFNode> children) {
+        if (node instanceof PackedNode) {
+            PackedNode packedNode = (PackedNode) node;
+            children.add(packedNode.getLeftChild());
+            if (packedNode.getRightChild() != null) {
+                children.add(packedNode.getRightChild());
+            }
+            return true;
+        }
+
+        if (node instanceof NonterminalNode) {
+            NonterminalNode nonterminalNode = (NonterminalNode) node;
+            if (isIgnoredLayout(nonterminalNode) || convertedNodes.containsKey(nonterminalNode)) {
+                return false;
+            }
+            // To guard for cyclic SPPFs
+            if (!visitedNodes.add(nonterminalNode)) {
+                throw new CyclicGrammarException(getCycle(nonterminalNode));
+            }
+            addPackedNodes(nonterminalNode, children);
+            return true;
+        }
+
+        if (node instanceof IntermediateNode) {
+            if (convertedNodes.containsKey(node)) {
+                return false;
+            }
+            addPackedNodes((IntermediateNode) node, children);
+            return true;
+        }
+
+        return false;
+    }
+
+    @Override
+    protected VisitResult leaf(SPPFNode node) {
+        if (node instanceof TerminalNode) {
+            TerminalNode terminalNode = (TerminalNode) node;
+            if (ignoreLayout && terminalNode.getGrammarSlot().getTerminal().getNodeType() == TerminalNodeType.Layout) {
+                return empty();
+            }
+            return convertedNodes.computeIfAbsent(terminalNode, key -> {
+                if (node.getLeftExtent() == node.getRightExtent()) return empty();
+                Object parseTreeNode = parseTreeBuilder.terminalNode(terminalNode.getGrammarSlot().getTerminal(),
+                    node.getLeftExtent(), node.getRightExtent());
+                return single(parseTreeNode);
+            });
+        }
+        if (node instanceof ErrorNode) {
+            return single(parseTreeBuilder.errorNode(node.getLeftExtent(), node.getRightExtent()));
+        }
+        if (node instanceof NonterminalNode && isIgnoredLayout((NonterminalNode) node)) {
+            return empty();
+        }
+        return convertedNodes.get(node);
+    }
+
+    @Override
+    protected VisitResult combine(SPPFNode node, List<VisitResult> childResults) {
+        if (node instanceof PackedNode) {
+            VisitResult right = childResults.size() > 1 ? childResults.get(1) : empty();
+            return combine((PackedNode) node, childResults.get(0), right);
+        }
+
+        VisitResult result;
+        if (node instanceof IntermediateNode) {
+            IntermediateNode intermediateNode = (IntermediateNode) node;
+            if (intermediateNode.isAmbiguous()) {
+                result = empty();
+                for (VisitResult visitResult : childResults) {
+                    result = result.merge(visitResult);
+                }
+            } else {
+                result = childResults.get(0);
+            }
+            convertedNodes.put(intermediateNode, result);
+            return result;
+        }
+
+        NonterminalNode nonterminalNode = (NonterminalNode) node;
+        if (nonterminalNode.isAmbiguous()) {
+            LinkedHashSet<T> children = new LinkedHashSet<>();
+            List<PackedNode> packedNodes = nonterminalNode.getPackedNodes();
+            for (int i = 0; i < packedNodes.size(); i++) {
+                children.addAll(childResults.get(i).accept(createNodeVisitor, packedNodes.get(i)));
+            }
+            result = single(parseTreeBuilder.ambiguityNode(children));
+        } else {
+            result = combine(nonterminalNode, nonterminalNode.getFirstPackedNode(), childResults.get(0));
+        }
+        visitedNodes.remove(nonterminalNode);
+        convertedNodes.put(nonterminalNode, result);
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private VisitResult combine(NonterminalNode node, PackedNode packedNode, VisitResult visitResult) {
+        switch (node.getGrammarSlot().getNodeType()) {
+            case Basic:
+            case Layout: {
+                List<T> children = visitResult.accept(createNodeVisitor, packedNode);
+                if (children.size() > 1) {
+                    return single(parseTreeBuilder.ambiguityNode(new LinkedHashSet<>(children)));
+                }
+                T child = children.get(0);
+                if (child instanceof MetaSymbolNode) { // Last Plus node propagated up
+                    return single(parseTreeBuilder.nonterminalNode(packedNode.getGrammarSlot().getRule(), children,
+                        packedNode.getLeftExtent(), packedNode.getRightExtent()));
+                }
+                return single(child);
+            }
+
+            case Plus: {
+                Symbol symbol = packedNode.getGrammarSlot().getRule().getDefinition();
+                return ebnf(visitResult.getValues(), symbol);
+            }
+
+            case Star:
+            case Seq:
+            case Alt:
+            case Opt:
+            case Start: {
+                Symbol symbol = packedNode.getGrammarSlot().getRule().getDefinition();
+                // This case handles X+ nodes under other EBNF nodes (See Test 14)
+                if (visitResult instanceof VisitResult.List
+                    && visitResult.getValues().size() == 1
+                    && visitResult.getValues().get(0) instanceof VisitResult.EBNF) {
+                    VisitResult.EBNF ebnfChild = (VisitResult.EBNF) visitResult.getValues().get(0);
+                    T ebnfResult = parseTreeBuilder.metaSymbolNode(ebnfChild.getSymbol(),
+                        (List<T>) ebnfChild.getValues(), node.getLeftExtent(), node.getRightExtent());
+                    return single(parseTreeBuilder.metaSymbolNode(symbol, singletonList(ebnfResult),
+                        node.getLeftExtent(), node.getRightExtent()));
+                }
+                return single(parseTreeBuilder.metaSymbolNode(symbol, (List<T>) visitResult.getValues(),
+                    node.getLeftExtent(), node.getRightExtent()));
+            }
+
+            default:
+                return null;
+        }
+    }
+
+    private VisitResult combine(PackedNode node, VisitResult left, VisitResult right) {
+        NonterminalNodeType headType = node.getGrammarSlot().getRule().getHead().getNodeType();
+        if (headType != NonterminalNodeType.Plus && headType != NonterminalNodeType.Star) {
+            if (left instanceof EBNF) {
+                List<Object> values = new ArrayList<>();
+                values.add(left);
+                if (right instanceof EBNF) {
+                    values.add(right);
+                } else {
+                    values.addAll(right.getValues());
+                }
+                return list(values);
+            }
+        }
+        return left.merge(right);
+    }
+
+    private boolean isIgnoredLayout(NonterminalNode node) {
+        return ignoreLayout && node.getGrammarSlot().getNonterminal().getNodeType() == NonterminalNodeType.Layout;
+    }
+
+    private static void addPackedNodes(NonPackedNode node, List<SPPFNode> children) {
+        if (node.isAmbiguous()) {
+            children.addAll(node.getPackedNodes());
+        } else {
+            children.add(node.getFirstPackedNode());
+        }
+    }
+
+    private List<Nonterminal> getCycle(NonterminalNode node) {
+        List<Nonterminal> cycle = new ArrayList<>();
+        boolean seen = false;
+        for (NonterminalNode n : visitedNodes) {
+            if (seen || n == node) {
+                cycle.add(n.getGrammarSlot().getNonterminal());
+                seen = true;
+            }
+        }
+        cycle.add(node.getGrammarSlot().getNonterminal());
+        return cycle;
+    }
+}
@@ -0,0 +1,383 @@
+package org.iguana.traversal;
+
+import org.iguana.grammar.runtime.RuntimeRule;
+import org.iguana.grammar.slot.NonterminalNodeType;
+import org.iguana.grammar.slot.TerminalNodeType;
+import org.iguana.grammar.symbol.Plus;
+import org.iguana.grammar.symbol.Symbol;
+import org.iguana.parsetree.ParseTreeBuilder;
+import org.iguana.sppf.EmptyTerminalNode;
+import org.iguana.sppf.ErrorNode;
+import org.iguana.sppf.IntermediateNode;
+import org.iguana.sppf.NonPackedNode;
+import org.iguana.sppf.NonterminalNode;
+import org.iguana.sppf.PackedNode;
+import org.iguana.sppf.SPPFNode;
+import org.iguana.sppf.TerminalNode;
+import org.iguana.traversal.exception.AmbiguityException;
+import org.iguana.utils.input.Input;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+import static java.util.Collections.emptyList;
+
+/**
+ * Converts an unambiguous SPPF to a parse tree, as {@link DefaultSPPFToParseTreeVisitor}, but with an explicit stack,
+ * see {@link IterativeSPPFTraversal}, so deeply nested SPPFs, e.g., of long right-recursive lists or deeply nested
+ * expressions, do not overflow the thread stack.
+ *
+ * The children of a nonterminal node are collected by walking down the chain of intermediate nodes of its rule, and
+ * the children of a plus node by walking down the chain of the plus nodes of the list. The results of the children
+ * are combined in reverse order of the walk, so terminal and nonterminal children are visited in the same order as
+ * {@link DefaultSPPFToParseTreeVisitor} visits them.
+ *
+ * In the parallel mode, the elements of star and plus nodes that span at least the parallel threshold number of
+ * input characters, e.g., the top-level declarations of a large file, are converted by fork/join tasks in the given
+ * pool. The elements are split into ranges until a range spans less than the threshold or has a single element, and
+ * each range is converted sequentially, splitting again at large lists inside it. The parse tree builder should be
+ * thread-safe in this mode.
+ */
+public class IterativeSPPFToParseTreeVisitor<T> extends IterativeSPPFTraversal<Object> implements SPPFVisitor<T> {
+
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 64 * 1024;
+
+    private final ParseTreeBuilder<T> parseTreeBuilder;
+    private final Input input;
+    private final boolean ignoreLayout;
+    private final ForkJoinPool pool;
+    private final int parallelThreshold;
+
+    public IterativeSPPFToParseTreeVisitor(ParseTreeBuilder<T> parseTreeBuilder, Input input, boolean ignoreLayout) {
+        this(parseTreeBuilder, input, ignoreLayout, null, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Creates a visitor that converts large lists in parallel in the given pool, or sequentially if the pool is null.
+     */
+    public IterativeSPPFToParseTreeVisitor(
+            ParseTreeBuilder<T> parseTreeBuilder,
+            Input input,
+            boolean ignoreLayout,
+            ForkJoinPool pool,
+            int parallelThreshold) {
+        this.parseTreeBuilder = parseTreeBuilder;
+        this.input = input;
+        this.ignoreLayout = ignoreLayout;
+        this.pool = pool;
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    @Override
+    public T visit(TerminalNode node) {
+        return convertTerminal(node);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T visit(NonterminalNode node) {
+        return (T) traverse(node);
+    }
+
+    /**
+     * Returns the list of the converted children of the intermediate node, in reverse order.
+     */
+    @Override
+    public Object visit(IntermediateNode node) {
+        return traverse(node);
+    }
+
+    @Override
+    public Object visit(PackedNode node) {
+        throw new RuntimeException("Should not visit packed nodes.");
+    }
+
+    @Override
+    public T visit(ErrorNode node) {
+        return parseTreeBuilder.errorNode(node.getLeftExtent(), node.getRightExtent());
+    }
+
+    @Override
+    protected boolean expand(SPPFNode node, List<SPPFNode> children) {
+        if (isLargeList(node)) {
+            return false;
+        }
+        if (node instanceof IntermediateNode) {
+            addChildren((IntermediateNode) node, children, input);
+            return true;
+        }
+        if (!(node instanceof NonterminalNode)) {
+            if (node instanceof PackedNode) {
+                throw new RuntimeException("Should not visit packed nodes.");
+            }
+            return false;
+        }
+
+        NonterminalNode nonterminalNode = (NonterminalNode) node;
+        if (nonterminalNode.isAmbiguous()) {
+            throw new AmbiguityException(nonterminalNode, input);
+        }
+        if (isIgnoredLayout(nonterminalNode)) {
+            return false;
+        }
+
+        NonPackedNode firstChild = (NonPackedNode) nonterminalNode.getChildAt(0);
+        switch (nonterminalNode.getGrammarSlot().getNodeType()) {
+            case Layout:
+            case Basic:
+            case Seq:
+            case Start:
+                addChildren(firstChild, children, input);
+                return true;
+
+            case Star:
+                if (firstChild.isAmbiguous()) {
+                    throw new AmbiguityException(firstChild, input);
+                }
+                if (firstChild instanceof EmptyTerminalNode) {
+                    return false;
+                }
+                Plus plus = (Plus) ((NonterminalNode) firstChild).getRule().getDefinition();
+                addChildrenUnderPlus((NonPackedNode) firstChild.getChildAt(0), plus, children, input);
+                return true;
+
+            case Plus:
+                addChildrenUnderPlus(firstChild, (Plus) nonterminalNode.getRule().getDefinition(), children,
+                    input);
+                return true;
+
+            case Alt:
+            case Opt:
+                children.add(firstChild);
+                return true;
+
+            default:
+                throw new RuntimeException("Unknown node type");
+        }
+    }
+
+    @Override
+    protected Object leaf(SPPFNode node) {
+        if (node instanceof TerminalNode) {
+            return convertTerminal((TerminalNode) node);
+        }
+        if (node instanceof ErrorNode) {
+            return visit((ErrorNode) node);
+        }
+        if (isLargeList(node)) {
+            return convertInParallel((NonterminalNode) node);
+        }
+        NonterminalNode nonterminalNode = (NonterminalNode) node;
+        if (isIgnoredLayout(nonterminalNode)) {
+            return null;
+        }
+        // An empty star node
+        return parseTreeBuilder.metaSymbolNode(nonterminalNode.getRule().getDefinition(), emptyList(),
+            node.getLeftExtent(), node.getRightExtent());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected Object combine(SPPFNode node, List<Object> childResults) {
+        if (node instanceof IntermediateNode) {
+            List<T> children = new ArrayList<>(childResults.size());
+            for (Object result : childResults) {
+                addChildren(result, children);
+            }
+            return children;
+        }
+
+        NonterminalNode nonterminalNode = (NonterminalNode) node;
+        int leftExtent = node.getLeftExtent();
+        int rightExtent = node.getRightExtent();
+        Symbol definition = nonterminalNode.getRule().getDefinition();
+
+        switch (nonterminalNode.getGrammarSlot().getNodeType()) {
+            case Layout:
+            case Basic: {
+                RuntimeRule rule = nonterminalNode.getEndGrammarSlot().getRule();
+                return parseTreeBuilder.nonterminalNode(rule, reverseChildren(childResults), leftExtent, rightExtent);
+            }
+
+            case Alt:
+            case Opt: {
+                List<T> children;
+                Object result = childResults.get(0);
+                if (result == null) {
+                    children = emptyList();
+                } else {
+                    children = new ArrayList<>(1);
+                    children.add((T) result);
+                }
+                return parseTreeBuilder.metaSymbolNode(definition, children, leftExtent, rightExtent);
+            }
+
+            default:
+                return parseTreeBuilder.metaSymbolNode(definition, reverseChildren(childResults), leftExtent,
+                    rightExtent);
+        }
+    }
+
+    private T convertTerminal(TerminalNode node) {
+        if (ignoreLayout && node.getGrammarSlot().getTerminal().getNodeType() == TerminalNodeType.Layout) {
+            return null;
+        }
+        return parseTreeBuilder.terminalNode(node.getGrammarSlot().getTerminal(), node.getLeftExtent(),
+            node.getRightExtent());
+    }
+
+    private boolean isLargeList(SPPFNode node) {
+        if (pool == null
+            || !(node instanceof NonterminalNode)
+            || node.getRightExtent() - node.getLeftExtent() < parallelThreshold) {
+            return false;
+        }
+        NonterminalNode nonterminalNode = (NonterminalNode) node;
+        NonterminalNodeType nodeType = nonterminalNode.getGrammarSlot().getNodeType();
+        return (nodeType == NonterminalNodeType.Star || nodeType == NonterminalNodeType.Plus)
+               && !nonterminalNode.isAmbiguous();
+    }
+
+    private T convertInParallel(NonterminalNode node) {
+        Symbol definition = node.getRule().getDefinition();
+        NonPackedNode firstChild = (NonPackedNode) node.getChildAt(0);
+        List<SPPFNode> elements = new ArrayList<>();
+        if (node.getGrammarSlot().getNodeType() == NonterminalNodeType.Star) {
+            if (firstChild.isAmbiguous()) {
+                throw new AmbiguityException(firstChild, input);
+            }
+            if (firstChild instanceof EmptyTerminalNode) {
+                return parseTreeBuilder.metaSymbolNode(definition, emptyList(), node.getLeftExtent(),
+                    node.getRightExtent());
+            }
+            Plus plus = (Plus) ((NonterminalNode) firstChild).getRule().getDefinition();
+            addChildrenUnderPlus((NonPackedNode) firstChild.getChildAt(0), plus, elements, input);
+        } else {
+            addChildrenUnderPlus(firstChild, (Plus) definition, elements, input);
+        }
+        Collections.reverse(elements);
+
+        ConvertElementsTask task = new ConvertElementsTask(elements, 0, elements.size());
+        // Tasks of the pool, converting the elements of an enclosing list, fork the subtasks directly
+        List<T> children = ForkJoinTask.getPool() == pool ? task.invoke() : pool.invoke(task);
+        return parseTreeBuilder.metaSymbolNode(definition, children, node.getLeftExtent(), node.getRightExtent());
+    }
+
+    private boolean isIgnoredLayout(NonterminalNode node) {
+        return ignoreLayout && node.getGrammarSlot().getNonterminal().getNodeType() == NonterminalNodeType.Layout;
+    }
+
+    /**
+     * Adds the right children of the chain of intermediate nodes starting at the given node, and the left child of
+     * the last intermediate node, i.e., the symbols of the rule from right to left.
+     */
+    static void addChildren(NonPackedNode node, List<SPPFNode> children, Input input) {
+        while (node instanceof IntermediateNode) {
+            if (node.isAmbiguous()) {
+                throw new AmbiguityException(node, input);
+            }
+            children.add(node.getChildAt(1));
+            node = (NonPackedNode) node.getChildAt(0);
+        }
+        children.add(node);
+    }
+
+    /**
+     * Adds the elements of a list of the given plus symbol from right to left, following the left-recursive plus
+     * nodes of the list.
+     */
+    static void addChildrenUnderPlus(NonPackedNode node, Plus plus, List<SPPFNode> children, Input input) {
+        while (node instanceof IntermediateNode) {
+            NonPackedNode leftChild = node;
+            while (leftChild instanceof IntermediateNode) {
+                if (leftChild.isAmbiguous()) {
+                    throw new AmbiguityException(leftChild, input);
+                }
+                children.add(leftChild.getChildAt(1));
+                leftChild = (NonPackedNode) leftChild.getChildAt(0);
+            }
+            if (leftChild instanceof NonterminalNode) {
+                RuntimeRule rule = ((NonterminalNode) leftChild).getRule();
+                if (rule.getDefinition() != null && plus.getName().equals(rule.getDefinition().getName())) {
+                    node = (NonPackedNode) leftChild.getChildAt(0);
+                    continue;
+                }
+            }
+            children.add(leftChild);
+            return;
+        }
+        children.add(node);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void addChildren(Object result, List<T> children) {
+        if (result instanceof List<?>) {
+            children.addAll((List<T>) result);
+        } else if (result != null) {
+            children.add((T) result);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> List<T> reverseChildren(List<Object> childResults) {
+        List<T> children = new ArrayList<>(childResults.size());
+        for (int i = childResults.size() - 1; i >= 0; i--) {
+            Object result = childResults.get(i);
+            if (result instanceof List<?>) {
+                List<T> list = (List<T>) result;
+                for (int j = list.size() - 1; j >= 0; j--) {
+                    children.add(list.get(j));
+                }
+            } else if (result != null) {
+                children.add((T) result);
+            }
+        }
+        return children;
+    }
+
+    /**
+     * Converts the elements of a list, from start (including) to end (excluding), in document order.
+     */
+    private class ConvertElementsTask extends RecursiveTask<List<T>> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<SPPFNode> elements;
+        private final int start;
+        private final int end;
+
+        ConvertElementsTask(List<SPPFNode> elements, int start, int end) {
+            this.elements = elements;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected List<T> compute() {
+            int extent = elements.get(end - 1).getRightExtent() - elements.get(start).getLeftExtent();
+            if (end - start == 1 || extent < parallelThreshold) {
+                // The visitor is not thread-safe, each task converts its elements with its own visitor
+                IterativeSPPFToParseTreeVisitor<T> visitor =
+                    new IterativeSPPFToParseTreeVisitor<>(parseTreeBuilder, input, ignoreLayout, pool,
+                        parallelThreshold);
+                List<T> children = new ArrayList<>(end - start);
+                for (int i = start; i < end; i++) {
+                    addChildren(visitor.traverse(elements.get(i)), children);
+                }
+                return children;
+            }
+
+            int middle = (start + end) >>> 1;
+            ConvertElementsTask left = new ConvertElementsTask(elements, start, middle);
+            ConvertElementsTask right = new ConvertElementsTask(elements, middle, end);
+            right.fork();
+            List<T> children = new ArrayList<>(left.compute());
+            children.addAll(right.join());
+            return children;
+        }
+    }
+}
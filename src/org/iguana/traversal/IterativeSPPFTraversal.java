@@ -0,0 +1,180 @@
+package org.iguana.traversal;
+
+import org.iguana.sppf.SPPFNode;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A post-order traversal of an SPPF that keeps the nodes to visit and the results of the visited nodes on explicit
+ * stacks instead of the Java call stack, so the depth of the SPPF that can be traversed is bounded by the heap and
+ * not by the thread stack size.
+ *
+ * Subclasses define the children of a node with {@link #expand}, which may walk several levels of the SPPF at once,
+ * e.g., the chain of intermediate nodes of a rule, and compute the result of a node from the results of its children
+ * with {@link #combine}. A child is expanded only when its turn comes, after its preceding siblings are completely
+ * traversed, so the results of shared nodes can be memoized in {@link #combine} and looked up in {@link #expand}.
+ *
+ * A traversal is not thread-safe and not reentrant, {@link #expand}, {@link #leaf} and {@link #combine} should not
+ * start another traversal on the same object.
+ */
+public abstract class IterativeSPPFTraversal<R> {
+
+    // The children of the nodes on the stack that are not traversed yet
+    private final NodeStack children = new NodeStack();
+
+    // The results of the traversed children of the nodes on the stack
+    private final ResultStack<R> results = new ResultStack<>();
+
+    private SPPFNode[] stackNodes = new SPPFNode[64];
+
+    // For each node on the stack: the index of its first child, its next child to visit and the index of the result
+    // of its first child
+    private int[] stackChildrenStart = new int[64];
+    private int[] stackNextChild = new int[64];
+    private int[] stackResultsStart = new int[64];
+
+    private int depth;
+
+    /**
+     * Adds the children of the given node to the list, in the order they should be visited, and returns true, or
+     * returns false without adding anything if the result of the node is computed by {@link #leaf}.
+     */
+    protected abstract boolean expand(SPPFNode node, List<SPPFNode> children);
+
+    /**
+     * Returns the result of a node that was not expanded.
+     */
+    protected abstract R leaf(SPPFNode node);
+
+    /**
+     * Returns the result of an expanded node from the results of its children, in the order the children were added
+     * by {@link #expand}. The list of results is only valid during this call.
+     */
+    protected abstract R combine(SPPFNode node, List<R> childResults);
+
+    public R traverse(SPPFNode root) {
+        children.truncate(0);
+        results.truncate(0);
+        depth = 0;
+
+        if (!expand(root, children)) {
+            return leaf(root);
+        }
+        push(root, 0);
+
+        while (true) {
+            int top = depth - 1;
+            int next = stackNextChild[top];
+            // The children of the node at the top of the stack are at the end of the list, as the children of the
+            // nodes above it were removed when those nodes were completed
+            if (next < children.size) {
+                stackNextChild[top] = next + 1;
+                SPPFNode child = children.elements[next];
+                int start = children.size;
+                if (expand(child, children)) {
+                    push(child, start);
+                } else {
+                    results.push(leaf(child));
+                }
+            } else {
+                int resultsStart = stackResultsStart[top];
+                R result = combine(stackNodes[top], results.view(resultsStart));
+                results.truncate(resultsStart);
+                children.truncate(stackChildrenStart[top]);
+                stackNodes[top] = null;
+                depth--;
+                if (depth == 0) {
+                    return result;
+                }
+                results.push(result);
+            }
+        }
+    }
+
+    private void push(SPPFNode node, int childrenStart) {
+        if (depth == stackNodes.length) {
+            int newLength = depth * 2;
+            stackNodes = Arrays.copyOf(stackNodes, newLength);
+            stackChildrenStart = Arrays.copyOf(stackChildrenStart, newLength);
+            stackNextChild = Arrays.copyOf(stackNextChild, newLength);
+            stackResultsStart = Arrays.copyOf(stackResultsStart, newLength);
+        }
+        stackNodes[depth] = node;
+        stackChildrenStart[depth] = childrenStart;
+        stackNextChild[depth] = childrenStart;
+        stackResultsStart[depth] = results.size;
+        depth++;
+    }
+
+    private static class NodeStack extends AbstractList<SPPFNode> {
+        private SPPFNode[] elements = new SPPFNode[64];
+        private int size;
+
+        @Override
+        public boolean add(SPPFNode node) {
+            if (size == elements.length) {
+                elements = Arrays.copyOf(elements, size * 2);
+            }
+            elements[size++] = node;
+            return true;
+        }
+
+        @Override
+        public SPPFNode get(int index) {
+            Objects.checkIndex(index, size);
+            return elements[index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        void truncate(int newSize) {
+            Arrays.fill(elements, newSize, size, null);
+            size = newSize;
+        }
+    }
+
+    /**
+     * A stack of results with a view of the results at the top of the stack, which is reused for each node.
+     */
+    private static class ResultStack<R> extends AbstractList<R> {
+        private Object[] elements = new Object[64];
+        private int size;
+        private int viewStart;
+
+        void push(R result) {
+            if (size == elements.length) {
+                elements = Arrays.copyOf(elements, size * 2);
+            }
+            elements[size++] = result;
+        }
+
+        List<R> view(int start) {
+            viewStart = start;
+            return this;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public R get(int index) {
+            Objects.checkIndex(index, size - viewStart);
+            return (R) elements[viewStart + index];
+        }
+
+        @Override
+        public int size() {
+            return size - viewStart;
+        }
+
+        void truncate(int newSize) {
+            Arrays.fill(elements, newSize, size, null);
+            size = newSize;
+            viewStart = 0;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package org.iguana.traversal;
+
+import org.iguana.grammar.slot.NonterminalNodeType;
+import org.iguana.grammar.slot.TerminalNodeType;
+import org.iguana.grammar.symbol.Plus;
+import org.iguana.grammar.symbol.Symbol;
+import org.iguana.parsetree.ParseTreeBuilder;
+import org.iguana.sppf.EmptyTerminalNode;
+import org.iguana.sppf.ErrorNode;
+import org.iguana.sppf.NonPackedNode;
+import org.iguana.sppf.NonterminalNode;
+import org.iguana.sppf.SPPFNode;
+import org.iguana.sppf.TerminalNode;
+import org.iguana.traversal.exception.AmbiguityException;
+import org.iguana.utils.input.Input;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+
+/**
+ * Converts an unambiguous SPPF to a parse tree whose children are converted on demand. The nodes of the parse tree
+ * are created by the parse tree builder, as in {@link IterativeSPPFToParseTreeVisitor}, but the lists of children
+ * passed to the builder are lazy: the children of a nonterminal or list node are converted from the SPPF the first
+ * time the list is accessed, and are cached afterwards. Walking only a part of the tree, e.g., the top-level
+ * declarations of a file, only creates the nodes on the walked paths.
+ *
+ * The resulting tree is equal to the tree created by {@link IterativeSPPFToParseTreeVisitor}, except that an
+ * ambiguity is reported when the list of children that contains the ambiguous node is first accessed, and not during
+ * the conversion. The lists of children can be accessed from several threads, a list that is accessed concurrently
+ * for the first time may be converted more than once.
+ */
+public class LazySPPFToParseTreeConverter<T> {
+
+    private final ParseTreeBuilder<T> parseTreeBuilder;
+    private final Input input;
+    private final boolean ignoreLayout;
+
+    public LazySPPFToParseTreeConverter(ParseTreeBuilder<T> parseTreeBuilder, Input input, boolean ignoreLayout) {
+        this.parseTreeBuilder = parseTreeBuilder;
+        this.input = input;
+        this.ignoreLayout = ignoreLayout;
+    }
+
+    /**
+     * Returns the parse tree node of the given SPPF node, or null if the node is an ignored layout or epsilon node.
+     */
+    public T convert(SPPFNode node) {
+        if (node instanceof TerminalNode) {
+            TerminalNode terminalNode = (TerminalNode) node;
+            if (ignoreLayout && terminalNode.getGrammarSlot().getTerminal().getNodeType() == TerminalNodeType.Layout) {
+                return null;
+            }
+            return parseTreeBuilder.terminalNode(terminalNode.getGrammarSlot().getTerminal(), node.getLeftExtent(),
+                node.getRightExtent());
+        }
+        if (node instanceof ErrorNode) {
+            return parseTreeBuilder.errorNode(node.getLeftExtent(), node.getRightExtent());
+        }
+        if (!(node instanceof NonterminalNode)) {
+            throw new RuntimeException("Cannot convert " + node + " to a parse tree node.");
+        }
+
+        NonterminalNode nonterminalNode = (NonterminalNode) node;
+        if (nonterminalNode.isAmbiguous()) {
+            throw new AmbiguityException(nonterminalNode, input);
+        }
+        if (ignoreLayout && nonterminalNode.getGrammarSlot().getNonterminal().getNodeType()
+                            == NonterminalNodeType.Layout) {
+            return null;
+        }
+
+        int leftExtent = node.getLeftExtent();
+        int rightExtent = node.getRightExtent();
+        Symbol definition = nonterminalNode.getRule().getDefinition();
+        NonPackedNode firstChild = (NonPackedNode) nonterminalNode.getChildAt(0);
+
+        switch (nonterminalNode.getGrammarSlot().getNodeType()) {
+            case Layout:
+            case Basic:
+                return parseTreeBuilder.nonterminalNode(nonterminalNode.getEndGrammarSlot().getRule(),
+                    new LazyChildren<>(this, firstChild, null), leftExtent, rightExtent);
+
+            case Seq:
+            case Start:
+                return parseTreeBuilder.metaSymbolNode(definition, new LazyChildren<>(this, firstChild, null),
+                    leftExtent, rightExtent);
+
+            case Star: {
+                if (firstChild.isAmbiguous()) {
+                    throw new AmbiguityException(firstChild, input);
+                }
+                if (firstChild instanceof EmptyTerminalNode) {
+                    return parseTreeBuilder.metaSymbolNode(definition, emptyList(), leftExtent, rightExtent);
+                }
+                Plus plus = (Plus) ((NonterminalNode) firstChild).getRule().getDefinition();
+                return parseTreeBuilder.metaSymbolNode(definition,
+                    new LazyChildren<>(this, (NonPackedNode) firstChild.getChildAt(0), plus), leftExtent, rightExtent);
+            }
+
+            case Plus:
+                return parseTreeBuilder.metaSymbolNode(definition,
+                    new LazyChildren<>(this, firstChild, (Plus) definition), leftExtent, rightExtent);
+
+            case Alt:
+            case Opt: {
+                T child = convert(firstChild);
+                List<T> children = child == null ? emptyList() : singletonList(child);
+                return parseTreeBuilder.metaSymbolNode(definition, children, leftExtent, rightExtent);
+            }
+
+            default:
+                throw new RuntimeException("Unknown node type");
+        }
+    }
+
+    /**
+     * The children of a nonterminal node, collected from the chain of intermediate nodes starting at the given node,
+     * or the elements of a list, collected from the chain of plus nodes, if the plus symbol is given.
+     */
+    private static class LazyChildren<T> extends AbstractList<T> {
+
+        private final LazySPPFToParseTreeConverter<T> converter;
+        private final NonPackedNode node;
+        private final Plus plus;
+
+        private volatile List<T> children;
+
+        LazyChildren(LazySPPFToParseTreeConverter<T> converter, NonPackedNode node, Plus plus) {
+            this.converter = converter;
+            this.node = node;
+            this.plus = plus;
+        }
+
+        @Override
+        public T get(int index) {
+            return children().get(index);
+        }
+
+        @Override
+        public int size() {
+            return children().size();
+        }
+
+        private List<T> children() {
+            List<T> result = children;
+            if (result == null) {
+                List<SPPFNode> nodes = new ArrayList<>();
+                if (plus == null) {
+                    IterativeSPPFToParseTreeVisitor.addChildren(node, nodes, converter.input);
+                } else {
+                    IterativeSPPFToParseTreeVisitor.addChildrenUnderPlus(node, plus, nodes, converter.input);
+                }
+                // The chains are walked from right to left
+                result = new ArrayList<>(nodes.size());
+                for (int i = nodes.size() - 1; i >= 0; i--) {
+                    T child = converter.convert(nodes.get(i));
+                    if (child != null) {
+                        result.add(child);
+                    }
+                }
+                children = result;
+            }
+            return result;
+        }
+    }
+}
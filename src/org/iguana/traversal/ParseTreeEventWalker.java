@@ -0,0 +1,159 @@
+package org.iguana.traversal;
+
+import org.iguana.grammar.slot.NonterminalNodeType;
+import org.iguana.grammar.slot.TerminalNodeType;
+import org.iguana.grammar.symbol.Plus;
+import org.iguana.grammar.symbol.Terminal;
+import org.iguana.parsetree.ParseTreeEventHandler;
+import org.iguana.sppf.EmptyTerminalNode;
+import org.iguana.sppf.ErrorNode;
+import org.iguana.sppf.IntermediateNode;
+import org.iguana.sppf.NonPackedNode;
+import org.iguana.sppf.NonterminalNode;
+import org.iguana.sppf.PackedNode;
+import org.iguana.sppf.SPPFNode;
+import org.iguana.sppf.TerminalNode;
+import org.iguana.traversal.exception.AmbiguityException;
+import org.iguana.utils.input.Input;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Walks an unambiguous SPPF and reports the nodes of its parse tree to a {@link ParseTreeEventHandler}, in document
+ * order, without creating parse tree nodes or lists of children. The reported tree is the tree that
+ * {@link IterativeSPPFToParseTreeVisitor} builds: layout is skipped if ignored, and the elements of lists are
+ * reported as the children of the star or plus node. The walk uses an explicit stack, see
+ * {@link IterativeSPPFTraversal}.
+ */
+public class ParseTreeEventWalker extends IterativeSPPFTraversal<Void> {
+
+    private final ParseTreeEventHandler handler;
+    private final Input input;
+    private final boolean ignoreLayout;
+
+    // The children of a node, from right to left, before they are added to the stack
+    private final List<SPPFNode> chain = new ArrayList<>();
+
+    public ParseTreeEventWalker(ParseTreeEventHandler handler, Input input, boolean ignoreLayout) {
+        this.handler = handler;
+        this.input = input;
+        this.ignoreLayout = ignoreLayout;
+    }
+
+    public void walk(NonterminalNode root) {
+        traverse(root);
+    }
+
+    @Override
+    protected boolean expand(SPPFNode node, List<SPPFNode> children) {
+        if (node instanceof IntermediateNode || node instanceof PackedNode) {
+            throw new RuntimeException("Should not visit intermediate or packed nodes.");
+        }
+        if (!(node instanceof NonterminalNode)) {
+            return false;
+        }
+
+        NonterminalNode nonterminalNode = (NonterminalNode) node;
+        if (nonterminalNode.isAmbiguous()) {
+            throw new AmbiguityException(nonterminalNode, input);
+        }
+        if (isIgnoredLayout(nonterminalNode)) {
+            return false;
+        }
+
+        NonPackedNode firstChild = (NonPackedNode) nonterminalNode.getChildAt(0);
+        chain.clear();
+        switch (nonterminalNode.getGrammarSlot().getNodeType()) {
+            case Layout:
+            case Basic:
+                handler.enterNonterminal(nonterminalNode.getEndGrammarSlot().getRule(), node.getLeftExtent(),
+                    node.getRightExtent());
+                IterativeSPPFToParseTreeVisitor.addChildren(firstChild, chain, input);
+                break;
+
+            case Seq:
+            case Start:
+                enterMetaSymbol(nonterminalNode);
+                IterativeSPPFToParseTreeVisitor.addChildren(firstChild, chain, input);
+                break;
+
+            case Star:
+                if (firstChild.isAmbiguous()) {
+                    throw new AmbiguityException(firstChild, input);
+                }
+                if (firstChild instanceof EmptyTerminalNode) {
+                    return false;
+                }
+                enterMetaSymbol(nonterminalNode);
+                Plus plus = (Plus) ((NonterminalNode) firstChild).getRule().getDefinition();
+                IterativeSPPFToParseTreeVisitor.addChildrenUnderPlus((NonPackedNode) firstChild.getChildAt(0), plus,
+                    chain, input);
+                break;
+
+            case Plus:
+                enterMetaSymbol(nonterminalNode);
+                IterativeSPPFToParseTreeVisitor.addChildrenUnderPlus(firstChild,
+                    (Plus) nonterminalNode.getRule().getDefinition(), chain, input);
+                break;
+
+            case Alt:
+            case Opt:
+                enterMetaSymbol(nonterminalNode);
+                chain.add(firstChild);
+                break;
+
+            default:
+                throw new RuntimeException("Unknown node type");
+        }
+
+        for (int i = chain.size() - 1; i >= 0; i--) {
+            children.add(chain.get(i));
+        }
+        return true;
+    }
+
+    @Override
+    protected Void leaf(SPPFNode node) {
+        if (node instanceof TerminalNode) {
+            Terminal terminal = ((TerminalNode) node).getGrammarSlot().getTerminal();
+            if (terminal != Terminal.epsilon()
+                && !(ignoreLayout && terminal.getNodeType() == TerminalNodeType.Layout)) {
+                handler.terminal(terminal, node.getLeftExtent(), node.getRightExtent());
+            }
+        } else if (node instanceof ErrorNode) {
+            handler.error(node.getLeftExtent(), node.getRightExtent());
+        } else if (!isIgnoredLayout((NonterminalNode) node)) {
+            // An empty star node
+            enterMetaSymbol((NonterminalNode) node);
+            exit(node);
+        }
+        return null;
+    }
+
+    @Override
+    protected Void combine(SPPFNode node, List<Void> childResults) {
+        exit(node);
+        return null;
+    }
+
+    private void enterMetaSymbol(NonterminalNode node) {
+        handler.enterMetaSymbol(node.getRule().getDefinition(), node.getLeftExtent(), node.getRightExtent());
+    }
+
+    private void exit(SPPFNode node) {
+        NonterminalNode nonterminalNode = (NonterminalNode) node;
+        NonterminalNodeType nodeType = nonterminalNode.getGrammarSlot().getNodeType();
+        if (nodeType == NonterminalNodeType.Basic || nodeType == NonterminalNodeType.Layout) {
+            handler.exitNonterminal(nonterminalNode.getEndGrammarSlot().getRule(), node.getLeftExtent(),
+                node.getRightExtent());
+        } else {
+            handler.exitMetaSymbol(nonterminalNode.getRule().getDefinition(), node.getLeftExtent(),
+                node.getRightExtent());
+        }
+    }
+
+    private boolean isIgnoredLayout(NonterminalNode node) {
+        return ignoreLayout && node.getGrammarSlot().getNonterminal().getNodeType() == NonterminalNodeType.Layout;
+    }
+}
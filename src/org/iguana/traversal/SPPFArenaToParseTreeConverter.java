@@ -0,0 +1,217 @@
+package org.iguana.traversal;
+
+import org.iguana.grammar.runtime.RuntimeRule;
+import org.iguana.grammar.slot.EndGrammarSlot;
+import org.iguana.grammar.slot.NonterminalNodeType;
+import org.iguana.grammar.slot.TerminalGrammarSlot;
+import org.iguana.grammar.slot.TerminalNodeType;
+import org.iguana.grammar.symbol.Plus;
+import org.iguana.grammar.symbol.Symbol;
+import org.iguana.parsetree.ParseTreeBuilder;
+import org.iguana.sppf.SPPFArena;
+import org.iguana.traversal.exception.AmbiguityException;
+import org.iguana.utils.collections.primitive.IntList;
+import org.iguana.utils.collections.primitive.IntStack;
+import org.iguana.utils.input.Input;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Collections.emptyList;
+
+/**
+ * Converts an unambiguous SPPF stored in an {@link SPPFArena} to a parse tree, reading the nodes from the arena by
+ * their handles without creating SPPF nodes. The resulting tree is equal to the tree that
+ * {@link IterativeSPPFToParseTreeVisitor} creates from the object SPPF.
+ *
+ * The handles of the nodes to visit are kept on an explicit stack: the children of a nonterminal node are pushed
+ * from right to left while walking down the chain of intermediate nodes of its rule, or the chain of plus nodes of a
+ * list, so they are converted from left to right. The complement of the handle of the nonterminal node is pushed
+ * below its children, and the node is created when it is popped, from the results of its children.
+ */
+public class SPPFArenaToParseTreeConverter<T> {
+
+    private final SPPFArena arena;
+    private final ParseTreeBuilder<T> parseTreeBuilder;
+    private final Input input;
+    private final boolean ignoreLayout;
+
+    public SPPFArenaToParseTreeConverter(
+            SPPFArena arena,
+            ParseTreeBuilder<T> parseTreeBuilder,
+            Input input,
+            boolean ignoreLayout) {
+        this.arena = arena;
+        this.parseTreeBuilder = parseTreeBuilder;
+        this.input = input;
+        this.ignoreLayout = ignoreLayout;
+    }
+
+    /**
+     * Returns the parse tree of the given nonterminal node, or null if the node is an ignored layout node.
+     */
+    public T convert(int node) {
+        IntList stack = new IntList();
+        // For each nonterminal node on the stack, the index of the result of its first child
+        IntList resultsStart = new IntList();
+        List<T> results = new ArrayList<>();
+
+        stack.push(node);
+        while (!stack.isEmpty()) {
+            int current = stack.pop();
+            if (current < 0) {
+                current = ~current;
+                List<T> childResults = results.subList(resultsStart.pop(), results.size());
+                T result = createNonterminalNode(current, new ArrayList<>(childResults));
+                childResults.clear();
+                results.add(result);
+                continue;
+            }
+
+            switch (arena.getKind(current)) {
+                case SPPFArena.TERMINAL:
+                    addResult(convertTerminal(current), results);
+                    break;
+
+                case SPPFArena.ERROR:
+                    results.add(parseTreeBuilder.errorNode(arena.getLeftExtent(current),
+                        arena.getRightExtent(current)));
+                    break;
+
+                case SPPFArena.INTERMEDIATE:
+                    addChildren(current, stack);
+                    break;
+
+                default:
+                    expandNonterminal(current, stack, resultsStart, results);
+            }
+        }
+        return results.isEmpty() ? null : results.get(0);
+    }
+
+    private void expandNonterminal(int node, IntList stack, IntList resultsStart, List<T> results) {
+        if (arena.isAmbiguous(node)) {
+            throw new AmbiguityException(arena.materialize(node), input);
+        }
+        EndGrammarSlot slot = (EndGrammarSlot) arena.getSlot(node);
+        if (ignoreLayout && slot.getNonterminal().getNodeType() == NonterminalNodeType.Layout) {
+            return;
+        }
+
+        int firstChild = arena.getLeftChild(node);
+        NonterminalNodeType nodeType = slot.getNonterminal().getNodeType();
+        if (nodeType == NonterminalNodeType.Star) {
+            if (arena.isAmbiguous(firstChild)) {
+                throw new AmbiguityException(arena.materialize(firstChild), input);
+            }
+            if (arena.getKind(firstChild) == SPPFArena.TERMINAL) {
+                // An empty star node
+                results.add(parseTreeBuilder.metaSymbolNode(slot.getRule().getDefinition(), emptyList(),
+                    arena.getLeftExtent(node), arena.getRightExtent(node)));
+                return;
+            }
+        }
+
+        stack.push(~node);
+        resultsStart.push(results.size());
+        switch (nodeType) {
+            case Layout:
+            case Basic:
+            case Seq:
+            case Start:
+                addChildren(firstChild, stack);
+                break;
+
+            case Star:
+                Plus plus = (Plus) ((EndGrammarSlot) arena.getSlot(firstChild)).getRule().getDefinition();
+                addChildrenUnderPlus(arena.getLeftChild(firstChild), plus, stack);
+                break;
+
+            case Plus:
+                addChildrenUnderPlus(firstChild, (Plus) slot.getRule().getDefinition(), stack);
+                break;
+
+            case Alt:
+            case Opt:
+                stack.push(firstChild);
+                break;
+
+            default:
+                throw new RuntimeException("Unknown node type");
+        }
+    }
+
+    private T createNonterminalNode(int node, List<T> children) {
+        EndGrammarSlot slot = (EndGrammarSlot) arena.getSlot(node);
+        RuntimeRule rule = slot.getRule();
+        int leftExtent = arena.getLeftExtent(node);
+        int rightExtent = arena.getRightExtent(node);
+
+        switch (slot.getNonterminal().getNodeType()) {
+            case Layout:
+            case Basic:
+                return parseTreeBuilder.nonterminalNode(rule, children, leftExtent, rightExtent);
+
+            default:
+                Symbol definition = rule.getDefinition();
+                return parseTreeBuilder.metaSymbolNode(definition, children, leftExtent, rightExtent);
+        }
+    }
+
+    private T convertTerminal(int node) {
+        TerminalGrammarSlot slot = (TerminalGrammarSlot) arena.getSlot(node);
+        if (ignoreLayout && slot.getTerminal().getNodeType() == TerminalNodeType.Layout) {
+            return null;
+        }
+        return parseTreeBuilder.terminalNode(slot.getTerminal(), arena.getLeftExtent(node),
+            arena.getRightExtent(node));
+    }
+
+    /**
+     * Adds the right children of the chain of intermediate nodes starting at the given node, and the left child of
+     * the last intermediate node, i.e., the symbols of the rule from right to left.
+     */
+    private void addChildren(int node, IntStack children) {
+        while (arena.getKind(node) == SPPFArena.INTERMEDIATE) {
+            if (arena.isAmbiguous(node)) {
+                throw new AmbiguityException(arena.materialize(node), input);
+            }
+            children.push(arena.getRightChild(node));
+            node = arena.getLeftChild(node);
+        }
+        children.push(node);
+    }
+
+    /**
+     * Adds the elements of a list of the given plus symbol from right to left, following the left-recursive plus
+     * nodes of the list.
+     */
+    private void addChildrenUnderPlus(int node, Plus plus, IntStack children) {
+        while (arena.getKind(node) == SPPFArena.INTERMEDIATE) {
+            int leftChild = node;
+            while (arena.getKind(leftChild) == SPPFArena.INTERMEDIATE) {
+                if (arena.isAmbiguous(leftChild)) {
+                    throw new AmbiguityException(arena.materialize(leftChild), input);
+                }
+                children.push(arena.getRightChild(leftChild));
+                leftChild = arena.getLeftChild(leftChild);
+            }
+            if (arena.getKind(leftChild) == SPPFArena.NONTERMINAL) {
+                RuntimeRule rule = ((EndGrammarSlot) arena.getSlot(leftChild)).getRule();
+                if (rule.getDefinition() != null && plus.getName().equals(rule.getDefinition().getName())) {
+                    node = arena.getLeftChild(leftChild);
+                    continue;
+                }
+            }
+            children.push(leftChild);
+            return;
+        }
+        children.push(node);
+    }
+
+    private static <T> void addResult(T result, List<T> results) {
+        if (result != null) {
+            results.add(result);
+        }
+    }
+}
@@ -30,6 +30,8 @@ package org.iguana.util;
 import org.iguana.util.config.XMLConfigFileParser;
 import org.iguana.utils.logging.LogLevel;
 
+import java.util.Objects;
+
 public class Configuration {
 
     public static final int DEFAULT_LOOKAHEAD = 1;
@@ -46,6 +48,14 @@ public class Configuration {
 
     private final LogLevel logLevel;
 
+    private final GSSImpl gssImpl;
+
+    private final TerminalMemoImpl terminalMemoImpl;
+
+    private final ScannerImpl scannerImpl;
+
+    private final GraphConstructionImpl graphConstructionImpl;
+
     private Configuration(Builder builder) {
         this.gssLookupImpl = builder.gssLookupImpl;
         this.lookAheadCount = builder.lookaheadCount;
@@ -53,6 +63,10 @@ public class Configuration {
         this.hashmapImpl = builder.hashmapImpl;
         this.envImpl = builder.envImpl;
         this.logLevel = builder.logLevel;
+        this.gssImpl = builder.gssImpl;
+        this.terminalMemoImpl = builder.terminalMemoImpl;
+        this.scannerImpl = builder.scannerImpl;
+        this.graphConstructionImpl = builder.graphConstructionImpl;
     }
 
     public static Configuration load() {
@@ -90,12 +104,33 @@ public class Configuration {
         return logLevel;
     }
 
+    public GSSImpl getGSSImpl() {
+        return gssImpl;
+    }
+
+    public TerminalMemoImpl getTerminalMemoImpl() {
+        return terminalMemoImpl;
+    }
+
+    public ScannerImpl getScannerImpl() {
+        return scannerImpl;
+    }
+
+    public GraphConstructionImpl getGraphConstructionImpl() {
+        return graphConstructionImpl;
+    }
+
     public static Builder builder() {
         return new Builder();
     }
 
+    /**
+     * The matchers used for terminals. JAVA_REGEX is not implemented and uses DFA matchers.
+     */
     public enum MatcherType {
         DFA,
+        DENSE_DFA,
+        BYTECODE,
         JAVA_REGEX
     }
 
@@ -116,6 +151,68 @@ public class Configuration {
         TRIE
     }
 
+    /**
+     * The representation of GSS edges. DEFAULT creates an object per edge, COMPACT stores the components of the edges
+     * in the GSS node.
+     */
+    public enum GSSImpl {
+        DEFAULT,
+        COMPACT
+    }
+
+    /**
+     * The memoization of terminal matches. HASH_MAP stores the terminal nodes and the failures in a hash map per
+     * terminal, DENSE stores the match lengths in pages of input positions, see
+     * {@link org.iguana.parser.TerminalMemoTable}, and only keeps the terminal nodes if the result ops share them.
+     */
+    public enum TerminalMemoImpl {
+        HASH_MAP,
+        DENSE
+    }
+
+    /**
+     * How the terminals are matched. PER_TERMINAL runs the matcher of a terminal at each input position the terminal
+     * is tried, SHARED_DFA runs one DFA for all the terminals of the grammar at each input position, see
+     * {@link org.iguana.regex.matcher.TokenScanner}, and caches the matches of all the terminals at that position.
+     */
+    public enum ScannerImpl {
+        PER_TERMINAL,
+        SHARED_DFA
+    }
+
+    /**
+     * How the grammar graph is built. PARALLEL builds the matchers of the terminals, the prediction sets and the
+     * lookahead tests of the nonterminals in the common fork/join pool. The ids of the grammar slots are the same
+     * as with SEQUENTIAL, as the slots themselves are still created in the order of the rules.
+     */
+    public enum GraphConstructionImpl {
+        SEQUENTIAL,
+        PARALLEL
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (!(obj instanceof Configuration)) return false;
+        Configuration other = (Configuration) obj;
+        return gssLookupImpl == other.gssLookupImpl
+            && matcherType == other.matcherType
+            && lookAheadCount == other.lookAheadCount
+            && hashmapImpl == other.hashmapImpl
+            && envImpl == other.envImpl
+            && logLevel == other.logLevel
+            && gssImpl == other.gssImpl
+            && terminalMemoImpl == other.terminalMemoImpl
+            && scannerImpl == other.scannerImpl
+            && graphConstructionImpl == other.graphConstructionImpl;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(gssLookupImpl, matcherType, lookAheadCount, hashmapImpl, envImpl, logLevel, gssImpl,
+            terminalMemoImpl, scannerImpl, graphConstructionImpl);
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
@@ -123,6 +220,10 @@ public class Configuration {
         sb.append(MatcherType.class.getName()).append(": ").append(matcherType)
           .append(LookupImpl.class.getName()).append(": ").append(gssLookupImpl)
           .append(HashMapImpl.class.getName()).append(": ").append(hashmapImpl)
+          .append(GSSImpl.class.getName()).append(": ").append(gssImpl)
+          .append(TerminalMemoImpl.class.getName()).append(": ").append(terminalMemoImpl)
+          .append(ScannerImpl.class.getName()).append(": ").append(scannerImpl)
+          .append(GraphConstructionImpl.class.getName()).append(": ").append(graphConstructionImpl)
           .append("LookaheadCount").append(": ").append(lookAheadCount);
 
         return sb.toString();
@@ -135,6 +236,10 @@ public class Configuration {
         private HashMapImpl hashmapImpl = HashMapImpl.JAVA; // HashMapImpl.INT_OPEN_ADDRESSING;
         private int lookaheadCount = DEFAULT_LOOKAHEAD;
         private LogLevel logLevel = LogLevel.NONE;
+        private GSSImpl gssImpl = GSSImpl.DEFAULT;
+        private TerminalMemoImpl terminalMemoImpl = TerminalMemoImpl.HASH_MAP;
+        private ScannerImpl scannerImpl = ScannerImpl.PER_TERMINAL;
+        private GraphConstructionImpl graphConstructionImpl = GraphConstructionImpl.SEQUENTIAL;
 
         private EnvironmentImpl envImpl = EnvironmentImpl.TRIE;
 
@@ -172,5 +277,25 @@ public class Configuration {
             return this;
         }
 
+        public Builder setGSSImpl(GSSImpl gssImpl) {
+            this.gssImpl = gssImpl;
+            return this;
+        }
+
+        public Builder setTerminalMemoImpl(TerminalMemoImpl terminalMemoImpl) {
+            this.terminalMemoImpl = terminalMemoImpl;
+            return this;
+        }
+
+        public Builder setScannerImpl(ScannerImpl scannerImpl) {
+            this.scannerImpl = scannerImpl;
+            return this;
+        }
+
+        public Builder setGraphConstructionImpl(GraphConstructionImpl graphConstructionImpl) {
+            this.graphConstructionImpl = graphConstructionImpl;
+            return this;
+        }
+
     }
 }
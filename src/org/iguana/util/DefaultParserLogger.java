@@ -0,0 +1,198 @@
+package org.iguana.util;
+
+import org.iguana.grammar.slot.BodyGrammarSlot;
+import org.iguana.grammar.slot.GrammarSlot;
+import org.iguana.gss.GSSEdge;
+import org.iguana.gss.GSSNode;
+import org.iguana.parser.ParseError;
+import org.iguana.parser.descriptor.Descriptor;
+import org.iguana.result.Result;
+import org.iguana.sppf.IntermediateNode;
+import org.iguana.sppf.NonPackedNode;
+import org.iguana.sppf.NonterminalNode;
+import org.iguana.sppf.PackedNode;
+import org.iguana.sppf.TerminalNode;
+import org.iguana.utils.logging.IguanaLogger;
+import org.iguana.utils.logging.JavaUtilIguanaLogger;
+import org.iguana.utils.logging.LogLevel;
+
+import java.util.Arrays;
+
+/**
+ * Counts the GSS and SPPF nodes created during a single parse, and logs them if logging is enabled.
+ */
+public class DefaultParserLogger implements ParserLogger {
+
+    private int descriptorsCount;
+
+    private int countNonterminalNodes;
+
+    private int countIntermediateNodes;
+
+    private int countTerminalNodes;
+
+    private int countPackedNodes;
+
+    private int countAmbiguousNodes;
+
+    private int countGSSNodes;
+
+    private int countGSSEdges;
+
+    private final IguanaLogger logger;
+
+    private boolean logEnabled = false;
+
+    public DefaultParserLogger(Configuration config) {
+        if (config.getLogLevel() == LogLevel.NONE)
+            logger = IguanaLogger.DEFAULT;
+        else
+            logger = new JavaUtilIguanaLogger("IguanaParser Logger", config.getLogLevel());
+    }
+
+    @Override
+    public void reset() {
+        descriptorsCount = 0;
+        countNonterminalNodes = 0;
+        countIntermediateNodes = 0;
+        countTerminalNodes = 0;
+        countPackedNodes = 0;
+        countAmbiguousNodes = 0;
+        countGSSNodes = 0;
+        countGSSEdges = 0;
+    }
+
+    public void enable() {
+        logEnabled = true;
+    }
+
+    @Override
+    public void terminalNodeAdded(TerminalNode node) {
+        countTerminalNodes++;
+        if (logEnabled) logger.log("Terminal node added %s", node);
+    }
+
+    @Override
+    public void nonterminalNodeAdded(NonterminalNode node) {
+        countNonterminalNodes++;
+        if (logEnabled) logger.log("Nonterminal node added %s", node);
+    }
+
+    @Override
+    public void intermediateNodeAdded(IntermediateNode node) {
+        countIntermediateNodes++;
+        if (logEnabled) logger.log("Intermediate node added %s", node);
+    }
+
+    @Override
+    public void packedNodeAdded(PackedNode packedNode) {
+        countPackedNodes++;
+        if (logEnabled) logger.log("Packed node added %s", packedNode);
+    }
+
+    @Override
+    public void ambiguousNodeAdded(NonPackedNode node) {
+        countAmbiguousNodes++;
+        if (logEnabled) logger.log("Ambiguous node added: %s", node);
+    }
+
+    @Override
+    public void gssNodeAdded(GSSNode<?> node, Object[] data) {
+        countGSSNodes++;
+        if (logEnabled) {
+            if (data != null) {
+                logger.log("GSS node added %s(%s)", node, Arrays.deepToString(data));
+            } else {
+                logger.log("GSS node added %s", node, Arrays.deepToString(data));
+            }
+        }
+    }
+
+    @Override
+    public void gssEdgeAdded(GSSEdge<?> edge) {
+        countGSSEdges++;
+        if (logEnabled) logger.log("GSS Edge added %s", edge);
+    }
+
+    @Override
+    public void gssEdgeAdded(GSSNode<?> source, BodyGrammarSlot returnSlot, GSSNode<?> destination) {
+        countGSSEdges++;
+        if (logEnabled) logger.log("GSS Edge added %s -> (%s, %s)", source, returnSlot, destination);
+    }
+
+    @Override
+    public void descriptorAdded(Descriptor<?> descriptor) {
+        descriptorsCount++;
+        if (logEnabled)
+            logger.log("Descriptor created: %s", descriptor);
+    }
+
+    @Override
+    public <T extends Result> void pop(GSSNode<T> gssNode, int inputIndex, T child, Object value) {
+        if (logEnabled) logger.log("Pop %s, %d, %s, %s", gssNode, inputIndex, child, value);
+    }
+
+    @Override
+    public void error(ParseError<?> error) {
+        if (logEnabled) {
+            logger.log("Error recorded at %s %d %s", error.getGrammarSlot(), error.getInputIndex(),
+                error.getDescription());
+        }
+    }
+
+    @Override
+    public <T extends Result> void processDescriptor(Descriptor<T> descriptor) {
+        if (logEnabled) logger.log("Processing %s", descriptor);
+    }
+
+    @Override
+    public void logFollowTestFailed(GrammarSlot grammarSlot, int inputIndex, int c, String expected) {
+        if (logEnabled) {
+            logger.log("Test follow failed at %s at input index %d. Found %d but expected %s",
+                grammarSlot,
+                inputIndex,
+                c, expected);
+        }
+    }
+
+    @Override
+    public int getDescriptorsCount() {
+        return descriptorsCount;
+    }
+
+    @Override
+    public int getCountNonterminalNodes() {
+        return countNonterminalNodes;
+    }
+
+    @Override
+    public int getCountIntermediateNodes() {
+        return countIntermediateNodes;
+    }
+
+    @Override
+    public int getCountTerminalNodes() {
+        return countTerminalNodes;
+    }
+
+    @Override
+    public int getCountPackedNodes() {
+        return countPackedNodes;
+    }
+
+    @Override
+    public int getCountAmbiguousNodes() {
+        return countAmbiguousNodes;
+    }
+
+    @Override
+    public int getCountGSSNodes() {
+        return countGSSNodes;
+    }
+
+    @Override
+    public int getCountGSSEdges() {
+        return countGSSEdges;
+    }
+
+}
@@ -1,5 +1,6 @@
 package org.iguana.util;
 
+import org.iguana.grammar.slot.BodyGrammarSlot;
 import org.iguana.grammar.slot.GrammarSlot;
 import org.iguana.gss.GSSEdge;
 import org.iguana.gss.GSSNode;
@@ -11,164 +12,79 @@ import org.iguana.sppf.NonPackedNode;
 import org.iguana.sppf.NonterminalNode;
 import org.iguana.sppf.PackedNode;
 import org.iguana.sppf.TerminalNode;
-import org.iguana.utils.logging.IguanaLogger;
-import org.iguana.utils.logging.JavaUtilIguanaLogger;
-import org.iguana.utils.logging.LogLevel;
 
-import java.util.Arrays;
+/**
+ * Receives the parsing events of a single parse. Each IguanaRuntime owns its own logger, so the counts are
+ * not shared between concurrent parses.
+ *
+ * The default methods do nothing, so that when statistics are not requested, the calls
+ * on the {@link #NONE} logger can be completely eliminated.
+ */
+public interface ParserLogger {
 
-public class ParserLogger {
+    ParserLogger NONE = new ParserLogger() {};
 
-    private static final ParserLogger instance = new ParserLogger();
+    default void reset() {}
 
-    private int descriptorsCount;
+    default void terminalNodeAdded(TerminalNode node) {}
 
-    private int countNonterminalNodes;
+    default void nonterminalNodeAdded(NonterminalNode node) {}
 
-    private int countIntermediateNodes;
+    default void intermediateNodeAdded(IntermediateNode node) {}
 
-    private int countTerminalNodes;
+    default void packedNodeAdded(PackedNode packedNode) {}
 
-    private int countPackedNodes;
+    default void ambiguousNodeAdded(NonPackedNode node) {}
 
-    private int countAmbiguousNodes;
+    default void gssNodeAdded(GSSNode<?> node, Object[] data) {}
 
-    private int countGSSNodes;
+    default void gssEdgeAdded(GSSEdge<?> edge) {}
 
-    private int countGSSEdges;
+    /**
+     * Called for the GSS edges that are not represented by an edge object.
+     */
+    default void gssEdgeAdded(GSSNode<?> source, BodyGrammarSlot returnSlot, GSSNode<?> destination) {}
 
-    private final IguanaLogger logger;
+    default void descriptorAdded(Descriptor<?> descriptor) {}
 
-    private boolean logEnabled = false;
+    default <T extends Result> void pop(GSSNode<T> gssNode, int inputIndex, T child, Object value) {}
 
-    public ParserLogger() {
-        Configuration config = Configuration.load();
-        if (config.getLogLevel() == LogLevel.NONE)
-            logger = IguanaLogger.DEFAULT;
-        else
-            logger = new JavaUtilIguanaLogger("IguanaParser Logger", config.getLogLevel());
-    }
-
-    public static ParserLogger getInstance() {
-        return instance;
-    }
-
-    public void reset() {
-        descriptorsCount = 0;
-        countNonterminalNodes = 0;
-        countIntermediateNodes = 0;
-        countTerminalNodes = 0;
-        countPackedNodes = 0;
-        countAmbiguousNodes = 0;
-        countGSSNodes = 0;
-        countGSSEdges = 0;
-    }
-
-    public void enable() {
-        logEnabled = true;
-    }
+    default void error(ParseError<?> error) {}
 
-    public void terminalNodeAdded(TerminalNode node) {
-        countTerminalNodes++;
-        if (logEnabled) logger.log("Terminal node added %s", node);
-    }
+    default <T extends Result> void processDescriptor(Descriptor<T> descriptor) {}
 
-    public void nonterminalNodeAdded(NonterminalNode node) {
-        countNonterminalNodes++;
-        if (logEnabled) logger.log("Nonterminal node added %s", node);
-    }
-
-    public void intermediateNodeAdded(IntermediateNode node) {
-        countIntermediateNodes++;
-        if (logEnabled) logger.log("Intermediate node added %s", node);
-    }
-
-    public void packedNodeAdded(PackedNode packedNode) {
-        countPackedNodes++;
-        if (logEnabled) logger.log("Packed node added %s", packedNode);
-    }
-
-    public void ambiguousNodeAdded(NonPackedNode node) {
-        countAmbiguousNodes++;
-        if (logEnabled) logger.log("Ambiguous node added: %s", node);
-    }
-
-    public void gssNodeAdded(GSSNode<?> node, Object[] data) {
-        countGSSNodes++;
-        if (logEnabled) {
-            if (data != null) {
-                logger.log("GSS node added %s(%s)", node, Arrays.deepToString(data));
-            } else {
-                logger.log("GSS node added %s", node, Arrays.deepToString(data));
-            }
-        }
-    }
-
-    public void gssEdgeAdded(GSSEdge<?> edge) {
-        countGSSEdges++;
-        if (logEnabled) logger.log("GSS Edge added %s", edge);
-    }
-
-    public void descriptorAdded(Descriptor<?> descriptor) {
-        descriptorsCount++;
-        if (logEnabled)
-            logger.log("Descriptor created: %s", descriptor);
-    }
-
-    public <T extends Result> void pop(GSSNode<T> gssNode, int inputIndex, T child, Object value) {
-        if (logEnabled) logger.log("Pop %s, %d, %s, %s", gssNode, inputIndex, child, value);
-    }
-
-    public void error(ParseError<?> error) {
-        if (logEnabled) {
-            logger.log("Error recorded at %s %d %s", error.getGrammarSlot(), error.getInputIndex(),
-                error.getDescription());
-        }
-    }
-
-    public <T extends Result> void processDescriptor(Descriptor<T> descriptor) {
-        if (logEnabled) logger.log("Processing %s", descriptor);
-    }
-
-    public void logFollowTestFailed(GrammarSlot grammarSlot, int inputIndex, int c, String expected) {
-        if (logEnabled) {
-            logger.log("Test follow failed at %s at input index %d. Found %d but expected %s",
-                grammarSlot,
-                inputIndex,
-                c, expected);
-        }
-    }
+    default void logFollowTestFailed(GrammarSlot grammarSlot, int inputIndex, int c, String expected) {}
 
-    public int getDescriptorsCount() {
-        return descriptorsCount;
+    default int getDescriptorsCount() {
+        return 0;
     }
 
-    public int getCountNonterminalNodes() {
-        return countNonterminalNodes;
+    default int getCountNonterminalNodes() {
+        return 0;
     }
 
-    public int getCountIntermediateNodes() {
-        return countIntermediateNodes;
+    default int getCountIntermediateNodes() {
+        return 0;
     }
 
-    public int getCountTerminalNodes() {
-        return countTerminalNodes;
+    default int getCountTerminalNodes() {
+        return 0;
     }
 
-    public int getCountPackedNodes() {
-        return countPackedNodes;
+    default int getCountPackedNodes() {
+        return 0;
     }
 
-    public int getCountAmbiguousNodes() {
-        return countAmbiguousNodes;
+    default int getCountAmbiguousNodes() {
+        return 0;
     }
 
-    public int getCountGSSNodes() {
-        return countGSSNodes;
+    default int getCountGSSNodes() {
+        return 0;
     }
 
-    public int getCountGSSEdges() {
-        return countGSSEdges;
+    default int getCountGSSEdges() {
+        return 0;
     }
 
 }
@@ -56,6 +56,24 @@ public class XMLConfigFileParser implements ConfigFileParser {
                     builder.setHashmapImpl(Configuration.HashMapImpl.valueOf(node.getTextContent().toUpperCase()));
                     break;
 
+                case "GSSImpl":
+                    builder.setGSSImpl(Configuration.GSSImpl.valueOf(node.getTextContent().toUpperCase()));
+                    break;
+
+                case "TerminalMemoImpl":
+                    builder.setTerminalMemoImpl(
+                        Configuration.TerminalMemoImpl.valueOf(node.getTextContent().toUpperCase()));
+                    break;
+
+                case "ScannerImpl":
+                    builder.setScannerImpl(Configuration.ScannerImpl.valueOf(node.getTextContent().toUpperCase()));
+                    break;
+
+                case "GraphConstructionImpl":
+                    builder.setGraphConstructionImpl(
+                        Configuration.GraphConstructionImpl.valueOf(node.getTextContent().toUpperCase()));
+                    break;
+
                 case "EnvironmentImpl":
                     builder.setEnvironmentImpl(
                         Configuration.EnvironmentImpl.valueOf(node.getTextContent().toUpperCase()));
@@ -0,0 +1,634 @@
+package org.iguana.util.serialization;
+
+import org.iguana.datadependent.ast.AST;
+import org.iguana.datadependent.ast.Expression;
+import org.iguana.datadependent.ast.Statement;
+import org.iguana.grammar.condition.Condition;
+import org.iguana.grammar.condition.ConditionType;
+import org.iguana.grammar.condition.DataDependentCondition;
+import org.iguana.grammar.condition.PositionalCondition;
+import org.iguana.grammar.condition.RegularExpressionCondition;
+import org.iguana.grammar.runtime.AssociativityGroup;
+import org.iguana.grammar.runtime.PrecedenceLevel;
+import org.iguana.grammar.runtime.Recursion;
+import org.iguana.grammar.runtime.RuntimeGrammar;
+import org.iguana.grammar.runtime.RuntimeRule;
+import org.iguana.grammar.slot.NonterminalNodeType;
+import org.iguana.grammar.slot.TerminalNodeType;
+import org.iguana.grammar.symbol.Align;
+import org.iguana.grammar.symbol.Alt;
+import org.iguana.grammar.symbol.Associativity;
+import org.iguana.grammar.symbol.Code;
+import org.iguana.grammar.symbol.CodeHolder;
+import org.iguana.grammar.symbol.Conditional;
+import org.iguana.grammar.symbol.Error;
+import org.iguana.grammar.symbol.Group;
+import org.iguana.grammar.symbol.Identifier;
+import org.iguana.grammar.symbol.IfThenElse;
+import org.iguana.grammar.symbol.Ignore;
+import org.iguana.grammar.symbol.LayoutStrategy;
+import org.iguana.grammar.symbol.Nonterminal;
+import org.iguana.grammar.symbol.Offside;
+import org.iguana.grammar.symbol.Opt;
+import org.iguana.grammar.symbol.Plus;
+import org.iguana.grammar.symbol.Return;
+import org.iguana.grammar.symbol.Star;
+import org.iguana.grammar.symbol.Start;
+import org.iguana.grammar.symbol.Symbol;
+import org.iguana.grammar.symbol.SymbolBuilder;
+import org.iguana.grammar.symbol.Terminal;
+import org.iguana.regex.Char;
+import org.iguana.regex.CharRange;
+import org.iguana.regex.EOF;
+import org.iguana.regex.Epsilon;
+import org.iguana.regex.Reference;
+import org.iguana.regex.RegexBuilder;
+import org.iguana.regex.RegularExpression;
+import org.iguana.regex.Seq;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.iguana.util.serialization.GrammarDataOutput.ADD;
+import static org.iguana.util.serialization.GrammarDataOutput.ALIGN;
+import static org.iguana.util.serialization.GrammarDataOutput.ALT;
+import static org.iguana.util.serialization.GrammarDataOutput.AND;
+import static org.iguana.util.serialization.GrammarDataOutput.AND_INDENT;
+import static org.iguana.util.serialization.GrammarDataOutput.ASSIGNMENT;
+import static org.iguana.util.serialization.GrammarDataOutput.CALL;
+import static org.iguana.util.serialization.GrammarDataOutput.CHAR;
+import static org.iguana.util.serialization.GrammarDataOutput.CHAR_RANGE;
+import static org.iguana.util.serialization.GrammarDataOutput.CODE;
+import static org.iguana.util.serialization.GrammarDataOutput.CODE_HOLDER;
+import static org.iguana.util.serialization.GrammarDataOutput.CONDITIONAL;
+import static org.iguana.util.serialization.GrammarDataOutput.DATA_DEPENDENT_CONDITION;
+import static org.iguana.util.serialization.GrammarDataOutput.DIVIDE;
+import static org.iguana.util.serialization.GrammarDataOutput.END_OF_FILE;
+import static org.iguana.util.serialization.GrammarDataOutput.EOF_REGEX;
+import static org.iguana.util.serialization.GrammarDataOutput.EPSILON;
+import static org.iguana.util.serialization.GrammarDataOutput.EQUAL;
+import static org.iguana.util.serialization.GrammarDataOutput.ERROR;
+import static org.iguana.util.serialization.GrammarDataOutput.EXPRESSION_IF_THEN_ELSE;
+import static org.iguana.util.serialization.GrammarDataOutput.EXPRESSION_STATEMENT;
+import static org.iguana.util.serialization.GrammarDataOutput.FALSE;
+import static org.iguana.util.serialization.GrammarDataOutput.GREATER;
+import static org.iguana.util.serialization.GrammarDataOutput.GREATER_THAN_EQUAL;
+import static org.iguana.util.serialization.GrammarDataOutput.GROUP;
+import static org.iguana.util.serialization.GrammarDataOutput.IDENTIFIER;
+import static org.iguana.util.serialization.GrammarDataOutput.IF_THEN_ELSE;
+import static org.iguana.util.serialization.GrammarDataOutput.IGNORE;
+import static org.iguana.util.serialization.GrammarDataOutput.INTEGER;
+import static org.iguana.util.serialization.GrammarDataOutput.INT_TUPLE2;
+import static org.iguana.util.serialization.GrammarDataOutput.LEFT_EXTENT;
+import static org.iguana.util.serialization.GrammarDataOutput.LESS;
+import static org.iguana.util.serialization.GrammarDataOutput.LESS_THAN_EQUAL;
+import static org.iguana.util.serialization.GrammarDataOutput.LSHIFT_AND_EQ_ZERO;
+import static org.iguana.util.serialization.GrammarDataOutput.MULTIPLY;
+import static org.iguana.util.serialization.GrammarDataOutput.NAME;
+import static org.iguana.util.serialization.GrammarDataOutput.NEW_STRING;
+import static org.iguana.util.serialization.GrammarDataOutput.NONTERMINAL;
+import static org.iguana.util.serialization.GrammarDataOutput.NOT;
+import static org.iguana.util.serialization.GrammarDataOutput.NOT_EQUAL;
+import static org.iguana.util.serialization.GrammarDataOutput.NULL;
+import static org.iguana.util.serialization.GrammarDataOutput.OFFSIDE;
+import static org.iguana.util.serialization.GrammarDataOutput.OPT;
+import static org.iguana.util.serialization.GrammarDataOutput.OR;
+import static org.iguana.util.serialization.GrammarDataOutput.OR_INDENT;
+import static org.iguana.util.serialization.GrammarDataOutput.PLUS;
+import static org.iguana.util.serialization.GrammarDataOutput.POSITIONAL_CONDITION;
+import static org.iguana.util.serialization.GrammarDataOutput.REAL;
+import static org.iguana.util.serialization.GrammarDataOutput.REFERENCE;
+import static org.iguana.util.serialization.GrammarDataOutput.REGEX_ALT;
+import static org.iguana.util.serialization.GrammarDataOutput.REGEX_OPT;
+import static org.iguana.util.serialization.GrammarDataOutput.REGEX_PLUS;
+import static org.iguana.util.serialization.GrammarDataOutput.REGEX_SEQ;
+import static org.iguana.util.serialization.GrammarDataOutput.REGEX_STAR;
+import static org.iguana.util.serialization.GrammarDataOutput.REGULAR_EXPRESSION_CONDITION;
+import static org.iguana.util.serialization.GrammarDataOutput.RETURN;
+import static org.iguana.util.serialization.GrammarDataOutput.RIGHT_EXTENT;
+import static org.iguana.util.serialization.GrammarDataOutput.STAR;
+import static org.iguana.util.serialization.GrammarDataOutput.START;
+import static org.iguana.util.serialization.GrammarDataOutput.STRING;
+import static org.iguana.util.serialization.GrammarDataOutput.SUBTRACT;
+import static org.iguana.util.serialization.GrammarDataOutput.TERMINAL;
+import static org.iguana.util.serialization.GrammarDataOutput.TRUE;
+import static org.iguana.util.serialization.GrammarDataOutput.TUPLE;
+import static org.iguana.util.serialization.GrammarDataOutput.VAL;
+import static org.iguana.util.serialization.GrammarDataOutput.VARIABLE_DECLARATION_STATEMENT;
+import static org.iguana.util.serialization.GrammarDataOutput.YIELD;
+
+/**
+ * Reads a runtime grammar written by {@link GrammarDataOutput}.
+ */
+public class GrammarDataInput {
+
+    private static final LayoutStrategy[] LAYOUT_STRATEGIES = LayoutStrategy.values();
+    private static final Recursion[] RECURSIONS = Recursion.values();
+    private static final Associativity[] ASSOCIATIVITIES = Associativity.values();
+    private static final ConditionType[] CONDITION_TYPES = ConditionType.values();
+    private static final NonterminalNodeType[] NONTERMINAL_NODE_TYPES = NonterminalNodeType.values();
+    private static final TerminalNodeType[] TERMINAL_NODE_TYPES = TerminalNodeType.values();
+
+    private final DataInputStream in;
+
+    private final List<String> strings = new ArrayList<>();
+
+    public GrammarDataInput(DataInputStream in) {
+        this.in = in;
+    }
+
+    public RuntimeGrammar readGrammar() throws IOException {
+        RuntimeGrammar.Builder builder = RuntimeGrammar.builder();
+        builder.setName(readString());
+        builder.setLayout(readSymbol());
+        int rulesCount = in.readInt();
+        for (int i = 0; i < rulesCount; i++) {
+            builder.addRule(readRule());
+        }
+        builder.setRegularExpressionDefinitions(readRegularExpressionMap());
+        builder.setLiterals(readRegularExpressionMap());
+        builder.setStartSymbols(readSymbols());
+        builder.setEbnfLefts(readStringSets());
+        builder.setEbnfRights(readStringSets());
+
+        int globalsCount = in.readInt();
+        if (globalsCount >= 0) {
+            Map<String, Expression> globals = new HashMap<>();
+            for (int i = 0; i < globalsCount; i++) {
+                globals.put(readString(), readExpression());
+            }
+            builder.setGlobals(globals);
+        } else {
+            builder.setGlobals(null);
+        }
+        return builder.build();
+    }
+
+    private RuntimeRule readRule() throws IOException {
+        RuntimeRule.Builder builder = RuntimeRule.withHead((Nonterminal) readSymbol());
+        List<Symbol> body = readSymbols();
+        builder.setSymbols(body);
+        builder.setLayout(readSymbol());
+        builder.setLayoutStrategy(readEnum(LAYOUT_STRATEGIES));
+        builder.setRecursion(readEnum(RECURSIONS));
+        builder.setiRecursion(readEnum(RECURSIONS));
+        builder.setLeftEnd(readString());
+        builder.setRightEnd(readString());
+        builder.setLeftEnds(readStringSet());
+        builder.setRightEnds(readStringSet());
+        builder.setAssociativity(readEnum(ASSOCIATIVITIES));
+        builder.setAssociativityGroup(readAssociativityGroup());
+        builder.setPrecedence(in.readInt());
+        builder.setPrecedenceLevel(readPrecedenceLevel());
+        builder.setLabel(readString());
+        builder.setDefinition(readSymbol());
+        return builder.build();
+    }
+
+    private PrecedenceLevel readPrecedenceLevel() throws IOException {
+        if (!in.readBoolean()) return null;
+
+        int lhs = in.readInt();
+        int rhs = in.readInt();
+        int undefined = in.readInt();
+        boolean hasPrefixUnary = in.readBoolean();
+        boolean hasPostfixUnary = in.readBoolean();
+        boolean hasPrefixUnaryBelow = in.readBoolean();
+        Integer[] prefixUnaryBelow = readIntegers();
+        boolean hasPostfixUnaryBelow = in.readBoolean();
+        Integer[] postfixUnaryBelow = readIntegers();
+        return new PrecedenceLevel(lhs, rhs, undefined, hasPrefixUnary, hasPostfixUnary, hasPrefixUnaryBelow,
+            prefixUnaryBelow, hasPostfixUnaryBelow, postfixUnaryBelow);
+    }
+
+    private AssociativityGroup readAssociativityGroup() throws IOException {
+        if (!in.readBoolean()) return null;
+
+        Associativity associativity = readEnum(ASSOCIATIVITIES);
+        PrecedenceLevel precedenceLevel = readPrecedenceLevel();
+        int lhs = in.readInt();
+        int rhs = in.readInt();
+        int precedence = in.readInt();
+        return new AssociativityGroup(associativity, precedenceLevel, lhs, rhs, precedence);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends Symbol> List<T> readSymbols() throws IOException {
+        int count = in.readInt();
+        if (count < 0) return null;
+
+        List<T> symbols = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            symbols.add((T) readSymbol());
+        }
+        return symbols;
+    }
+
+    private Symbol readSymbol() throws IOException {
+        int tag = in.readByte();
+        switch (tag) {
+            case NULL:
+                return null;
+            case CODE_HOLDER:
+                return new CodeHolder(readStatement());
+            case ERROR:
+                return Error.getInstance();
+            default:
+        }
+
+        String name = readString();
+        String label = readString();
+        List<Condition> preConditions = readConditions();
+        List<Condition> postConditions = readConditions();
+
+        SymbolBuilder<? extends Symbol> builder;
+        switch (tag) {
+            case NONTERMINAL:
+                builder = readNonterminal(name);
+                break;
+            case TERMINAL:
+                builder = new Terminal.Builder(readRegularExpression()).setNodeType(readEnum(TERMINAL_NODE_TYPES));
+                break;
+            case STAR:
+                builder = new Star.Builder(readSymbol()).addSeparators(readSymbols());
+                break;
+            case PLUS:
+                builder = new Plus.Builder(readSymbol()).addSeparators(readSymbols());
+                break;
+            case OPT:
+                builder = new Opt.Builder(readSymbol());
+                break;
+            case ALT:
+                builder = new Alt.Builder(this.<Symbol>readSymbols());
+                break;
+            case GROUP:
+                builder = new Group.Builder(this.<Symbol>readSymbols());
+                break;
+            case START:
+                builder = new Start.Builder(readString());
+                break;
+            case IDENTIFIER:
+                Identifier.Builder identifier = new Identifier.Builder(name);
+                List<String> excepts = readStrings();
+                if (excepts != null) excepts.forEach(identifier::addExcept);
+                builder = identifier;
+                break;
+            case CODE:
+                Symbol symbol = readSymbol();
+                Statement[] statements = new Statement[in.readInt()];
+                for (int i = 0; i < statements.length; i++) {
+                    statements[i] = readStatement();
+                }
+                builder = new Code.Builder(symbol, statements);
+                break;
+            case CONDITIONAL:
+                builder = new Conditional.Builder(readSymbol(), readExpression());
+                break;
+            case RETURN:
+                builder = new Return.Builder(readExpression());
+                break;
+            case IF_THEN_ELSE:
+                builder = new IfThenElse.Builder(readExpression(), readSymbol(), readSymbol());
+                break;
+            case OFFSIDE:
+                builder = new Offside.Builder(readSymbol());
+                break;
+            case ALIGN:
+                builder = new Align.Builder(readSymbol());
+                break;
+            case IGNORE:
+                builder = new Ignore.Builder(readSymbol());
+                break;
+            default:
+                throw new IOException("Unknown symbol tag " + tag);
+        }
+        builder.setName(name).setLabel(label).addPreConditions(preConditions).addPostConditions(postConditions);
+        return builder.build();
+    }
+
+    private Nonterminal.Builder readNonterminal(String name) throws IOException {
+        Nonterminal.Builder builder = new Nonterminal.Builder(name);
+        builder.setIndex(in.readInt());
+        builder.setEbnfList(in.readBoolean());
+        builder.setVariable(readString());
+        builder.setState(readStringSet());
+        List<String> parameters = readStrings();
+        if (parameters != null) builder.addParameters(parameters);
+        Expression[] arguments = readExpressions();
+        if (arguments != null) builder.apply(arguments);
+        Set<String> excepts = readStringSet();
+        if (excepts != null) builder.addExcepts(excepts);
+        builder.setNodeType(readEnum(NONTERMINAL_NODE_TYPES));
+        return builder;
+    }
+
+    private List<Condition> readConditions() throws IOException {
+        int count = in.readInt();
+        List<Condition> conditions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int tag = in.readByte();
+            switch (tag) {
+                case REGULAR_EXPRESSION_CONDITION:
+                    ConditionType type = readEnum(CONDITION_TYPES);
+                    conditions.add(new RegularExpressionCondition(type, readRegularExpression()));
+                    break;
+                case DATA_DEPENDENT_CONDITION:
+                    conditions.add(DataDependentCondition.predicate(readExpression()));
+                    break;
+                case POSITIONAL_CONDITION:
+                    conditions.add(new PositionalCondition(readEnum(CONDITION_TYPES)));
+                    break;
+                default:
+                    throw new IOException("Unknown condition tag " + tag);
+            }
+        }
+        return conditions;
+    }
+
+    private Map<String, RegularExpression> readRegularExpressionMap() throws IOException {
+        int count = in.readInt();
+        if (count < 0) return null;
+
+        Map<String, RegularExpression> regularExpressions = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            regularExpressions.put(readString(), readRegularExpression());
+        }
+        return regularExpressions;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends RegularExpression> List<T> readRegularExpressions() throws IOException {
+        int count = in.readInt();
+        List<T> regularExpressions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            regularExpressions.add((T) readRegularExpression());
+        }
+        return regularExpressions;
+    }
+
+    public RegularExpression readRegularExpression() throws IOException {
+        int tag = in.readByte();
+        RegexBuilder<? extends RegularExpression> builder;
+        switch (tag) {
+            case NULL:
+                return null;
+            case EPSILON:
+                return Epsilon.getInstance();
+            case EOF_REGEX:
+                return EOF.getInstance();
+            case REGEX_SEQ:
+                builder = Seq.builder(readRegularExpressions());
+                break;
+            case REGEX_ALT:
+                builder = org.iguana.regex.Alt.builder(readRegularExpressions());
+                break;
+            case REGEX_STAR:
+                builder = org.iguana.regex.Star.builder(readRegularExpression())
+                    .setSeparators(readRegularExpressions());
+                break;
+            case REGEX_PLUS:
+                builder = org.iguana.regex.Plus.builder(readRegularExpression())
+                    .setSeparators(readRegularExpressions());
+                break;
+            case REGEX_OPT:
+                builder = org.iguana.regex.Opt.builder(readRegularExpression());
+                break;
+            case CHAR:
+                builder = Char.builder(in.readInt());
+                break;
+            case CHAR_RANGE:
+                builder = CharRange.builder(in.readInt(), in.readInt());
+                break;
+            case REFERENCE:
+                Reference.Builder reference = new Reference.Builder();
+                reference.setName(readString());
+                builder = reference;
+                break;
+            default:
+                throw new IOException("Unknown regular expression tag " + tag);
+        }
+        Set<CharRange> lookaheads = readCharRanges();
+        if (lookaheads != null) lookaheads.forEach(builder::addLookahead);
+        Set<CharRange> lookbehinds = readCharRanges();
+        if (lookbehinds != null) lookbehinds.forEach(builder::addLookbehind);
+        return builder.build();
+    }
+
+    /**
+     * Reads a set of character ranges written by {@link GrammarDataOutput#writeCharRanges(Set)}.
+     */
+    public Set<CharRange> readCharRanges() throws IOException {
+        int count = in.readInt();
+        if (count < 0) return null;
+
+        Set<CharRange> ranges = new LinkedHashSet<>();
+        for (int i = 0; i < count; i++) {
+            ranges.add(CharRange.in(in.readInt(), in.readInt()));
+        }
+        return ranges;
+    }
+
+    private Statement readStatement() throws IOException {
+        int tag = in.readByte();
+        switch (tag) {
+            case EXPRESSION_STATEMENT:
+                return AST.stat(readExpression());
+            case VARIABLE_DECLARATION_STATEMENT:
+                String name = readString();
+                int i = in.readInt();
+                return AST.varDeclStat(AST.varDecl(name, i, readExpression()));
+            default:
+                throw new IOException("Unknown statement tag " + tag);
+        }
+    }
+
+    private Expression[] readExpressions() throws IOException {
+        int count = in.readInt();
+        if (count < 0) return null;
+
+        Expression[] expressions = new Expression[count];
+        for (int i = 0; i < count; i++) {
+            expressions[i] = readExpression();
+        }
+        return expressions;
+    }
+
+    private Expression readExpression() throws IOException {
+        int tag = in.readByte();
+        switch (tag) {
+            case NULL:
+                return null;
+            case TRUE:
+                return AST.TRUE;
+            case FALSE:
+                return AST.FALSE;
+            case INTEGER:
+                return AST.integer(in.readInt());
+            case REAL:
+                return AST.real(in.readFloat());
+            case STRING:
+                return AST.string(readString());
+            case NOT:
+                return AST.not(readExpression());
+            case TUPLE:
+                return AST.tuple(readExpressions());
+            case INT_TUPLE2:
+                Expression.Integer element1 = (Expression.Integer) readExpression();
+                return AST.intTuple2(element1, (Expression.Integer) readExpression());
+            case NAME:
+                String name = readString();
+                return AST.var(name, in.readInt());
+            case CALL:
+                return readCall(readString(), readExpressions());
+            case ASSIGNMENT:
+                String id = readString();
+                int i = in.readInt();
+                return AST.assign(id, i, readExpression());
+            case LSHIFT_AND_EQ_ZERO:
+                return AST.lShiftANDEqZero(readExpression(), readExpression());
+            case OR_INDENT:
+                return AST.orIndent(readExpression(), readExpression(), readExpression(), readExpression());
+            case AND_INDENT:
+                return AST.andIndent(readExpression(), readExpression(), readExpression(), in.readBoolean());
+            case OR:
+                return AST.or(readExpression(), readExpression());
+            case AND:
+                return AST.and(readExpression(), readExpression());
+            case LESS:
+                return AST.less(readExpression(), readExpression());
+            case LESS_THAN_EQUAL:
+                return AST.lessEq(readExpression(), readExpression());
+            case GREATER:
+                return AST.greater(readExpression(), readExpression());
+            case GREATER_THAN_EQUAL:
+                return AST.greaterEq(readExpression(), readExpression());
+            case EQUAL:
+                return AST.equal(readExpression(), readExpression());
+            case NOT_EQUAL:
+                return AST.notEqual(readExpression(), readExpression());
+            case ADD:
+                return AST.add(readExpression(), readExpression());
+            case SUBTRACT:
+                return AST.subtract(readExpression(), readExpression());
+            case MULTIPLY:
+                return AST.multiply(readExpression(), readExpression());
+            case DIVIDE:
+                return AST.divide(readExpression(), readExpression());
+            case LEFT_EXTENT:
+                return AST.lExt(readString());
+            case RIGHT_EXTENT:
+                return AST.rExt(readString());
+            case YIELD:
+                String label = readString();
+                return AST.yield(label, in.readInt());
+            case VAL:
+                return AST.val(readString());
+            case END_OF_FILE:
+                return AST.endOfFile(readExpression());
+            case EXPRESSION_IF_THEN_ELSE:
+                return AST.ifThenElse(readExpression(), readExpression(), readExpression());
+            default:
+                throw new IOException("Unknown expression tag " + tag);
+        }
+    }
+
+    private static Expression readCall(String function, Expression[] args) throws IOException {
+        switch (function) {
+            case "Println": return AST.println(args);
+            case "Assert": return AST.assertion(args);
+            case "Set": return AST.set(args);
+            case "Indent": return AST.indent(args[0]);
+            case "PPDeclare": return AST.ppDeclare(args[0], args[1]);
+            case "PPLookup": return AST.ppLookup(args[0]);
+            case "EndsWith": return AST.endsWith(args[0], args[1]);
+            case "StartsWith": return AST.startsWith(args);
+            case "Neg": return AST.neg(args[0]);
+            case "Len": return AST.len(args[0]);
+            case "Pr1": return AST.pr1(args[0], args[1], args[2]);
+            case "Pr2": return AST.pr2(args[0], args[1], Arrays.copyOfRange(args, 2, args.length));
+            case "Pr3": return AST.pr3(args[0], args[1]);
+            case "Min": return AST.min(args[0], args[1]);
+            case "Map": return AST.map();
+            case "Put": return AST.put(args[0], args[1]);
+            case "Put3": return AST.put(args[0], args[1], args[2]);
+            case "Contains": return AST.contains(args[0], args[1]);
+            case "Push": return AST.push(args[0], args[1]);
+            case "Pop": return AST.pop(args[0]);
+            case "Top": return AST.top(args[0]);
+            case "Find": return AST.find(args[0], args[1]);
+            case "Get": return AST.get(args[0], ((Expression.Integer) args[1]).getValue());
+            case "Get2": return AST.get(args[0], args[1]);
+            case "Shift": return AST.shift(args[0], args[1]);
+            case "Undef": return AST.undef();
+            default: throw new IOException("Unknown function " + function);
+        }
+    }
+
+    private Map<String, Set<String>> readStringSets() throws IOException {
+        int count = in.readInt();
+        if (count < 0) return null;
+
+        Map<String, Set<String>> map = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            map.put(readString(), readStringSet());
+        }
+        return map;
+    }
+
+    private Set<String> readStringSet() throws IOException {
+        List<String> strings = readStrings();
+        return strings == null ? null : new LinkedHashSet<>(strings);
+    }
+
+    private List<String> readStrings() throws IOException {
+        int count = in.readInt();
+        if (count < 0) return null;
+
+        List<String> strings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            strings.add(readString());
+        }
+        return strings;
+    }
+
+    private Integer[] readIntegers() throws IOException {
+        int count = in.readInt();
+        if (count < 0) return null;
+
+        Integer[] integers = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            integers[i] = in.readInt();
+        }
+        return integers;
+    }
+
+    private <E extends Enum<E>> E readEnum(E[] values) throws IOException {
+        int ordinal = in.readByte();
+        if (ordinal < 0) return null;
+        if (ordinal >= values.length) throw new IOException("Unknown value " + ordinal + " of " + values[0].getClass());
+        return values[ordinal];
+    }
+
+    private String readString() throws IOException {
+        int index = in.readInt();
+        if (index == -1) return null;
+        if (index != NEW_STRING) {
+            if (index < 0 || index >= strings.size()) throw new IOException("Unknown string " + index);
+            return strings.get(index);
+        }
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        String s = new String(bytes, StandardCharsets.UTF_8);
+        strings.add(s);
+        return s;
+    }
+}
@@ -0,0 +1,596 @@
+package org.iguana.util.serialization;
+
+import org.iguana.datadependent.ast.AST;
+import org.iguana.datadependent.ast.Expression;
+import org.iguana.datadependent.ast.Statement;
+import org.iguana.datadependent.ast.VariableDeclaration;
+import org.iguana.grammar.condition.Condition;
+import org.iguana.grammar.condition.DataDependentCondition;
+import org.iguana.grammar.condition.PositionalCondition;
+import org.iguana.grammar.condition.RegularExpressionCondition;
+import org.iguana.grammar.runtime.AssociativityGroup;
+import org.iguana.grammar.runtime.PrecedenceLevel;
+import org.iguana.grammar.runtime.RuntimeGrammar;
+import org.iguana.grammar.runtime.RuntimeRule;
+import org.iguana.grammar.symbol.Align;
+import org.iguana.grammar.symbol.Alt;
+import org.iguana.grammar.symbol.Code;
+import org.iguana.grammar.symbol.CodeHolder;
+import org.iguana.grammar.symbol.Conditional;
+import org.iguana.grammar.symbol.Error;
+import org.iguana.grammar.symbol.Group;
+import org.iguana.grammar.symbol.Identifier;
+import org.iguana.grammar.symbol.IfThenElse;
+import org.iguana.grammar.symbol.Ignore;
+import org.iguana.grammar.symbol.Nonterminal;
+import org.iguana.grammar.symbol.Offside;
+import org.iguana.grammar.symbol.Opt;
+import org.iguana.grammar.symbol.Plus;
+import org.iguana.grammar.symbol.Return;
+import org.iguana.grammar.symbol.Star;
+import org.iguana.grammar.symbol.Start;
+import org.iguana.grammar.symbol.Symbol;
+import org.iguana.grammar.symbol.Terminal;
+import org.iguana.regex.Char;
+import org.iguana.regex.CharRange;
+import org.iguana.regex.EOF;
+import org.iguana.regex.Epsilon;
+import org.iguana.regex.Reference;
+import org.iguana.regex.RegularExpression;
+import org.iguana.regex.Seq;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes a runtime grammar in a binary format that is read by {@link GrammarDataInput}. Unlike the JSON of
+ * {@link JsonSerializer}, reading the binary format does not need reflection or a type name per object: each object
+ * is written as a tag followed by its fields, and each string is written once and referred to by its index
+ * afterwards. As in the JSON, the attributes of rules and symbols are not written.
+ */
+public class GrammarDataOutput {
+
+    static final int NULL = 0;
+
+    // Symbols
+    static final int NONTERMINAL = 1;
+    static final int TERMINAL = 2;
+    static final int STAR = 3;
+    static final int PLUS = 4;
+    static final int OPT = 5;
+    static final int ALT = 6;
+    static final int GROUP = 7;
+    static final int START = 8;
+    static final int IDENTIFIER = 9;
+    static final int CODE = 10;
+    static final int CODE_HOLDER = 11;
+    static final int CONDITIONAL = 12;
+    static final int RETURN = 13;
+    static final int IF_THEN_ELSE = 14;
+    static final int OFFSIDE = 15;
+    static final int ALIGN = 16;
+    static final int IGNORE = 17;
+    static final int ERROR = 18;
+
+    // Regular expressions
+    static final int REGEX_SEQ = 1;
+    static final int REGEX_ALT = 2;
+    static final int REGEX_STAR = 3;
+    static final int REGEX_PLUS = 4;
+    static final int REGEX_OPT = 5;
+    static final int CHAR = 6;
+    static final int CHAR_RANGE = 7;
+    static final int REFERENCE = 8;
+    static final int EPSILON = 9;
+    static final int EOF_REGEX = 10;
+
+    // Conditions
+    static final int REGULAR_EXPRESSION_CONDITION = 1;
+    static final int DATA_DEPENDENT_CONDITION = 2;
+    static final int POSITIONAL_CONDITION = 3;
+
+    // Expressions
+    static final int TRUE = 1;
+    static final int FALSE = 2;
+    static final int INTEGER = 3;
+    static final int REAL = 4;
+    static final int STRING = 5;
+    static final int NOT = 6;
+    static final int TUPLE = 7;
+    static final int INT_TUPLE2 = 8;
+    static final int NAME = 9;
+    static final int CALL = 10;
+    static final int ASSIGNMENT = 11;
+    static final int LSHIFT_AND_EQ_ZERO = 12;
+    static final int OR_INDENT = 13;
+    static final int AND_INDENT = 14;
+    static final int OR = 15;
+    static final int AND = 16;
+    static final int LESS = 17;
+    static final int LESS_THAN_EQUAL = 18;
+    static final int GREATER = 19;
+    static final int GREATER_THAN_EQUAL = 20;
+    static final int EQUAL = 21;
+    static final int NOT_EQUAL = 22;
+    static final int ADD = 23;
+    static final int SUBTRACT = 24;
+    static final int MULTIPLY = 25;
+    static final int DIVIDE = 26;
+    static final int LEFT_EXTENT = 27;
+    static final int RIGHT_EXTENT = 28;
+    static final int YIELD = 29;
+    static final int VAL = 30;
+    static final int END_OF_FILE = 31;
+    static final int EXPRESSION_IF_THEN_ELSE = 32;
+
+    // Statements
+    static final int EXPRESSION_STATEMENT = 1;
+    static final int VARIABLE_DECLARATION_STATEMENT = 2;
+
+    // The index of a string that is not written before, and is followed by its bytes
+    static final int NEW_STRING = -2;
+
+    private final DataOutputStream out;
+
+    private final Map<String, Integer> strings = new HashMap<>();
+
+    public GrammarDataOutput(DataOutputStream out) {
+        this.out = out;
+    }
+
+    public void writeGrammar(RuntimeGrammar grammar) throws IOException {
+        writeString(grammar.getName());
+        writeSymbol(grammar.getLayout());
+        out.writeInt(grammar.getRules().size());
+        for (RuntimeRule rule : grammar.getRules()) {
+            writeRule(rule);
+        }
+        writeRegularExpressions(grammar.getRegularExpressionDefinitions());
+        writeRegularExpressions(grammar.getLiterals());
+        writeSymbols(grammar.getStartSymbols());
+        writeStringSets(grammar.getEBNFLefts());
+        writeStringSets(grammar.getEBNFRights());
+
+        Map<String, Expression> globals = grammar.getGlobals();
+        out.writeInt(globals == null ? -1 : globals.size());
+        if (globals != null) {
+            for (Map.Entry<String, Expression> entry : globals.entrySet()) {
+                writeString(entry.getKey());
+                writeExpression(entry.getValue());
+            }
+        }
+    }
+
+    private void writeRule(RuntimeRule rule) throws IOException {
+        writeSymbol(rule.getHead());
+        writeSymbols(rule.getBody());
+        writeSymbol(rule.getLayout());
+        writeEnum(rule.getLayoutStrategy());
+        writeEnum(rule.getRecursion());
+        writeEnum(rule.getIRecursion());
+        writeString(rule.getLeftEnd());
+        writeString(rule.getRightEnd());
+        writeStrings(rule.getLeftEnds());
+        writeStrings(rule.getRightEnds());
+        writeEnum(rule.getAssociativity());
+        writeAssociativityGroup(rule.getAssociativityGroup());
+        out.writeInt(rule.getPrecedence());
+        writePrecedenceLevel(rule.getPrecedenceLevel());
+        writeString(rule.getLabel());
+        writeSymbol(rule.getDefinition());
+    }
+
+    private void writePrecedenceLevel(PrecedenceLevel level) throws IOException {
+        out.writeBoolean(level != null);
+        if (level == null) return;
+
+        out.writeInt(level.getLhs());
+        out.writeInt(level.getRhs());
+        out.writeInt(level.getUndefined());
+        out.writeBoolean(level.hasPrefixUnary());
+        out.writeBoolean(level.hasPostfixUnary());
+        out.writeBoolean(level.hasPrefixUnaryBelow());
+        writeIntegers(level.prefixUnaryBelow);
+        out.writeBoolean(level.hasPostfixUnaryBelow());
+        writeIntegers(level.postfixUnaryBelow);
+    }
+
+    private void writeAssociativityGroup(AssociativityGroup group) throws IOException {
+        out.writeBoolean(group != null);
+        if (group == null) return;
+
+        writeEnum(group.getAssociativity());
+        writePrecedenceLevel(group.getPrecedenceLevel());
+        out.writeInt(group.getLhs());
+        out.writeInt(group.getRhs());
+        out.writeInt(group.getPrecedence());
+    }
+
+    private void writeSymbols(List<? extends Symbol> symbols) throws IOException {
+        out.writeInt(symbols == null ? -1 : symbols.size());
+        if (symbols == null) return;
+
+        for (Symbol symbol : symbols) {
+            writeSymbol(symbol);
+        }
+    }
+
+    private void writeSymbol(Symbol symbol) throws IOException {
+        if (symbol == null) {
+            out.writeByte(NULL);
+            return;
+        }
+        if (symbol instanceof CodeHolder) {
+            out.writeByte(CODE_HOLDER);
+            writeStatement(((CodeHolder) symbol).statement);
+            return;
+        }
+        if (symbol instanceof Error) {
+            out.writeByte(ERROR);
+            return;
+        }
+
+        out.writeByte(getTag(symbol));
+        writeString(symbol.getName());
+        writeString(symbol.getLabel());
+        writeConditions(symbol.getPreConditions());
+        writeConditions(symbol.getPostConditions());
+
+        if (symbol instanceof Nonterminal) {
+            Nonterminal nonterminal = (Nonterminal) symbol;
+            out.writeInt(nonterminal.getIndex());
+            out.writeBoolean(nonterminal.isEbnfList());
+            writeString(nonterminal.getVariable());
+            writeStrings(nonterminal.getState());
+            writeStrings(nonterminal.getParameters());
+            writeExpressions(nonterminal.getArguments());
+            writeStrings(nonterminal.getExcepts());
+            writeEnum(nonterminal.getNodeType());
+        } else if (symbol instanceof Terminal) {
+            Terminal terminal = (Terminal) symbol;
+            writeRegularExpression(terminal.getRegularExpression());
+            writeEnum(terminal.getNodeType());
+        } else if (symbol instanceof Star) {
+            writeSymbol(((Star) symbol).getSymbol());
+            writeSymbols(((Star) symbol).getSeparators());
+        } else if (symbol instanceof Plus) {
+            writeSymbol(((Plus) symbol).getSymbol());
+            writeSymbols(((Plus) symbol).getSeparators());
+        } else if (symbol instanceof Opt) {
+            writeSymbol(((Opt) symbol).getSymbol());
+        } else if (symbol instanceof Alt) {
+            writeSymbols(((Alt) symbol).getSymbols());
+        } else if (symbol instanceof Group) {
+            writeSymbols(((Group) symbol).getSymbols());
+        } else if (symbol instanceof Start) {
+            writeString(((Start) symbol).getStartSymbol());
+        } else if (symbol instanceof Identifier) {
+            writeStrings(((Identifier) symbol).getExcepts());
+        } else if (symbol instanceof Code) {
+            Code code = (Code) symbol;
+            writeSymbol(code.getSymbol());
+            out.writeInt(code.getStatements().length);
+            for (Statement statement : code.getStatements()) {
+                writeStatement(statement);
+            }
+        } else if (symbol instanceof Conditional) {
+            writeSymbol(((Conditional) symbol).getSymbol());
+            writeExpression(((Conditional) symbol).getExpression());
+        } else if (symbol instanceof Return) {
+            writeExpression(((Return) symbol).getExpression());
+        } else if (symbol instanceof IfThenElse) {
+            IfThenElse ifThenElse = (IfThenElse) symbol;
+            writeExpression(ifThenElse.getExpression());
+            writeSymbol(ifThenElse.getThenPart());
+            writeSymbol(ifThenElse.getElsePart());
+        } else if (symbol instanceof Offside) {
+            writeSymbol(((Offside) symbol).getSymbol());
+        } else if (symbol instanceof Align) {
+            writeSymbol(((Align) symbol).getSymbol());
+        } else if (symbol instanceof Ignore) {
+            writeSymbol(((Ignore) symbol).getSymbol());
+        }
+    }
+
+    private static int getTag(Symbol symbol) throws IOException {
+        if (symbol instanceof Nonterminal) return NONTERMINAL;
+        if (symbol instanceof Terminal) return TERMINAL;
+        if (symbol instanceof Star) return STAR;
+        if (symbol instanceof Plus) return PLUS;
+        if (symbol instanceof Opt) return OPT;
+        if (symbol instanceof Alt) return ALT;
+        if (symbol instanceof Group) return GROUP;
+        if (symbol instanceof Start) return START;
+        if (symbol instanceof Identifier) return IDENTIFIER;
+        if (symbol instanceof Code) return CODE;
+        if (symbol instanceof Conditional) return CONDITIONAL;
+        if (symbol instanceof Return) return RETURN;
+        if (symbol instanceof IfThenElse) return IF_THEN_ELSE;
+        if (symbol instanceof Offside) return OFFSIDE;
+        if (symbol instanceof Align) return ALIGN;
+        if (symbol instanceof Ignore) return IGNORE;
+        throw new IOException("Cannot write the symbol " + symbol + " of type " + symbol.getClass().getSimpleName());
+    }
+
+    private void writeConditions(List<Condition> conditions) throws IOException {
+        out.writeInt(conditions.size());
+        for (Condition condition : conditions) {
+            if (condition instanceof RegularExpressionCondition) {
+                out.writeByte(REGULAR_EXPRESSION_CONDITION);
+                writeEnum(condition.getType());
+                writeRegularExpression(((RegularExpressionCondition) condition).getRegularExpression());
+            } else if (condition instanceof DataDependentCondition) {
+                out.writeByte(DATA_DEPENDENT_CONDITION);
+                writeExpression(((DataDependentCondition) condition).getExpression());
+            } else if (condition instanceof PositionalCondition) {
+                out.writeByte(POSITIONAL_CONDITION);
+                writeEnum(condition.getType());
+            } else {
+                throw new IOException("Cannot write the condition " + condition);
+            }
+        }
+    }
+
+    private void writeRegularExpressions(Map<String, RegularExpression> regularExpressions) throws IOException {
+        out.writeInt(regularExpressions == null ? -1 : regularExpressions.size());
+        if (regularExpressions == null) return;
+
+        for (Map.Entry<String, RegularExpression> entry : regularExpressions.entrySet()) {
+            writeString(entry.getKey());
+            writeRegularExpression(entry.getValue());
+        }
+    }
+
+    private void writeRegularExpressions(List<? extends RegularExpression> regularExpressions) throws IOException {
+        out.writeInt(regularExpressions.size());
+        for (RegularExpression regex : regularExpressions) {
+            writeRegularExpression(regex);
+        }
+    }
+
+    public void writeRegularExpression(RegularExpression regex) throws IOException {
+        if (regex == null) {
+            out.writeByte(NULL);
+            return;
+        }
+        if (regex == Epsilon.getInstance()) {
+            out.writeByte(EPSILON);
+            return;
+        }
+        if (regex == EOF.getInstance()) {
+            out.writeByte(EOF_REGEX);
+            return;
+        }
+
+        if (regex instanceof Seq) {
+            out.writeByte(REGEX_SEQ);
+            writeRegularExpressions(((Seq<?>) regex).getSymbols());
+        } else if (regex instanceof org.iguana.regex.Alt) {
+            out.writeByte(REGEX_ALT);
+            writeRegularExpressions(((org.iguana.regex.Alt<?>) regex).getSymbols());
+        } else if (regex instanceof org.iguana.regex.Star) {
+            out.writeByte(REGEX_STAR);
+            writeRegularExpression(((org.iguana.regex.Star) regex).getSymbol());
+            writeRegularExpressions(((org.iguana.regex.Star) regex).getSeparators());
+        } else if (regex instanceof org.iguana.regex.Plus) {
+            out.writeByte(REGEX_PLUS);
+            writeRegularExpression(((org.iguana.regex.Plus) regex).getSymbol());
+            writeRegularExpressions(((org.iguana.regex.Plus) regex).getSeparators());
+        } else if (regex instanceof org.iguana.regex.Opt) {
+            out.writeByte(REGEX_OPT);
+            writeRegularExpression(((org.iguana.regex.Opt) regex).getSymbol());
+        } else if (regex instanceof Char) {
+            out.writeByte(CHAR);
+            out.writeInt(((Char) regex).getValue());
+        } else if (regex instanceof CharRange) {
+            out.writeByte(CHAR_RANGE);
+            out.writeInt(((CharRange) regex).getStart());
+            out.writeInt(((CharRange) regex).getEnd());
+        } else if (regex instanceof Reference) {
+            out.writeByte(REFERENCE);
+            writeString(((Reference) regex).getName());
+        } else {
+            throw new IOException("Cannot write the regular expression " + regex);
+        }
+        writeCharRanges(regex.getLookaheads());
+        writeCharRanges(regex.getLookbehinds());
+    }
+
+    /**
+     * Writes a set of character ranges as the start and end of each range.
+     */
+    public void writeCharRanges(Set<CharRange> ranges) throws IOException {
+        out.writeInt(ranges == null ? -1 : ranges.size());
+        if (ranges == null) return;
+
+        for (CharRange range : ranges) {
+            out.writeInt(range.getStart());
+            out.writeInt(range.getEnd());
+        }
+    }
+
+    private void writeStatement(Statement statement) throws IOException {
+        if (statement instanceof Statement.Expression) {
+            out.writeByte(EXPRESSION_STATEMENT);
+            writeExpression(((Statement.Expression) statement).getExpression());
+        } else if (statement instanceof Statement.VariableDeclaration) {
+            VariableDeclaration declaration = ((Statement.VariableDeclaration) statement).getDeclaration();
+            out.writeByte(VARIABLE_DECLARATION_STATEMENT);
+            writeString(declaration.getName());
+            out.writeInt(declaration.getI());
+            writeExpression(declaration.getExpression());
+        } else {
+            throw new IOException("Cannot write the statement " + statement);
+        }
+    }
+
+    private void writeExpressions(Expression[] expressions) throws IOException {
+        out.writeInt(expressions == null ? -1 : expressions.length);
+        if (expressions == null) return;
+
+        for (Expression expression : expressions) {
+            writeExpression(expression);
+        }
+    }
+
+    private void writeExpression(Expression expression) throws IOException {
+        if (expression == null) {
+            out.writeByte(NULL);
+        } else if (expression == AST.TRUE) {
+            out.writeByte(TRUE);
+        } else if (expression == AST.FALSE) {
+            out.writeByte(FALSE);
+        } else if (expression instanceof Expression.Integer) {
+            out.writeByte(INTEGER);
+            out.writeInt(((Expression.Integer) expression).getValue());
+        } else if (expression instanceof Expression.Real) {
+            out.writeByte(REAL);
+            out.writeFloat(((Expression.Real) expression).getValue());
+        } else if (expression instanceof Expression.String) {
+            out.writeByte(STRING);
+            writeString(((Expression.String) expression).getValue());
+        } else if (expression instanceof Expression.Not) {
+            out.writeByte(NOT);
+            writeExpression(((Expression.Not) expression).getExp());
+        } else if (expression instanceof Expression.Tuple) {
+            out.writeByte(TUPLE);
+            writeExpressions(((Expression.Tuple) expression).getElements());
+        } else if (expression instanceof Expression.IntTuple2) {
+            out.writeByte(INT_TUPLE2);
+            writeExpression(((Expression.IntTuple2) expression).getElement1());
+            writeExpression(((Expression.IntTuple2) expression).getElement2());
+        } else if (expression instanceof Expression.Name) {
+            out.writeByte(NAME);
+            writeString(((Expression.Name) expression).getName());
+            out.writeInt(((Expression.Name) expression).getI());
+        } else if (expression instanceof Expression.Call) {
+            // The calls are identified by their class, as the functions get and get2 have the same name
+            out.writeByte(CALL);
+            writeString(expression.getClass().getSimpleName());
+            writeExpressions(((Expression.Call) expression).getArguments());
+        } else if (expression instanceof Expression.Assignment) {
+            Expression.Assignment assignment = (Expression.Assignment) expression;
+            out.writeByte(ASSIGNMENT);
+            writeString(assignment.getId());
+            out.writeInt(assignment.getI());
+            writeExpression(assignment.getExpression());
+        } else if (expression instanceof Expression.LShiftANDEqZero) {
+            out.writeByte(LSHIFT_AND_EQ_ZERO);
+            writeExpression(((Expression.LShiftANDEqZero) expression).getLhs());
+            writeExpression(((Expression.LShiftANDEqZero) expression).getRhs());
+        } else if (expression instanceof Expression.OrIndent) {
+            Expression.OrIndent orIndent = (Expression.OrIndent) expression;
+            out.writeByte(OR_INDENT);
+            writeExpression(orIndent.getIndex());
+            writeExpression(orIndent.getIndent());
+            writeExpression(orIndent.getFirst());
+            writeExpression(orIndent.getLExt());
+        } else if (expression instanceof Expression.AndIndent) {
+            Expression.AndIndent andIndent = (Expression.AndIndent) expression;
+            out.writeByte(AND_INDENT);
+            writeExpression(andIndent.getIndex());
+            writeExpression(andIndent.getFirst());
+            writeExpression(andIndent.getLExt());
+            out.writeBoolean(andIndent.isReturnIndex());
+        } else if (expression instanceof Expression.BinaryExpression) {
+            out.writeByte(getTag((Expression.BinaryExpression) expression));
+            writeExpression(((Expression.BinaryExpression) expression).getLhs());
+            writeExpression(((Expression.BinaryExpression) expression).getRhs());
+        } else if (expression instanceof Expression.LeftExtent) {
+            out.writeByte(LEFT_EXTENT);
+            writeString(((Expression.LeftExtent) expression).getLabel());
+        } else if (expression instanceof Expression.RightExtent) {
+            out.writeByte(RIGHT_EXTENT);
+            writeString(((Expression.RightExtent) expression).getLabel());
+        } else if (expression instanceof Expression.Yield) {
+            out.writeByte(YIELD);
+            writeString(((Expression.Yield) expression).getLabel());
+            out.writeInt(((Expression.Yield) expression).getI());
+        } else if (expression instanceof Expression.Val) {
+            out.writeByte(VAL);
+            writeString(((Expression.Val) expression).getLabel());
+        } else if (expression instanceof Expression.EndOfFile) {
+            out.writeByte(END_OF_FILE);
+            writeExpression(((Expression.EndOfFile) expression).getIndex());
+        } else if (expression instanceof Expression.IfThenElse) {
+            Expression.IfThenElse ifThenElse = (Expression.IfThenElse) expression;
+            out.writeByte(EXPRESSION_IF_THEN_ELSE);
+            writeExpression(ifThenElse.getCondition());
+            writeExpression(ifThenElse.getThenPart());
+            writeExpression(ifThenElse.getElsePart());
+        } else {
+            throw new IOException("Cannot write the expression " + expression);
+        }
+    }
+
+    private static int getTag(Expression.BinaryExpression expression) throws IOException {
+        if (expression instanceof Expression.Or) return OR;
+        if (expression instanceof Expression.And) return AND;
+        if (expression instanceof Expression.Less) return LESS;
+        if (expression instanceof Expression.LessThanEqual) return LESS_THAN_EQUAL;
+        if (expression instanceof Expression.Greater) return GREATER;
+        if (expression instanceof Expression.GreaterThanEqual) return GREATER_THAN_EQUAL;
+        if (expression instanceof Expression.Equal) return EQUAL;
+        if (expression instanceof Expression.NotEqual) return NOT_EQUAL;
+        if (expression instanceof Expression.Add) return ADD;
+        if (expression instanceof Expression.Subtract) return SUBTRACT;
+        if (expression instanceof Expression.Multiply) return MULTIPLY;
+        if (expression instanceof Expression.Divide) return DIVIDE;
+        throw new IOException("Cannot write the expression " + expression);
+    }
+
+    private void writeStringSets(Map<String, Set<String>> map) throws IOException {
+        out.writeInt(map == null ? -1 : map.size());
+        if (map == null) return;
+
+        for (Map.Entry<String, Set<String>> entry : map.entrySet()) {
+            writeString(entry.getKey());
+            writeStrings(entry.getValue());
+        }
+    }
+
+    private void writeStrings(Collection<String> strings) throws IOException {
+        out.writeInt(strings == null ? -1 : strings.size());
+        if (strings == null) return;
+
+        for (String s : strings) {
+            writeString(s);
+        }
+    }
+
+    private void writeIntegers(Integer[] integers) throws IOException {
+        out.writeInt(integers == null ? -1 : integers.length);
+        if (integers == null) return;
+
+        for (Integer integer : integers) {
+            out.writeInt(integer);
+        }
+    }
+
+    private void writeEnum(Enum<?> value) throws IOException {
+        out.writeByte(value == null ? -1 : value.ordinal());
+    }
+
+    private void writeString(String s) throws IOException {
+        if (s == null) {
+            out.writeInt(-1);
+            return;
+        }
+        Integer index = strings.get(s);
+        if (index != null) {
+            out.writeInt(index);
+            return;
+        }
+        strings.put(s, strings.size());
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(NEW_STRING);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+}
@@ -79,6 +79,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -106,6 +107,7 @@ public class JsonSerializer {
 
         mapper.addMixIn(Symbol.class, SymbolMixIn.class);
         mapper.addMixIn(Nonterminal.class, NonterminalMixIn.class);
+        mapper.addMixIn(Nonterminal.Builder.class, NonterminalBuilderMixIn.class);
         mapper.addMixIn(Terminal.class, TerminalMixIn.class);
         mapper.addMixIn(Star.class, StarMixIn.class);
         mapper.addMixIn(Plus.class, PlusMixIn.class);
@@ -517,6 +519,12 @@ public class JsonSerializer {
         }
     }
 
+    abstract static class NonterminalBuilderMixIn {
+        // The state of a nonterminal is an ordered tuple of variables, a HashSet would reorder them
+        @JsonDeserialize(as = LinkedHashSet.class)
+        Set<String> state;
+    }
+
     @JsonDeserialize(builder = Star.Builder.class)
     abstract static class StarMixIn extends AbstractSymbolMixIn {}
 
@@ -1,6 +1,7 @@
 package org.iguana.util.serialization;
 
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.util.DefaultIndenter;
 import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
@@ -43,6 +44,7 @@ public class ParseStatisticsSerializer {
     }
 
     @JsonDeserialize(builder = ParseStatistics.Builder.class)
+    @JsonIgnoreProperties({"peakWorklistSize"})
     abstract static class ParseStatisticsMixIn {
     }
 
@@ -46,7 +46,7 @@ public class RecognizerStatisticsSerializer {
     }
 
     @JsonDeserialize(builder = RecognizerStatistics.Builder.class)
-    @JsonIgnoreProperties(ignoreUnknown = true)
+    @JsonIgnoreProperties(value = {"peakWorklistSize"}, ignoreUnknown = true)
     abstract static class RecognizerStatisticsMixIn {
     }
 
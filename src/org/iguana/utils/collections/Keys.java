@@ -5,6 +5,7 @@ import org.iguana.utils.collections.key.IntArrayKey;
 import org.iguana.utils.collections.key.IntIntIntObjectKey;
 import org.iguana.utils.collections.key.IntIntObjectKey;
 import org.iguana.utils.collections.key.IntKey1;
+import org.iguana.utils.collections.key.IntKey2;
 import org.iguana.utils.collections.key.IntKey3;
 import org.iguana.utils.collections.key.IntKey4;
 import org.iguana.utils.collections.key.IntObjectKey;
@@ -19,7 +20,7 @@ import org.iguana.utils.function.IntFunction4;
 public class Keys {
 
     public static Key from(int a, int b) {
-        return from(a, b);
+        return new IntKey2(a, b);
     }
 
     public static Key from(int a) {
@@ -185,6 +185,39 @@ public class OpenAddressingHashMap<K, T> implements Map<K, T> {
         return sb.toString();
     }
 
+    /**
+     * Returns the average number of slots that are probed to find a key in the map, which is 1 if no keys collide.
+     * Computed by looking up all the keys, and meant for diagnosing the distribution of the hash codes of keys.
+     */
+    public double getAverageProbeLength() {
+        if (size == 0) return 0;
+        long total = 0;
+        for (K key : keys) {
+            if (key != null) total += probeLength(key);
+        }
+        return (double) total / size;
+    }
+
+    /**
+     * Returns the largest number of slots that are probed to find a key in the map.
+     */
+    public int getMaxProbeLength() {
+        int max = 0;
+        for (K key : keys) {
+            if (key != null) max = Math.max(max, probeLength(key));
+        }
+        return max;
+    }
+
+    private int probeLength(Object key) {
+        int j = 0;
+        int index = hash(key, j);
+        while (!keys[index].equals(key)) {
+            index = hash(key, ++j);
+        }
+        return j + 1;
+    }
+
     private int hash(Object key, int j) {
         return (key.hashCode() + j) & bitMask;
     }
@@ -216,6 +249,7 @@ public class OpenAddressingHashMap<K, T> implements Map<K, T> {
         for (int i = 0; i < keys.length; i++) {
             final K key = keys[i];
             final T value = values[i];
+            if (key == null) continue;
 
             entrySet.add(new Entry<K, T>() {
                 @Override
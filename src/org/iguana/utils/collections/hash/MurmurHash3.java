@@ -40,171 +40,110 @@ public class MurmurHash3 {
     private static final int M = 5;
     private static final int N = 0xe6546b64;
 
+    private static final int DEFAULT_SEED = 19;
+
+    private static final IntFunction2 F2 = f2(DEFAULT_SEED);
+    private static final IntFunction3 F3 = f3(DEFAULT_SEED);
+    private static final IntFunction4 F4 = f4(DEFAULT_SEED);
+    private static final IntFunction5 F5 = f5(DEFAULT_SEED);
+    private static final IntFunctionAny FN = fn(DEFAULT_SEED);
+
     public static IntFunction2 f2() {
-        return f2(19);
+        return F2;
     }
 
     public static IntFunction2 f2(int seed) {
-        return (a, b) -> {
-            int h = seed;
-
-            int k = a;
-            k = mixK(k);
-            h = mixH(h, k);
-
-            k = b;
-            k = mixK(k);
-            h = mixH(h, k);
-
-            // finalizing
-            h ^= 2;
-
-            h ^= h >>> 16;
-            h *= 0x85ebca6b;
-            h ^= h >>> 13;
-            h *= 0xc2b2ae35;
-            h ^= h >>> 16;
-
-            return h;
-        };
+        return (a, b) -> seededHash(seed, a, b);
     }
 
     public static IntFunction3 f3() {
-        return f3(19);
+        return F3;
     }
 
     public static IntFunction3 f3(int seed) {
-        return (a, b, c) -> {
-            int h = seed;
-
-            int k = a;
-            k = mixK(k);
-            h = mixH(h, k);
-
-            k = b;
-            k = mixK(k);
-            h = mixH(h, k);
-
-            k = c;
-            k = mixK(k);
-            h = mixH(h, k);
-
-            // finalizing
-            h ^= 3;
-
-            h ^= h >>> 16;
-            h *= 0x85ebca6b;
-            h ^= h >>> 13;
-            h *= 0xc2b2ae35;
-            h ^= h >>> 16;
-
-            return h;
-        };
+        return (a, b, c) -> seededHash(seed, a, b, c);
     }
 
     public static IntFunction4 f4() {
-        return f4(19);
+        return F4;
     }
 
     public static IntFunction4 f4(int seed) {
-        return (a, b, c, d) -> {
-            int h = seed;
-
-            int k = a;
-            k = mixK(k);
-            h = mixH(h, k);
-
-            k = b;
-            k = mixK(k);
-            h = mixH(h, k);
-
-            k = c;
-            k = mixK(k);
-            h = mixH(h, k);
-
-            k = d;
-            k = mixK(k);
-            h = mixH(h, k);
-
-            // finalizing
-            h ^= 4;
-
-            h ^= h >>> 16;
-            h *= 0x85ebca6b;
-            h ^= h >>> 13;
-            h *= 0xc2b2ae35;
-            h ^= h >>> 16;
-
-            return h;
-        };
+        return (a, b, c, d) -> seededHash(seed, a, b, c, d);
     }
 
     public static IntFunction5 f5() {
-        return f5(19);
+        return F5;
     }
 
     public static IntFunction5 f5(int seed) {
         return (a, b, c, d, e) -> {
             int h = seed;
-
-            int k = a;
-            k = mixK(k);
-            h = mixH(h, k);
-
-            k = b;
-            k = mixK(k);
-            h = mixH(h, k);
-
-            k = c;
-            k = mixK(k);
-            h = mixH(h, k);
-
-            k = d;
-            k = mixK(k);
-            h = mixH(h, k);
-
-            k = e;
-            k = mixK(k);
-            h = mixH(h, k);
-
-            // finalizing
-            h ^= 5;
-
-            h ^= h >>> 16;
-            h *= 0x85ebca6b;
-            h ^= h >>> 13;
-            h *= 0xc2b2ae35;
-            h ^= h >>> 16;
-
-            return h;
+            h = mixH(h, mixK(a));
+            h = mixH(h, mixK(b));
+            h = mixH(h, mixK(c));
+            h = mixH(h, mixK(d));
+            h = mixH(h, mixK(e));
+            return fmix(h, 5);
         };
     }
 
     public static IntFunctionAny fn() {
-        return fn(19);
+        return FN;
     }
 
     public static IntFunctionAny fn(int seed) {
         return (Integer... elements) -> {
             int h = seed;
-
-            int k = 0;
             for (int element : elements) {
-                k = element;
-                k = mixK(k);
-                h = mixH(h, k);
+                h = mixH(h, mixK(element));
             }
+            return fmix(h, elements.length);
+        };
+    }
 
-            h ^= elements.length;
+    /**
+     * Hashes the given value with the default seed. The hash methods are used for the hash codes of keys that
+     * are created during parsing.
+     */
+    public static int hash(int a) {
+        return fmix(mixH(DEFAULT_SEED, mixK(a)), 1);
+    }
 
-            h ^= h >>> 16;
-            h *= 0x85ebca6b;
-            h ^= h >>> 13;
-            h *= 0xc2b2ae35;
-            h ^= h >>> 16;
+    public static int hash(int a, int b) {
+        return seededHash(DEFAULT_SEED, a, b);
+    }
 
-            return h;
-        };
+    public static int hash(int a, int b, int c) {
+        return seededHash(DEFAULT_SEED, a, b, c);
+    }
+
+    public static int hash(int a, int b, int c, int d) {
+        return seededHash(DEFAULT_SEED, a, b, c, d);
+    }
+
+    private static int seededHash(int seed, int a, int b) {
+        int h = seed;
+        h = mixH(h, mixK(a));
+        h = mixH(h, mixK(b));
+        return fmix(h, 2);
+    }
+
+    private static int seededHash(int seed, int a, int b, int c) {
+        int h = seed;
+        h = mixH(h, mixK(a));
+        h = mixH(h, mixK(b));
+        h = mixH(h, mixK(c));
+        return fmix(h, 3);
+    }
+
+    private static int seededHash(int seed, int a, int b, int c, int d) {
+        int h = seed;
+        h = mixH(h, mixK(a));
+        h = mixH(h, mixK(b));
+        h = mixH(h, mixK(c));
+        h = mixH(h, mixK(d));
+        return fmix(h, 4);
     }
 
     private static int mixK(int k) {
@@ -220,4 +159,17 @@ public class MurmurHash3 {
         h = h * M + N;
         return h;
     }
+
+    // finalizing
+    private static int fmix(int h, int length) {
+        h ^= length;
+
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+
+        return h;
+    }
 }
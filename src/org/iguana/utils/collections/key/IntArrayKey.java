@@ -1,5 +1,7 @@
 package org.iguana.utils.collections.key;
 
+import org.iguana.utils.collections.hash.MurmurHash3;
+
 import java.util.Arrays;
 
 public class IntArrayKey implements Key {
@@ -28,6 +30,6 @@ public class IntArrayKey implements Key {
 
     @Override
     public int hashCode() {
-        return i * 31 + Arrays.deepHashCode(objects);
+        return MurmurHash3.hash(i, Arrays.deepHashCode(objects));
     }
 }
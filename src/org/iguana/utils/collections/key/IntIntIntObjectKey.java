@@ -1,5 +1,7 @@
 package org.iguana.utils.collections.key;
 
+import org.iguana.utils.collections.hash.MurmurHash3;
+
 public class IntIntIntObjectKey implements Key {
 
     private final int i1;
@@ -25,10 +27,6 @@ public class IntIntIntObjectKey implements Key {
 
     @Override
     public int hashCode() {
-        int hash = i1;
-        hash *= 31 + i2;
-        hash *= 31 + i3;
-        hash *= 31 + object.hashCode();
-        return hash;
+        return MurmurHash3.hash(i1, i2, i3, object.hashCode());
     }
 }
@@ -1,5 +1,7 @@
 package org.iguana.utils.collections.key;
 
+import org.iguana.utils.collections.hash.MurmurHash3;
+
 public class IntIntObjectKey implements Key {
 
     private final int i1;
@@ -23,9 +25,6 @@ public class IntIntObjectKey implements Key {
 
     @Override
     public int hashCode() {
-        int hash = i1;
-        hash *= 31 + i2;
-        hash *= 31 + object.hashCode();
-        return hash;
+        return MurmurHash3.hash(i1, i2, object.hashCode());
     }
 }
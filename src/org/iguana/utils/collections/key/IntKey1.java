@@ -1,5 +1,7 @@
 package org.iguana.utils.collections.key;
 
+import org.iguana.utils.collections.hash.MurmurHash3;
+
 public class IntKey1 implements Key, Comparable<IntKey1> {
 
     private final int k;
@@ -22,7 +24,7 @@ public class IntKey1 implements Key, Comparable<IntKey1> {
 
     @Override
     public int hashCode() {
-        return k;
+        return MurmurHash3.hash(k);
     }
 
 
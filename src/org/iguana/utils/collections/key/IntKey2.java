@@ -27,6 +27,8 @@
 
 package org.iguana.utils.collections.key;
 
+import org.iguana.utils.collections.hash.MurmurHash3;
+
 public class IntKey2 implements Key, Comparable<IntKey2> {
 
     private final int k1;
@@ -51,7 +53,7 @@ public class IntKey2 implements Key, Comparable<IntKey2> {
 
     @Override
     public int hashCode() {
-        return k1 * 31 + k2;
+        return MurmurHash3.hash(k1, k2);
     }
 
     @Override
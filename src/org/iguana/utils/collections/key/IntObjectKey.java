@@ -1,5 +1,7 @@
 package org.iguana.utils.collections.key;
 
+import org.iguana.utils.collections.hash.MurmurHash3;
+
 public class IntObjectKey implements Key {
 
     private final int i;
@@ -21,6 +23,6 @@ public class IntObjectKey implements Key {
 
     @Override
     public int hashCode() {
-        return i * 31 + o.hashCode();
+        return MurmurHash3.hash(i, o.hashCode());
     }
 }
@@ -11,6 +11,14 @@ public class IntKeyEntry<T> {
         this.val = val;
     }
 
+    public int getKey() {
+        return key;
+    }
+
+    public T getValue() {
+        return val;
+    }
+
     @Override
     public String toString() {
         return "(" + key + ", " + val + ")";
@@ -0,0 +1,25 @@
+package org.iguana.utils.collections.primitive;
+
+public class LongKeyEntry<T> {
+
+    private final long key;
+    private final T val;
+
+    public LongKeyEntry(long key, T val) {
+        this.key = key;
+        this.val = val;
+    }
+
+    public long getKey() {
+        return key;
+    }
+
+    public T getValue() {
+        return val;
+    }
+
+    @Override
+    public String toString() {
+        return "(" + key + ", " + val + ")";
+    }
+}
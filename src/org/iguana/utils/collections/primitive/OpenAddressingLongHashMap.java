@@ -0,0 +1,191 @@
+package org.iguana.utils.collections.primitive;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * An open addressing hash map with non-negative long keys, which are stored unboxed, so that lookups do not
+ * allocate. Two int values, such as the left and right extents of a node, can be packed into a key with
+ * {@link #pack(int, int)}.
+ */
+public class OpenAddressingLongHashMap<T> implements Iterable<LongKeyEntry<T>> {
+
+    private static final int DEFAULT_INITIAL_CAPACITY = 16;
+    private static final float DEFAULT_LOAD_FACTOR = 0.7f;
+
+    private static final long EMPTY = -1;
+
+    private final int initialCapacity;
+    private final float loadFactor;
+
+    private int capacity;
+
+    private int size;
+
+    private int threshold;
+
+    private int bitMask;
+
+    private long[] keys;
+
+    private T[] values;
+
+    public OpenAddressingLongHashMap() {
+        this(DEFAULT_INITIAL_CAPACITY, DEFAULT_LOAD_FACTOR);
+    }
+
+    public OpenAddressingLongHashMap(int initialCapacity, float loadFactor) {
+        this.initialCapacity = initialCapacity < 0 ? DEFAULT_INITIAL_CAPACITY : initialCapacity;
+        this.loadFactor = (loadFactor < 0 || loadFactor > 1) ? DEFAULT_LOAD_FACTOR : loadFactor;
+        init();
+    }
+
+    /**
+     * Packs two non-negative ints into a key.
+     */
+    public static long pack(int high, int low) {
+        return ((long) high << 32) | (low & 0xFFFFFFFFL);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void init() {
+        capacity = 1;
+        while (capacity < initialCapacity) capacity <<= 1;
+
+        bitMask = capacity - 1;
+
+        threshold = (int) (loadFactor * capacity);
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+
+        values = (T[]) new Object[capacity];
+
+        size = 0;
+    }
+
+    public T get(long key) {
+        int index = hash(key);
+        while (keys[index] != EMPTY && keys[index] != key) {
+            index = (index + 1) & bitMask;
+        }
+        return values[index];
+    }
+
+    public T put(long key, T value) {
+        int index = hash(key);
+
+        while (true) {
+            if (keys[index] == EMPTY) {
+                keys[index] = key;
+                values[index] = value;
+                size++;
+                if (size >= threshold) {
+                    rehash();
+                }
+                return null;
+            } else if (keys[index] == key) {
+                T oldValue = values[index];
+                values[index] = value;
+                return oldValue;
+            }
+            index = (index + 1) & bitMask;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        init();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void rehash() {
+        capacity <<= 1;
+        bitMask = capacity - 1;
+
+        long[] oldKeys = keys;
+        T[] oldValues = values;
+
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        values = (T[]) new Object[capacity];
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int index = hash(oldKeys[i]);
+                while (keys[index] != EMPTY) {
+                    index = (index + 1) & bitMask;
+                }
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+
+        threshold = (int) (loadFactor * capacity);
+    }
+
+    /**
+     * The finalization step of the 64-bit MurmurHash3, which distributes the bits of both halves of the key.
+     */
+    private int hash(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key & bitMask;
+    }
+
+    public Iterable<T> values() {
+        return () -> new Iterator<>() {
+            final Iterator<LongKeyEntry<T>> it = iterator();
+
+            @Override
+            public boolean hasNext() {
+                return it.hasNext();
+            }
+
+            @Override
+            public T next() {
+                return it.next().getValue();
+            }
+        };
+    }
+
+    @Override
+    public Iterator<LongKeyEntry<T>> iterator() {
+        return new Iterator<>() {
+            int count = 0;
+            int i = 0;
+
+            @Override
+            public boolean hasNext() {
+                return count < size;
+            }
+
+            @Override
+            public LongKeyEntry<T> next() {
+                while (keys[i] == EMPTY) i++;
+                count++;
+                i++;
+                return new LongKeyEntry<>(keys[i - 1], values[i - 1]);
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        for (LongKeyEntry<T> entry : this) {
+            if (sb.length() > 1) sb.append(", ");
+            sb.append(entry);
+        }
+        return sb.append("}").toString();
+    }
+}
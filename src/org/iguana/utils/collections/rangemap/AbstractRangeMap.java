@@ -14,4 +14,16 @@ public abstract class AbstractRangeMap<T> implements RangeMap<T> {
         this.values = values;
     }
 
+    public int[] getPoints() {
+        return points;
+    }
+
+    public boolean[] getStarts() {
+        return starts;
+    }
+
+    public List<T>[] getValues() {
+        return values;
+    }
+
 }
@@ -88,6 +88,26 @@ public class RangeMapBuilder<T> {
         return new BinarySearchRangeMap<>(result.keys, result.starts, result.vals);
     }
 
+    /**
+     * Builds a range map that keeps the points of the ranges, also if there is only one range, so that the points
+     * can be stored and the range map built again with {@link #fromPoints}. There should be at least one range.
+     */
+    public AbstractRangeMap<T> buildPointsRangeMap() {
+        Result<T> result = getResult(getPoints(ranges, values));
+        return fromPoints(result.keys, result.starts, result.vals);
+    }
+
+    /**
+     * Builds a range map from the points of its ranges, as returned by {@link AbstractRangeMap#getPoints()}, whether
+     * each point is the start of a range, and the values from each point to the next one.
+     */
+    public static <T> AbstractRangeMap<T> fromPoints(int[] points, boolean[] starts, List<T>[] values) {
+        if (points.length < 8) {
+            return new LinearSerachRangeMap<>(points, starts, values);
+        }
+        return new BinarySearchRangeMap<>(points, starts, values);
+    }
+
     private List<Point<T>> getPoints(List<Range> ranges, List<T> values) {
         List<Point<T>> points = new ArrayList<>(ranges.size() * 2);
 
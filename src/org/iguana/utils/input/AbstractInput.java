@@ -6,7 +6,7 @@ import java.util.Arrays;
 public abstract class AbstractInput implements Input {
 
     private int[] lineStarts;
-    private final int lineCount;
+    private int lineCount;
     private final URI uri;
 
     public AbstractInput(int lineCount, URI uri) {
@@ -14,6 +14,13 @@ public abstract class AbstractInput implements Input {
         this.uri = uri;
     }
 
+    /**
+     * Creates an input whose line count is calculated on the first call to {@link #getLineCount()}.
+     */
+    public AbstractInput(URI uri) {
+        this(-1, uri);
+    }
+
     @Override
     public int getLineNumber(int inputIndex) {
         checkBounds(inputIndex, length());
@@ -58,9 +65,20 @@ public abstract class AbstractInput implements Input {
 
     @Override
     public int getLineCount() {
+        if (lineCount < 0) {
+            lineCount = countLines();
+        }
         return this.lineCount;
     }
 
+    protected int countLines() {
+        int count = 1;
+        for (int i = 0; i < length(); i++) {
+            if (charAt(i) == '\n') count++;
+        }
+        return count;
+    }
+
     @Override
     public URI getURI() {
         return uri;
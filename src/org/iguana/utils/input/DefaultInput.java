@@ -1,6 +1,7 @@
 package org.iguana.utils.input;
 
 import java.net.URI;
+import java.nio.CharBuffer;
 
 public class DefaultInput extends AbstractInput {
 
@@ -27,4 +28,9 @@ public class DefaultInput extends AbstractInput {
         return s.substring(start, end);
     }
 
+    @Override
+    public CharSequence slice(int start, int end) {
+        return CharBuffer.wrap(s, start, Math.min(end, s.length()));
+    }
+
 }
@@ -30,10 +30,13 @@ package org.iguana.utils.input;
 import java.io.File;
 import java.io.IOException;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 
 import static java.lang.Character.isHighSurrogate;
 import static java.lang.Character.isLowSurrogate;
@@ -63,16 +66,64 @@ public interface Input {
         return createInput(Files.readString(Paths.get(file.toURI()), charset), file.toURI());
     }
 
+    /**
+     * Creates an input backed by the memory-mapped contents of the file, so that the characters are not copied to
+     * the heap. This is meant for very large files. UTF-8, US-ASCII and ISO-8859-1 encoded files are mapped; for
+     * other charsets the file is read as in {@link #fromFile(File, Charset)}.
+     */
+    static Input fromMappedFile(File file, Charset charset) throws IOException {
+        if (!isByteBufferCharset(charset)) {
+            return fromFile(file, charset);
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE - 1) {
+                throw new IOException("File is too large to be used as input: " + file);
+            }
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return fromByteBuffer(buffer, charset, file.toURI());
+        }
+    }
+
+    static Input fromMappedFile(File file) throws IOException {
+        return fromMappedFile(file, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Creates an input that reads its characters from the given buffer, from index 0 to the limit of the buffer.
+     * The buffer should not be modified while the input is in use. Supported charsets are UTF-8, US-ASCII and
+     * ISO-8859-1. A UTF-8 buffer is not scanned up front: a malformed sequence is reported when the characters
+     * around it are first read, by an {@link java.io.UncheckedIOException}.
+     */
+    static Input fromByteBuffer(ByteBuffer buffer, Charset charset, URI uri) {
+        if (!isByteBufferCharset(charset)) {
+            throw new IllegalArgumentException("Unsupported charset: " + charset);
+        }
+        if (charset.equals(StandardCharsets.UTF_8)) {
+            return new UTF8BufferInput(buffer, uri);
+        }
+        return new Latin1BufferInput(buffer, uri);
+    }
+
+    private static boolean isByteBufferCharset(Charset charset) {
+        return charset.equals(StandardCharsets.UTF_8)
+               || charset.equals(StandardCharsets.US_ASCII)
+               || charset.equals(StandardCharsets.ISO_8859_1);
+    }
+
     static Input empty() {
         return fromString("");
     }
 
     static Input createInput(String s, URI uri) {
         boolean hasSurrogatePair = false;
+        boolean isLatin1 = true;
 
         int lineCount = 0;
         for (int i = 0; i < s.length(); i++) {
             char c = s.charAt(i);
+            if (c > 0xFF) {
+                isLatin1 = false;
+            }
             if (isHighSurrogate(c)) {
                 hasSurrogatePair = true;
             }
@@ -81,6 +132,10 @@ public interface Input {
             }
         }
 
+        if (isLatin1) {
+            return Latin1Input.create(s, lineCount + 1, uri);
+        }
+
         if (!hasSurrogatePair) {
             return new DefaultInput(s, lineCount + 1, uri);
         }
@@ -182,6 +237,15 @@ public interface Input {
 
     String subString(int start, int end);
 
+    /**
+     * Returns the characters from the given start (including) to end (excluding) indices. Inputs whose characters
+     * are all in the Basic Multilingual Plane return a view of the input, other inputs return a copy, as in
+     * {@link #subString(int, int)}.
+     */
+    default CharSequence slice(int start, int end) {
+        return subString(start, end);
+    }
+
     int getLineCount();
 
     URI getURI();
@@ -0,0 +1,43 @@
+package org.iguana.utils.input;
+
+import java.util.Objects;
+
+/**
+ * A view of the characters of an input, from start (including) to end (excluding), for inputs in which every input
+ * character is a single UTF-16 char.
+ */
+class InputSlice implements CharSequence {
+
+    private final Input input;
+    private final int start;
+    private final int end;
+
+    InputSlice(Input input, int start, int end) {
+        Objects.checkFromToIndex(start, end, input.length() - 1);
+        this.input = input;
+        this.start = start;
+        this.end = end;
+    }
+
+    @Override
+    public int length() {
+        return end - start;
+    }
+
+    @Override
+    public char charAt(int index) {
+        Objects.checkIndex(index, end - start);
+        return (char) input.charAt(start + index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        Objects.checkFromToIndex(start, end, this.end - this.start);
+        return new InputSlice(input, this.start + start, this.start + end);
+    }
+
+    @Override
+    public String toString() {
+        return input.subString(start, end);
+    }
+}
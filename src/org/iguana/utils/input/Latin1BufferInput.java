@@ -0,0 +1,60 @@
+package org.iguana.utils.input;
+
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * An input backed by a byte buffer, e.g., a memory-mapped file, in which every byte is one character (ISO-8859-1,
+ * or ASCII). The characters are not copied to the heap.
+ */
+class Latin1BufferInput extends AbstractInput {
+
+    private final ByteBuffer buffer;
+
+    private final int size;
+
+    Latin1BufferInput(ByteBuffer buffer, URI uri) {
+        super(uri);
+        this.buffer = buffer;
+        this.size = buffer.limit();
+    }
+
+    @Override
+    public int charAt(int index) {
+        if (index == size) return EOF;
+        return buffer.get(index) & 0xFF;
+    }
+
+    @Override
+    public int length() {
+        return size + 1;
+    }
+
+    @Override
+    public String subString(int start, int end) {
+        if (end > size) end = size;
+        byte[] bytes = new byte[end - start];
+        buffer.duplicate().position(start).get(bytes);
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    @Override
+    public CharSequence slice(int start, int end) {
+        return new InputSlice(this, start, Math.min(end, size));
+    }
+
+    @Override
+    protected int countLines() {
+        int count = 1;
+        for (int i = 0; i < size; i++) {
+            if (buffer.get(i) == '\n') count++;
+        }
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        return subString(0, size);
+    }
+}
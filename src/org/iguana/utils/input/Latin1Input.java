@@ -0,0 +1,62 @@
+package org.iguana.utils.input;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A compact input for strings whose characters are all smaller than 256, storing one byte per character.
+ * The last element of the array is a sentinel for EOF, so that for ASCII characters, which are stored as
+ * non-negative bytes, {@link #charAt(int)} is a single array load.
+ */
+class Latin1Input extends AbstractInput {
+
+    private final byte[] characters;
+
+    private final int last;
+
+    Latin1Input(byte[] characters, int lineCount, URI uri) {
+        super(lineCount, uri);
+        this.characters = characters;
+        this.last = characters.length - 1;
+    }
+
+    static Latin1Input create(String s, int lineCount, URI uri) {
+        byte[] characters = new byte[s.length() + 1];
+        for (int i = 0; i < s.length(); i++) {
+            characters[i] = (byte) s.charAt(i);
+        }
+        characters[s.length()] = (byte) EOF;
+        return new Latin1Input(characters, lineCount, uri);
+    }
+
+    @Override
+    public int charAt(int index) {
+        int c = characters[index];
+        if (c >= 0) return c;
+        return index == last ? EOF : c & 0xFF;
+    }
+
+    /**
+     * The length is one more than the actual characters in the input as the last input character is considered EOF.
+     */
+    @Override
+    public int length() {
+        return characters.length;
+    }
+
+    @Override
+    public String subString(int start, int end) {
+        if (end > last) end = last;
+        return new String(characters, start, end - start, StandardCharsets.ISO_8859_1);
+    }
+
+    @Override
+    public CharSequence slice(int start, int end) {
+        return new InputSlice(this, start, Math.min(end, last));
+    }
+
+    @Override
+    public String toString() {
+        return subString(0, last);
+    }
+}
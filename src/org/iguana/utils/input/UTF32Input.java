@@ -1,14 +1,10 @@
 package org.iguana.utils.input;
 
 import java.net.URI;
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.List;
 
 class UTF32Input extends AbstractInput {
 
-    private static final int EOF = -1;
-
     private final int[] characters;
 
     private final int charLength;
@@ -55,23 +51,9 @@ class UTF32Input extends AbstractInput {
      *
      */
     public String subString(int start, int end) {
-        List<Character> charList = new ArrayList<>();
-
-        for (int i = start; i < end; i++) {
-            boolean isEOF = characters[i] == EOF;
-            if (isEOF) continue;
-            char[] chars = Character.toChars(characters[i]);
-            for (char c : chars) {
-                charList.add(c);
-            }
-        }
-
-        StringBuilder sb = new StringBuilder();
-        for (char c : charList) {
-            sb.append(c);
-        }
-
-        return sb.toString();
+        // The last character is EOF
+        if (end > charLength - 1) end = charLength - 1;
+        return new String(characters, start, end - start);
     }
 
     @Override
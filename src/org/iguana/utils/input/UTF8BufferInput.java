@@ -0,0 +1,255 @@
+package org.iguana.utils.input;
+
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.MalformedInputException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * An input backed by a UTF-8 encoded byte buffer, e.g., a memory-mapped file. The input is indexed by code points,
+ * as the other inputs. Instead of decoding the whole input into an array of code points, the byte offset of every
+ * 32nd code point is kept, and a code point is decoded from the nearest preceding offset. The offsets are computed,
+ * and the UTF-8 sequences are validated, on demand up to the highest index requested; a malformed sequence is
+ * reported by an {@link UncheckedIOException} wrapping a {@link MalformedInputException}.
+ *
+ * The code points before the first non-ASCII byte, and the blocks of 32 code points that are all ASCII, are read
+ * without decoding, and the last position read is cached, so reading the characters one after another is O(1).
+ */
+class UTF8BufferInput extends AbstractInput {
+
+    private static final int INDEX_SHIFT = 5;
+    private static final int INDEX_MASK = (1 << INDEX_SHIFT) - 1;
+
+    private static final long CONTINUATION_BITS = 0x8080808080808080L;
+
+    private final ByteBuffer buffer;
+
+    private final int size;
+
+    /**
+     * offsets[i] is the byte offset of the code point at index i * 32, and asciiBlocks[i] is true if the code points
+     * from index i * 32 to i * 32 + 31 are all ASCII. Both are valid for the blocks before {@link #indexed}.
+     */
+    private int[] offsets;
+    private boolean[] asciiBlocks;
+
+    /**
+     * The number of code points that are indexed, a multiple of 32 unless the whole input is indexed.
+     */
+    private volatile int indexed;
+
+    /**
+     * The byte offset of the code point at index {@link #indexed}.
+     */
+    private int indexedOffset;
+
+    /**
+     * The number of leading code points that are known to be ASCII, i.e., whose index is their byte offset.
+     */
+    private volatile int asciiPrefix;
+
+    /**
+     * The last code point read, as its index in the upper and its byte offset in the lower 32 bits, so that the
+     * pair is read and written at once.
+     */
+    private long cursor;
+
+    private int charLength = -1;
+
+    UTF8BufferInput(ByteBuffer buffer, URI uri) {
+        super(uri);
+        this.buffer = buffer;
+        this.size = buffer.limit();
+        this.offsets = new int[16];
+        this.asciiBlocks = new boolean[16];
+    }
+
+    @Override
+    public int charAt(int index) {
+        if (index >= 0 && index < asciiPrefix) return buffer.get(index);
+
+        long cursor = this.cursor;
+        int delta = index - (int) (cursor >>> 32);
+        int offset;
+        if ((delta == 0 || delta == 1) && index < indexed) {
+            offset = (int) cursor;
+            if (delta == 1) offset += sequenceLength(buffer.get(offset));
+        } else {
+            offset = byteOffset(index);
+            if (offset == size) return EOF;
+        }
+        this.cursor = (long) index << 32 | offset;
+        return decode(offset);
+    }
+
+    @Override
+    public int length() {
+        int charLength = this.charLength;
+        if (charLength < 0) {
+            charLength = countCodePoints() + 1;
+            this.charLength = charLength;
+        }
+        return charLength;
+    }
+
+    @Override
+    public String subString(int start, int end) {
+        int startOffset = byteOffset(start);
+        int endOffset = end >= length() - 1 ? size : byteOffset(end);
+        byte[] bytes = new byte[endOffset - startOffset];
+        buffer.duplicate().position(startOffset).get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public int[] calculateLineLengths(int lineCount) {
+        int[] lineStarts = new int[lineCount];
+        int charLength = length();
+        int j = 0;
+        int codePoint = -1;
+        for (int i = 0; i < size; i++) {
+            byte b = buffer.get(i);
+            if ((b & 0xC0) != 0x80) codePoint++;
+            if (b == '\n' && codePoint + 1 < charLength) {
+                lineStarts[++j] = codePoint + 1;
+            }
+        }
+        return lineStarts;
+    }
+
+    @Override
+    protected int countLines() {
+        int count = 1;
+        for (int i = 0; i < size; i++) {
+            if (buffer.get(i) == '\n') count++;
+        }
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        return subString(0, length() - 1);
+    }
+
+    /**
+     * Returns the byte offset of the code point at the given index, or the size of the buffer for the index of EOF.
+     */
+    private int byteOffset(int index) {
+        if (index < 0) {
+            throw new IndexOutOfBoundsException("index: " + index + ", length: " + length());
+        }
+        if (index >= indexed) {
+            index(index);
+            if (index >= indexed) {
+                // The whole input is indexed
+                if (index == indexed) return size;
+                throw new IndexOutOfBoundsException("index: " + index + ", length: " + length());
+            }
+        }
+        int block = index >> INDEX_SHIFT;
+        int offset = offsets[block];
+        if (asciiBlocks[block]) return offset + (index & INDEX_MASK);
+        for (int i = index & INDEX_MASK; i > 0; i--) {
+            offset += sequenceLength(buffer.get(offset));
+        }
+        return offset;
+    }
+
+    /**
+     * Indexes and validates the blocks of code points up to and including the block of the given index, or up to
+     * the end of the input.
+     */
+    private synchronized void index(int index) {
+        while (indexed <= index && indexedOffset < size) {
+            int block = indexed >> INDEX_SHIFT;
+            if (block == offsets.length) {
+                offsets = Arrays.copyOf(offsets, block * 2);
+                asciiBlocks = Arrays.copyOf(asciiBlocks, block * 2);
+            }
+
+            int start = indexedOffset;
+            int offset = start;
+            int count = 0;
+            int firstNonAscii = -1;
+            while (count <= INDEX_MASK && offset < size) {
+                byte b = buffer.get(offset);
+                if (b >= 0) {
+                    offset++;
+                } else {
+                    if (firstNonAscii < 0) firstNonAscii = count;
+                    offset += validate(offset);
+                }
+                count++;
+            }
+
+            offsets[block] = start;
+            asciiBlocks[block] = firstNonAscii < 0;
+            indexedOffset = offset;
+            if (asciiPrefix == indexed) {
+                asciiPrefix = indexed + (firstNonAscii < 0 ? count : firstNonAscii);
+            }
+            indexed += count;
+        }
+    }
+
+    /**
+     * Returns the length of the UTF-8 sequence at the given offset, or throws an exception if it is malformed.
+     */
+    private int validate(int offset) {
+        int length = sequenceLength(buffer.get(offset));
+        if (length == 0 || offset + length > size) throw malformed(1);
+        for (int j = 1; j < length; j++) {
+            if ((buffer.get(offset + j) & 0xC0) != 0x80) throw malformed(j);
+        }
+        return length;
+    }
+
+    private static UncheckedIOException malformed(int length) {
+        return new UncheckedIOException(new MalformedInputException(length));
+    }
+
+    /**
+     * Counts the bytes that are not continuation bytes (10xxxxxx), eight bytes at a time.
+     */
+    private int countCodePoints() {
+        int count = size;
+        int i = 0;
+        for (; i + Long.BYTES <= size; i += Long.BYTES) {
+            long word = buffer.getLong(i);
+            count -= Long.bitCount(word & ~(word << 1) & CONTINUATION_BITS);
+        }
+        for (; i < size; i++) {
+            if ((buffer.get(i) & 0xC0) == 0x80) count--;
+        }
+        return count;
+    }
+
+    private int decode(int offset) {
+        int b = buffer.get(offset) & 0xFF;
+        if (b < 0x80) return b;
+        if (b < 0xE0) return (b & 0x1F) << 6 | continuation(offset + 1);
+        if (b < 0xF0) return (b & 0x0F) << 12 | continuation(offset + 1) << 6 | continuation(offset + 2);
+        return (b & 0x07) << 18 | continuation(offset + 1) << 12 | continuation(offset + 2) << 6
+               | continuation(offset + 3);
+    }
+
+    private int continuation(int offset) {
+        return buffer.get(offset) & 0x3F;
+    }
+
+    /**
+     * Returns the number of bytes of the UTF-8 sequence starting with the given byte, or 0 if the byte cannot start
+     * a sequence.
+     */
+    private static int sequenceLength(byte lead) {
+        int b = lead & 0xFF;
+        if (b < 0x80) return 1;
+        if (b < 0xC2) return 0;
+        if (b < 0xE0) return 2;
+        if (b < 0xF0) return 3;
+        if (b < 0xF5) return 4;
+        return 0;
+    }
+}
@@ -0,0 +1,119 @@
+package org.iguana.grammar;
+
+import org.iguana.grammar.runtime.RuntimeGrammar;
+import org.iguana.grammar.symbol.Nonterminal;
+import org.iguana.grammar.transformation.GrammarTransformer;
+import org.iguana.parser.IguanaParser;
+import org.iguana.util.Configuration;
+import org.iguana.utils.input.Input;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.iguana.iggy.IggyParserUtils.fromIggyGrammar;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class GrammarCacheTest {
+
+    private static final String EXPRESSIONS = "E = E '+' E > E '*' E | '(' E ')' | [0-9]+\n";
+
+    private final Configuration config = Configuration.load();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void equalGrammarsShareTheGrammarGraph() {
+        GrammarCache cache = new GrammarCache(10);
+        GrammarGraph grammarGraph = cache.getGrammarGraph(fromIggyGrammar(EXPRESSIONS), config);
+        assertSame(grammarGraph, cache.getGrammarGraph(fromIggyGrammar(EXPRESSIONS), config));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+
+        Configuration otherConfig = Configuration.builder().setMatcherType(Configuration.MatcherType.DENSE_DFA).build();
+        assertNotSame(grammarGraph, cache.getGrammarGraph(fromIggyGrammar(EXPRESSIONS), otherConfig));
+        assertNotSame(grammarGraph, cache.getGrammarGraph(fromIggyGrammar("E = E '+' E | [0-9]+\n"), config));
+        assertEquals(3, cache.getMisses());
+    }
+
+    @Test
+    public void leastRecentlyUsedGrammarIsEvicted() {
+        GrammarCache cache = new GrammarCache(1);
+        Grammar grammar1 = fromIggyGrammar(EXPRESSIONS);
+        Grammar grammar2 = fromIggyGrammar("E = E '+' E | [0-9]+\n");
+        GrammarGraph grammarGraph = cache.getGrammarGraph(grammar1, config);
+        cache.getGrammarGraph(grammar2, config);
+        assertNotSame(grammarGraph, cache.getGrammarGraph(grammar1, config));
+        assertEquals(0, cache.getHits());
+        assertEquals(3, cache.getMisses());
+    }
+
+    @Test
+    public void parseWithCachedGrammar() {
+        GrammarCache cache = new GrammarCache(10);
+        Grammar grammar = fromIggyGrammar(EXPRESSIONS);
+        Input input = Input.fromString("1+2*(3+4)");
+        IguanaParser expected = new IguanaParser(grammar, config);
+        expected.parse(input, Nonterminal.withName("E"));
+        for (int i = 0; i < 3; i++) {
+            IguanaParser parser = new IguanaParser(grammar, config, cache);
+            parser.parse(input, Nonterminal.withName("E"));
+            assertEquals(expected.getParseTree(), parser.getParseTree());
+            assertEquals(expected.getFinalGrammar(), parser.getFinalGrammar());
+        }
+        assertEquals(2, cache.getHits());
+    }
+
+    @Test
+    public void grammarsAreSharedThroughTheDirectory() throws IOException {
+        Grammar grammar = fromIggyGrammar(EXPRESSIONS);
+        RuntimeGrammar runtimeGrammar = new GrammarCache(10, directory).getRuntimeGrammar(grammar);
+        assertEquals(GrammarTransformer.transform(grammar.toRuntimeGrammar()), runtimeGrammar);
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(1, files.filter(path -> path.toString().endsWith(".snapshot")).count());
+        }
+
+        GrammarCache cache = new GrammarCache(10, directory);
+        assertEquals(runtimeGrammar, cache.getRuntimeGrammar(fromIggyGrammar(EXPRESSIONS)));
+        IguanaParser parser = new IguanaParser(grammar, config, cache);
+        parser.parse(Input.fromString("1+2*(3+4)"), Nonterminal.withName("E"));
+        assertTrue(parser.getParseTree() != null);
+    }
+
+    @Test
+    public void unreadableSnapshotIsReplaced() throws IOException {
+        Grammar grammar = fromIggyGrammar(EXPRESSIONS);
+        new GrammarCache(10, directory).getRuntimeGrammar(grammar);
+        Path snapshot;
+        try (Stream<Path> files = Files.list(directory)) {
+            snapshot = files.findFirst().get();
+        }
+        Files.write(snapshot, new byte[] {1, 2, 3});
+
+        RuntimeGrammar runtimeGrammar = new GrammarCache(10, directory).getRuntimeGrammar(grammar);
+        assertEquals(GrammarTransformer.transform(grammar.toRuntimeGrammar()), runtimeGrammar);
+        assertTrue(Files.size(snapshot) > 3);
+    }
+
+    @Test
+    public void unwritableDirectoryIsNotAnError() throws IOException {
+        // The directory of the cache cannot be created, as its parent is a file
+        Path file = Files.createFile(directory.resolve("file"));
+        Grammar grammar = fromIggyGrammar(EXPRESSIONS);
+        GrammarCache cache = new GrammarCache(10, file.resolve("cache"));
+        RuntimeGrammar runtimeGrammar = cache.getRuntimeGrammar(grammar);
+        assertEquals(GrammarTransformer.transform(grammar.toRuntimeGrammar()), runtimeGrammar);
+        assertSame(runtimeGrammar, cache.getRuntimeGrammar(grammar));
+
+        IguanaParser parser = new IguanaParser(grammar, config, cache);
+        parser.parse(Input.fromString("1+2*(3+4)"), Nonterminal.withName("E"));
+        assertTrue(parser.getParseTree() != null);
+    }
+}
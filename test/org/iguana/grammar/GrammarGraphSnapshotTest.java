@@ -0,0 +1,110 @@
+package org.iguana.grammar;
+
+import org.iguana.grammar.runtime.RuntimeGrammar;
+import org.iguana.grammar.slot.NonterminalGrammarSlot;
+import org.iguana.grammar.symbol.Nonterminal;
+import org.iguana.grammar.transformation.GrammarTransformer;
+import org.iguana.iggy.gen.IggyGrammar;
+import org.iguana.parser.IguanaParser;
+import org.iguana.parser.ParseResult;
+import org.iguana.parser.options.ParseOptions;
+import org.iguana.util.Configuration;
+import org.iguana.utils.input.Input;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class GrammarGraphSnapshotTest {
+
+    private static RuntimeGrammar grammar;
+    private static byte[] snapshot;
+    private static Input input;
+    private static Nonterminal start;
+
+    @BeforeAll
+    public static void writeSnapshot() throws IOException {
+        grammar = GrammarTransformer.transform(IggyGrammar.getGrammar().toRuntimeGrammar());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        GrammarGraphSnapshot.write(grammar, out);
+        snapshot = out.toByteArray();
+
+        try (InputStream in = GrammarGraphSnapshotTest.class.getResourceAsStream("/Iguana.iggy")) {
+            input = Input.fromString(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        start = Nonterminal.withName(IggyGrammar.getGrammar().getStartSymbols().get(0).getName());
+    }
+
+    @Test
+    public void readSnapshot() throws IOException {
+        GrammarGraphSnapshot loaded = GrammarGraphSnapshot.read(new ByteArrayInputStream(snapshot));
+        assertEquals(grammar, loaded.getGrammar());
+        assertEquals(GrammarGraphSnapshot.getDFARegularExpressions(grammar), loaded.getAutomata().keySet());
+    }
+
+    @Test
+    public void sameLookAheadTests() throws IOException {
+        GrammarGraph expected = GrammarGraphBuilder.from(grammar, Configuration.load());
+        GrammarGraph graph = GrammarGraphSnapshot.read(new ByteArrayInputStream(snapshot))
+            .toGrammarGraph(Configuration.load());
+
+        assertEquals(expected.getBodySlotsCount(), graph.getBodySlotsCount());
+        for (int i = 0; i < expected.getBodySlotsCount(); i++) {
+            assertEquals(expected.getBodyGrammarSlots().get(i).getFollowTest().toString(),
+                graph.getBodyGrammarSlots().get(i).getFollowTest().toString());
+        }
+
+        assertEquals(expected.getNonterminalSlotsCount(), graph.getNonterminalSlotsCount());
+        for (int i = 0; i < expected.getNonterminalSlotsCount(); i++) {
+            NonterminalGrammarSlot expectedSlot = expected.getNonterminalGrammarSlots().get(i);
+            NonterminalGrammarSlot slot = graph.getNonterminalGrammarSlots().get(i);
+            assertEquals(expectedSlot.getFollowTest().toString(), slot.getFollowTest().toString());
+            for (int c = -1; c < 0x100; c++) {
+                assertEquals(expectedSlot.getLookAheadTest().get(c).toString(),
+                    slot.getLookAheadTest().get(c).toString());
+            }
+        }
+    }
+
+    @Test
+    public void sameParseResult() throws IOException {
+        assertSameParseResult(Configuration.load());
+    }
+
+    @Test
+    public void sameParseResultWithDenseDFAMatchers() throws IOException {
+        assertSameParseResult(Configuration.builder().setMatcherType(Configuration.MatcherType.DENSE_DFA).build());
+    }
+
+    @Test
+    public void invalidSnapshot() throws IOException {
+        assertThrows(IOException.class, () -> GrammarGraphSnapshot.read(new ByteArrayInputStream(new byte[] {1, 2})));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (DataOutputStream data = new DataOutputStream(new GZIPOutputStream(out))) {
+            data.writeInt(42);
+        }
+        assertThrows(IOException.class, () -> GrammarGraphSnapshot.read(new ByteArrayInputStream(out.toByteArray())));
+    }
+
+    private void assertSameParseResult(Configuration config) throws IOException {
+        GrammarGraphSnapshot loaded = GrammarGraphSnapshot.read(new ByteArrayInputStream(snapshot));
+        ParseOptions options = new ParseOptions.Builder().build();
+        ParseResult expected = new IguanaParser(grammar, config).tryParse(input, start, options);
+        ParseResult result = new IguanaParser(loaded, config).tryParse(input, start, options);
+        assertTrue(expected.isSuccess());
+        assertTrue(result.isSuccess());
+        assertEquals(expected.getStatistics(), result.getStatistics());
+        assertEquals(expected.getParseTree(), result.getParseTree());
+    }
+}
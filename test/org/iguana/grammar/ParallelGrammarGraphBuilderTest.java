@@ -0,0 +1,75 @@
+package org.iguana.grammar;
+
+import org.iguana.grammar.runtime.RuntimeGrammar;
+import org.iguana.grammar.slot.GrammarSlot;
+import org.iguana.grammar.slot.NonterminalGrammarSlot;
+import org.iguana.grammar.symbol.Nonterminal;
+import org.iguana.grammar.symbol.Start;
+import org.iguana.grammar.transformation.GrammarTransformer;
+import org.iguana.iggy.gen.IggyGrammar;
+import org.iguana.parser.IguanaRecognizer;
+import org.iguana.util.Configuration;
+import org.iguana.util.Configuration.GraphConstructionImpl;
+import org.iguana.utils.input.Input;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ParallelGrammarGraphBuilderTest {
+
+    private final Configuration sequential = Configuration.builder()
+        .setGraphConstructionImpl(GraphConstructionImpl.SEQUENTIAL)
+        .build();
+
+    private final Configuration parallel = Configuration.builder()
+        .setGraphConstructionImpl(GraphConstructionImpl.PARALLEL)
+        .build();
+
+    @Test
+    public void sameGrammarGraph() {
+        RuntimeGrammar grammar = GrammarTransformer.transform(IggyGrammar.getGrammar().toRuntimeGrammar());
+        GrammarGraph expected = GrammarGraphBuilder.from(grammar, sequential);
+        GrammarGraph grammarGraph = GrammarGraphBuilder.from(grammar, parallel);
+
+        assertEquals(slots(expected.getNonterminalGrammarSlots()), slots(grammarGraph.getNonterminalGrammarSlots()));
+        assertEquals(slots(expected.getTerminalGrammarSlots()), slots(grammarGraph.getTerminalGrammarSlots()));
+        assertEquals(slots(expected.getBodyGrammarSlots()), slots(grammarGraph.getBodyGrammarSlots()));
+
+        for (NonterminalGrammarSlot slot : expected.getNonterminalGrammarSlots()) {
+            NonterminalGrammarSlot parallelSlot = grammarGraph.getStartSlot(slot.getNonterminal());
+            assertEquals(slot.getFollowTest().toString(), parallelSlot.getFollowTest().toString());
+        }
+
+        assertNotNull(grammarGraph.getTimings());
+        assertTrue(grammarGraph.getTimings().getTotalTime() > 0);
+    }
+
+    @Test
+    public void sameRecognition() throws IOException {
+        String text;
+        try (InputStream in = getClass().getResourceAsStream("/Iguana.iggy")) {
+            text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        Start start = IggyGrammar.getGrammar().getStartSymbols().get(0);
+        Input input = Input.fromString(text);
+
+        IguanaRecognizer expected = new IguanaRecognizer(IggyGrammar.getGrammar(), sequential);
+        IguanaRecognizer recognizer = new IguanaRecognizer(IggyGrammar.getGrammar(), parallel);
+        assertTrue(expected.recognize(input, Nonterminal.withName(start.getName())));
+        assertTrue(recognizer.recognize(input, Nonterminal.withName(start.getName())));
+        assertEquals(expected.getStatistics(), recognizer.getStatistics());
+        assertNotNull(recognizer.getGrammarGraphTimings());
+    }
+
+    private static List<String> slots(List<? extends GrammarSlot> slots) {
+        return slots.stream().map(slot -> slot.getId() + ":" + slot).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,75 @@
+package org.iguana.gss;
+
+import org.iguana.grammar.Grammar;
+import org.iguana.grammar.symbol.Nonterminal;
+import org.iguana.grammar.symbol.Start;
+import org.iguana.iggy.gen.IggyGrammar;
+import org.iguana.parser.IguanaParser;
+import org.iguana.parser.ParseResult;
+import org.iguana.parser.options.ParseOptions;
+import org.iguana.util.Configuration;
+import org.iguana.utils.input.Input;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.iguana.iggy.IggyParserUtils.fromIggyGrammar;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CompactGSSNodeTest {
+
+    private final Configuration defaultGSS = Configuration.builder()
+        .setGSSImpl(Configuration.GSSImpl.DEFAULT)
+        .build();
+
+    private final Configuration compactGSS = Configuration.builder()
+        .setGSSImpl(Configuration.GSSImpl.COMPACT)
+        .build();
+
+    private final ParseOptions options = new ParseOptions.Builder().build();
+
+    /**
+     * The left-recursive nonterminal creates cyclic dummy edges, which are processed before the other edges.
+     */
+    @Test
+    public void ambiguousExpressions() {
+        Grammar grammar = fromIggyGrammar("E = E '+' E | E '*' E | '(' E ')' | [0-9]+\n");
+        assertSameResult(grammar, Nonterminal.withName("E"), Input.fromString("1+2*3+(4*5+6)*7+8"));
+    }
+
+    @Test
+    public void iggyGrammar() throws IOException {
+        String text;
+        try (InputStream in = getClass().getResourceAsStream("/Iguana.iggy")) {
+            text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        Start start = IggyGrammar.getGrammar().getStartSymbols().get(0);
+        assertSameResult(IggyGrammar.getGrammar(), Nonterminal.withName(start.getName()), Input.fromString(text));
+    }
+
+    @Test
+    public void parseError() {
+        Grammar grammar = fromIggyGrammar("E = E '+' E | E '*' E | '(' E ')' | [0-9]+\n");
+        Nonterminal start = Nonterminal.withName("E");
+        Input input = Input.fromString("1+2*(3+4");
+
+        ParseResult expected = new IguanaParser(grammar, defaultGSS).tryParse(input, start, options);
+        ParseResult result = new IguanaParser(grammar, compactGSS).tryParse(input, start, options);
+        assertFalse(expected.isSuccess());
+        assertFalse(result.isSuccess());
+        assertEquals(expected.getParseError().getInputIndex(), result.getParseError().getInputIndex());
+    }
+
+    private void assertSameResult(Grammar grammar, Nonterminal start, Input input) {
+        ParseResult expected = new IguanaParser(grammar, defaultGSS).tryParse(input, start, options);
+        ParseResult result = new IguanaParser(grammar, compactGSS).tryParse(input, start, options);
+        assertTrue(expected.isSuccess());
+        assertTrue(result.isSuccess());
+        assertEquals(expected.getStatistics(), result.getStatistics());
+        assertEquals(expected.getSPPF().getRightExtent(), result.getSPPF().getRightExtent());
+    }
+}
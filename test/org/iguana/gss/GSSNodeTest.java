@@ -62,7 +62,7 @@ public class GSSNodeTest {
         assertFalse(gssNode.pop(input, endGrammarSlot, terminalNode01, runtime));
         assertEquals(1, gssNode.countPoppedElements());
         assertTrue(nonterminalNode1.isAmbiguous());
-        assertEquals(2, resultOps.getPackedNodes(nonterminalNode1).size());
+        assertEquals(2, nonterminalNode1.getPackedNodes().size());
 
         // Pop ("a", 0, 2)
         assertTrue(gssNode.pop(input, endGrammarSlot, terminalNode02, runtime));
@@ -71,7 +71,7 @@ public class GSSNodeTest {
         it.next(); // (A, 0, 1)
         NonterminalNode nonterminalNode2 = (NonterminalNode) it.next(); // (A, 0, 2)
         assertFalse(nonterminalNode2.isAmbiguous());
-        assertEquals(2, resultOps.getPackedNodes(nonterminalNode1).size());
+        assertEquals(2, nonterminalNode1.getPackedNodes().size());
 
         // Pop ("a", 0, 3)
         assertTrue(gssNode.pop(input, endGrammarSlot, terminalNode03, runtime));
@@ -80,7 +80,7 @@ public class GSSNodeTest {
         it.next(); // (A, 0, 1)
         it.next(); // (A, 0, 2)
         NonterminalNode nonterminalNode3 = (NonterminalNode) it.next();
-        assertEquals(2, resultOps.getPackedNodes(nonterminalNode1).size());
+        assertEquals(2, nonterminalNode1.getPackedNodes().size());
         assertFalse(nonterminalNode2.isAmbiguous());
         assertFalse(nonterminalNode3.isAmbiguous());
 
@@ -88,7 +88,7 @@ public class GSSNodeTest {
         assertFalse(gssNode.pop(input, endGrammarSlot, terminalNode02, runtime));
         assertEquals(3, gssNode.countPoppedElements());
         assertTrue(nonterminalNode2.isAmbiguous());
-        assertEquals(2, resultOps.getPackedNodes(nonterminalNode1).size());
-        assertEquals(2, resultOps.getPackedNodes(nonterminalNode2).size());
+        assertEquals(2, nonterminalNode1.getPackedNodes().size());
+        assertEquals(2, nonterminalNode2.getPackedNodes().size());
     }
 }
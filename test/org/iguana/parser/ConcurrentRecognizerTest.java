@@ -0,0 +1,93 @@
+package org.iguana.parser;
+
+import org.iguana.grammar.Grammar;
+import org.iguana.grammar.runtime.RuntimeGrammar;
+import org.iguana.grammar.symbol.Nonterminal;
+import org.iguana.grammar.transformation.GrammarTransformer;
+import org.iguana.parser.options.RecognizerOptions;
+import org.iguana.utils.input.Input;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.iguana.iggy.IggyParserUtils.fromIggyGrammar;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ConcurrentRecognizerTest {
+
+    private final Grammar grammar = fromIggyGrammar(
+        "E = E '*' E > E '+' E | '(' E ')' | [0-9]+\n");
+
+    private final Nonterminal start = Nonterminal.withName("E");
+
+    @Test
+    public void sharedRecognizer() throws Exception {
+        IguanaRecognizer recognizer = new IguanaRecognizer(grammar);
+
+        List<String> inputs = new ArrayList<>();
+        List<Boolean> expected = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            StringBuilder sb = new StringBuilder();
+            for (int j = 0; j < i % 20 + 1; j++) {
+                sb.append(j % 2 == 0 ? "(1+2)*" : "34+");
+            }
+            sb.append(i % 3 == 0 ? "+" : "5");
+            inputs.add(sb.toString());
+            expected.add(recognizer.recognize(Input.fromString(sb.toString()), start));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (String input : inputs) {
+                futures.add(executor.submit(() -> recognizer.recognize(Input.fromString(input), start)));
+            }
+            for (int i = 0; i < inputs.size(); i++) {
+                assertEquals(expected.get(i), futures.get(i).get(), inputs.get(i));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void statisticsOfConcurrentParses() throws Exception {
+        RuntimeGrammar runtimeGrammar = GrammarTransformer.transform(grammar.toRuntimeGrammar());
+        String input = "(1+2)*34+(5*6)+7*(8+9)";
+
+        IguanaRecognizer recognizer = new IguanaRecognizer(runtimeGrammar);
+        assertTrue(recognizer.recognize(Input.fromString(input), start));
+        RecognizerStatistics expected = recognizer.getStatistics();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<RecognizerStatistics>> futures = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                futures.add(executor.submit(() -> {
+                    IguanaRecognizer r = new IguanaRecognizer(runtimeGrammar);
+                    r.recognize(Input.fromString(input), start);
+                    return r.getStatistics();
+                }));
+            }
+            for (Future<RecognizerStatistics> future : futures) {
+                assertEquals(expected, future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void statisticsDisabled() {
+        IguanaRecognizer recognizer = new IguanaRecognizer(grammar);
+        RecognizerOptions options = new RecognizerOptions.Builder().setStatisticsEnabled(false).build();
+        assertTrue(recognizer.recognize(Input.fromString("1+2*3"), start, options));
+        assertNull(recognizer.getStatistics());
+    }
+}
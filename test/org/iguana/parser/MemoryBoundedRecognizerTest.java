@@ -0,0 +1,148 @@
+package org.iguana.parser;
+
+import org.iguana.grammar.Grammar;
+import org.iguana.grammar.GrammarGraph;
+import org.iguana.grammar.GrammarGraphBuilder;
+import org.iguana.grammar.slot.NonterminalGrammarSlot;
+import org.iguana.grammar.slot.TerminalGrammarSlot;
+import org.iguana.grammar.symbol.Nonterminal;
+import org.iguana.grammar.transformation.GrammarTransformer;
+import org.iguana.parser.descriptor.InputOrderedDescriptorScheduler;
+import org.iguana.parser.descriptor.LIFODescriptorScheduler;
+import org.iguana.parser.descriptor.SchedulingPolicy;
+import org.iguana.parser.options.ParseOptions;
+import org.iguana.parser.options.RecognizerOptions;
+import org.iguana.result.RecognizerResult;
+import org.iguana.result.RecognizerResultOps;
+import org.iguana.util.Configuration;
+import org.iguana.util.DefaultParserLogger;
+import org.iguana.utils.input.Input;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+import static org.iguana.iggy.IggyParserUtils.fromIggyGrammar;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MemoryBoundedRecognizerTest {
+
+    private final Grammar grammar = fromIggyGrammar(
+        "Stmts = Stmt+\n" +
+        "Stmt = [a-z]+ '=' E ';'\n" +
+        "E = E '+' E | E '*' E | '(' E ')' | [0-9]+\n");
+
+    private final Nonterminal start = Nonterminal.withName("Stmts");
+
+    private final RecognizerOptions inputOrdered = new RecognizerOptions.Builder()
+        .setSchedulingPolicy(SchedulingPolicy.INPUT_ORDERED)
+        .build();
+
+    private final RecognizerOptions memoryBounded = new RecognizerOptions.Builder().setMemoryBounded(true).build();
+
+    @Test
+    public void sameResultAsWithoutSweeping() {
+        Input input = Input.fromString(statements(5000));
+        IguanaRecognizer recognizer = new IguanaRecognizer(grammar);
+
+        assertTrue(recognizer.recognize(input, start, inputOrdered));
+        RecognizerStatistics expected = recognizer.getStatistics();
+
+        assertTrue(recognizer.recognize(input, start, memoryBounded));
+        assertEquals(expected, recognizer.getStatistics());
+    }
+
+    @Test
+    public void parseErrorAtLastPosition() {
+        String text = statements(3000);
+        int errorIndex = text.length() / 2;
+        while (!Character.isDigit(text.charAt(errorIndex - 1))) errorIndex++;
+        Input input = Input.fromString(text.substring(0, errorIndex) + "=" + text.substring(errorIndex));
+        IguanaRecognizer recognizer = new IguanaRecognizer(grammar);
+
+        assertFalse(recognizer.recognize(input, start, inputOrdered));
+        assertEquals(errorIndex, recognizer.getParseError().getInputIndex());
+
+        assertFalse(recognizer.recognize(input, start, memoryBounded));
+        assertEquals(errorIndex, recognizer.getParseError().getInputIndex());
+    }
+
+    @Test
+    public void notSupportedForParsing() {
+        ParseOptions.Builder builder = new ParseOptions.Builder();
+        assertThrows(IllegalArgumentException.class, () -> builder.setMemoryBounded(true));
+        ParseOptions options = builder.setMemoryBounded(false).build();
+        assertFalse(options.isMemoryBounded());
+        assertEquals(SchedulingPolicy.LIFO, options.getSchedulingPolicy());
+    }
+
+    @Test
+    public void tablesAreSwept() {
+        GrammarGraph grammarGraph = GrammarGraphBuilder.from(GrammarTransformer.transform(grammar.toRuntimeGrammar()),
+            Configuration.load());
+        IguanaRuntime<RecognizerResult> runtime = new IguanaRuntime<>(Configuration.load(),
+            new RecognizerResultOps(), new DefaultParserLogger(Configuration.load()),
+            new InputOrderedDescriptorScheduler<>());
+        runtime.enableSweeping();
+
+        Input input = Input.fromString(statements(5000));
+        RecognizerResult result = runtime.run(input, start, grammarGraph, Collections.emptyMap(), false);
+        assertNotNull(result);
+
+        int gssNodes = 0;
+        for (NonterminalGrammarSlot slot : grammarGraph.getNonterminalGrammarSlots()) {
+            gssNodes += runtime.countGSSNodes(slot);
+        }
+        int terminalNodes = 0;
+        for (TerminalGrammarSlot slot : grammarGraph.getTerminalGrammarSlots()) {
+            terminalNodes += runtime.countTerminalNodes(slot);
+        }
+
+        // Only the nodes created after the last sweep remain
+        assertTrue(gssNodes < runtime.getStatistics().getGssNodesCount() / 10);
+        assertTrue(terminalNodes < input.length() / 10);
+    }
+
+    @Test
+    public void tokenCacheIsSwept() {
+        Configuration config = Configuration.builder().setScannerImpl(Configuration.ScannerImpl.SHARED_DFA).build();
+        GrammarGraph grammarGraph = GrammarGraphBuilder.from(GrammarTransformer.transform(grammar.toRuntimeGrammar()),
+            config);
+        IguanaRuntime<RecognizerResult> runtime = new IguanaRuntime<>(config, new RecognizerResultOps(),
+            new DefaultParserLogger(config), new InputOrderedDescriptorScheduler<>());
+        runtime.enableSweeping();
+
+        Input input = Input.fromString(statements(5000));
+        assertNotNull(runtime.run(input, start, grammarGraph, Collections.emptyMap(), false));
+        assertNotNull(runtime.getTokenCache());
+        assertTrue(runtime.getTokenCache().getScannedPositionsCount() < input.length() / 10);
+    }
+
+    @Test
+    public void sweepingRequiresInputOrderedScheduler() {
+        IguanaRuntime<RecognizerResult> runtime = new IguanaRuntime<>(Configuration.load(),
+            new RecognizerResultOps(), new DefaultParserLogger(Configuration.load()), new LIFODescriptorScheduler<>());
+        assertThrows(IllegalStateException.class, runtime::enableSweeping);
+    }
+
+    /**
+     * Statements of the form a=1+2*(3+4); where every hundredth statement has a long number, which spans more input
+     * positions than the initial buckets of the scheduler.
+     */
+    private static String statements(int count) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            sb.append((char) ('a' + i % 26)).append("=");
+            if (i % 100 == 0) {
+                sb.append("1".repeat(1000));
+            } else {
+                sb.append(i).append("+").append(i % 7).append("*(").append(i % 13).append("+").append(i % 5).append(")");
+            }
+            sb.append(";");
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,63 @@
+package org.iguana.parser;
+
+import org.iguana.grammar.symbol.Nonterminal;
+import org.iguana.parser.options.ParseOptions;
+import org.iguana.parser.options.ParseTreeOptions;
+import org.iguana.parsetree.ParseTreeNode;
+import org.iguana.utils.input.Input;
+import org.junit.jupiter.api.Test;
+
+import static org.iguana.iggy.IggyParserUtils.fromIggyGrammar;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class ParseResultTest {
+
+    private final IguanaParser parser = new IguanaParser(fromIggyGrammar(
+        "S = A+\n" +
+        "A = 'a' | '{' A* '}'\n" +
+        "layout L = [\\ ]*\n"));
+
+    private final Nonterminal start = Nonterminal.withName("S");
+
+    private final Input input = Input.fromString("a { a a } a");
+
+    private final ParseTreeOptions withLayout = new ParseTreeOptions.Builder().setIgnoreLayout(false).build();
+
+    private final ParseTreeOptions lazy = new ParseTreeOptions.Builder().setLazy(true).build();
+
+    private final ParseTreeOptions parallel = new ParseTreeOptions.Builder().setParallel(true).build();
+
+    @Test
+    public void parseTreesPerOptions() {
+        assertParseTreesPerOptions(parser.tryParse(input, start, ParseOptions.defaultOptions()));
+    }
+
+    @Test
+    public void parseTreesPerOptionsOfArena() {
+        ParseOptions compact = new ParseOptions.Builder().setCompactSPPF(true).build();
+        assertParseTreesPerOptions(parser.tryParse(input, start, compact));
+    }
+
+    private void assertParseTreesPerOptions(ParseResult result) {
+        ParseTreeNode tree = result.getParseTree();
+        assertEquals("a{aa}a", tree.getText());
+        assertSame(tree, result.getParseTree());
+
+        // The options that change the tree do not return the cached tree
+        ParseTreeNode treeWithLayout = result.getParseTree(withLayout);
+        assertEquals("a { a a } a", treeWithLayout.getText());
+        assertSame(treeWithLayout, result.getParseTree(withLayout));
+        assertSame(tree, result.getParseTree());
+
+        // Lazy trees are not cached, and do not replace the eager tree
+        ParseTreeNode lazyTree = result.getParseTree(lazy);
+        assertEquals(tree, lazyTree);
+        assertNotSame(lazyTree, result.getParseTree(lazy));
+        assertSame(tree, result.getParseTree());
+
+        // The parallel conversion creates the same tree as the sequential one
+        assertSame(tree, result.getParseTree(parallel));
+    }
+}
@@ -0,0 +1,92 @@
+package org.iguana.parser;
+
+import org.iguana.grammar.Grammar;
+import org.iguana.grammar.symbol.Nonterminal;
+import org.iguana.iggy.gen.IggyGrammar;
+import org.iguana.parser.options.ParseOptions;
+import org.iguana.parser.options.RecognizerOptions;
+import org.iguana.utils.input.Input;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import static org.iguana.iggy.IggyParserUtils.fromIggyGrammar;
+
+/**
+ * Parses and recognizes the Iggy grammar file with the Iggy grammar, and a long expression with an ambiguous
+ * expression grammar. Run with the main method from the test classpath, compiled with the benchmarks profile
+ * (mvn test-compile -Pbenchmarks); the allocation rates are reported by the gc profiler.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParserBenchmark {
+
+    @Param({"IGGY", "EXPRESSIONS"})
+    private String grammar;
+
+    private IguanaParser parser;
+
+    private Nonterminal start;
+
+    private Input input;
+
+    private final ParseOptions parseOptions = new ParseOptions.Builder().setStatisticsEnabled(false).build();
+
+    private final RecognizerOptions recognizerOptions = new RecognizerOptions.Builder()
+        .setStatisticsEnabled(false)
+        .build();
+
+    @Setup
+    public void setup() throws IOException {
+        if (grammar.equals("IGGY")) {
+            Grammar iggyGrammar = IggyGrammar.getGrammar();
+            parser = new IguanaParser(iggyGrammar);
+            start = Nonterminal.withName(iggyGrammar.getStartSymbols().get(0).getName());
+            try (InputStream in = getClass().getResourceAsStream("/Iguana.iggy")) {
+                input = Input.fromString(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        } else {
+            parser = new IguanaParser(fromIggyGrammar("E = E '+' E | E '*' E | '(' E ')' | [0-9]+\n"));
+            start = Nonterminal.withName("E");
+            StringBuilder sb = new StringBuilder("1");
+            for (int i = 0; i < 30; i++) {
+                sb.append(i % 2 == 0 ? "+" : "*").append(i % 10 == 0 ? "(2+3)" : i);
+            }
+            input = Input.fromString(sb.toString());
+        }
+    }
+
+    @Benchmark
+    public Object parse() {
+        return parser.tryParse(input, start, parseOptions).getSPPF();
+    }
+
+    @Benchmark
+    public boolean recognize() {
+        return parser.recognize(input, start, recognizerOptions);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ParserBenchmark.class.getSimpleName()).build()).run();
+    }
+}
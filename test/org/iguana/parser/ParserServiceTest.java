@@ -0,0 +1,67 @@
+package org.iguana.parser;
+
+import org.iguana.grammar.symbol.Nonterminal;
+import org.iguana.parser.options.ParseOptions;
+import org.iguana.utils.input.Input;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.iguana.iggy.IggyParserUtils.fromIggyGrammar;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ParserServiceTest {
+
+    private final IguanaParser parser = new IguanaParser(fromIggyGrammar(
+        "start Stmts = Stmt+\n" +
+        "Stmt = Id '=' E ';'\n" +
+        "E = E '*' E > E '+' E | '(' E ')' | Id | [0-9]+\n" +
+        "regex Id = [a-z]+\n" +
+        "layout regex L = [\\ \\n]*\n"));
+
+    private final Nonterminal start = Nonterminal.withName("Stmts");
+
+    @Test
+    public void parseAll() {
+        List<Input> inputs = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            StringBuilder sb = new StringBuilder();
+            for (int j = 0; j <= i % 10; j++) {
+                if (j > 0) sb.append("\n");
+                sb.append("x = (a + ").append(j).append(") * b;");
+            }
+            inputs.add(Input.fromString(sb.toString()));
+        }
+
+        try (ParserService service = ParserService.create(parser, 4)) {
+            List<CompletableFuture<ParseResult>> futures =
+                service.parseAll(inputs, start, ParseOptions.defaultOptions());
+
+            for (int i = 0; i < inputs.size(); i++) {
+                ParseResult result = futures.get(i).join();
+                ParseResult expected = parser.tryParse(inputs.get(i), start, ParseOptions.defaultOptions());
+                assertTrue(result.isSuccess());
+                assertNull(result.getParseError());
+                assertEquals(expected.getStatistics(), result.getStatistics());
+                assertEquals(expected.getParseTree(), result.getParseTree());
+            }
+        }
+    }
+
+    @Test
+    public void parseError() {
+        try (ParserService service = ParserService.create(parser, 2)) {
+            ParseResult result = service.parse(Input.fromString("x = (a + 1;"), start).join();
+            assertFalse(result.isSuccess());
+            assertNotNull(result.getParseError());
+            assertNull(result.getSPPF());
+            assertNull(result.getParseTree());
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package org.iguana.parser;
+
+import org.iguana.grammar.Grammar;
+import org.iguana.grammar.GrammarGraph;
+import org.iguana.grammar.GrammarGraphBuilder;
+import org.iguana.grammar.runtime.RuntimeGrammar;
+import org.iguana.grammar.symbol.Nonterminal;
+import org.iguana.grammar.transformation.GrammarTransformer;
+import org.iguana.iggy.gen.IggyGrammar;
+import org.iguana.parser.options.ParseOptions;
+import org.iguana.parser.options.ParseTreeOptions;
+import org.iguana.parsetree.DefaultParseTreeBuilder;
+import org.iguana.parsetree.ParseTreeNode;
+import org.iguana.result.ParserResultOps;
+import org.iguana.sppf.NonPackedNode;
+import org.iguana.sppf.NonterminalNode;
+import org.iguana.sppf.SPPFArena;
+import org.iguana.sppf.SPPFNode;
+import org.iguana.traversal.IterativeAmbiguousSPPFToParseTreeVisitor;
+import org.iguana.traversal.IterativeSPPFToParseTreeVisitor;
+import org.iguana.traversal.exception.AmbiguityException;
+import org.iguana.util.Configuration;
+import org.iguana.util.DefaultParserLogger;
+import org.iguana.utils.input.Input;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import static org.iguana.iggy.IggyParserUtils.fromIggyGrammar;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SPPFArenaTest {
+
+    private final ParseOptions compactOptions = new ParseOptions.Builder().setCompactSPPF(true).build();
+
+    @Test
+    public void ambiguousExpressions() {
+        Grammar grammar = fromIggyGrammar("E = E '+' E | E '*' E | '(' E ')' | [0-9]+\n");
+        Nonterminal start = Nonterminal.withName("E");
+        Input input = Input.fromString("1+2*3+(4*5+6)*7+8");
+
+        ParseResult expected = new IguanaParser(grammar).tryParse(input, start, new ParseOptions.Builder().build());
+        SPPFArena arena = SPPFArena.of(expected.getSPPF());
+
+        // Only the nodes reachable from the root are added
+        assertEquals(countReachableNodes(expected.getSPPF()), arena.getNodesCount());
+        assertTrue(arena.getAmbiguousNodesCount() > 0);
+        assertEquals(0, arena.getLeftExtent(arena.getRoot()));
+        assertEquals(input.length() - 1, arena.getRightExtent(arena.getRoot()));
+
+        NonPackedNode root = arena.materialize(arena.getRoot());
+        assertTrue(root instanceof NonterminalNode);
+        assertEquals(expected.getSPPF().getGrammarSlot(), root.getGrammarSlot());
+
+        // All the nodes are reachable from the root, and the packed nodes of ambiguous nodes are in the arena
+        for (int node = 0; node < arena.getNodesCount(); node++) {
+            NonPackedNode materialized = arena.materialize(node);
+            assertEquals(arena.getLeftExtent(node), materialized.getLeftExtent());
+            assertEquals(arena.getRightExtent(node), materialized.getRightExtent());
+            assertEquals(arena.isAmbiguous(node), materialized.isAmbiguous());
+            if (arena.isAmbiguous(node)) {
+                int packedNodes = 1;
+                for (int p = arena.getSecondPackedNode(node); p != SPPFArena.NONE; p = arena.getNextPackedNode(node, p)) {
+                    packedNodes++;
+                }
+                assertEquals(packedNodes, materialized.getPackedNodes().size());
+            }
+        }
+
+        ParseResult compact = new IguanaParser(grammar).tryParse(input, start, compactOptions);
+        assertNotNull(compact.getSPPFArena());
+        assertThrows(AmbiguityException.class, compact::getParseTree);
+        ParseTreeOptions ambiguities = new ParseTreeOptions.Builder().setAllowAmbiguities(true).build();
+        assertEquals(expected.getParseTree(ambiguities), compact.getParseTree(ambiguities));
+    }
+
+    @Test
+    public void iggyGrammar() throws IOException {
+        String text;
+        try (InputStream in = getClass().getResourceAsStream("/Iguana.iggy")) {
+            text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        Grammar grammar = IggyGrammar.getGrammar();
+        Nonterminal start = Nonterminal.withName(grammar.getStartSymbols().get(0).getName());
+        Input input = Input.fromString(text);
+
+        ParseResult expected = new IguanaParser(grammar).tryParse(input, start, new ParseOptions.Builder().build());
+        ParseResult compact = new IguanaParser(grammar).tryParse(input, start, compactOptions);
+        assertTrue(compact.isSuccess());
+        SPPFArena arena = compact.getSPPFArena();
+        assertEquals(countReachableNodes(expected.getSPPF()), arena.getNodesCount());
+
+        assertEquals(expected.getParseTree(), compact.getParseTree());
+        ParseTreeOptions withLayout = new ParseTreeOptions.Builder().setIgnoreLayout(false).build();
+        assertEquals(expected.getParseTree(withLayout), compact.getParseTree(withLayout));
+
+        // The materialized SPPF converts to the same parse tree
+        IterativeSPPFToParseTreeVisitor<ParseTreeNode> visitor = new IterativeSPPFToParseTreeVisitor<>(
+            new DefaultParseTreeBuilder(input), input, true);
+        assertEquals(expected.getParseTree(), compact.getSPPF().accept(visitor));
+
+        // The grammar of Iggy computes values, which are not written
+        assertThrows(IOException.class, () -> arena.write(new ByteArrayOutputStream()));
+    }
+
+    @Test
+    public void lists() {
+        Grammar grammar = fromIggyGrammar("S = A* ('b' A+)? ('c' | 'd' A)+\nA = 'a'\n");
+        Nonterminal start = Nonterminal.withName("S");
+        for (String text : new String[] {"c", "aaabaacdac"}) {
+            Input input = Input.fromString(text);
+            ParseResult expected = new IguanaParser(grammar).tryParse(input, start, ParseOptions.defaultOptions());
+            ParseResult compact = new IguanaParser(grammar).tryParse(input, start, compactOptions);
+            assertEquals(expected.getParseTree(), compact.getParseTree());
+        }
+    }
+
+    @Test
+    public void writeAndRead() throws IOException {
+        Grammar grammar = fromIggyGrammar(
+            "S = D+\n" +
+            "D = '{' A* '}' | '[' E ']'\n" +
+            "E = E '+' E | [0-9]\n" +
+            "A = 'a'\n" +
+            "layout L = [\\ \\n]*\n");
+        Nonterminal start = Nonterminal.withName("S");
+        Input input = Input.fromString("{ a a a }\n[1 + 2 + 3]\n{}");
+
+        RuntimeGrammar runtimeGrammar = GrammarTransformer.transform(grammar.toRuntimeGrammar());
+        SPPFArena arena = SPPFArena.of(parse(runtimeGrammar, start, input));
+        assertTrue(arena.getAmbiguousNodesCount() > 0);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        arena.write(out);
+
+        // The arena is read with a grammar graph built separately from the same grammar
+        GrammarGraph grammarGraph = GrammarGraphBuilder.from(runtimeGrammar, Configuration.load());
+        SPPFArena read = SPPFArena.read(new ByteArrayInputStream(out.toByteArray()), grammarGraph);
+        assertEquals(arena.getRoot(), read.getRoot());
+        assertEquals(arena.getNodesCount(), read.getNodesCount());
+        assertEquals(arena.getPackedNodesCount(), read.getPackedNodesCount());
+        assertEquals(arena.getAmbiguousNodesCount(), read.getAmbiguousNodesCount());
+        for (int node = 0; node < arena.getNodesCount(); node++) {
+            assertEquals(arena.getKind(node), read.getKind(node));
+            assertEquals(arena.getSlot(node).toString(), read.getSlot(node).toString());
+            assertEquals(arena.getLeftExtent(node), read.getLeftExtent(node));
+            assertEquals(arena.getRightExtent(node), read.getRightExtent(node));
+            assertEquals(arena.getLeftChild(node), read.getLeftChild(node));
+            assertEquals(arena.getRightChild(node), read.getRightChild(node));
+            assertEquals(arena.getSecondPackedNode(node), read.getSecondPackedNode(node));
+        }
+        for (int packedNode = 0; packedNode < arena.getPackedNodesCount(); packedNode++) {
+            assertEquals(arena.getPackedNodeSlot(packedNode).toString(), read.getPackedNodeSlot(packedNode).toString());
+            assertEquals(arena.getPackedNodeLeftChild(packedNode), read.getPackedNodeLeftChild(packedNode));
+            assertEquals(arena.getPackedNodeRightChild(packedNode), read.getPackedNodeRightChild(packedNode));
+        }
+
+        ParseTreeOptions ambiguities = new ParseTreeOptions.Builder().setAllowAmbiguities(true).build();
+        ParseResult expected = new IguanaParser(grammar).tryParse(input, start, ParseOptions.defaultOptions());
+        IterativeAmbiguousSPPFToParseTreeVisitor<ParseTreeNode> visitor =
+            new IterativeAmbiguousSPPFToParseTreeVisitor<>(new DefaultParseTreeBuilder(input), true);
+        assertEquals(expected.getParseTree(ambiguities),
+            read.materialize(read.getRoot()).accept(visitor).getValues().get(0));
+    }
+
+    @Test
+    public void readOtherData() {
+        byte[] data = "not an arena".getBytes(StandardCharsets.UTF_8);
+        GrammarGraph grammarGraph = GrammarGraphBuilder.from(
+            GrammarTransformer.transform(fromIggyGrammar("S = 'a'\n").toRuntimeGrammar()), Configuration.load());
+        assertThrows(IOException.class, () -> SPPFArena.read(new ByteArrayInputStream(data), grammarGraph));
+    }
+
+    @Test
+    public void failedParse() {
+        Grammar grammar = fromIggyGrammar("S = 'a'\n");
+        ParseResult result = new IguanaParser(grammar).tryParse(Input.fromString("b"), Nonterminal.withName("S"),
+            compactOptions);
+        assertNull(result.getSPPFArena());
+        assertNull(result.getParseTree());
+        assertNotNull(result.getParseError());
+    }
+
+    private static int countReachableNodes(NonPackedNode root) {
+        Set<NonPackedNode> nodes = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<NonPackedNode> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            NonPackedNode node = stack.pop();
+            if (!nodes.add(node)) continue;
+            List<SPPFNode> parents = node.isAmbiguous() ? new ArrayList<>(node.getPackedNodes()) : List.of(node);
+            for (SPPFNode parent : parents) {
+                for (int i = 0; i < parent.childrenCount(); i++) {
+                    stack.push((NonPackedNode) parent.getChildAt(i));
+                }
+            }
+        }
+        return nodes.size();
+    }
+
+    private static NonPackedNode parse(RuntimeGrammar grammar, Nonterminal start, Input input) {
+        GrammarGraph grammarGraph = GrammarGraphBuilder.from(grammar, Configuration.load());
+        IguanaRuntime<NonPackedNode> runtime = new IguanaRuntime<>(Configuration.load(), new ParserResultOps(),
+            new DefaultParserLogger(Configuration.load()));
+        return runtime.run(input, start, grammarGraph, Collections.emptyMap(), false);
+    }
+}
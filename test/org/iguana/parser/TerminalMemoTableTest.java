@@ -0,0 +1,116 @@
+package org.iguana.parser;
+
+import org.iguana.grammar.Grammar;
+import org.iguana.grammar.symbol.Nonterminal;
+import org.iguana.grammar.symbol.Start;
+import org.iguana.iggy.gen.IggyGrammar;
+import org.iguana.parser.options.ParseOptions;
+import org.iguana.util.Configuration;
+import org.iguana.utils.input.Input;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.iguana.iggy.IggyParserUtils.fromIggyGrammar;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TerminalMemoTableTest {
+
+    private final Configuration hashMapMemo = Configuration.builder()
+        .setTerminalMemoImpl(Configuration.TerminalMemoImpl.HASH_MAP)
+        .build();
+
+    private final Configuration denseMemo = Configuration.builder()
+        .setTerminalMemoImpl(Configuration.TerminalMemoImpl.DENSE)
+        .build();
+
+    @Test
+    public void matchesAndFailures() {
+        TerminalMemoTable table = new TerminalMemoTable(10);
+        assertEquals(TerminalMemoTable.NOT_TRIED, table.get(0));
+        assertEquals(TerminalMemoTable.NOT_TRIED, table.get(100_000));
+
+        table.put(0, 0);
+        table.put(3, 5);
+        table.put(300, TerminalMemoTable.FAILURE);
+        table.put(100_000, 7);
+        table.put(5, 1000);
+        assertEquals(0, table.get(0));
+        assertEquals(5, table.get(3));
+        assertEquals(TerminalMemoTable.NOT_TRIED, table.get(4));
+        assertEquals(TerminalMemoTable.FAILURE, table.get(300));
+        assertEquals(7, table.get(100_000));
+        assertEquals(1000, table.get(5));
+        assertEquals(5, table.size());
+
+        // A failure recorded by a condition replaces the match
+        table.recordFailure(3);
+        assertEquals(TerminalMemoTable.FAILURE, table.get(3));
+        assertEquals(5, table.size());
+    }
+
+    @Test
+    public void sweep() {
+        TerminalMemoTable table = new TerminalMemoTable(10);
+        for (int i = 0; i < 2000; i++) {
+            table.put(i, i % 3 == 0 ? TerminalMemoTable.FAILURE : 1);
+        }
+        table.sweep(1000);
+        assertEquals(TerminalMemoTable.NOT_TRIED, table.get(0));
+        assertEquals(1, table.get(1999));
+        // Only whole pages below the input index are removed
+        assertTrue(table.size() >= 1000);
+        assertTrue(table.size() < 2000);
+    }
+
+    @Test
+    public void sweepLongMatches() {
+        TerminalMemoTable table = new TerminalMemoTable(10);
+        for (int i = 0; i < 2000; i += 100) {
+            table.put(i, 1000 + i);
+        }
+        assertEquals(20, table.longMatchesCount());
+        table.sweep(1000);
+        // The long matches in the removed blocks, i.e., below 960, are removed
+        assertEquals(10, table.longMatchesCount());
+        assertEquals(TerminalMemoTable.NOT_TRIED, table.get(900));
+        assertEquals(2000, table.get(1000));
+        assertEquals(2900, table.get(1900));
+    }
+
+    @Test
+    public void ambiguousExpressions() {
+        Grammar grammar = fromIggyGrammar("E = E '+' E | E '*' E | '(' E ')' | [0-9]+\n");
+        assertSameResult(grammar, Nonterminal.withName("E"), Input.fromString("1+2*3+(4*5+6)*7+8"));
+    }
+
+    @Test
+    public void iggyGrammar() throws IOException {
+        String text;
+        try (InputStream in = getClass().getResourceAsStream("/Iguana.iggy")) {
+            text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        Start start = IggyGrammar.getGrammar().getStartSymbols().get(0);
+        Input input = Input.fromString(text);
+        assertSameResult(IggyGrammar.getGrammar(), Nonterminal.withName(start.getName()), input);
+
+        IguanaRecognizer expected = new IguanaRecognizer(IggyGrammar.getGrammar(), hashMapMemo);
+        IguanaRecognizer recognizer = new IguanaRecognizer(IggyGrammar.getGrammar(), denseMemo);
+        assertTrue(expected.recognize(input, Nonterminal.withName(start.getName())));
+        assertTrue(recognizer.recognize(input, Nonterminal.withName(start.getName())));
+        assertEquals(expected.getStatistics(), recognizer.getStatistics());
+    }
+
+    private void assertSameResult(Grammar grammar, Nonterminal start, Input input) {
+        ParseOptions options = new ParseOptions.Builder().build();
+        ParseResult expected = new IguanaParser(grammar, hashMapMemo).tryParse(input, start, options);
+        ParseResult result = new IguanaParser(grammar, denseMemo).tryParse(input, start, options);
+        assertTrue(expected.isSuccess());
+        assertTrue(result.isSuccess());
+        assertEquals(expected.getStatistics(), result.getStatistics());
+        assertEquals(expected.getSPPF().getRightExtent(), result.getSPPF().getRightExtent());
+    }
+}
@@ -0,0 +1,115 @@
+package org.iguana.parser;
+
+import org.iguana.grammar.Grammar;
+import org.iguana.grammar.symbol.Nonterminal;
+import org.iguana.grammar.symbol.Start;
+import org.iguana.iggy.gen.IggyGrammar;
+import org.iguana.parser.options.ParseOptions;
+import org.iguana.regex.Alt;
+import org.iguana.regex.Plus;
+import org.iguana.regex.RegularExpression;
+import org.iguana.regex.Seq;
+import org.iguana.regex.matcher.TokenScanner;
+import org.iguana.util.Configuration;
+import org.iguana.utils.input.Input;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.iguana.iggy.IggyParserUtils.fromIggyGrammar;
+import static org.iguana.regex.CharRange.in;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TokenCacheTest {
+
+    private final Configuration perTerminal = Configuration.builder()
+        .setScannerImpl(Configuration.ScannerImpl.PER_TERMINAL)
+        .build();
+
+    private final Configuration sharedDFA = Configuration.builder()
+        .setScannerImpl(Configuration.ScannerImpl.SHARED_DFA)
+        .build();
+
+    @Test
+    public void longestMatchPerTerminal() {
+        Map<Integer, RegularExpression> regularExpressions = new HashMap<>();
+        regularExpressions.put(1, Seq.from("if"));
+        regularExpressions.put(2, Plus.from(in('a', 'z')));
+        regularExpressions.put(3, Alt.from(Seq.from("i"), Seq.from("if=")));
+        regularExpressions.put(5, Seq.from("="));
+        TokenCache cache = new TokenCache(new TokenScanner(regularExpressions), Input.fromString("ifx if="));
+
+        assertEquals(2, cache.get(1, 0));
+        assertEquals(3, cache.get(2, 0));
+        assertEquals(1, cache.get(3, 0));
+        assertEquals(TokenCache.FAILURE, cache.get(5, 0));
+        assertEquals(1, cache.getScannedPositionsCount());
+
+        assertEquals(TokenCache.FAILURE, cache.get(1, 3));
+        assertEquals(3, cache.get(3, 4));
+        assertEquals(2, cache.get(2, 4));
+        assertEquals(1, cache.get(5, 6));
+        assertEquals(4, cache.getScannedPositionsCount());
+
+        assertTrue(cache.covers(5));
+        assertFalse(cache.covers(4));
+        assertFalse(cache.covers(6));
+    }
+
+    @Test
+    public void sweep() {
+        Map<Integer, RegularExpression> regularExpressions = new HashMap<>();
+        regularExpressions.put(1, Plus.from(in('a', 'z')));
+        TokenCache cache = new TokenCache(new TokenScanner(regularExpressions), Input.fromString("ab".repeat(2000)));
+        for (int i = 0; i < 4000; i += 10) {
+            assertEquals(4000 - i, cache.get(1, i));
+        }
+        assertEquals(400, cache.getScannedPositionsCount());
+
+        cache.sweep(3000);
+        // Only whole blocks below the input index are removed
+        assertTrue(cache.getScannedPositionsCount() >= 100);
+        assertTrue(cache.getScannedPositionsCount() < 400);
+        // A swept position is scanned again
+        assertEquals(4000, cache.get(1, 0));
+    }
+
+    @Test
+    public void ambiguousExpressions() {
+        Grammar grammar = fromIggyGrammar("E = E '+' E | E '*' E | '(' E ')' | [0-9]+\n");
+        assertSameResult(grammar, Nonterminal.withName("E"), Input.fromString("1+2*3+(4*5+6)*7+8"));
+    }
+
+    @Test
+    public void iggyGrammar() throws IOException {
+        String text;
+        try (InputStream in = getClass().getResourceAsStream("/Iguana.iggy")) {
+            text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        Start start = IggyGrammar.getGrammar().getStartSymbols().get(0);
+        Input input = Input.fromString(text);
+        assertSameResult(IggyGrammar.getGrammar(), Nonterminal.withName(start.getName()), input);
+
+        IguanaRecognizer expected = new IguanaRecognizer(IggyGrammar.getGrammar(), perTerminal);
+        IguanaRecognizer recognizer = new IguanaRecognizer(IggyGrammar.getGrammar(), sharedDFA);
+        assertTrue(expected.recognize(input, Nonterminal.withName(start.getName())));
+        assertTrue(recognizer.recognize(input, Nonterminal.withName(start.getName())));
+        assertEquals(expected.getStatistics(), recognizer.getStatistics());
+    }
+
+    private void assertSameResult(Grammar grammar, Nonterminal start, Input input) {
+        ParseOptions options = new ParseOptions.Builder().build();
+        ParseResult expected = new IguanaParser(grammar, perTerminal).tryParse(input, start, options);
+        ParseResult result = new IguanaParser(grammar, sharedDFA).tryParse(input, start, options);
+        assertTrue(expected.isSuccess());
+        assertTrue(result.isSuccess());
+        assertEquals(expected.getStatistics(), result.getStatistics());
+        assertEquals(expected.getSPPF().getRightExtent(), result.getSPPF().getRightExtent());
+    }
+}
@@ -0,0 +1,71 @@
+package org.iguana.parser.descriptor;
+
+import org.iguana.grammar.Grammar;
+import org.iguana.grammar.symbol.Nonterminal;
+import org.iguana.grammar.symbol.Start;
+import org.iguana.iggy.gen.IggyGrammar;
+import org.iguana.parser.IguanaParser;
+import org.iguana.parser.ParseResult;
+import org.iguana.parser.ParseStatistics;
+import org.iguana.parser.options.ParseOptions;
+import org.iguana.utils.input.Input;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.iguana.iggy.IggyParserUtils.fromIggyGrammar;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SchedulingPolicyTest {
+
+    /**
+     * The shape of the SPPF of an ambiguous grammar depends on the order in which descriptors are processed, so only
+     * the recognized input is compared.
+     */
+    @Test
+    public void ambiguousExpressions() {
+        Grammar grammar = fromIggyGrammar("E = E '+' E | E '*' E | '(' E ')' | [0-9]\n");
+        IguanaParser parser = new IguanaParser(grammar);
+        Input input = Input.fromString("1+2*3+(4*5+6)*7+8");
+
+        for (SchedulingPolicy policy : SchedulingPolicy.values()) {
+            ParseResult result = parse(parser, Nonterminal.withName("E"), input, policy);
+            assertTrue(result.isSuccess(), policy.toString());
+            assertEquals(input.length() - 1, result.getSPPF().getRightExtent());
+            assertTrue(result.getStatistics().getPeakWorklistSize() > 0);
+        }
+    }
+
+    @Test
+    public void iggyGrammar() throws IOException {
+        String text;
+        try (InputStream in = getClass().getResourceAsStream("/Iguana.iggy")) {
+            text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        Start start = IggyGrammar.getGrammar().getStartSymbols().get(0);
+        assertSameResult(IggyGrammar.getGrammar(), Nonterminal.withName(start.getName()), Input.fromString(text));
+    }
+
+    private static void assertSameResult(Grammar grammar, Nonterminal start, Input input) {
+        IguanaParser parser = new IguanaParser(grammar);
+        ParseResult expected = parse(parser, start, input, SchedulingPolicy.LIFO);
+        assertTrue(expected.isSuccess());
+
+        for (SchedulingPolicy policy : SchedulingPolicy.values()) {
+            ParseResult result = parse(parser, start, input, policy);
+            ParseStatistics statistics = result.getStatistics();
+            assertEquals(expected.getStatistics(), statistics, policy.toString());
+            assertTrue(statistics.getPeakWorklistSize() > 0);
+            assertTrue(statistics.getPeakWorklistSize() <= statistics.getDescriptorsCount());
+            assertEquals(expected.getSPPF().getRightExtent(), result.getSPPF().getRightExtent());
+        }
+    }
+
+    private static ParseResult parse(IguanaParser parser, Nonterminal start, Input input, SchedulingPolicy policy) {
+        ParseOptions options = new ParseOptions.Builder().setSchedulingPolicy(policy).build();
+        return parser.tryParse(input, start, options);
+    }
+}
@@ -0,0 +1,50 @@
+package org.iguana.regex.matcher;
+
+import org.iguana.grammar.runtime.RuntimeGrammar;
+import org.iguana.grammar.symbol.Start;
+import org.iguana.grammar.transformation.GrammarTransformer;
+import org.iguana.iggy.gen.IggyGrammar;
+import org.iguana.parser.IguanaParser;
+import org.iguana.regex.RegularExpression;
+import org.iguana.util.Configuration;
+import org.iguana.utils.input.Input;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+public class BytecodeMatcherTest {
+
+    @Test
+    public void iggyTokens() throws IOException {
+        Input input = Input.fromString(DenseDFAMatcherTest.readIggyGrammar());
+        RuntimeGrammar grammar = GrammarTransformer.transform(IggyGrammar.getGrammar().toRuntimeGrammar());
+
+        BytecodeMatcherFactory factory = new BytecodeMatcherFactory();
+        for (RegularExpression regex : DenseDFAMatcherTest.terminals(grammar)) {
+            Matcher expected = new DFAMatcher(regex);
+            Matcher actual = factory.getMatcher(regex);
+            assertFalse(actual instanceof DFAMatcher);
+            for (int i = 0; i < input.length(); i++) {
+                assertEquals(expected.match(input, i), actual.match(input, i), regex + " at " + i);
+            }
+        }
+    }
+
+    @Test
+    public void parseWithBytecodeMatchers() throws IOException {
+        Input input = Input.fromString(DenseDFAMatcherTest.readIggyGrammar());
+        Start start = IggyGrammar.getGrammar().getStartSymbols().get(0);
+
+        IguanaParser expected = new IguanaParser(IggyGrammar.getGrammar());
+        expected.parse(input, start);
+
+        Configuration config = Configuration.builder().setMatcherType(Configuration.MatcherType.BYTECODE).build();
+        IguanaParser parser = new IguanaParser(IggyGrammar.getGrammar(), config);
+        parser.parse(input, start);
+
+        assertEquals(expected.getParseTree(), parser.getParseTree());
+    }
+}
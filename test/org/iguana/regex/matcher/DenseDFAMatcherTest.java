@@ -0,0 +1,121 @@
+package org.iguana.regex.matcher;
+
+import org.iguana.grammar.runtime.RuntimeGrammar;
+import org.iguana.grammar.runtime.RuntimeRule;
+import org.iguana.grammar.symbol.Symbol;
+import org.iguana.grammar.symbol.Terminal;
+import org.iguana.grammar.transformation.GrammarTransformer;
+import org.iguana.iggy.gen.IggyGrammar;
+import org.iguana.regex.Alt;
+import org.iguana.regex.Char;
+import org.iguana.regex.CharRange;
+import org.iguana.regex.EOF;
+import org.iguana.regex.RegularExpression;
+import org.iguana.regex.Seq;
+import org.iguana.regex.Star;
+import org.iguana.util.serialization.JsonSerializer;
+import org.iguana.utils.input.Input;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.iguana.utils.io.FileReadUtil.readFile;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DenseDFAMatcherTest {
+
+    @Test
+    public void iggyTokens() throws IOException {
+        Input input = Input.fromString(readIggyGrammar());
+        RuntimeGrammar grammar = GrammarTransformer.transform(IggyGrammar.getGrammar().toRuntimeGrammar());
+        Set<RegularExpression> tokens = terminals(grammar);
+        assertTrue(tokens.size() > 20);
+
+        for (RegularExpression regex : tokens) {
+            Matcher expected = new DFAMatcher(regex);
+            Matcher actual = new DenseDFAMatcher(regex);
+            for (int i = 0; i < input.length(); i++) {
+                assertEquals(expected.match(input, i), actual.match(input, i), regex + " at " + i);
+            }
+        }
+    }
+
+    @Test
+    public void characterClasses() {
+        // [a-z]: letters, all other characters
+        DenseDFAMatcher matcher = new DenseDFAMatcher(Star.from(CharRange.in('a', 'z')));
+        assertEquals(2, matcher.getClassCount());
+
+        // [a-z] [0-9] | [0-9] [a-z]*: letters, digits, all other characters
+        matcher = new DenseDFAMatcher(Alt.from(
+            Seq.from(CharRange.in('a', 'z'), CharRange.in('0', '9')),
+            Seq.from(CharRange.in('0', '9'), Star.from(CharRange.in('a', 'z')))));
+        assertEquals(3, matcher.getClassCount());
+        assertEquals(2, matcher.match(Input.fromString("a1"), 0));
+        assertEquals(4, matcher.match(Input.fromString("1abc2"), 0));
+        assertEquals(-1, matcher.match(Input.fromString("Ā"), 0));
+    }
+
+    @Test
+    public void eof() {
+        RegularExpression regex = Seq.from(Char.from('a'), EOF.getInstance());
+        for (String s : new String[] {"a", "ab", ""}) {
+            Input input = Input.fromString(s);
+            assertEquals(new DFAMatcher(regex).match(input, 0), new DenseDFAMatcher(regex).match(input, 0));
+        }
+    }
+
+    static Set<RegularExpression> terminals(RuntimeGrammar grammar) {
+        Set<RegularExpression> terminals = new LinkedHashSet<>();
+        for (RuntimeRule rule : grammar.getRules()) {
+            if (rule.getBody() == null) continue;
+            for (Symbol symbol : rule.getBody()) {
+                if (symbol instanceof Terminal) {
+                    terminals.add(((Terminal) symbol).getRegularExpression());
+                }
+            }
+        }
+        return terminals;
+    }
+
+    static String readIggyGrammar() throws IOException {
+        try (InputStream in = DenseDFAMatcherTest.class.getResourceAsStream("/Iguana.iggy")) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Reads the final grammar and the inputs of each test under test/resources/grammars that has inputs. The paths
+     * are relative to the root directory of the project.
+     */
+    static void readTestGrammars(List<RuntimeGrammar> grammars, List<Input[]> inputs) throws IOException {
+        List<Path> tests;
+        try (Stream<Path> paths = Files.walk(Paths.get("test/resources/grammars"))) {
+            tests = paths.filter(path -> Files.exists(path.resolve("final_grammar.json"))).sorted()
+                .collect(Collectors.toList());
+        }
+        for (Path test : tests) {
+            File[] inputFiles = test.toFile().listFiles((dir, name) -> name.matches("input\\d*.txt"));
+            if (inputFiles == null || inputFiles.length == 0) continue;
+            Input[] testInputs = new Input[inputFiles.length];
+            for (int i = 0; i < inputFiles.length; i++) {
+                testInputs[i] = Input.fromFile(inputFiles[i]);
+            }
+            grammars.add(JsonSerializer.deserialize(readFile(test.resolve("final_grammar.json").toString()),
+                RuntimeGrammar.class));
+            inputs.add(testInputs);
+        }
+    }
+}
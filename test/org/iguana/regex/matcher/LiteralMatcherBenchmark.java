@@ -0,0 +1,98 @@
+package org.iguana.regex.matcher;
+
+import org.iguana.grammar.runtime.RuntimeGrammar;
+import org.iguana.grammar.transformation.GrammarTransformer;
+import org.iguana.iggy.gen.IggyGrammar;
+import org.iguana.utils.input.Input;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Matches every literal of a grammar at every position of its inputs, with DFA matchers and with literal matchers:
+ * the literals of the Iggy grammar on the Iggy grammar file, and the literals of each test grammar under
+ * test/resources/grammars on the inputs of the test. Run with the main method from the test classpath, compiled with
+ * the benchmarks profile (mvn test-compile -Pbenchmarks), in the root directory of the project.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LiteralMatcherBenchmark {
+
+    @Param({"DFA", "LITERAL"})
+    private String matcherType;
+
+    @Param({"IGGY", "TEST_GRAMMARS"})
+    private String grammars;
+
+    // The literal matchers of each grammar, and the inputs they are matched on
+    private final List<Matcher[]> matchers = new ArrayList<>();
+    private final List<Input[]> inputs = new ArrayList<>();
+
+    @Setup
+    public void setup() throws IOException {
+        if (grammars.equals("IGGY")) {
+            RuntimeGrammar grammar = GrammarTransformer.transform(IggyGrammar.getGrammar().toRuntimeGrammar());
+            matchers.add(literalMatchers(grammar));
+            inputs.add(new Input[] {Input.fromString(DenseDFAMatcherTest.readIggyGrammar())});
+            return;
+        }
+
+        List<RuntimeGrammar> testGrammars = new ArrayList<>();
+        DenseDFAMatcherTest.readTestGrammars(testGrammars, inputs);
+        for (RuntimeGrammar grammar : testGrammars) {
+            matchers.add(literalMatchers(grammar));
+        }
+    }
+
+    @Benchmark
+    public int matchAll() {
+        int sum = 0;
+        for (int g = 0; g < matchers.size(); g++) {
+            for (Input input : inputs.get(g)) {
+                sum += matchAll(matchers.get(g), input);
+            }
+        }
+        return sum;
+    }
+
+    private static int matchAll(Matcher[] matchers, Input input) {
+        int sum = 0;
+        for (int i = 0; i < input.length(); i++) {
+            for (Matcher matcher : matchers) {
+                sum += matcher.match(input, i);
+            }
+        }
+        return sum;
+    }
+
+    private Matcher[] literalMatchers(RuntimeGrammar grammar) {
+        return DenseDFAMatcherTest.terminals(grammar).stream()
+            .filter(LiteralMatcher::isLiteral)
+            .map(r -> matcherType.equals("DFA") ? new DFAMatcher(r) : DFAMatcherFactory.literalMatcher(r))
+            .toArray(Matcher[]::new);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(LiteralMatcherBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,62 @@
+package org.iguana.regex.matcher;
+
+import org.iguana.grammar.runtime.RuntimeGrammar;
+import org.iguana.grammar.transformation.GrammarTransformer;
+import org.iguana.iggy.gen.IggyGrammar;
+import org.iguana.regex.Char;
+import org.iguana.regex.CharRange;
+import org.iguana.regex.RegularExpression;
+import org.iguana.regex.Seq;
+import org.iguana.utils.input.Input;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LiteralMatcherTest {
+
+    @Test
+    public void isLiteral() {
+        assertTrue(LiteralMatcher.isLiteral(Seq.from("while")));
+        assertFalse(LiteralMatcher.isLiteral(Seq.from(Char.from('a'), CharRange.in('0', '9'))));
+        assertFalse(LiteralMatcher.isLiteral(Char.from('a')));
+        assertTrue(new DFAMatcherFactory().getMatcher(Seq.from("while")) instanceof LiteralMatcher);
+    }
+
+    @Test
+    public void matchAtEndOfInput() {
+        Input input = Input.fromString("xwhil");
+        LiteralMatcher matcher = DFAMatcherFactory.literalMatcher(Seq.from("while"));
+        assertEquals(-1, matcher.match(input, 1));
+        assertEquals(-1, matcher.match(input, 5));
+        assertEquals(4, DFAMatcherFactory.literalMatcher(Seq.from("whil")).match(input, 1));
+        assertEquals(4, DFAMatcherFactory.literalMatcher(Seq.from("whil")).backwards().match(input, 5));
+        assertEquals(-1, matcher.backwards().match(input, 5));
+    }
+
+    @Test
+    public void iggyLiterals() throws IOException {
+        Input input = Input.fromString(DenseDFAMatcherTest.readIggyGrammar());
+        RuntimeGrammar grammar = GrammarTransformer.transform(IggyGrammar.getGrammar().toRuntimeGrammar());
+        List<RegularExpression> literals = DenseDFAMatcherTest.terminals(grammar).stream()
+            .filter(LiteralMatcher::isLiteral)
+            .collect(Collectors.toList());
+        assertTrue(literals.size() > 10);
+
+        for (RegularExpression literal : literals) {
+            Matcher expected = new DFAMatcher(literal);
+            Matcher expectedBackwards = new DFABackwardsMatcher(literal);
+            LiteralMatcher actual = DFAMatcherFactory.literalMatcher(literal);
+            Matcher actualBackwards = actual.backwards();
+            for (int i = 0; i < input.length(); i++) {
+                assertEquals(expected.match(input, i), actual.match(input, i), literal + " at " + i);
+                assertEquals(expectedBackwards.match(input, i), actualBackwards.match(input, i), literal + " at " + i);
+            }
+        }
+    }
+}
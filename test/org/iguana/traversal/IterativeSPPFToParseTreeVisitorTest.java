@@ -0,0 +1,173 @@
+package org.iguana.traversal;
+
+import org.iguana.grammar.Grammar;
+import org.iguana.grammar.symbol.Nonterminal;
+import org.iguana.iggy.gen.IggyGrammar;
+import org.iguana.parser.IguanaParser;
+import org.iguana.parser.ParseResult;
+import org.iguana.parser.options.ParseOptions;
+import org.iguana.parser.options.ParseTreeOptions;
+import org.iguana.parsetree.DefaultParseTreeBuilder;
+import org.iguana.parsetree.ParseTreeNode;
+import org.iguana.parsetree.VisitResult;
+import org.iguana.utils.input.Input;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.iguana.iggy.IggyParserUtils.fromIggyGrammar;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IterativeSPPFToParseTreeVisitorTest {
+
+    private final ParseOptions options = new ParseOptions.Builder().build();
+
+    @Test
+    public void iggyGrammar() throws IOException {
+        String text;
+        try (InputStream in = getClass().getResourceAsStream("/Iguana.iggy")) {
+            text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        Grammar grammar = IggyGrammar.getGrammar();
+        Nonterminal start = Nonterminal.withName(grammar.getStartSymbols().get(0).getName());
+        assertSameParseTree(grammar, start, Input.fromString(text), true);
+        assertSameParseTree(grammar, start, Input.fromString(text), false);
+    }
+
+    @Test
+    public void text() {
+        Grammar grammar = fromIggyGrammar("S = A+ B\nA = 'a' | 'c'\nB = [0-9]+\nlayout L = [\\ ]*\n");
+        Input input = Input.fromString("a c a 42");
+        ParseResult result = new IguanaParser(grammar).tryParse(input, Nonterminal.withName("S"), options);
+        ParseTreeNode withLayout = result.getSPPF().accept(
+            new IterativeSPPFToParseTreeVisitor<>(new DefaultParseTreeBuilder(input), input, false));
+        assertEquals("a c a 42", withLayout.getText());
+        assertEquals("42", withLayout.childAt(2).getTextSlice().toString());
+
+        ParseTreeNode withoutLayout = result.getSPPF().accept(
+            new IterativeSPPFToParseTreeVisitor<>(new DefaultParseTreeBuilder(input), input, true));
+        assertEquals("aca42", withoutLayout.getText());
+        StringBuilder sb = new StringBuilder();
+        withoutLayout.childAt(0).appendText(sb);
+        assertEquals("aca", sb.toString());
+    }
+
+    @Test
+    public void lists() {
+        Grammar grammar = fromIggyGrammar("S = A* ('b' A+)? ('c' | 'd' A)+\nA = 'a'\n");
+        assertSameParseTree(grammar, Nonterminal.withName("S"), Input.fromString("c"), true);
+        assertSameParseTree(grammar, Nonterminal.withName("S"), Input.fromString("aaabaacdac"), true);
+        assertSameParseTree(grammar, Nonterminal.withName("S"), Input.fromString("a".repeat(10_000) + "c"), true);
+    }
+
+    @Test
+    public void parallel() throws IOException {
+        Grammar grammar = fromIggyGrammar("S = D+\nD = '{' E* '}'\nE = [a-z]+ ';'\n");
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            sb.append('{').append("abc;".repeat(i % 20)).append('}');
+        }
+        Input input = Input.fromString(sb.toString());
+        ParseResult result = new IguanaParser(grammar).tryParse(input, Nonterminal.withName("S"), options);
+        Object expected = result.getSPPF().accept(
+            new IterativeSPPFToParseTreeVisitor<>(new DefaultParseTreeBuilder(input), input, true));
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int threshold : new int[] {1, 16, 1000}) {
+                Object actual = result.getSPPF().accept(new IterativeSPPFToParseTreeVisitor<>(
+                    new DefaultParseTreeBuilder(input), input, true, pool, threshold));
+                assertEquals(expected, actual);
+            }
+
+            String text;
+            try (InputStream in = getClass().getResourceAsStream("/Iguana.iggy")) {
+                text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            Grammar iggyGrammar = IggyGrammar.getGrammar();
+            Input iggyInput = Input.fromString(text);
+            ParseResult iggyResult = new IguanaParser(iggyGrammar).tryParse(iggyInput,
+                Nonterminal.withName(iggyGrammar.getStartSymbols().get(0).getName()), options);
+            Object iggyExpected = iggyResult.getSPPF().accept(
+                new IterativeSPPFToParseTreeVisitor<>(new DefaultParseTreeBuilder(iggyInput), iggyInput, false));
+            Object iggyActual = iggyResult.getSPPF().accept(new IterativeSPPFToParseTreeVisitor<>(
+                new DefaultParseTreeBuilder(iggyInput), iggyInput, false, pool, 64));
+            assertEquals(iggyExpected, iggyActual);
+        } finally {
+            pool.shutdown();
+        }
+
+        ParseTreeOptions parallelOptions = new ParseTreeOptions.Builder().setParallel(true).build();
+        assertEquals(expected, result.getParseTree(parallelOptions));
+    }
+
+    @Test
+    public void deeplyNestedInput() throws InterruptedException {
+        int depth = 20_000;
+        Grammar grammar = fromIggyGrammar("E = '(' E ')' | 'a'\n");
+        Input input = Input.fromString("(".repeat(depth) + "a" + ")".repeat(depth));
+        ParseResult result = new IguanaParser(grammar).tryParse(input, Nonterminal.withName("E"), options);
+        assertTrue(result.isSuccess());
+
+        // The conversion runs in a thread with a small stack, the recursive visitor overflows it
+        AtomicReference<Object> parseTree = new AtomicReference<>();
+        IterativeSPPFToParseTreeVisitor<ParseTreeNode> visitor =
+            new IterativeSPPFToParseTreeVisitor<>(new DefaultParseTreeBuilder(input), input, true);
+        Thread thread = new Thread(null, () -> parseTree.set(result.getSPPF().accept(visitor)), "convert", 256 * 1024);
+        thread.start();
+        thread.join();
+
+        ParseTreeNode node = (ParseTreeNode) parseTree.get();
+        int nesting = 0;
+        while (node.children().size() == 3) {
+            node = node.childAt(1);
+            nesting++;
+        }
+        assertEquals(depth, nesting);
+        assertEquals("a", node.getText());
+    }
+
+    @Test
+    public void ambiguousInput() {
+        Grammar grammar = fromIggyGrammar("E = E '+' E | E '*' E | [0-9]+\n");
+        Input input = Input.fromString("1+2*3+4");
+        ParseResult result = new IguanaParser(grammar).tryParse(input, Nonterminal.withName("E"), options);
+
+        assertThrows(RuntimeException.class, () -> result.getSPPF().accept(
+            new IterativeSPPFToParseTreeVisitor<>(new DefaultParseTreeBuilder(input), input, true)));
+
+        VisitResult expected = result.getSPPF().accept(
+            new AmbiguousSPPFToParseTreeVisitor<>(new DefaultParseTreeBuilder(input), true));
+        VisitResult actual = result.getSPPF().accept(
+            new IterativeAmbiguousSPPFToParseTreeVisitor<>(new DefaultParseTreeBuilder(input), true));
+        assertEquals(expected.getValues(), actual.getValues());
+    }
+
+    @Test
+    public void emptyInput() {
+        Grammar grammar = fromIggyGrammar("S = A?\nA = 'a'\n");
+        Input input = Input.fromString("");
+        ParseResult result = new IguanaParser(grammar).tryParse(input, Nonterminal.withName("S"), options);
+        Object expected = result.getSPPF().accept(
+            new DefaultSPPFToParseTreeVisitor<>(new DefaultParseTreeBuilder(input), input, true));
+        Object actual = result.getSPPF().accept(
+            new IterativeSPPFToParseTreeVisitor<>(new DefaultParseTreeBuilder(input), input, true));
+        assertEquals(expected, actual);
+    }
+
+    private void assertSameParseTree(Grammar grammar, Nonterminal start, Input input, boolean ignoreLayout) {
+        ParseResult result = new IguanaParser(grammar).tryParse(input, start, options);
+        assertTrue(result.isSuccess());
+        Object expected = result.getSPPF().accept(
+            new DefaultSPPFToParseTreeVisitor<>(new DefaultParseTreeBuilder(input), input, ignoreLayout));
+        Object actual = result.getSPPF().accept(
+            new IterativeSPPFToParseTreeVisitor<>(new DefaultParseTreeBuilder(input), input, ignoreLayout));
+        assertEquals(expected, actual);
+    }
+}
@@ -0,0 +1,115 @@
+package org.iguana.traversal;
+
+import org.iguana.grammar.Grammar;
+import org.iguana.grammar.runtime.RuntimeRule;
+import org.iguana.grammar.symbol.Nonterminal;
+import org.iguana.iggy.gen.IggyGrammar;
+import org.iguana.parser.IguanaParser;
+import org.iguana.parser.ParseResult;
+import org.iguana.parser.options.ParseOptions;
+import org.iguana.parser.options.ParseTreeOptions;
+import org.iguana.parsetree.DefaultParseTreeBuilder;
+import org.iguana.parsetree.NonterminalNode;
+import org.iguana.parsetree.ParseTreeNode;
+import org.iguana.traversal.exception.AmbiguityException;
+import org.iguana.utils.input.Input;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.iguana.iggy.IggyParserUtils.fromIggyGrammar;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LazySPPFToParseTreeConverterTest {
+
+    private final ParseOptions options = new ParseOptions.Builder().build();
+
+    @Test
+    public void iggyGrammar() throws IOException {
+        String text;
+        try (InputStream in = getClass().getResourceAsStream("/Iguana.iggy")) {
+            text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        Grammar grammar = IggyGrammar.getGrammar();
+        Nonterminal start = Nonterminal.withName(grammar.getStartSymbols().get(0).getName());
+        assertSameParseTree(grammar, start, Input.fromString(text), true);
+        assertSameParseTree(grammar, start, Input.fromString(text), false);
+    }
+
+    @Test
+    public void lists() {
+        Grammar grammar = fromIggyGrammar("S = A* ('b' A+)? ('c' | 'd' A)+\nA = 'a'\n");
+        assertSameParseTree(grammar, Nonterminal.withName("S"), Input.fromString("c"), true);
+        assertSameParseTree(grammar, Nonterminal.withName("S"), Input.fromString("aaabaacdac"), true);
+    }
+
+    @Test
+    public void childrenAreConvertedOnDemand() {
+        Grammar grammar = fromIggyGrammar("S = D+\nD = '{' A* '}'\nA = 'a'\n");
+        Input input = Input.fromString("{aaa}{aaaa}{aa}");
+        ParseResult result = new IguanaParser(grammar).tryParse(input, Nonterminal.withName("S"), options);
+        assertTrue(result.isSuccess());
+
+        CountingParseTreeBuilder builder = new CountingParseTreeBuilder(input);
+        ParseTreeNode root = new LazySPPFToParseTreeConverter<>(builder, input, true).convert(result.getSPPF());
+        assertEquals(1, builder.nonterminalNodes);
+
+        // The three declarations, but not their bodies
+        ParseTreeNode declarations = root.childAt(0);
+        assertEquals(3, declarations.children().size());
+        assertEquals(4, builder.nonterminalNodes);
+
+        // Only the body of the second declaration
+        assertEquals("{aaaa}", declarations.childAt(1).getText());
+        assertEquals(8, builder.nonterminalNodes);
+
+        // The children are cached
+        declarations.childAt(1).childAt(1).children();
+        assertEquals(8, builder.nonterminalNodes);
+    }
+
+    @Test
+    public void ambiguityIsReportedOnAccess() {
+        Grammar grammar = fromIggyGrammar("S = 'x' E\nE = E '+' E | [0-9]\n");
+        Input input = Input.fromString("x1+2+3");
+        ParseResult result = new IguanaParser(grammar).tryParse(input, Nonterminal.withName("S"), options);
+
+        ParseTreeNode root = result.getParseTree(new ParseTreeOptions.Builder().setLazy(true).build());
+        assertEquals("S", root.getName());
+        // The expression is converted, the ambiguity is in its children
+        ParseTreeNode expression = root.childAt(1);
+        assertThrows(AmbiguityException.class, () -> expression.childAt(0));
+    }
+
+    private void assertSameParseTree(Grammar grammar, Nonterminal start, Input input, boolean ignoreLayout) {
+        ParseResult result = new IguanaParser(grammar).tryParse(input, start, options);
+        assertTrue(result.isSuccess());
+        Object expected = result.getSPPF().accept(
+            new IterativeSPPFToParseTreeVisitor<>(new DefaultParseTreeBuilder(input), input, ignoreLayout));
+        Object actual = new LazySPPFToParseTreeConverter<>(new DefaultParseTreeBuilder(input), input, ignoreLayout)
+            .convert(result.getSPPF());
+        assertEquals(expected, actual);
+        assertEquals(actual, expected);
+    }
+
+    private static class CountingParseTreeBuilder extends DefaultParseTreeBuilder {
+
+        private int nonterminalNodes;
+
+        CountingParseTreeBuilder(Input input) {
+            super(input);
+        }
+
+        @Override
+        public NonterminalNode nonterminalNode(RuntimeRule rule, List<ParseTreeNode> children, int leftExtent,
+                                               int rightExtent) {
+            nonterminalNodes++;
+            return super.nonterminalNode(rule, children, leftExtent, rightExtent);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package org.iguana.traversal;
+
+import org.iguana.grammar.Grammar;
+import org.iguana.grammar.runtime.RuntimeRule;
+import org.iguana.grammar.symbol.Nonterminal;
+import org.iguana.grammar.symbol.Symbol;
+import org.iguana.grammar.symbol.Terminal;
+import org.iguana.iggy.gen.IggyGrammar;
+import org.iguana.parser.IguanaParser;
+import org.iguana.parser.ParseResult;
+import org.iguana.parser.options.ParseOptions;
+import org.iguana.parser.options.ParseTreeOptions;
+import org.iguana.parsetree.ErrorNode;
+import org.iguana.parsetree.MetaSymbolNode;
+import org.iguana.parsetree.NonterminalNode;
+import org.iguana.parsetree.ParseTreeEventHandler;
+import org.iguana.parsetree.ParseTreeNode;
+import org.iguana.traversal.exception.AmbiguityException;
+import org.iguana.utils.input.Input;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.iguana.iggy.IggyParserUtils.fromIggyGrammar;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ParseTreeEventWalkerTest {
+
+    private final ParseOptions options = new ParseOptions.Builder().build();
+
+    @Test
+    public void iggyGrammar() throws IOException {
+        String text;
+        try (InputStream in = getClass().getResourceAsStream("/Iguana.iggy")) {
+            text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        Grammar grammar = IggyGrammar.getGrammar();
+        Nonterminal start = Nonterminal.withName(grammar.getStartSymbols().get(0).getName());
+        assertSameEvents(grammar, start, Input.fromString(text), true);
+        assertSameEvents(grammar, start, Input.fromString(text), false);
+    }
+
+    @Test
+    public void lists() {
+        Grammar grammar = fromIggyGrammar("S = A* ('b' A+)? ('c' | 'd' A)+\nA = 'a'\n");
+        assertSameEvents(grammar, Nonterminal.withName("S"), Input.fromString("c"), true);
+        assertSameEvents(grammar, Nonterminal.withName("S"), Input.fromString("aaabaacdac"), true);
+    }
+
+    @Test
+    public void documentOrder() {
+        Grammar grammar = fromIggyGrammar("S = A B*\nA = 'a'\nB = 'b'\n");
+        Input input = Input.fromString("abb");
+        ParseResult result = new IguanaParser(grammar).tryParse(input, Nonterminal.withName("S"), options);
+
+        List<String> events = new ArrayList<>();
+        result.walkParseTree(new RecordingHandler(events));
+
+        List<String> expected = List.of(
+            "enter S 0 3",
+            "enter A 0 1", "'a' 0 1", "exit A 0 1",
+            "enter B* 1 3",
+            "enter B 1 2", "'b' 1 2", "exit B 1 2",
+            "enter B 2 3", "'b' 2 3", "exit B 2 3",
+            "exit B* 1 3",
+            "exit S 0 3");
+        assertEquals(expected, events);
+    }
+
+    @Test
+    public void ambiguousInput() {
+        Grammar grammar = fromIggyGrammar("E = E '+' E | [0-9]\n");
+        Input input = Input.fromString("1+2+3");
+        ParseResult result = new IguanaParser(grammar).tryParse(input, Nonterminal.withName("E"), options);
+        assertThrows(AmbiguityException.class, () -> result.walkParseTree(new ParseTreeEventHandler() { }));
+    }
+
+    private void assertSameEvents(Grammar grammar, Nonterminal start, Input input, boolean ignoreLayout) {
+        ParseResult result = new IguanaParser(grammar).tryParse(input, start, options);
+        assertTrue(result.isSuccess());
+        ParseTreeOptions parseTreeOptions = new ParseTreeOptions.Builder().setIgnoreLayout(ignoreLayout).build();
+
+        List<String> expected = new ArrayList<>();
+        addEvents(result.getParseTree(parseTreeOptions), expected);
+
+        List<String> actual = new ArrayList<>();
+        result.walkParseTree(new RecordingHandler(actual), parseTreeOptions);
+        assertEquals(expected, actual);
+    }
+
+    private static void addEvents(ParseTreeNode node, List<String> events) {
+        String extents = node.getStart() + " " + node.getEnd();
+        if (node instanceof NonterminalNode || node instanceof MetaSymbolNode) {
+            events.add("enter " + node.getName() + " " + extents);
+            for (ParseTreeNode child : node.children()) {
+                addEvents(child, events);
+            }
+            events.add("exit " + node.getName() + " " + extents);
+        } else if (node instanceof ErrorNode) {
+            events.add("error " + extents);
+        } else {
+            events.add(node.getName() + " " + extents);
+        }
+    }
+
+    private static class RecordingHandler implements ParseTreeEventHandler {
+
+        private final List<String> events;
+
+        RecordingHandler(List<String> events) {
+            this.events = events;
+        }
+
+        @Override
+        public void enterNonterminal(RuntimeRule rule, int leftExtent, int rightExtent) {
+            events.add("enter " + rule.getHead().getName() + " " + leftExtent + " " + rightExtent);
+        }
+
+        @Override
+        public void exitNonterminal(RuntimeRule rule, int leftExtent, int rightExtent) {
+            events.add("exit " + rule.getHead().getName() + " " + leftExtent + " " + rightExtent);
+        }
+
+        @Override
+        public void enterMetaSymbol(Symbol symbol, int leftExtent, int rightExtent) {
+            events.add("enter " + symbol.getName() + " " + leftExtent + " " + rightExtent);
+        }
+
+        @Override
+        public void exitMetaSymbol(Symbol symbol, int leftExtent, int rightExtent) {
+            events.add("exit " + symbol.getName() + " " + leftExtent + " " + rightExtent);
+        }
+
+        @Override
+        public void terminal(Terminal terminal, int leftExtent, int rightExtent) {
+            events.add(terminal.getName() + " " + leftExtent + " " + rightExtent);
+        }
+
+        @Override
+        public void error(int leftExtent, int rightExtent) {
+            events.add("error " + leftExtent + " " + rightExtent);
+        }
+    }
+}
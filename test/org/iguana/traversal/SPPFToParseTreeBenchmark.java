@@ -0,0 +1,109 @@
+package org.iguana.traversal;
+
+import org.iguana.grammar.Grammar;
+import org.iguana.grammar.symbol.Nonterminal;
+import org.iguana.iggy.gen.IggyGrammar;
+import org.iguana.parser.IguanaParser;
+import org.iguana.parser.options.ParseOptions;
+import org.iguana.parsetree.DefaultParseTreeBuilder;
+import org.iguana.sppf.NonterminalNode;
+import org.iguana.sppf.SPPFArena;
+import org.iguana.utils.input.Input;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.iguana.iggy.IggyParserUtils.fromIggyGrammar;
+
+/**
+ * Converts the SPPF of the Iggy grammar file, of a nested expression that the recursive visitor can still convert
+ * with the default stack size, and of a long list of blocks to a parse tree with the recursive, the iterative and
+ * the parallel visitors, and from the arena of the SPPF. Run with the main method from the test classpath, compiled
+ * with the benchmarks profile (mvn test-compile -Pbenchmarks).
+ *
+ * The parallel visitor can only be faster on a machine with several cores, on a single core the parallel case
+ * measures the overhead of the fork/join tasks.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SPPFToParseTreeBenchmark {
+
+    @Param({"IGGY", "NESTED", "LIST"})
+    private String grammar;
+
+    private NonterminalNode sppf;
+
+    private SPPFArena arena;
+
+    private Input input;
+
+    @Setup
+    public void setup() throws IOException {
+        Grammar parserGrammar;
+        Nonterminal start;
+        if (grammar.equals("IGGY")) {
+            parserGrammar = IggyGrammar.getGrammar();
+            start = Nonterminal.withName(parserGrammar.getStartSymbols().get(0).getName());
+            try (InputStream in = getClass().getResourceAsStream("/Iguana.iggy")) {
+                input = Input.fromString(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        } else if (grammar.equals("LIST")) {
+            parserGrammar = fromIggyGrammar("S = D+\nD = '{' E* '}'\nE = [a-z]+ ';'\n");
+            start = Nonterminal.withName("S");
+            input = Input.fromString(("{" + "abc;".repeat(100) + "}").repeat(2000));
+        } else {
+            parserGrammar = fromIggyGrammar("E = '(' E ')' | 'a'\n");
+            start = Nonterminal.withName("E");
+            input = Input.fromString("(".repeat(200) + "a" + ")".repeat(200));
+        }
+        sppf = new IguanaParser(parserGrammar).tryParse(input, start, new ParseOptions.Builder().build()).getSPPF();
+        arena = SPPFArena.of(sppf);
+    }
+
+    @Benchmark
+    public Object recursive() {
+        return sppf.accept(new DefaultSPPFToParseTreeVisitor<>(new DefaultParseTreeBuilder(input), input, true));
+    }
+
+    @Benchmark
+    public Object iterative() {
+        return sppf.accept(new IterativeSPPFToParseTreeVisitor<>(new DefaultParseTreeBuilder(input), input, true));
+    }
+
+    @Benchmark
+    public Object parallel() {
+        return sppf.accept(new IterativeSPPFToParseTreeVisitor<>(new DefaultParseTreeBuilder(input), input, true,
+            ForkJoinPool.commonPool(), IterativeSPPFToParseTreeVisitor.DEFAULT_PARALLEL_THRESHOLD));
+    }
+
+    @Benchmark
+    public Object arena() {
+        return new SPPFArenaToParseTreeConverter<>(arena, new DefaultParseTreeBuilder(input), input, true)
+            .convert(arena.getRoot());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(SPPFToParseTreeBenchmark.class.getSimpleName()).build()).run();
+    }
+}
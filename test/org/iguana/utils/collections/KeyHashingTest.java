@@ -0,0 +1,101 @@
+package org.iguana.utils.collections;
+
+import org.iguana.grammar.GrammarGraph;
+import org.iguana.grammar.GrammarGraphBuilder;
+import org.iguana.grammar.slot.BodyGrammarSlot;
+import org.iguana.grammar.slot.NonterminalGrammarSlot;
+import org.iguana.grammar.symbol.Nonterminal;
+import org.iguana.grammar.transformation.GrammarTransformer;
+import org.iguana.iggy.gen.IggyGrammar;
+import org.iguana.parser.IguanaRuntime;
+import org.iguana.result.ParserResultOps;
+import org.iguana.sppf.NonPackedNode;
+import org.iguana.util.Configuration;
+import org.iguana.util.DefaultParserLogger;
+import org.iguana.utils.collections.key.Key;
+import org.iguana.utils.input.Input;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class KeyHashingTest {
+
+    /**
+     * The keys of intermediate nodes: for every left extent, a range of right extents.
+     */
+    @Test
+    public void extentPatterns() {
+        Object env = "env";
+        OpenAddressingHashMap<Key, Integer> intIntObject = new OpenAddressingHashMap<>();
+        OpenAddressingHashMap<Key, Integer> intInt = new OpenAddressingHashMap<>();
+        OpenAddressingHashMap<Key, Integer> intObject = new OpenAddressingHashMap<>();
+        OpenAddressingHashMap<Key, Integer> intIntIntObject = new OpenAddressingHashMap<>();
+        for (int left = 0; left < 2000; left++) {
+            for (int right = left; right < left + 50; right++) {
+                intIntObject.put(Keys.from(left, right, env), left);
+                intInt.put(Keys.from(left, right), left);
+                intObject.put(Keys.from(left * 50 + right - left, env), left);
+                intIntIntObject.put(Keys.from(left, right, left % 7, env), left);
+            }
+        }
+
+        assertEquals(100_000, intIntObject.size());
+        assertShortProbes(intIntObject);
+        assertShortProbes(intInt);
+        assertShortProbes(intObject);
+        assertShortProbes(intIntIntObject);
+    }
+
+    /**
+     * The Iggy grammar is data-dependent, so its intermediate nodes and GSS nodes are stored in tables with object
+     * keys.
+     */
+    @Test
+    public void iggyGrammarTables() throws IOException {
+        String text;
+        try (InputStream in = getClass().getResourceAsStream("/Iguana.iggy")) {
+            text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        GrammarGraph grammarGraph = GrammarGraphBuilder.from(
+            GrammarTransformer.transform(IggyGrammar.getGrammar().toRuntimeGrammar()), Configuration.load());
+        IguanaRuntime<NonPackedNode> runtime = new IguanaRuntime<>(Configuration.load(),
+            new ParserResultOps(), new DefaultParserLogger(Configuration.load()));
+        Nonterminal start = Nonterminal.withName(IggyGrammar.getGrammar().getStartSymbols().get(0).getName());
+        assertNotNull(runtime.run(Input.fromString(text), start, grammarGraph, Collections.emptyMap(), false));
+
+        List<Map<Key, ?>> tables = new ArrayList<>();
+        for (BodyGrammarSlot slot : grammarGraph.getBodyGrammarSlots()) {
+            tables.add(runtime.getIntermediateNodes(slot));
+        }
+        for (NonterminalGrammarSlot slot : grammarGraph.getNonterminalGrammarSlots()) {
+            tables.add(runtime.getGSSNodes(slot));
+        }
+
+        int keys = 0;
+        double probes = 0;
+        for (Map<Key, ?> table : tables) {
+            OpenAddressingHashMap<Key, ?> map = (OpenAddressingHashMap<Key, ?>) table;
+            keys += map.size();
+            probes += map.getAverageProbeLength() * map.size();
+        }
+        assertTrue(keys > 1000);
+        assertTrue(probes / keys < 2, "Average probe length: " + probes / keys);
+    }
+
+    private static void assertShortProbes(OpenAddressingHashMap<Key, ?> map) {
+        // With a load factor of at most 0.7 and uniformly distributed hash codes, linear probing needs less than
+        // 2.2 probes on average for a successful lookup, and about 1.5 at the average load factor
+        assertTrue(map.getAverageProbeLength() < 2, "Average probe length: " + map.getAverageProbeLength());
+        assertTrue(map.getMaxProbeLength() < 64, "Max probe length: " + map.getMaxProbeLength());
+    }
+}
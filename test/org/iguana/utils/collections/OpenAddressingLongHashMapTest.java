@@ -0,0 +1,50 @@
+package org.iguana.utils.collections;
+
+import org.iguana.utils.collections.primitive.LongKeyEntry;
+import org.iguana.utils.collections.primitive.OpenAddressingLongHashMap;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.iguana.utils.collections.primitive.OpenAddressingLongHashMap.pack;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class OpenAddressingLongHashMapTest {
+
+    @Test
+    public void testPutAndGet() {
+        OpenAddressingLongHashMap<String> map = new OpenAddressingLongHashMap<>();
+        assertNull(map.put(pack(1, 2), "a"));
+        assertNull(map.put(pack(2, 1), "b"));
+        assertEquals("a", map.put(pack(1, 2), "c"));
+
+        assertEquals("c", map.get(pack(1, 2)));
+        assertEquals("b", map.get(pack(2, 1)));
+        assertNull(map.get(pack(1, 1)));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    public void testRehash() {
+        OpenAddressingLongHashMap<Integer> map = new OpenAddressingLongHashMap<>();
+        Map<Long, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 200; i++) {
+            for (int j = i; j < i + 50; j++) {
+                map.put(pack(i, j), i * j);
+                expected.put(pack(i, j), i * j);
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        Map<Long, Integer> actual = new HashMap<>();
+        for (LongKeyEntry<Integer> entry : map) {
+            actual.put(entry.getKey(), entry.getValue());
+        }
+        assertEquals(expected, actual);
+        for (Map.Entry<Long, Integer> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), map.get(entry.getKey()));
+        }
+    }
+}
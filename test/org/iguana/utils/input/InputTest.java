@@ -235,4 +235,39 @@ public class InputTest {
         assertTrue(input5.isEndOfFile(37));
         assertTrue(input6.isEndOfFile(9));
     }
+
+    @Test
+    public void latin1Input() {
+        Input input = Input.fromString("caf\u00e9\n\u00ff");
+        assertEquals(7, input.length());
+        assertEquals('\u00e9', input.charAt(3));
+        assertEquals('\u00ff', input.charAt(5));
+        assertEquals(-1, input.charAt(6));
+        assertTrue(input.isEndOfFile(6));
+        assertEquals(2, input.getLineNumber(5));
+        assertEquals("caf\u00e9\n\u00ff", input.subString(0, 6));
+        assertThrows(IndexOutOfBoundsException.class, () -> input.charAt(7));
+    }
+
+    @Test
+    public void subStringAndSlice() {
+        String[] strings = {"big\n brother", "gr\u00fc\u00dfe \u03b1\u03b2\u03b3", "🍕\n\n🥦a\n🐰"};
+        for (String s : strings) {
+            Input input = Input.fromString(s);
+            int[] codePoints = s.codePoints().toArray();
+            for (int i = 0; i < input.length(); i++) {
+                for (int j = i; j < input.length(); j++) {
+                    String expected = new String(codePoints, i, j - i);
+                    assertEquals(expected, input.subString(i, j));
+                    assertEquals(expected, input.slice(i, j).toString());
+                }
+            }
+        }
+
+        CharSequence slice = input5.slice(3, 15);
+        assertEquals(12, slice.length());
+        assertEquals('j', slice.charAt(4));
+        assertEquals("just", slice.subSequence(4, 8).toString());
+        assertThrows(IndexOutOfBoundsException.class, () -> slice.charAt(12));
+    }
 }
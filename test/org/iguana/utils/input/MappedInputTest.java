@@ -0,0 +1,115 @@
+package org.iguana.utils.input;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.MalformedInputException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MappedInputTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void asciiFile() throws IOException {
+        String s = "a\nbc\ndefg\nhklm\nnopqrstu\nvwxyz0\n123";
+        Input input = Input.fromMappedFile(write(s, StandardCharsets.UTF_8));
+        assertTrue(input instanceof UTF8BufferInput);
+        assertSameInput(Input.fromString(s), input);
+    }
+
+    @Test
+    public void latin1File() throws IOException {
+        String s = "café\nüber\nÿ";
+        Input input = Input.fromMappedFile(write(s, StandardCharsets.ISO_8859_1), StandardCharsets.ISO_8859_1);
+        assertTrue(input instanceof Latin1BufferInput);
+        assertSameInput(Input.fromString(s), input);
+    }
+
+    @Test
+    public void utf8File() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 50; i++) {
+            sb.append("🍕\n\n🥦🦁a🍆\né€").append(i);
+        }
+        String s = sb.toString();
+        Input input = Input.fromMappedFile(write(s, StandardCharsets.UTF_8));
+        assertTrue(input instanceof UTF8BufferInput);
+        assertSameInput(Input.fromString(s), input);
+    }
+
+    @Test
+    public void utf8FileAfterAsciiPrefix() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            sb.append("abc\n").append(i);
+        }
+        for (int i = 0; i < 50; i++) {
+            sb.append("é€🍕\n").append(i).append("abcdefghijklmnopqrstuvwxyz0123456789");
+        }
+        String s = sb.toString();
+        Input expected = Input.fromString(s);
+        Input input = Input.fromMappedFile(write(s, StandardCharsets.UTF_8));
+
+        // Random access before the blocks are indexed, and backwards
+        Random random = new Random(42);
+        for (int i = 0; i < 1000; i++) {
+            int index = random.nextInt(expected.length());
+            assertEquals(expected.charAt(index), input.charAt(index));
+        }
+        for (int i = expected.length() - 1; i >= 0; i--) {
+            assertEquals(expected.charAt(i), input.charAt(i));
+        }
+        assertSameInput(expected, input);
+    }
+
+    @Test
+    public void emptyFile() throws IOException {
+        Input input = Input.fromMappedFile(write("", StandardCharsets.UTF_8));
+        assertSameInput(Input.empty(), input);
+        assertTrue(input.isEmpty());
+    }
+
+    @Test
+    public void malformedUTF8() {
+        ByteBuffer buffer = ByteBuffer.wrap(new byte[] {'a', (byte) 0xE2, (byte) 0x82});
+        Input input = Input.fromByteBuffer(buffer, StandardCharsets.UTF_8, null);
+        UncheckedIOException e = assertThrows(UncheckedIOException.class, () -> input.charAt(1));
+        assertTrue(e.getCause() instanceof MalformedInputException);
+    }
+
+    private File write(String s, Charset charset) throws IOException {
+        Path file = Files.createTempFile(dir, "input", ".txt");
+        Files.write(file, s.getBytes(charset));
+        return file.toFile();
+    }
+
+    private static void assertSameInput(Input expected, Input actual) {
+        assertEquals(expected.length(), actual.length());
+        assertEquals(expected.getLineCount(), actual.getLineCount());
+        for (int i = 0; i < expected.length(); i++) {
+            assertEquals(expected.charAt(i), actual.charAt(i));
+            assertEquals(expected.getLineNumber(i), actual.getLineNumber(i));
+            assertEquals(expected.getColumnNumber(i), actual.getColumnNumber(i));
+            assertEquals(expected.isStartOfLine(i), actual.isStartOfLine(i));
+        }
+        for (int i = 0; i < expected.length(); i += 7) {
+            assertEquals(expected.subString(i, expected.length() - 1), actual.subString(i, actual.length() - 1));
+            assertEquals(expected.subString(0, i), actual.subString(0, i));
+            assertEquals(expected.subString(0, i), actual.slice(0, i).toString());
+        }
+    }
+}